@@ -0,0 +1,129 @@
+package main.benchmark;
+
+import main.geom.Point;
+import main.mesh.Mesh;
+import main.mesh.factory.StructuredMeshes;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.bc.BoundaryCondition;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Meshes of a square or cube with a given approximate number of cells. The structured meshes are created in
+ * memory; the unstructured mesh, which has two triangles per square, is read from a temporary mesh file.
+ */
+public enum BenchmarkMesh {
+    STRUCTURED_2D(2, 1),
+    STRUCTURED_3D(3, 1),
+    UNSTRUCTURED_2D(2, 2);
+
+    private final int dim;
+    private final int cellsPerBlock;
+
+    BenchmarkMesh(int dim, int cellsPerBlock) {
+        this.dim = dim;
+        this.cellsPerBlock = cellsPerBlock;
+    }
+
+    /**
+     * @return Number of cells along each side, for a mesh with about numCells cells.
+     */
+    public int cellsPerSide(int numCells) {
+        return Math.max(2, (int) Math.round(Math.pow((double) numCells / cellsPerBlock, 1.0 / dim)));
+    }
+
+    /**
+     * Creates a mesh of the unit square or cube. The side y = 1 is the lid, all the other sides are walls.
+     */
+    public Mesh create(int numCells, int numVars, BoundaryCondition wall, BoundaryCondition lid) throws IOException {
+        return create(numCells, 1.0, numVars, wall, wall, wall, lid, wall, wall);
+    }
+
+    /**
+     * @param length Length of the sides of the square or cube.
+     * @param bcs    Boundary conditions of the sides x = 0, x = length, y = 0, y = length, z = 0 and z = length.
+     *               The last two are not used by the 2D meshes.
+     */
+    public Mesh create(int numCells, double length, int numVars, BoundaryCondition... bcs) throws IOException {
+        if (bcs.length != 6) {
+            throw new IllegalArgumentException("Boundary conditions of the six sides are required.");
+        }
+        int n = cellsPerSide(numCells);
+        switch (this) {
+            case STRUCTURED_2D:
+                return StructuredMeshes.rectangle(new Point(0, 0, 0), new Point(length, length, 0), n, n, numVars,
+                        bcs[0], bcs[1], bcs[2], bcs[3]);
+            case STRUCTURED_3D:
+                return StructuredMeshes.box(new Point(0, 0, 0), new Point(length, length, length), n, n, n,
+                        numVars, bcs[0], bcs[1], bcs[2], bcs[3], bcs[4], bcs[5]);
+            default:
+                File meshFile = File.createTempFile("benchmark_mesh", ".cfd");
+                try {
+                    try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(meshFile)))) {
+                        writeUnstructured(writer, n, length / n);
+                    }
+                    return new Unstructured2DMesh(meshFile, numVars,
+                            Map.of("xMin", bcs[0], "xMax", bcs[1], "yMin", bcs[2], "yMax", bcs[3]));
+                } finally {
+                    if (!meshFile.delete()) {
+                        System.out.println("Unable to delete temporary file: " + meshFile);
+                    }
+                }
+        }
+    }
+
+    private static void writeUnstructured(PrintWriter writer, int n, double h) {
+        writer.println("dimension = 2");
+        writer.println("mode = ASCII");
+        writer.println("points = " + (n + 1) * (n + 1));
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                writeXYZ(writer, i * h, j * h, 0.0);
+            }
+        }
+
+        writer.println("elements = " + 2 * n * n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int n0 = node(n, i, j), n1 = node(n, i + 1, j), n2 = node(n, i + 1, j + 1), n3 = node(n, i, j + 1);
+                writer.println("5 " + n0 + " " + n1 + " " + n2);
+                writer.println("5 " + n0 + " " + n2 + " " + n3);
+            }
+        }
+
+        writer.println("boundaries = 4");
+        writer.println("bname = xMin");
+        writer.println("bfaces = " + n);
+        for (int k = 0; k < n; k++) {
+            writer.println("3 " + node(n, 0, k) + " " + node(n, 0, k + 1));
+        }
+        writer.println("bname = xMax");
+        writer.println("bfaces = " + n);
+        for (int k = 0; k < n; k++) {
+            writer.println("3 " + node(n, n, k) + " " + node(n, n, k + 1));
+        }
+        writer.println("bname = yMin");
+        writer.println("bfaces = " + n);
+        for (int k = 0; k < n; k++) {
+            writer.println("3 " + node(n, k, 0) + " " + node(n, k + 1, 0));
+        }
+        writer.println("bname = yMax");
+        writer.println("bfaces = " + n);
+        for (int k = 0; k < n; k++) {
+            writer.println("3 " + node(n, k, n) + " " + node(n, k + 1, n));
+        }
+    }
+
+    private static int node(int n, int i, int j) {
+        return i * (n + 1) + j;
+    }
+
+    private static void writeXYZ(PrintWriter writer, double x, double y, double z) {
+        writer.println(x + " " + y + " " + z);
+    }
+}
@@ -0,0 +1,24 @@
+package main.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the JMH command line options with the GC profiler, which reports the
+ * allocation rate and the allocated bytes per operation of each benchmark.
+ * <pre>
+ * java -jar target/benchmarks.jar RiemannSolverBenchmark -p meshType=STRUCTURED_3D -p numCells=100000
+ * </pre>
+ */
+public class Benchmarks {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,22 @@
+package main.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Number of processed faces. In the average time mode JMH reports the time per face next to the time per
+ * operation.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class FaceCounter {
+    public long faces;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        faces = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package main.benchmark;
+
+import main.geom.Vector;
+import main.mesh.Mesh;
+import main.physics.bc.WallBC;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.time.ExplicitSSPRK3TimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import main.util.ExecutionContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lid driven cavity (Re = 100) on a benchmark mesh, set up as in the validation tests: Venkatakrishnan limited
+ * reconstruction, Rusanov fluxes, diffusion, least square gradients and SSPRK3 with local time steps. The
+ * solution is initialized with a smooth non-zero field and the residuals are calculated once, so that the
+ * gradients, limiters and ghost cells of the kernels have realistic values.
+ */
+@State(Scope.Benchmark)
+public class LidDrivenCavity {
+    @Param({"STRUCTURED_2D", "STRUCTURED_3D", "UNSTRUCTURED_2D"})
+    public BenchmarkMesh meshType;
+
+    @Param({"10000", "100000"})
+    public int numCells;
+
+    @Param({"1"})
+    public int threads;
+
+    public ArtificialCompressibilityEquations govEqn;
+    public Mesh mesh;
+    public CellNeighborCalculator neighbors;
+    public VKLimiterReconstructor reconstructor;
+    public SpaceDiscretization spaceDiscretization;
+    public TimeIntegrator timeIntegrator;
+    private ExecutionContext executionContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        double mu = 0.01;
+        govEqn = new ArtificialCompressibilityEquations(1.0, mu, new Vector(0, 0, 0));
+        mesh = meshType.create(numCells, govEqn.numVars(),
+                new WallBC(govEqn, new Vector(0, 0, 0)), new WallBC(govEqn, new Vector(1, 0, 0)));
+        executionContext = ExecutionContext.fixedThreads(threads);
+        mesh.setExecutionContext(executionContext);
+
+        new FunctionInitializer(p -> new double[]{
+                Math.sin(Math.PI * p.x) * Math.cos(Math.PI * p.y),
+                Math.sin(Math.PI * p.x) * Math.cos(Math.PI * p.y),
+                -Math.cos(Math.PI * p.x) * Math.sin(Math.PI * p.y),
+                0.1 * Math.sin(Math.PI * p.z)
+        }).initialize(mesh, govEqn);
+
+        neighbors = new FaceBasedCellNeighbors();
+        reconstructor = new VKLimiterReconstructor(mesh, govEqn, neighbors);
+        ConvectionResidual convection = new ConvectionResidual(reconstructor, new RusanovRiemannSolver(govEqn), mesh);
+        DiffusionResidual diffusion = new DiffusionResidual(mesh, govEqn);
+        spaceDiscretization = new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, neighbors),
+                List.of(convection, diffusion));
+        timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        timeIntegrator.setCourantNum(1.0);
+
+        spaceDiscretization.setResiduals();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executionContext.shutdown();
+    }
+}
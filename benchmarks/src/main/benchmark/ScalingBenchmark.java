@@ -0,0 +1,272 @@
+package main.benchmark;
+
+import main.solver.Norm;
+import main.util.ExecutionContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Strong and weak scaling of the validation scenarios over the number of threads.
+ * <p>
+ * For strong scaling each scenario is run on a mesh of a fixed size with each number of threads; for weak
+ * scaling the mesh grows with the number of threads, with a fixed number of cells per thread. Each run sets the
+ * initial solution, runs warmup iterations and then measures a fixed number of iterations (updateCellAverages()
+ * and currentTotalResidual(norm)) several times; the median time is reported. The speed-up and the parallel
+ * efficiency are calculated from the cell updates per second relative to the smallest number of threads, so
+ * they are also meaningful for weak scaling, where the meshes differ in size:
+ * <pre>
+ * speed-up   = (cell updates per second) / (cell updates per second with p0 threads) * p0
+ * efficiency = speed-up / threads
+ * </pre>
+ * The report starts with the JVM, operating system and options of the run, so that runs on different machines
+ * can be compared. For reproducible numbers use a fixed heap and pin the JVM to the measured cores:
+ * <pre>
+ * taskset -c 0-63 java -Xms8g -Xmx8g -cp target/benchmarks.jar main.benchmark.ScalingBenchmark \
+ *     --mode both --threads 1,2,4,8,16,32,64 --cells 1000000 --cells-per-thread 50000 --csv scaling.csv
+ * </pre>
+ */
+public class ScalingBenchmark {
+    public enum Mode {
+        STRONG, WEAK
+    }
+
+    public static class Result {
+        public final Scenario scenario;
+        public final Mode mode;
+        public final int threads;
+        public final int numCells;
+        public final int iterations;
+        public final double seconds;
+        public final double cellUpdatesPerSecond;
+        public double speedup;
+        public double efficiency;
+
+        Result(Scenario scenario, Mode mode, int threads, int numCells, int iterations, double seconds) {
+            this.scenario = scenario;
+            this.mode = mode;
+            this.threads = threads;
+            this.numCells = numCells;
+            this.iterations = iterations;
+            this.seconds = seconds;
+            this.cellUpdatesPerSecond = (double) numCells * iterations / seconds;
+        }
+
+        public double cellUpdatesPerSecondPerCore() {
+            return cellUpdatesPerSecond / threads;
+        }
+    }
+
+    private List<Scenario> scenarios = Arrays.asList(Scenario.values());
+    private List<Mode> modes = List.of(Mode.STRONG);
+    private int[] threads = defaultThreads();
+    private int numCells = 100_000;
+    private int cellsPerThread = 25_000;
+    private int warmupIterations = 10;
+    private int iterations = 50;
+    private int repeats = 3;
+    private boolean workerTeam = true;
+    private File csvFile;
+
+    public static void main(String[] args) throws IOException {
+        ScalingBenchmark benchmark = new ScalingBenchmark();
+        benchmark.parse(args);
+        List<Result> results = benchmark.run();
+        System.out.println();
+        System.out.print(benchmark.table(results));
+        if (benchmark.csvFile != null) {
+            Files.write(benchmark.csvFile.toPath(), benchmark.csv(results).getBytes(StandardCharsets.UTF_8));
+            System.out.println("Results written to " + benchmark.csvFile);
+        }
+    }
+
+    private static int[] defaultThreads() {
+        List<Integer> threads = new ArrayList<>();
+        for (int t = 1; t <= Runtime.getRuntime().availableProcessors(); t *= 2) {
+            threads.add(t);
+        }
+        return threads.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                System.out.println(usage());
+                System.exit(0);
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value of option " + option + "\n" + usage());
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--scenarios":
+                    scenarios = Arrays.stream(value.split(","))
+                            .map(s -> Scenario.valueOf(s.trim().toUpperCase(Locale.ROOT)))
+                            .collect(Collectors.toList());
+                    break;
+                case "--mode":
+                    modes = value.equals("both") ? List.of(Mode.STRONG, Mode.WEAK)
+                            : List.of(Mode.valueOf(value.toUpperCase(Locale.ROOT)));
+                    break;
+                case "--threads":
+                    threads = Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim()))
+                            .sorted().toArray();
+                    break;
+                case "--cells":
+                    numCells = Integer.parseInt(value);
+                    break;
+                case "--cells-per-thread":
+                    cellsPerThread = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmupIterations = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--repeats":
+                    repeats = Integer.parseInt(value);
+                    break;
+                case "--context":
+                    workerTeam = value.equals("team");
+                    if (!workerTeam && !value.equals("pool")) {
+                        throw new IllegalArgumentException("Context must be team or pool.");
+                    }
+                    break;
+                case "--csv":
+                    csvFile = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option + "\n" + usage());
+            }
+        }
+        if (threads.length == 0 || threads[0] < 1) {
+            throw new IllegalArgumentException("Numbers of threads must be positive.");
+        }
+        if (numCells < 1 || cellsPerThread < 1 || warmupIterations < 0 || iterations < 1 || repeats < 1) {
+            throw new IllegalArgumentException("Cells, iterations and repeats must be positive.");
+        }
+    }
+
+    private static String usage() {
+        return "Options:\n"
+                + "  --scenarios s1,s2,...      " + Arrays.toString(Scenario.values()) + " (default: all)\n"
+                + "  --mode strong|weak|both    Scaling to measure (default: strong)\n"
+                + "  --threads t1,t2,...        Numbers of threads (default: powers of two up to the cores)\n"
+                + "  --cells n                  Cells of the strong scaling meshes (default: 100000)\n"
+                + "  --cells-per-thread n       Cells per thread of the weak scaling meshes (default: 25000)\n"
+                + "  --warmup n                 Iterations before measuring (default: 10)\n"
+                + "  --iterations n             Measured iterations (default: 50)\n"
+                + "  --repeats n                Measurements of each run, the median is reported (default: 3)\n"
+                + "  --context team|pool        Worker team or fork/join pool threads (default: team)\n"
+                + "  --csv file                 Also write the results as CSV";
+    }
+
+    private List<Result> run() throws IOException {
+        System.out.print(environment());
+        if (threads[threads.length - 1] > Runtime.getRuntime().availableProcessors()) {
+            System.out.println("Warning: more threads than available processors.");
+        }
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            for (Mode mode : modes) {
+                List<Result> scenarioResults = new ArrayList<>();
+                if (mode == Mode.STRONG) {
+                    Scenario.Case c = scenario.create(numCells);
+                    for (int t : threads) {
+                        scenarioResults.add(measure(scenario, mode, c, t));
+                    }
+                } else {
+                    for (int t : threads) {
+                        scenarioResults.add(measure(scenario, mode, scenario.create(cellsPerThread * t), t));
+                    }
+                }
+                Result base = scenarioResults.get(0);
+                for (Result r : scenarioResults) {
+                    r.speedup = r.cellUpdatesPerSecond / base.cellUpdatesPerSecond * base.threads;
+                    r.efficiency = r.speedup / r.threads;
+                }
+                results.addAll(scenarioResults);
+            }
+        }
+        return results;
+    }
+
+    private Result measure(Scenario scenario, Mode mode, Scenario.Case c, int numThreads) {
+        ExecutionContext context = workerTeam
+                ? ExecutionContext.team(numThreads)
+                : ExecutionContext.fixedThreads(numThreads);
+        try {
+            c.mesh.setExecutionContext(context);
+            c.initialize();
+            iterate(c, warmupIterations);
+            double[] seconds = new double[repeats];
+            for (int r = 0; r < repeats; r++) {
+                long start = System.nanoTime();
+                iterate(c, iterations);
+                seconds[r] = (System.nanoTime() - start) * 1e-9;
+            }
+            Arrays.sort(seconds);
+            Result result = new Result(scenario, mode, numThreads, c.mesh.cells().size(), iterations,
+                    seconds[repeats / 2]);
+            System.out.printf(Locale.ROOT, "%-22s %-6s %4d threads %10d cells %10.3f s%n",
+                    scenario, mode, numThreads, result.numCells, result.seconds);
+            return result;
+        } finally {
+            c.mesh.setExecutionContext(ExecutionContext.COMMON_POOL);
+            context.shutdown();
+        }
+    }
+
+    private static void iterate(Scenario.Case c, int numIterations) {
+        for (int i = 0; i < numIterations; i++) {
+            c.timeIntegrator.updateCellAverages();
+            c.timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+        }
+    }
+
+    private String environment() {
+        Runtime runtime = Runtime.getRuntime();
+        return String.format(Locale.ROOT, "# java %s (%s %s)%n# %s %s %s, %d processors, max heap %d MB%n"
+                        + "# threads %s, cells %d, cells per thread %d, warmup %d, iterations %d, repeats %d, "
+                        + "context %s%n",
+                System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                System.getProperty("java.vm.version"),
+                System.getProperty("os.name"), System.getProperty("os.version"), System.getProperty("os.arch"),
+                runtime.availableProcessors(), runtime.maxMemory() / (1024 * 1024),
+                Arrays.toString(threads), numCells, cellsPerThread, warmupIterations, iterations, repeats,
+                workerTeam ? "team" : "pool");
+    }
+
+    private String table(List<Result> results) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-22s %-6s %7s %10s %10s %14s %14s %9s %10s%n", "Scenario", "Mode",
+                "Threads", "Cells", "Seconds", "Cell upd./s", "Upd./s/core", "Speed-up", "Efficiency"));
+        for (Result r : results) {
+            table.append(String.format(Locale.ROOT, "%-22s %-6s %7d %10d %10.3f %14.4g %14.4g %9.2f %9.1f%%%n",
+                    r.scenario, r.mode, r.threads, r.numCells, r.seconds, r.cellUpdatesPerSecond,
+                    r.cellUpdatesPerSecondPerCore(), r.speedup, 100 * r.efficiency));
+        }
+        return table.toString();
+    }
+
+    private String csv(List<Result> results) {
+        StringBuilder csv = new StringBuilder(environment());
+        csv.append("scenario,mode,threads,cells,iterations,seconds,cell_updates_per_second,"
+                + "cell_updates_per_second_per_core,speedup,efficiency\n");
+        for (Result r : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.6f,%.1f,%.1f,%.4f,%.4f%n",
+                    r.scenario, r.mode, r.threads, r.numCells, r.iterations, r.seconds, r.cellUpdatesPerSecond,
+                    r.cellUpdatesPerSecondPerCore(), r.speedup, r.efficiency));
+        }
+        return csv.toString();
+    }
+}
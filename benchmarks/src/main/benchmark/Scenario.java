@@ -0,0 +1,189 @@
+package main.benchmark;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Mesh;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.bc.InletBC;
+import main.physics.bc.InviscidWallVOFBC;
+import main.physics.bc.WallBC;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import main.physics.goveqn.factory.GrainGrowthFanChenEquations;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.HLLC_VOF_RiemannSolver;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.source.SourceResidual;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.ExplicitSSPRK2TimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import main.util.DoubleArray;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+import static main.util.DoubleArray.newFilledArray;
+
+/**
+ * Validation cases of the solver, set up as in their tests, on meshes of any size.
+ * <p>
+ * The Euler case of the tests uses the diamond airfoil mesh file, which cannot be refined, so here the same
+ * discretization is run in a channel with the inlet conditions of the airfoil case and a density perturbation
+ * which is convected through the channel.
+ */
+public enum Scenario {
+    LID_DRIVEN_CAVITY_2D {
+        @Override
+        public Case create(int numCells) throws IOException {
+            return lidDrivenCavity(BenchmarkMesh.STRUCTURED_2D, numCells);
+        }
+    },
+    LID_DRIVEN_CAVITY_3D {
+        @Override
+        public Case create(int numCells) throws IOException {
+            return lidDrivenCavity(BenchmarkMesh.STRUCTURED_3D, numCells);
+        }
+    },
+    SLOSHING_2D {
+        @Override
+        public Case create(int numCells) throws IOException {
+            double L = 0.1;
+            double mu = 0.0;
+            ArtificialCompressibilityVOFEquations govEqn = new ArtificialCompressibilityVOFEquations(
+                    1000.0, mu, 1.125, mu, new Vector(0, -9.81, 0), 5);
+            BoundaryCondition wall = new InviscidWallVOFBC(govEqn);
+            Mesh mesh = BenchmarkMesh.STRUCTURED_2D.create(numCells, L, govEqn.numVars(),
+                    wall, wall, wall, wall, wall, wall);
+
+            CellNeighborCalculator neighbors = new FaceBasedCellNeighbors();
+            SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                    new LeastSquareCellGradient(mesh, neighbors),
+                    List.of(new ConvectionResidual(new VKLimiterReconstructor(mesh, govEqn, neighbors),
+                                    new HLLC_VOF_RiemannSolver(govEqn), mesh),
+                            new DiffusionResidual(mesh, govEqn),
+                            new SourceResidual(mesh, govEqn)));
+            TimeIntegrator timeIntegrator = new ExplicitSSPRK2TimeIntegrator(mesh, spaceDiscretization,
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+
+            return new Case(mesh, govEqn, timeIntegrator, () -> p -> new double[]{0, 0, 0, 0,
+                    p.y <= (0.05 + 0.005 * cos(2 * PI * p.x / 0.2)) ? 1.0 : 0});
+        }
+    },
+    EULER_2D {
+        @Override
+        public Case create(int numCells) throws IOException {
+            EulerEquations govEqn = new EulerEquations(1.4, 287);
+            double u = 700.0;
+            double pressure = 101325.0;
+            BoundaryCondition inlet = new InletBC(govEqn, new InletBC.InletProperties(u, 1.0, pressure));
+            BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+            Mesh mesh = BenchmarkMesh.UNSTRUCTURED_2D.create(numCells, 1.0, govEqn.numVars(),
+                    inlet, extrapolated, extrapolated, extrapolated, extrapolated, extrapolated);
+
+            CellNeighborCalculator neighbors = new FaceBasedCellNeighbors();
+            SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                    new LeastSquareCellGradient(mesh, neighbors),
+                    List.of(new ConvectionResidual(new VKLimiterReconstructor(mesh, govEqn, neighbors),
+                            new RusanovRiemannSolver(govEqn), mesh)));
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+
+            return new Case(mesh, govEqn, timeIntegrator, () -> p -> {
+                double r2 = (p.x - 0.3) * (p.x - 0.3) + (p.y - 0.5) * (p.y - 0.5);
+                double rho = 1.0 + 0.2 * Math.exp(-r2 / 0.01);
+                return new double[]{rho, rho * u, 0.0, 0.0, pressure / (1.4 - 1.0) + rho * u * u / 2.0};
+            });
+        }
+    },
+    GRAIN_GROWTH_3D {
+        @Override
+        public Case create(int numCells) throws IOException {
+            int numOrientations = 6;
+            GrainGrowthFanChenEquations govEqn = new GrainGrowthFanChenEquations(numOrientations,
+                    1.0, 1.0, 1.0, newFilledArray(numOrientations, 0.0001), newFilledArray(numOrientations, 1));
+            BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+            Mesh mesh = BenchmarkMesh.STRUCTURED_3D.create(numCells, 1.0, govEqn.numVars(),
+                    extrapolated, extrapolated, extrapolated, extrapolated, extrapolated, extrapolated);
+
+            CellNeighborCalculator neighbors = new FaceBasedCellNeighbors();
+            SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                    new LeastSquareCellGradient(mesh, neighbors),
+                    List.of(new DiffusionResidual(mesh, govEqn), new SourceResidual(mesh, govEqn)));
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+
+            return new Case(mesh, govEqn, timeIntegrator, () -> {
+                Random random = new Random(1324);
+                return p -> DoubleArray.random(numOrientations, random, -0.1, 0.1);
+            });
+        }
+    };
+
+    /**
+     * @param numCells Approximate number of cells of the mesh.
+     */
+    public abstract Case create(int numCells) throws IOException;
+
+    /**
+     * Mesh and time integrator of a scenario, with the initial solution.
+     */
+    public static class Case {
+        public final Mesh mesh;
+        public final GoverningEquations govEqn;
+        public final TimeIntegrator timeIntegrator;
+        private final InitialSolution initialSolution;
+
+        Case(Mesh mesh, GoverningEquations govEqn, TimeIntegrator timeIntegrator, InitialSolution initialSolution) {
+            this.mesh = mesh;
+            this.govEqn = govEqn;
+            this.timeIntegrator = timeIntegrator;
+            this.initialSolution = initialSolution;
+        }
+
+        /**
+         * Sets the initial solution, which is the same on every call.
+         */
+        public void initialize() {
+            new FunctionInitializer(initialSolution.create()).initialize(mesh, govEqn);
+            timeIntegrator.setCourantNum(1.0);
+        }
+    }
+
+    /**
+     * Creates the function of the initial conservative variables, so that random initial solutions are created
+     * with a new seeded generator.
+     */
+    interface InitialSolution {
+        Function<Point, double[]> create();
+    }
+
+    private static Case lidDrivenCavity(BenchmarkMesh meshType, int numCells) throws IOException {
+        double mu = 1.0 / 100; // Re = 100
+        ArtificialCompressibilityEquations govEqn
+                = new ArtificialCompressibilityEquations(1.0, mu, new Vector(0, 0, 0));
+        Mesh mesh = meshType.create(numCells, govEqn.numVars(),
+                new WallBC(govEqn, new Vector(0, 0, 0)), new WallBC(govEqn, new Vector(1, 0, 0)));
+
+        CellNeighborCalculator neighbors = new FaceBasedCellNeighbors();
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                new LeastSquareCellGradient(mesh, neighbors),
+                List.of(new ConvectionResidual(new VKLimiterReconstructor(mesh, govEqn, neighbors),
+                                new RusanovRiemannSolver(govEqn), mesh),
+                        new DiffusionResidual(mesh, govEqn)));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+
+        return new Case(mesh, govEqn, timeIntegrator, () -> p -> new double[]{0, 0, 0, 0});
+    }
+}
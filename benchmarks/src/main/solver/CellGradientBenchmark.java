@@ -0,0 +1,39 @@
+package main.solver;
+
+import main.benchmark.CellCounter;
+import main.benchmark.LidDrivenCavity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Least square and Green-Gauss cell gradients of all the cells.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellGradientBenchmark {
+    private LeastSquareCellGradient leastSquare;
+    private GreenGaussCellGradient greenGauss;
+
+    @Setup(Level.Trial)
+    public void setUp(LidDrivenCavity cavity) {
+        leastSquare = new LeastSquareCellGradient(cavity.mesh, cavity.neighbors);
+        greenGauss = new GreenGaussCellGradient(cavity.mesh);
+    }
+
+    @Benchmark
+    public void leastSquare(LidDrivenCavity cavity, CellCounter counter) {
+        leastSquare.setupAllCells();
+        counter.cells += cavity.mesh.cells().size();
+    }
+
+    @Benchmark
+    public void greenGauss(LidDrivenCavity cavity, CellCounter counter) {
+        greenGauss.setupAllCells();
+        counter.cells += cavity.mesh.cells().size();
+    }
+}
@@ -0,0 +1,32 @@
+package main.solver;
+
+import main.benchmark.CellCounter;
+import main.benchmark.LidDrivenCavity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Least square interpolation of the solution and its gradients to all the faces. The time is reported per cell
+ * to be comparable with the other kernels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaceInterpolationBenchmark {
+    private LeastSquareFaceInterpolation faceInterpolation;
+
+    @Setup(Level.Trial)
+    public void setUp(LidDrivenCavity cavity) {
+        faceInterpolation = new LeastSquareFaceInterpolation(cavity.mesh);
+    }
+
+    @Benchmark
+    public void setupAllFaces(LidDrivenCavity cavity, CellCounter counter) {
+        faceInterpolation.setupAllFaces();
+        counter.cells += cavity.mesh.cells().size();
+    }
+}
@@ -0,0 +1,32 @@
+package main.solver;
+
+import main.benchmark.CellCounter;
+import main.benchmark.LidDrivenCavity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Residuals of all the cells and a full iteration of the SSPRK3 time integrator (three residual evaluations,
+ * time steps, stage updates and residual norms).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceDiscretizationBenchmark {
+
+    @Benchmark
+    public void setResiduals(LidDrivenCavity cavity, CellCounter counter) {
+        cavity.spaceDiscretization.setResiduals();
+        counter.cells += cavity.mesh.cells().size();
+    }
+
+    @Benchmark
+    public double[] rungeKuttaStep(LidDrivenCavity cavity, CellCounter counter) {
+        cavity.timeIntegrator.updateCellAverages();
+        counter.cells += cavity.mesh.cells().size();
+        return cavity.timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+    }
+}
@@ -0,0 +1,24 @@
+package main.solver.convection.reconstructor;
+
+import main.benchmark.CellCounter;
+import main.benchmark.LidDrivenCavity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limiter factors of the Venkatakrishnan reconstruction of all the cells.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VKLimiterReconstructorBenchmark {
+
+    @Benchmark
+    public void reconstruct(LidDrivenCavity cavity, CellCounter counter) {
+        cavity.reconstructor.reconstruct();
+        counter.cells += cavity.mesh.cells().size();
+    }
+}
@@ -0,0 +1,139 @@
+package main.solver.convection.riemann;
+
+import main.benchmark.BenchmarkMesh;
+import main.benchmark.FaceCounter;
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fluxes of the Riemann solvers at the internal faces of a mesh, face by face and in batches. The left and
+ * right states are smooth perturbations of a fixed pair of states, so that all the branches of the solvers are
+ * taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiemannSolverBenchmark {
+    @Param({"RUSANOV", "HLL", "HLLC_AC", "HLLC_VOF"})
+    public String solver;
+
+    @Param({"STRUCTURED_2D", "STRUCTURED_3D", "UNSTRUCTURED_2D"})
+    public BenchmarkMesh meshType;
+
+    @Param({"10000", "100000"})
+    public int numCells;
+
+    private RiemannSolver riemannSolver;
+    private int numVars;
+    private Face[] faces;
+    private double[] left;
+    private double[] right;
+    private double[] UL;
+    private double[] UR;
+    private double[] flux;
+    private FaceBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GoverningEquations govEqn;
+        double[] stateL, stateR;
+        switch (solver) {
+            case "RUSANOV":
+            case "HLL":
+                EulerEquations euler = new EulerEquations(1.4, 287);
+                govEqn = euler;
+                riemannSolver = solver.equals("HLL") ? new HLLRiemannSolver(euler) : new RusanovRiemannSolver(euler);
+                stateL = new double[]{1.0, 0.5, 0.1, 0.0, 2.5};
+                stateR = new double[]{0.8, 0.2, 0.0, 0.1, 2.0};
+                break;
+            case "HLLC_AC":
+                ArtificialCompressibilityEquations ac
+                        = new ArtificialCompressibilityEquations(1.0, 0.01, new Vector(0, -9.81, 0));
+                govEqn = ac;
+                riemannSolver = new HLLC_AC_RiemannSolver(ac);
+                stateL = new double[]{1.5, -0.4, 0.2, 0.5};
+                stateR = new double[]{1.2, 0.3, -0.7, 0.1};
+                break;
+            case "HLLC_VOF":
+                ArtificialCompressibilityVOFEquations vof = new ArtificialCompressibilityVOFEquations(
+                        1000.0, 8.9e-4, 1.125, 1.983e-5, new Vector(-1, -5, 3.0), 500);
+                govEqn = vof;
+                riemannSolver = new HLLC_VOF_RiemannSolver(vof);
+                stateL = new double[]{120, 198, 10, 0, 0.4};
+                stateR = new double[]{12, 18, 320, 0, 0.5};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Riemann solver: " + solver);
+        }
+
+        numVars = govEqn.numVars();
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        Mesh mesh = meshType.create(numCells, numVars, bc, bc);
+        List<Face> internalFaces = mesh.internalFaces();
+        faces = internalFaces.toArray(new Face[0]);
+        left = new double[faces.length * numVars];
+        right = new double[faces.length * numVars];
+        for (int f = 0; f < faces.length; f++) {
+            double leftFactor = factor(faces[f].left.shape.centroid);
+            double rightFactor = factor(faces[f].right.shape.centroid);
+            for (int var = 0; var < numVars; var++) {
+                left[f * numVars + var] = stateL[var] * leftFactor;
+                right[f * numVars + var] = stateR[var] * rightFactor;
+            }
+        }
+        UL = new double[numVars];
+        UR = new double[numVars];
+        flux = new double[numVars];
+        batch = new FaceBatch(numVars);
+    }
+
+    private static double factor(Point p) {
+        return 1.0 + 0.2 * Math.sin(2 * Math.PI * (p.x + 2 * p.y + 3 * p.z));
+    }
+
+    @Benchmark
+    public double fluxInto(FaceCounter counter) {
+        double sum = 0.0;
+        for (int f = 0; f < faces.length; f++) {
+            System.arraycopy(left, f * numVars, UL, 0, numVars);
+            System.arraycopy(right, f * numVars, UR, 0, numVars);
+            riemannSolver.fluxInto(flux, UL, UR, faces[f]);
+            sum += flux[0];
+        }
+        counter.faces += faces.length;
+        return sum;
+    }
+
+    @Benchmark
+    public double fluxBatch(FaceCounter counter) {
+        double sum = 0.0;
+        for (int start = 0; start < faces.length; start += batch.capacity) {
+            int end = Math.min(start + batch.capacity, faces.length);
+            batch.clear();
+            for (int f = start; f < end; f++) {
+                batch.add(faces[f], left, right, f * numVars);
+            }
+            riemannSolver.fluxBatch(batch);
+            for (int k = 0; k < batch.size(); k++) {
+                sum += batch.flux(0, k);
+            }
+        }
+        counter.faces += faces.length;
+        return sum;
+    }
+}
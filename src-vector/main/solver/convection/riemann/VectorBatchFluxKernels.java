@@ -0,0 +1,89 @@
+package main.solver.convection.riemann;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batched flux kernels written with the JDK Vector API. The lanes which do not fill a whole vector are
+ * processed by the scalar loops. The operations are the same as those of ScalarBatchFluxKernels (no fused
+ * multiply-add), so the results are bit-identical.
+ */
+class VectorBatchFluxKernels implements BatchFluxKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void rusanov(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+                        double[] evL, double[] evR, int numVars, int size) {
+        int vectorSize = SPECIES.loopBound(size);
+        int k = 0;
+        for (; k < vectorSize; k += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, evL, k)
+                    .max(DoubleVector.fromArray(SPECIES, evR, k))
+                    .intoArray(evL, k);
+        }
+        for (; k < size; k++) {
+            evL[k] = Math.max(evL[k], evR[k]);
+        }
+
+        for (int var = 0; var < numVars; var++) {
+            double[] FLv = FL[var];
+            double[] FRv = FR[var];
+            double[] ULv = UL[var];
+            double[] URv = UR[var];
+            double[] fluxv = flux[var];
+            k = 0;
+            for (; k < vectorSize; k += SPECIES.length()) {
+                DoubleVector ev = DoubleVector.fromArray(SPECIES, evL, k);
+                DoubleVector jump = DoubleVector.fromArray(SPECIES, URv, k)
+                        .sub(DoubleVector.fromArray(SPECIES, ULv, k));
+                DoubleVector.fromArray(SPECIES, FLv, k)
+                        .add(DoubleVector.fromArray(SPECIES, FRv, k))
+                        .sub(ev.mul(jump))
+                        .mul(0.5)
+                        .intoArray(fluxv, k);
+            }
+            for (; k < size; k++) {
+                fluxv[k] = 0.5 * (FLv[k] + FRv[k] - evL[k] * (URv[k] - ULv[k]));
+            }
+        }
+    }
+
+    @Override
+    public void hll(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+                    double[] SL, double[] SR, int numVars, int size) {
+        int vectorSize = SPECIES.loopBound(size);
+        for (int var = 0; var < numVars; var++) {
+            double[] FLv = FL[var];
+            double[] FRv = FR[var];
+            double[] ULv = UL[var];
+            double[] URv = UR[var];
+            double[] fluxv = flux[var];
+            int k = 0;
+            for (; k < vectorSize; k += SPECIES.length()) {
+                DoubleVector SLk = DoubleVector.fromArray(SPECIES, SL, k);
+                DoubleVector SRk = DoubleVector.fromArray(SPECIES, SR, k);
+                DoubleVector FLk = DoubleVector.fromArray(SPECIES, FLv, k);
+                DoubleVector FRk = DoubleVector.fromArray(SPECIES, FRv, k);
+                DoubleVector jump = DoubleVector.fromArray(SPECIES, URv, k)
+                        .sub(DoubleVector.fromArray(SPECIES, ULv, k));
+                DoubleVector hllFlux = SRk.mul(FLk)
+                        .sub(SLk.mul(FRk))
+                        .add(SLk.mul(SRk).mul(jump))
+                        .div(SRk.sub(SLk));
+                VectorMask<Double> supersonicRight = SRk.compare(VectorOperators.LE, 0.0);
+                VectorMask<Double> supersonicLeft = SLk.compare(VectorOperators.GE, 0.0);
+                hllFlux.blend(FRk, supersonicRight)
+                        .blend(FLk, supersonicLeft)
+                        .intoArray(fluxv, k);
+            }
+            for (; k < size; k++) {
+                double SLk = SL[k];
+                double SRk = SR[k];
+                double hllFlux = (SRk * FLv[k] - SLk * FRv[k] + SLk * SRk * (URv[k] - ULv[k])) / (SRk - SLk);
+                fluxv[k] = SLk >= 0.0 ? FLv[k] : (SRk <= 0.0 ? FRv[k] : hllFlux);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package main.io;
 import main.mesh.Mesh;
 import main.mesh.Node;
 import main.physics.goveqn.GoverningEquations;
+import main.solver.metrics.SolverEvents;
 import vatika.data.*;
 import vatika.writer.UnstructuredGridXmlVtKWriter;
 
@@ -43,7 +44,15 @@ public class VTKWriter {
     }
 
     public void write(File file) {
+        SolverEvents.Scope event = SolverEvents.output(file.getPath(), cells.length);
+        try {
+            writeFile(file);
+        } finally {
+            event.close();
+        }
+    }
 
+    private void writeFile(File file) {
         double[][] primVarsCache = new double[cells.length][];
         for (int iCell = 0; iCell < cells.length; iCell++) {
             primVarsCache[iCell] = govEqn.primitiveVars(mesh.cells().get(iCell).U);
@@ -11,6 +11,12 @@ public class Boundary {
     public final List<Face> faces;
     private BoundaryCondition bc;
 
+    /**
+     * Result of bc(), created once so that the boundary condition can be looked up on every update without
+     * allocating.
+     */
+    private Optional<BoundaryCondition> optionalBC;
+
     public Boundary(String name, List<Face> faces, BoundaryCondition bc) {
         this.name = Objects.requireNonNull(name);
         this.faces = Objects.requireNonNull(faces);
@@ -19,9 +25,13 @@ public class Boundary {
 
     public void setBC(BoundaryCondition bc) {
         this.bc = Objects.requireNonNull(bc);
+        this.optionalBC = null;
     }
 
     public Optional<BoundaryCondition> bc() {
-        return Optional.of(bc);
+        if (optionalBC == null) {
+            optionalBC = Optional.of(bc);
+        }
+        return optionalBC;
     }
 }
@@ -1,7 +1,6 @@
 package main.mesh;
 
 import main.geom.VTKType;
-import main.geom.Vector;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,13 +16,10 @@ public class Cell {
     public final VTKType vtkType;
     public final Shape shape;
 
+    /**
+     * Copy of the conservative variables of the cell in {@link SolutionState#U}, see there for when it is up to date.
+     */
     public final double[] U;
-    public final Vector[] gradientU;
-
-    public final double[] Wn;
-    public final double[] Wnm1;
-    public final double[] Wnm2;
-    public final double[] residual;
     public final double[][] reconstructCoeffs;
 
     /**
@@ -39,16 +35,7 @@ public class Cell {
         this.shape = shape;
 
         this.U = new double[numVars];
-        this.gradientU = new Vector[numVars];
-        for (int var = 0; var < numVars; var++) {
-            this.gradientU[var] = new Vector(0, 0, 0);
-        }
-
-        this.Wn = new double[numVars];
-        this.Wnm1 = new double[numVars];
-        this.Wnm2 = new double[numVars];
 
-        this.residual = new double[numVars];
         this.reconstructCoeffs = new double[numVars][]; // The reconstructor can decide the length
     }
 
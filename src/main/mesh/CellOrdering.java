@@ -0,0 +1,22 @@
+package main.mesh;
+
+/**
+ * Order in which the cells of a mesh are numbered.
+ */
+public enum CellOrdering {
+    /**
+     * Order in which the cells are read from the mesh file.
+     */
+    FILE_ORDER,
+
+    /**
+     * Reverse Cuthill-McKee ordering of the graph of cells sharing a node. Reduces the distance between
+     * the indices of neighbor cells on unstructured meshes.
+     */
+    REVERSE_CUTHILL_MCKEE,
+
+    /**
+     * Order along the Morton (Z-order) space filling curve through the cell centroids.
+     */
+    MORTON
+}
@@ -0,0 +1,217 @@
+package main.mesh;
+
+import main.geom.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reordering of the cells of a mesh for locality of memory access. Neighbor cells get close indices,
+ * so the cell and face loops access the data of the neighbor cells from the cache.
+ * <p>
+ * The reordering must be applied before the cell indices are set. The node indices must be set for the
+ * reverse Cuthill-McKee ordering.
+ */
+public class CellRenumbering {
+
+    /**
+     * @param cells    Cells in file order.
+     * @param ordering Required ordering.
+     * @return Array in which element i is the position in {@code cells} of the cell which gets index i.
+     */
+    public static int[] order(List<Cell> cells, CellOrdering ordering) {
+        switch (ordering) {
+            case FILE_ORDER:
+                return IntStream.range(0, cells.size()).toArray();
+            case REVERSE_CUTHILL_MCKEE:
+                return reverseCuthillMcKee(cells);
+            case MORTON:
+                return morton(cells);
+            default:
+                throw new IllegalArgumentException("Cell ordering " + ordering + " is not implemented.");
+        }
+    }
+
+    /**
+     * @return New list with element i equal to list.get(order[i]).
+     */
+    public static <T> List<T> reorder(List<T> list, int[] order) {
+        if (order.length != list.size()) {
+            throw new IllegalArgumentException("The order must have one element for each element of the list.");
+        }
+        List<T> reordered = new ArrayList<>(list.size());
+        for (int i : order) {
+            reordered.add(list.get(i));
+        }
+        return reordered;
+    }
+
+    private static int[] reverseCuthillMcKee(List<Cell> cells) {
+        int numCells = cells.size();
+        int[][] cellNodes = new int[numCells][];
+        int numNodes = 0;
+        for (int c = 0; c < numCells; c++) {
+            Node[] nodes = cells.get(c).nodes;
+            cellNodes[c] = new int[nodes.length];
+            for (int n = 0; n < nodes.length; n++) {
+                int index = nodes[n].index();
+                if (index == -1) {
+                    throw new IllegalStateException("The node indices must be set before reordering the cells.");
+                }
+                cellNodes[c][n] = index;
+                numNodes = Math.max(numNodes, index + 1);
+            }
+        }
+
+        // Node to cells in CSR form
+        int[] nodeCellsStart = new int[numNodes + 1];
+        for (int[] nodes : cellNodes) {
+            for (int n : nodes) {
+                nodeCellsStart[n + 1]++;
+            }
+        }
+        for (int n = 0; n < numNodes; n++) {
+            nodeCellsStart[n + 1] += nodeCellsStart[n];
+        }
+        int[] nodeCells = new int[nodeCellsStart[numNodes]];
+        int[] next = Arrays.copyOf(nodeCellsStart, numNodes);
+        for (int c = 0; c < numCells; c++) {
+            for (int n : cellNodes[c]) {
+                nodeCells[next[n]++] = c;
+            }
+        }
+
+        // Cell to cells sharing a node, in CSR form
+        int[] mark = new int[numCells];
+        Arrays.fill(mark, -1);
+        int[] cellNeighborsStart = new int[numCells + 1];
+        for (int c = 0; c < numCells; c++) {
+            cellNeighborsStart[c + 1] = cellNeighborsStart[c] + neighbors(c, cellNodes, nodeCellsStart, nodeCells, mark, null, 0);
+        }
+        int[] cellNeighbors = new int[cellNeighborsStart[numCells]];
+        Arrays.fill(mark, -1);
+        for (int c = 0; c < numCells; c++) {
+            neighbors(c, cellNodes, nodeCellsStart, nodeCells, mark, cellNeighbors, cellNeighborsStart[c]);
+        }
+
+        // Breadth first search from a minimum degree cell of each connected component,
+        // visiting the neighbors in the order of increasing degree
+        int[] degree = new int[numCells];
+        for (int c = 0; c < numCells; c++) {
+            degree[c] = cellNeighborsStart[c + 1] - cellNeighborsStart[c];
+        }
+        Integer[] byDegree = IntStream.range(0, numCells).boxed().toArray(Integer[]::new);
+        Arrays.sort(byDegree, Comparator.comparingInt(c -> degree[c]));
+
+        int[] order = new int[numCells];
+        boolean[] visited = new boolean[numCells];
+        int head = 0, tail = 0;
+        for (int start : byDegree) {
+            if (visited[start]) continue;
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int c = order[head++];
+                int levelStart = tail;
+                for (int k = cellNeighborsStart[c]; k < cellNeighborsStart[c + 1]; k++) {
+                    int neighbor = cellNeighbors[k];
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        order[tail++] = neighbor;
+                    }
+                }
+                sortByDegree(order, levelStart, tail, degree);
+            }
+        }
+
+        // Reverse
+        for (int i = 0, j = numCells - 1; i < j; i++, j--) {
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+
+        return order;
+    }
+
+    private static int neighbors(int c, int[][] cellNodes, int[] nodeCellsStart, int[] nodeCells,
+                                 int[] mark, int[] neighbors, int offset) {
+        int count = 0;
+        mark[c] = c;
+        for (int n : cellNodes[c]) {
+            for (int k = nodeCellsStart[n]; k < nodeCellsStart[n + 1]; k++) {
+                int neighbor = nodeCells[k];
+                if (mark[neighbor] != c) {
+                    mark[neighbor] = c;
+                    if (neighbors != null) {
+                        neighbors[offset + count] = neighbor;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void sortByDegree(int[] cells, int from, int to, int[] degree) {
+        // insertion sort, the number of neighbors is small
+        for (int i = from + 1; i < to; i++) {
+            int c = cells[i];
+            int j = i - 1;
+            while (j >= from && degree[cells[j]] > degree[c]) {
+                cells[j + 1] = cells[j];
+                j--;
+            }
+            cells[j + 1] = c;
+        }
+    }
+
+    private static int[] morton(List<Cell> cells) {
+        int numCells = cells.size();
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Cell cell : cells) {
+            Point p = cell.shape.centroid;
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            minZ = Math.min(minZ, p.z);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+            maxZ = Math.max(maxZ, p.z);
+        }
+        // Same scale in all directions, so that the curve follows the geometry
+        double range = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        double scale = range > 0 ? MORTON_MAX / range : 0.0;
+
+        long[] keys = new long[numCells];
+        for (int c = 0; c < numCells; c++) {
+            Point p = cells.get(c).shape.centroid;
+            keys[c] = interleave((long) ((p.x - minX) * scale))
+                    | interleave((long) ((p.y - minY) * scale)) << 1
+                    | interleave((long) ((p.z - minZ) * scale)) << 2;
+        }
+
+        return IntStream.range(0, numCells).boxed()
+                .sorted(Comparator.comparingLong(c -> keys[c]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static final double MORTON_MAX = (1 << 21) - 1;
+
+    /**
+     * Spreads the lower 21 bits of value so that there are two zero bits between consecutive bits.
+     */
+    private static long interleave(long value) {
+        long x = value & 0x1FFFFFL;
+        x = (x | x << 32) & 0x1F00000000FFFFL;
+        x = (x | x << 16) & 0x1F0000FF0000FFL;
+        x = (x | x << 8) & 0x100F00F00F00F00FL;
+        x = (x | x << 4) & 0x10C30C30C30C30C3L;
+        x = (x | x << 2) & 0x1249249249249249L;
+        return x;
+    }
+}
@@ -0,0 +1,191 @@
+package main.mesh;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Integer topology of a mesh in compressed sparse row (CSR) form, built once after the cell and face
+ * indices are set.
+ * <p>
+ * Faces are numbered by Face.index(): internal faces first, then boundary faces in boundary order.
+ * Cells are numbered by Cell.index(). The ghost cell of the boundary face {@code f} has the extended
+ * index {@code numCells + f - numInternalFaces}.
+ * <p>
+ * The orientation sign of a face with respect to a cell is +1 if the cell is the left neighbor of the face
+ * (the face normal points out of the cell) and -1 otherwise.
+ */
+public class Connectivity {
+    public final int numCells;
+    public final int numInternalFaces;
+    public final int numFaces;
+    public final int numNodes;
+
+    private final int[] faceLeft;
+    private final int[] faceRight;
+
+    private final int[] cellFacesStart;
+    private final int[] cellFaces;
+    private final int[] cellFaceSigns;
+
+    private final int[] nodeCellsStart;
+    private final int[] nodeCells;
+
+    private FaceColoring faceColoring;
+
+    public Connectivity(Mesh mesh) {
+        List<Cell> cells = mesh.cells();
+        List<Face> internalFaces = mesh.internalFaces();
+        List<Boundary> boundaries = mesh.boundaries();
+        List<Node> nodes = mesh.nodes();
+
+        this.numCells = cells.size();
+        this.numInternalFaces = internalFaces.size();
+        int numBoundaryFaces = boundaries.stream().mapToInt(b -> b.faces.size()).sum();
+        this.numFaces = numInternalFaces + numBoundaryFaces;
+        this.numNodes = nodes.size();
+
+        // Face to left / right cells
+        this.faceLeft = new int[numFaces];
+        this.faceRight = new int[numFaces];
+        for (Face face : internalFaces) {
+            int f = checkedIndex(face, 0, numInternalFaces);
+            faceLeft[f] = checkedIndex(face.left);
+            faceRight[f] = checkedIndex(face.right);
+        }
+        Map<Cell, Integer> ghostCells = new IdentityHashMap<>();
+        for (Boundary boundary : boundaries) {
+            for (Face face : boundary.faces) {
+                int f = checkedIndex(face, numInternalFaces, numFaces);
+                int ghostIndex = numCells + f - numInternalFaces;
+                faceLeft[f] = checkedIndex(face.left);
+                faceRight[f] = ghostIndex;
+                ghostCells.put(face.right, ghostIndex);
+            }
+        }
+
+        // Cell to faces
+        this.cellFacesStart = new int[numCells + 1];
+        for (Cell cell : cells) {
+            cellFacesStart[cell.index() + 1] = cell.faces.size();
+        }
+        for (int i = 0; i < numCells; i++) {
+            cellFacesStart[i + 1] += cellFacesStart[i];
+        }
+        this.cellFaces = new int[cellFacesStart[numCells]];
+        this.cellFaceSigns = new int[cellFacesStart[numCells]];
+        for (Cell cell : cells) {
+            int k = cellFacesStart[cell.index()];
+            for (Face face : cell.faces) {
+                cellFaces[k] = checkedIndex(face, 0, numFaces);
+                cellFaceSigns[k] = face.left == cell ? 1 : -1;
+                k++;
+            }
+        }
+
+        // Node to cells, including ghost cells
+        this.nodeCellsStart = new int[numNodes + 1];
+        for (int n = 0; n < numNodes; n++) {
+            nodeCellsStart[n + 1] = nodeCellsStart[n] + nodes.get(n).neighbors.size();
+        }
+        this.nodeCells = new int[nodeCellsStart[numNodes]];
+        for (int n = 0; n < numNodes; n++) {
+            int k = nodeCellsStart[n];
+            for (Cell cell : nodes.get(n).neighbors) {
+                nodeCells[k] = cell.index() == -1
+                        ? ghostIndex(ghostCells, cell)
+                        : checkedIndex(cell);
+                k++;
+            }
+        }
+    }
+
+    public int left(int face) {
+        return faceLeft[face];
+    }
+
+    public int right(int face) {
+        return faceRight[face];
+    }
+
+    /**
+     * @return true if the (extended) cell index belongs to a ghost cell.
+     */
+    public boolean isGhost(int cell) {
+        return cell >= numCells;
+    }
+
+    public int cellFacesStart(int cell) {
+        return cellFacesStart[cell];
+    }
+
+    public int cellFacesEnd(int cell) {
+        return cellFacesStart[cell + 1];
+    }
+
+    /**
+     * @param k position in [cellFacesStart(cell), cellFacesEnd(cell))
+     * @return index of the face
+     */
+    public int cellFace(int k) {
+        return cellFaces[k];
+    }
+
+    /**
+     * @param k position in [cellFacesStart(cell), cellFacesEnd(cell))
+     * @return +1 if the cell is the left neighbor of the face, -1 otherwise
+     */
+    public int cellFaceSign(int k) {
+        return cellFaceSigns[k];
+    }
+
+    public int nodeCellsStart(int node) {
+        return nodeCellsStart[node];
+    }
+
+    public int nodeCellsEnd(int node) {
+        return nodeCellsStart[node + 1];
+    }
+
+    /**
+     * @param k position in [nodeCellsStart(node), nodeCellsEnd(node))
+     * @return extended index of the neighbor cell
+     */
+    public int nodeCell(int k) {
+        return nodeCells[k];
+    }
+
+    /**
+     * @return Coloring of the faces, built on the first call.
+     */
+    public synchronized FaceColoring faceColoring() {
+        if (faceColoring == null) {
+            faceColoring = new FaceColoring(this);
+        }
+        return faceColoring;
+    }
+
+    private int checkedIndex(Face face, int from, int to) {
+        int index = face.index();
+        if (index < from || index >= to) {
+            throw new IllegalStateException("Face index " + index + " is not in range [" + from + ", " + to + ").");
+        }
+        return index;
+    }
+
+    private int checkedIndex(Cell cell) {
+        int index = cell.index();
+        if (index < 0 || index >= numCells) {
+            throw new IllegalStateException("Cell index " + index + " is not in range [0, " + numCells + ").");
+        }
+        return index;
+    }
+
+    private static int ghostIndex(Map<Cell, Integer> ghostCells, Cell cell) {
+        Integer index = ghostCells.get(cell);
+        if (index == null) {
+            throw new IllegalStateException("Cell without index is not a ghost cell of the mesh.");
+        }
+        return index;
+    }
+}
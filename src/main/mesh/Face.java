@@ -18,10 +18,6 @@ public class Face {
     public Cell right;
 
     public final double[] U;
-    public final Vector[] gradientU;
-    public final double[] flux;
-
-    public double maxAbsEigenvalue;
 
     public Face(Node[] nodes, VTKType vtkType, Surface surface, Cell left, Cell right, int numVars) {
         this.index = -1;
@@ -33,8 +29,6 @@ public class Face {
         this.right = right;
 
         this.U = new double[numVars];
-        this.gradientU = new Vector[numVars];
-        this.flux = new double[numVars];
     }
 
     public void setIndex(int index) {
@@ -0,0 +1,88 @@
+package main.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Partition of the faces of a mesh into colors, such that no two faces of the same color have a common
+ * neighbor cell (ghost cells are not shared, so they are not considered). The contributions of the faces
+ * of one color can be added to the neighbor cells in parallel without any synchronization.
+ * <p>
+ * The faces are colored greedily in the order of their indices and the faces of each color are stored in
+ * increasing order of their indices.
+ */
+public class FaceColoring {
+    private final int numColors;
+    private final int[] colorStart;
+    private final int[] colorFaces;
+
+    public FaceColoring(Connectivity connectivity) {
+        int numFaces = connectivity.numFaces;
+        int[] faceColors = new int[numFaces];
+        Arrays.fill(faceColors, -1);
+
+        // stamp[c] == f means that color c is used by a face sharing a cell with face f
+        int[] stamp = new int[16];
+        Arrays.fill(stamp, -1);
+        int numColors = 0;
+        for (int f = 0; f < numFaces; f++) {
+            int[] neighbors = {connectivity.left(f), connectivity.right(f)};
+            for (int cell : neighbors) {
+                if (connectivity.isGhost(cell)) continue;
+                for (int k = connectivity.cellFacesStart(cell); k < connectivity.cellFacesEnd(cell); k++) {
+                    int color = faceColors[connectivity.cellFace(k)];
+                    if (color != -1) {
+                        stamp[color] = f;
+                    }
+                }
+            }
+            int color = 0;
+            while (color < numColors && stamp[color] == f) {
+                color++;
+            }
+            if (color == numColors) {
+                numColors++;
+                if (numColors > stamp.length) {
+                    int oldLength = stamp.length;
+                    stamp = Arrays.copyOf(stamp, 2 * oldLength);
+                    Arrays.fill(stamp, oldLength, stamp.length, -1);
+                }
+            }
+            faceColors[f] = color;
+        }
+        this.numColors = numColors;
+
+        // Faces of each color in CSR form
+        this.colorStart = new int[numColors + 1];
+        for (int f = 0; f < numFaces; f++) {
+            colorStart[faceColors[f] + 1]++;
+        }
+        for (int c = 0; c < numColors; c++) {
+            colorStart[c + 1] += colorStart[c];
+        }
+        this.colorFaces = new int[numFaces];
+        int[] next = Arrays.copyOf(colorStart, numColors);
+        for (int f = 0; f < numFaces; f++) {
+            colorFaces[next[faceColors[f]]++] = f;
+        }
+    }
+
+    public int numColors() {
+        return numColors;
+    }
+
+    public int colorStart(int color) {
+        return colorStart[color];
+    }
+
+    public int colorEnd(int color) {
+        return colorStart[color + 1];
+    }
+
+    /**
+     * @param k position in [colorStart(color), colorEnd(color))
+     * @return index of the face
+     */
+    public int face(int k) {
+        return colorFaces[k];
+    }
+}
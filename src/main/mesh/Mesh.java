@@ -3,6 +3,7 @@ package main.mesh;
 import main.geom.Point;
 import main.geom.VTKType;
 import main.geom.Vector;
+import main.util.ExecutionContext;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,7 +17,7 @@ public interface Mesh {
     List<Cell> cells();
 
     default Stream<Cell> cellStream() {
-        return cells().parallelStream();
+        return executionContext().isSequential() ? cells().stream() : cells().parallelStream();
     }
 
     /**
@@ -25,7 +26,18 @@ public interface Mesh {
     List<Face> internalFaces();
 
     default Stream<Face> internalFaceStream() {
-        return internalFaces().parallelStream();
+        return executionContext().isSequential() ? internalFaces().stream() : internalFaces().parallelStream();
+    }
+
+    /**
+     * @return Internal faces followed by the faces of each boundary, which is the order of the face indices.
+     */
+    default List<Face> allFaces() {
+        List<Face> faces = new ArrayList<>(internalFaces());
+        for (Boundary boundary : boundaries()) {
+            faces.addAll(boundary.faces);
+        }
+        return faces;
     }
 
     /**
@@ -35,7 +47,7 @@ public interface Mesh {
     List<Node> nodes();
 
     default Stream<Node> nodeStream() {
-        return nodes().parallelStream();
+        return executionContext().isSequential() ? nodes().stream() : nodes().parallelStream();
     }
 
     /**
@@ -44,7 +56,41 @@ public interface Mesh {
     List<Boundary> boundaries();
 
     default Stream<Boundary> boundaryStream() {
-        return boundaries().parallelStream();
+        return executionContext().isSequential() ? boundaries().stream() : boundaries().parallelStream();
+    }
+
+    /**
+     * @return Flat storage of the residuals, real time level and pseudo-time step data of the cells. The same
+     * object is returned on every call.
+     */
+    SolutionState solutionState();
+
+    /**
+     * @return Integer topology of the mesh, built once when the mesh is created.
+     */
+    Connectivity connectivity();
+
+    /**
+     * @return Cell stencils of the mesh. The same registry is returned on every call, so that the stencils are
+     * shared by the solver components.
+     */
+    StencilRegistry stencils();
+
+    /**
+     * @return Executor of the parallel loops over the mesh. The mesh factories use the common fork join pool
+     * unless another context is set.
+     */
+    ExecutionContext executionContext();
+
+    /**
+     * Sets the executor of the parallel loops over the mesh, which is used by all the solver components.
+     */
+    void setExecutionContext(ExecutionContext executionContext);
+
+    default void setAllNodeIndices() {
+        for (int i = 0; i < nodes().size(); i++) {
+            nodes().get(i).setIndex(i);
+        }
     }
 
     default void setAllCellIndices() {
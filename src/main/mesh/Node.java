@@ -5,6 +5,11 @@ import main.geom.Point;
 import java.util.ArrayList;
 
 public class Node {
+    /**
+     * This value must be equal to the index in Mesh.nodes() List.
+     * This value must be equal to -1 for the nodes outside the domain (nodes of the ghost cells).
+     */
+    private int index;
     public final double x, y, z;
     public final ArrayList<Cell> neighbors;
     public final double[] U;
@@ -14,6 +19,7 @@ public class Node {
     }
 
     public Node(double x, double y, double z, int numVars) {
+        this.index = -1;
         this.x = x;
         this.y = y;
         this.z = z;
@@ -22,6 +28,17 @@ public class Node {
         this.U = new double[numVars];
     }
 
+    public int index() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        if (this.index != -1) {
+            throw new IllegalStateException("The index of a node can be set only once.");
+        }
+        this.index = index;
+    }
+
     public Point location() {
         return new Point(x, y, z);
     }
@@ -0,0 +1,186 @@
+package main.mesh;
+
+import main.geom.Vector;
+
+/**
+ * Solver data of the cells stored as structure of arrays. Each field is a single contiguous
+ * array in which the value of variable {@code var} of the cell {@code cell} is stored at
+ * {@code cell.index() * numVars + var}.
+ * <p>
+ * The conservative variables are also stored for the ghost cells, which follow the cells in the
+ * extended numbering of {@link Connectivity}. The stages of the solver read and write only these
+ * arrays. Cell.U is a copy of U, which is kept for the boundary conditions, the initializers and the
+ * output: the time integrators call {@link #copyFromCells(Mesh)} at the beginning of an iteration and
+ * {@link #copyToCells(Mesh)} at its end.
+ */
+public class SolutionState {
+    public final int numCells;
+    public final int numGhostCells;
+    public final int numFaces;
+    public final int numVars;
+
+    /**
+     * Conservative variables of the cells, followed by those of the ghost cells.
+     */
+    public final double[] U;
+
+    /**
+     * Gradients of the conservative variables of the cells. Component {@code i} of the gradient of
+     * variable {@code var} of the cell is stored at {@code gradientOffset(cell) + 3 * var + i}.
+     */
+    public final double[] gradientU;
+
+    /**
+     * Gradients of the conservative variables at the faces. Component {@code i} of the gradient of variable
+     * {@code var} at the face with index {@code f} is stored at {@code (f * numVars + var) * 3 + i}.
+     */
+    public final double[] faceGradientU;
+
+    /**
+     * Conservative variables at the beginning of the current pseudo-time step.
+     */
+    public final double[] U0;
+
+    public final double[] residual;
+
+    /**
+     * Real variables at real time levels n, n - 1 and n - 2
+     */
+    public final double[] Wn;
+    public final double[] Wnm1;
+    public final double[] Wnm2;
+
+    public SolutionState(int numCells, int numVars) {
+        this(numCells, 0, 0, numVars);
+    }
+
+    public SolutionState(int numCells, int numGhostCells, int numFaces, int numVars) {
+        if (numCells < 0 || numGhostCells < 0 || numFaces < 0 || numVars < 0) {
+            throw new IllegalArgumentException("Invalid solution state size: numCells = " + numCells
+                    + ", numGhostCells = " + numGhostCells + ", numFaces = " + numFaces + ", numVars = " + numVars);
+        }
+        this.numCells = numCells;
+        this.numGhostCells = numGhostCells;
+        this.numFaces = numFaces;
+        this.numVars = numVars;
+
+        int size = numCells * numVars;
+        this.U = new double[(numCells + numGhostCells) * numVars];
+        this.gradientU = new double[size * 3];
+        this.faceGradientU = new double[numFaces * numVars * 3];
+        this.U0 = new double[size];
+        this.residual = new double[size];
+        this.Wn = new double[size];
+        this.Wnm1 = new double[size];
+        this.Wnm2 = new double[size];
+    }
+
+    /**
+     * @return Position of the first variable of the cell in each field.
+     */
+    public int offset(Cell cell) {
+        return cell.index() * numVars;
+    }
+
+    /**
+     * @param cell Extended index of a cell or a ghost cell (see {@link Connectivity}).
+     * @return Position of the first variable of the cell in U.
+     */
+    public int offset(int cell) {
+        return cell * numVars;
+    }
+
+    /**
+     * @return Position of the x component of the gradient of the first variable of the cell in gradientU.
+     */
+    public int gradientOffset(Cell cell) {
+        return cell.index() * numVars * 3;
+    }
+
+    /**
+     * Copies the values of the cell from {@code field} into {@code values}.
+     *
+     * @return values
+     */
+    public double[] getInto(double[] field, Cell cell, double[] values) {
+        System.arraycopy(field, offset(cell), values, 0, numVars);
+        return values;
+    }
+
+    /**
+     * Copies {@code values} into the cell's entries of {@code field}.
+     */
+    public void set(double[] field, Cell cell, double[] values) {
+        System.arraycopy(values, 0, field, offset(cell), numVars);
+    }
+
+    /**
+     * @return Gradient of the variable of the cell.
+     */
+    public Vector gradient(Cell cell, int var) {
+        int g = gradientOffset(cell) + 3 * var;
+        return new Vector(gradientU[g], gradientU[g + 1], gradientU[g + 2]);
+    }
+
+    /**
+     * @return Gradient of the variable at the face.
+     */
+    public Vector faceGradient(Face face, int var) {
+        int g = (face.index() * numVars + var) * 3;
+        return new Vector(faceGradientU[g], faceGradientU[g + 1], faceGradientU[g + 2]);
+    }
+
+    public void setGradient(Cell cell, int var, Vector gradient) {
+        int g = gradientOffset(cell) + 3 * var;
+        gradientU[g] = gradient.x;
+        gradientU[g + 1] = gradient.y;
+        gradientU[g + 2] = gradient.z;
+    }
+
+    /**
+     * Copies U of the boundary cell of the face into its Cell object, so that the boundary condition
+     * reads the current values.
+     */
+    public void copyToBoundaryCell(Face boundaryFace) {
+        System.arraycopy(U, offset(boundaryFace.left), boundaryFace.left.U, 0, numVars);
+    }
+
+    /**
+     * Copies U of the ghost cell of the boundary face, which is set by the boundary condition, into U.
+     *
+     * @param ghostCell Extended index of the ghost cell of the face.
+     */
+    public void copyFromGhostCell(Face boundaryFace, int ghostCell) {
+        System.arraycopy(boundaryFace.right.U, 0, U, offset(ghostCell), numVars);
+    }
+
+    /**
+     * Copies Cell.U of the cells and the ghost cells of the mesh into U.
+     */
+    public void copyFromCells(Mesh mesh) {
+        for (Cell cell : mesh.cells()) {
+            System.arraycopy(cell.U, 0, U, offset(cell), numVars);
+        }
+        int ghostCell = numCells;
+        for (Boundary boundary : mesh.boundaries()) {
+            for (Face face : boundary.faces) {
+                copyFromGhostCell(face, ghostCell++);
+            }
+        }
+    }
+
+    /**
+     * Copies U into Cell.U of the cells and the ghost cells of the mesh.
+     */
+    public void copyToCells(Mesh mesh) {
+        for (Cell cell : mesh.cells()) {
+            System.arraycopy(U, offset(cell), cell.U, 0, numVars);
+        }
+        int ghostCell = numCells;
+        for (Boundary boundary : mesh.boundaries()) {
+            for (Face face : boundary.faces) {
+                System.arraycopy(U, offset(ghostCell++), face.right.U, 0, numVars);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package main.mesh;
+
+import main.util.ExecutionContext;
+
+/**
+ * Cells used by a calculation at each cell or face of a mesh, in compressed sparse row (CSR) form.
+ * <p>
+ * The cells are given by their extended indices (see Connectivity), so the ghost cells of the boundary faces
+ * can be part of a stencil. StencilRegistry.cell(index) returns the Cell object of an extended index.
+ */
+public class Stencil {
+    private final int[] start;
+    private final int[] cells;
+
+    /**
+     * @param stencils Extended indices of the cells of each stencil.
+     * @param context  Executor of the copy of the stencils.
+     */
+    public Stencil(int[][] stencils, ExecutionContext context) {
+        int size = stencils.length;
+        this.start = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            start[i + 1] = start[i] + stencils[i].length;
+        }
+        this.cells = new int[start[size]];
+        context.forEach(0, size, i -> System.arraycopy(stencils[i], 0, cells, start[i], stencils[i].length));
+    }
+
+    /**
+     * @return Number of stencils.
+     */
+    public int size() {
+        return start.length - 1;
+    }
+
+    /**
+     * @return Total number of cells in all the stencils.
+     */
+    public int numEntries() {
+        return cells.length;
+    }
+
+    public int start(int i) {
+        return start[i];
+    }
+
+    public int end(int i) {
+        return start[i + 1];
+    }
+
+    /**
+     * @param k position in [start(i), end(i))
+     * @return extended index of the cell
+     */
+    public int cell(int k) {
+        return cells[k];
+    }
+}
@@ -0,0 +1,151 @@
+package main.mesh;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Cell stencils of a mesh, shared by the gradient calculators, limiters and face interpolation.
+ * <p>
+ * The face based stencil of a cell contains the neighbors across its faces and the node based stencil contains
+ * all the cells sharing a node with it (both include ghost cells). They are built from the Connectivity of the
+ * mesh on the first request, in parallel. The cells of each stencil are in the same order as with
+ * FaceBasedCellNeighbors and NodeBasedCellNeighbors, so the calculations using them are not changed.
+ */
+public class StencilRegistry {
+    private final Mesh mesh;
+    private final Connectivity connectivity;
+    private final Cell[] cells;
+    private final Map<Cell, Integer> ghostCells;
+
+    private Stencil faceBased;
+    private Stencil nodeBased;
+
+    public StencilRegistry(Mesh mesh) {
+        this.mesh = mesh;
+        this.connectivity = mesh.connectivity();
+        int numCells = connectivity.numCells;
+        int numGhostCells = connectivity.numFaces - connectivity.numInternalFaces;
+
+        this.cells = new Cell[numCells + numGhostCells];
+        for (Cell cell : mesh.cells()) {
+            cells[cell.index()] = cell;
+        }
+        this.ghostCells = new IdentityHashMap<>();
+        for (Boundary boundary : mesh.boundaries()) {
+            for (Face face : boundary.faces) {
+                int ghostIndex = connectivity.right(face.index());
+                cells[ghostIndex] = face.right;
+                ghostCells.put(face.right, ghostIndex);
+            }
+        }
+    }
+
+    public Connectivity connectivity() {
+        return connectivity;
+    }
+
+    /**
+     * @param index Extended index of a cell.
+     * @return Cell or ghost cell with the index.
+     */
+    public Cell cell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @return Extended index of the cell or ghost cell.
+     */
+    public int index(Cell cell) {
+        if (cell.index() != -1) {
+            return cell.index();
+        }
+        Integer index = ghostCells.get(cell);
+        if (index == null) {
+            throw new IllegalArgumentException("Cell without index is not a ghost cell of the mesh.");
+        }
+        return index;
+    }
+
+    /**
+     * @return Stencil of each cell with the neighbors across its faces.
+     */
+    public synchronized Stencil faceBased() {
+        if (faceBased == null) {
+            faceBased = new Stencil(build(this::faceNeighbors), mesh.executionContext());
+        }
+        return faceBased;
+    }
+
+    /**
+     * @return Stencil of each cell with the cells sharing a node with it.
+     */
+    public synchronized Stencil nodeBased() {
+        if (nodeBased == null) {
+            nodeBased = new Stencil(build(this::nodeNeighbors), mesh.executionContext());
+        }
+        return nodeBased;
+    }
+
+    /**
+     * @param neighbors Neighbors of a cell (for example calculated by a CellNeighborCalculator).
+     * @return Stencil of each cell with the given neighbors. This stencil is not cached.
+     */
+    public Stencil cellStencil(Function<Cell, List<Cell>> neighbors) {
+        return new Stencil(build(i -> neighbors.apply(cells[i]).stream()
+                .mapToInt(this::index)
+                .toArray()), mesh.executionContext());
+    }
+
+    private int[][] build(IntFunction<int[]> stencil) {
+        int[][] stencils = new int[connectivity.numCells][];
+        mesh.executionContext().forEach(0, connectivity.numCells, i -> stencils[i] = stencil.apply(i));
+        return stencils;
+    }
+
+    private int[] faceNeighbors(int cell) {
+        int start = connectivity.cellFacesStart(cell);
+        int[] neighbors = new int[2 * (connectivity.cellFacesEnd(cell) - start)];
+        int count = 0;
+        for (int k = start; k < connectivity.cellFacesEnd(cell); k++) {
+            int face = connectivity.cellFace(k);
+            count = addDistinct(neighbors, count, connectivity.left(face), cell);
+            count = addDistinct(neighbors, count, connectivity.right(face), cell);
+        }
+        return Arrays.copyOf(neighbors, count);
+    }
+
+    private int[] nodeNeighbors(int cell) {
+        Node[] nodes = cells[cell].nodes;
+        int maxCount = 0;
+        for (Node node : nodes) {
+            maxCount += connectivity.nodeCellsEnd(node.index()) - connectivity.nodeCellsStart(node.index());
+        }
+        int[] neighbors = new int[maxCount];
+        int count = 0;
+        for (Node node : nodes) {
+            for (int k = connectivity.nodeCellsStart(node.index()); k < connectivity.nodeCellsEnd(node.index()); k++) {
+                count = addDistinct(neighbors, count, connectivity.nodeCell(k), cell);
+            }
+        }
+        return Arrays.copyOf(neighbors, count);
+    }
+
+    /**
+     * Adds the neighbor if it is not the cell itself and not yet in the list (stencils are small, so a linear
+     * search is used).
+     *
+     * @return New number of neighbors in the list.
+     */
+    private static int addDistinct(int[] neighbors, int count, int neighbor, int cell) {
+        if (neighbor == cell) return count;
+        for (int i = 0; i < count; i++) {
+            if (neighbors[i] == neighbor) return count;
+        }
+        neighbors[count] = neighbor;
+        return count + 1;
+    }
+}
@@ -0,0 +1,200 @@
+package main.mesh.factory;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Matches the faces created by each cell of a mesh with the faces created by its neighbors.
+ * <p>
+ * Two cell faces are the same face if they have the same set of nodes. The sorted node indices of
+ * a face are used as its key in open addressing hash tables of primitive arrays. The keys are split
+ * into partitions by hash, so the faces are created in parallel over the cells and the partitions
+ * are matched in parallel without any locking.
+ * <p>
+ * When two cell faces match, the face of the cell with the lower index is kept. Its right cell is set
+ * to the left cell of the other face and its unit normal is set to the average of the two normals,
+ * pointing from the left cell to the right cell. The result does not depend on the number of threads.
+ * The node indices must be set before the faces are built.
+ */
+public class FaceBuilder {
+    private static final int NUM_PARTITIONS = 64;
+    private static final int EMPTY = -1;
+
+    private final Face[] faces;
+    private final int[][] keys;
+    private final int[] hashes;
+    private final boolean[] matched;
+    private final boolean[] duplicate;
+    private final int[][] tables;
+
+    public FaceBuilder(List<Cell> cells, Function<Cell, List<Face>> cellFaces) {
+        int numCells = cells.size();
+
+        // Create the faces of all the cells
+        List<List<Face>> facesOfCells = IntStream.range(0, numCells).parallel()
+                .mapToObj(i -> cellFaces.apply(cells.get(i)))
+                .collect(Collectors.toList());
+        int[] cellStart = new int[numCells + 1];
+        for (int i = 0; i < numCells; i++) {
+            cellStart[i + 1] = cellStart[i] + facesOfCells.get(i).size();
+        }
+        int numFaces = cellStart[numCells];
+
+        this.faces = new Face[numFaces];
+        this.keys = new int[numFaces][];
+        this.hashes = new int[numFaces];
+        IntStream.range(0, numCells).parallel().forEach(i -> {
+            List<Face> faceList = facesOfCells.get(i);
+            for (int j = 0; j < faceList.size(); j++) {
+                int f = cellStart[i] + j;
+                faces[f] = faceList.get(j);
+                keys[f] = key(faces[f].nodes);
+                hashes[f] = hash(keys[f]);
+            }
+        });
+
+        // Faces of each partition, in increasing order
+        int[] partitionStart = new int[NUM_PARTITIONS + 1];
+        for (int f = 0; f < numFaces; f++) {
+            partitionStart[partition(hashes[f]) + 1]++;
+        }
+        for (int p = 0; p < NUM_PARTITIONS; p++) {
+            partitionStart[p + 1] += partitionStart[p];
+        }
+        int[] partitionFaces = new int[numFaces];
+        int[] next = Arrays.copyOf(partitionStart, NUM_PARTITIONS);
+        for (int f = 0; f < numFaces; f++) {
+            partitionFaces[next[partition(hashes[f])]++] = f;
+        }
+
+        // Match the faces of each partition
+        this.matched = new boolean[numFaces];
+        this.duplicate = new boolean[numFaces];
+        this.tables = new int[NUM_PARTITIONS][];
+        IntStream.range(0, NUM_PARTITIONS).parallel()
+                .forEach(p -> tables[p] = matchPartition(partitionFaces, partitionStart[p], partitionStart[p + 1]));
+    }
+
+    /**
+     * @return Faces shared by two cells, in the order of the cells which own them.
+     */
+    public List<Face> internalFaces() {
+        List<Face> internalFaces = new ArrayList<>();
+        for (int f = 0; f < faces.length; f++) {
+            if (matched[f]) internalFaces.add(faces[f]);
+        }
+        return internalFaces;
+    }
+
+    /**
+     * @return Faces which belong to a single cell, in the order of the cells which own them.
+     */
+    public List<Face> boundaryFaces() {
+        List<Face> boundaryFaces = new ArrayList<>();
+        for (int f = 0; f < faces.length; f++) {
+            if (!matched[f] && !duplicate[f]) boundaryFaces.add(faces[f]);
+        }
+        return boundaryFaces;
+    }
+
+    /**
+     * @param nodes Nodes of the face in any order.
+     * @return The face with the given nodes, if it belongs to a single cell.
+     */
+    public Optional<Face> boundaryFace(Node[] nodes) {
+        int[] key = key(nodes);
+        int hash = hash(key);
+        int[] table = tables[partition(hash)];
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int f = table[slot];
+            if (hashes[f] == hash && Arrays.equals(keys[f], key)) {
+                return matched[f] ? Optional.empty() : Optional.of(faces[f]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int[] matchPartition(int[] partitionFaces, int start, int end) {
+        int[] table = new int[tableSize(end - start)];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+
+        for (int i = start; i < end; i++) {
+            int f = partitionFaces[i];
+            int slot = hashes[f] & mask;
+            while (table[slot] != EMPTY) {
+                int g = table[slot];
+                if (hashes[g] == hashes[f] && Arrays.equals(keys[g], keys[f])) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (table[slot] == EMPTY) {
+                table[slot] = f;
+            } else {
+                int g = table[slot];
+                if (matched[g]) {
+                    throw new IllegalStateException("A face cannot be shared by more than two cells.");
+                }
+                match(faces[g], faces[f]);
+                matched[g] = true;
+                duplicate[f] = true;
+            }
+        }
+
+        return table;
+    }
+
+    private static void match(Face kept, Face other) {
+        kept.right = other.left;
+        other.right = kept.left;
+
+        Vector avgNormal = other.surface.unitNormal()
+                .sub(kept.surface.unitNormal())
+                .unit();
+        other.surface.setUnitNormal(avgNormal);
+        kept.surface.setUnitNormal(avgNormal.mult(-1));
+    }
+
+    private static int[] key(Node[] nodes) {
+        int[] key = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            int index = nodes[i].index();
+            if (index == -1) {
+                throw new IllegalStateException("The node indices must be set before building the faces.");
+            }
+            key[i] = index;
+        }
+        Arrays.sort(key);
+        return key;
+    }
+
+    private static int hash(int[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int partition(int hash) {
+        return (hash >>> 26) & (NUM_PARTITIONS - 1);
+    }
+
+    private static int tableSize(int numEntries) {
+        int size = 16;
+        while (size < 2 * numEntries) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
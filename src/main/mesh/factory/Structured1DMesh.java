@@ -9,11 +9,14 @@ import main.geom.factory.Vertex;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
 import main.io.DataFileReader;
+import main.util.ExecutionContext;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
@@ -24,9 +27,27 @@ public class Structured1DMesh implements Mesh {
     final private List<Cell> cells;
     final private List<Face> internalFaces;
     final private List<Boundary> boundaries;
+    final private SolutionState solutionState;
+    final private Connectivity connectivity;
+    final private StencilRegistry stencils;
+    private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
     public Structured1DMesh(File meshFile, int numVars, BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) throws FileNotFoundException {
-        int xi;
+        this(readNodes(meshFile, numVars), numVars, bc_xiMin, bc_xiMax);
+    }
+
+    /**
+     * Creates the mesh in memory, without a mesh file. The nodes are created in parallel.
+     *
+     * @param num_xi       Number of nodes.
+     * @param nodeFunction Location of the node i, for 0 <= i < num_xi.
+     */
+    public Structured1DMesh(int num_xi, IntFunction<Point> nodeFunction, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) {
+        this(createNodes(num_xi, nodeFunction, numVars), numVars, bc_xiMin, bc_xiMax);
+    }
+
+    private static List<Node> readNodes(File meshFile, int numVars) throws FileNotFoundException {
         try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
             int dim = meshFileReader.readIntParameter("dimension");
             if (dim != 1) {
@@ -36,12 +57,27 @@ public class Structured1DMesh implements Mesh {
             if (!mode.equals("ASCII")) {
                 throw new IllegalArgumentException("Only ASCII mode is supported.");
             }
-            xi = meshFileReader.readIntParameter("xi");
+            int xi = meshFileReader.readIntParameter("xi");
 
-            this.nodes = IntStream.range(0, xi)
+            return IntStream.range(0, xi)
                     .mapToObj(i -> new Node(meshFileReader.readXYZ(), numVars))
                     .collect(toList());
         }
+    }
+
+    private static List<Node> createNodes(int num_xi, IntFunction<Point> nodeFunction, int numVars) {
+        if (num_xi < 2) {
+            throw new IllegalArgumentException("A 1D mesh needs at least 2 nodes.");
+        }
+        Node[] nodes = new Node[num_xi];
+        ExecutionContext.COMMON_POOL.forEach(0, num_xi, i -> nodes[i] = new Node(nodeFunction.apply(i), numVars));
+        return new ArrayList<>(Arrays.asList(nodes));
+    }
+
+    private Structured1DMesh(List<Node> nodes, int numVars, BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) {
+        int xi = nodes.size();
+        this.nodes = nodes;
+        setAllNodeIndices();
 
         this.cells = new ArrayList<>();
         for (int i = 0; i < xi - 1; i++) {
@@ -142,6 +178,11 @@ public class Structured1DMesh implements Mesh {
                 }
             }
         }
+
+        this.connectivity = new Connectivity(this);
+        this.solutionState = new SolutionState(this.cells.size(),
+                connectivity.numFaces - connectivity.numInternalFaces, connectivity.numFaces, numVars);
+        this.stencils = new StencilRegistry(this);
     }
 
     @Override
@@ -163,4 +204,32 @@ public class Structured1DMesh implements Mesh {
     public List<Boundary> boundaries() {
         return boundaries;
     }
+
+    @Override
+    public SolutionState solutionState() {
+        return solutionState;
+    }
+
+    @Override
+    public Connectivity connectivity() {
+        return connectivity;
+    }
+
+    @Override
+    public StencilRegistry stencils() {
+        return stencils;
+    }
+
+    @Override
+    public ExecutionContext executionContext() {
+        return executionContext;
+    }
+
+    @Override
+    public void setExecutionContext(ExecutionContext executionContext) {
+        if (executionContext == null) {
+            throw new IllegalArgumentException("Execution context must not be null.");
+        }
+        this.executionContext = executionContext;
+    }
 }
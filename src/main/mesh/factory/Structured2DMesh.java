@@ -9,6 +9,7 @@ import main.geom.factory.Quad;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
 import main.io.DataFileReader;
+import main.util.ExecutionContext;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -19,12 +20,55 @@ public class Structured2DMesh implements Mesh {
     private final List<Face> internalFaces;
     private final List<Node> nodes;
     private final List<Boundary> boundaries;
+    private final SolutionState solutionState;
+    private final Connectivity connectivity;
+    private final StencilRegistry stencils;
+    private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
     public Structured2DMesh(File meshFile, int numVars,
                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) throws FileNotFoundException {
-        int num_xi, num_eta;
-        Node[][] nodeArray;
+        this(meshFile, numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, CellOrdering.FILE_ORDER);
+    }
+
+    public Structured2DMesh(File meshFile, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            CellOrdering cellOrdering) throws FileNotFoundException {
+        this(readNodes(meshFile, numVars), numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, cellOrdering);
+    }
+
+    /**
+     * Creates the mesh in memory, without a mesh file. The nodes are created in parallel.
+     *
+     * @param num_xi       Number of nodes in the xi direction.
+     * @param num_eta      Number of nodes in the eta direction.
+     * @param nodeFunction Location of the node (i, j), for 0 <= i < num_xi and 0 <= j < num_eta.
+     */
+    public Structured2DMesh(int num_xi, int num_eta, NodeFunction nodeFunction, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) {
+        this(num_xi, num_eta, nodeFunction, numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax,
+                CellOrdering.FILE_ORDER);
+    }
+
+    public Structured2DMesh(int num_xi, int num_eta, NodeFunction nodeFunction, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            CellOrdering cellOrdering) {
+        this(createNodes(num_xi, num_eta, nodeFunction, numVars), numVars,
+                bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, cellOrdering);
+    }
+
+    /**
+     * Location of the nodes of a structured 2D mesh.
+     */
+    @FunctionalInterface
+    public interface NodeFunction {
+        Point location(int i, int j);
+    }
+
+    private static Node[][] readNodes(File meshFile, int numVars) throws FileNotFoundException {
         try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
             int dim = meshFileReader.readIntParameter("dimension");
             if (dim != 2) {
@@ -36,115 +80,68 @@ public class Structured2DMesh implements Mesh {
                 throw new IllegalArgumentException("Only ASCII mode is supported.");
             }
 
-            num_xi = meshFileReader.readIntParameter("xi");
-            num_eta = meshFileReader.readIntParameter("eta");
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
 
-            nodeArray = new Node[num_xi][num_eta];
-            this.nodes = new ArrayList<>();
+            Node[][] nodeArray = new Node[num_xi][num_eta];
             for (int i = 0; i < num_xi; i++) {
                 for (int j = 0; j < num_eta; j++) {
-                    Node node = new Node(meshFileReader.readXYZ(), numVars);
-                    nodeArray[i][j] = node;
-                    this.nodes.add(node);
+                    nodeArray[i][j] = new Node(meshFileReader.readXYZ(), numVars);
                 }
             }
+            return nodeArray;
         }
+    }
 
-        Cell[][] cellArray = new Cell[num_xi - 1][num_eta - 1];
-        this.cells = new ArrayList<>();
-        for (int i = 0; i < num_xi - 1; i++) {
-            for (int j = 0; j < num_eta - 1; j++) {
-                Node[] n = new Node[]{nodeArray[i][j], nodeArray[i + 1][j], nodeArray[i + 1][j + 1], nodeArray[i][j + 1]};
-                Geometry cellGeom = new Quad(n[0].location(), n[1].location(),
-                        n[2].location(), n[3].location());
-                Cell cell = new Cell(n, VTKType.VTK_QUAD,
-                        new Shape(cellGeom.area(), cellGeom.centroid()), numVars);
-                cellArray[i][j] = cell;
-                this.cells.add(cell);
-            }
+    private static Node[][] createNodes(int num_xi, int num_eta, NodeFunction nodeFunction, int numVars) {
+        if (num_xi < 2 || num_eta < 2) {
+            throw new IllegalArgumentException("A 2D mesh needs at least 2 nodes in each direction.");
         }
-        setAllCellIndices();
-
-        this.internalFaces = new ArrayList<>();
-        Set<Face> faceSet = new HashSet<>();
-        Node na, nb;
-        for (Cell cell : this.cells) {
-            Node n0 = cell.nodes[0];
-            Node n1 = cell.nodes[1];
-            Node n2 = cell.nodes[2];
-            Node n3 = cell.nodes[3];
-
-            Geometry cellGeom = new Quad(n0.location(), n1.location(), n2.location(), n3.location());
-            Vector cellNormal = cellGeom.unitNormal();
-
-            // Face 0
-            na = n0;
-            nb = n1;
-            Geometry faceGeom = new Line(na.location(), nb.location());
-            double area = faceGeom.length() * 1.0;
-            Point centroid = faceGeom.centroid();
-
-            Vector faceTangent = new Vector(na.location(), nb.location());
-            Vector unitNormal = faceTangent.cross(cellNormal).unit();
-
-            Surface surface = new Surface(area, centroid, unitNormal);
-
-            Face f0 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 1
-            na = n1;
-            nb = n2;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f1 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 2
-            na = n2;
-            nb = n3;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f2 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 3
-            na = n3;
-            nb = n0;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f3 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
+        Node[][] nodeArray = new Node[num_xi][num_eta];
+        ExecutionContext.COMMON_POOL.forEach(0, num_xi * num_eta, n -> {
+            int i = n / num_eta, j = n % num_eta;
+            nodeArray[i][j] = new Node(nodeFunction.location(i, j), numVars);
+        });
+        return nodeArray;
+    }
 
-            faceSet.addAll(List.of(f0, f1, f2, f3));
+    private Structured2DMesh(Node[][] nodeArray, int numVars,
+                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                             CellOrdering cellOrdering) {
+        int num_xi = nodeArray.length;
+        int num_eta = nodeArray[0].length;
+        this.nodes = new ArrayList<>(num_xi * num_eta);
+        for (int i = 0; i < num_xi; i++) {
+            this.nodes.addAll(Arrays.asList(nodeArray[i]));
         }
-        this.internalFaces.addAll(faceSet);
+        setAllNodeIndices();
+
+        Cell[][] cellArray = new Cell[num_xi - 1][num_eta - 1];
+        Cell[] cellsInFileOrder = new Cell[(num_xi - 1) * (num_eta - 1)];
+        executionContext.forEach(0, cellsInFileOrder.length, c -> {
+            int i = c / (num_eta - 1), j = c % (num_eta - 1);
+            Node[] n = new Node[]{nodeArray[i][j], nodeArray[i + 1][j], nodeArray[i + 1][j + 1], nodeArray[i][j + 1]};
+            Geometry cellGeom = new Quad(n[0].location(), n[1].location(),
+                    n[2].location(), n[3].location());
+            Cell cell = new Cell(n, VTKType.VTK_QUAD,
+                    new Shape(cellGeom.area(), cellGeom.centroid()), numVars);
+            cellArray[i][j] = cell;
+            cellsInFileOrder[c] = cell;
+        });
+        List<Cell> cellList = Arrays.asList(cellsInFileOrder);
+        this.cells = CellRenumbering.reorder(cellList, CellRenumbering.order(cellList, cellOrdering));
+        setAllCellIndices();
 
-        // Remove all boundary faces
-        this.internalFaces.removeIf(face -> face.right == null);
+        FaceBuilder faceBuilder = new FaceBuilder(this.cells, this::quadCellFaces);
+        this.internalFaces = faceBuilder.internalFaces();
 
         this.boundaries = new ArrayList<>();
         Face[] xiMinFaces = new Face[num_eta - 1];
         Face[] xiMaxFaces = new Face[num_eta - 1];
         Face[] etaMinFaces = new Face[num_xi - 1];
         Face[] etaMaxFaces = new Face[num_xi - 1];
+        Node na, nb;
         int i, j;
         i = 0;
         for (j = 0; j < num_eta - 1; j++) {
@@ -281,6 +278,79 @@ public class Structured2DMesh implements Mesh {
                 face.right.faces.add(face);
             }
         }
+
+        this.connectivity = new Connectivity(this);
+        this.solutionState = new SolutionState(this.cells.size(),
+                connectivity.numFaces - connectivity.numInternalFaces, connectivity.numFaces, numVars);
+        this.stencils = new StencilRegistry(this);
+    }
+
+    private List<Face> quadCellFaces(Cell cell) {
+        Node n0 = cell.nodes[0];
+        Node n1 = cell.nodes[1];
+        Node n2 = cell.nodes[2];
+        Node n3 = cell.nodes[3];
+
+        Geometry cellGeom = new Quad(n0.location(), n1.location(), n2.location(), n3.location());
+        Vector cellNormal = cellGeom.unitNormal();
+
+        // Face 0
+        Node na = n0;
+        Node nb = n1;
+        Geometry faceGeom = new Line(na.location(), nb.location());
+        double area = faceGeom.length() * 1.0;
+        Point centroid = faceGeom.centroid();
+
+        Vector faceTangent = new Vector(na.location(), nb.location());
+        Vector unitNormal = faceTangent.cross(cellNormal).unit();
+
+        Surface surface = new Surface(area, centroid, unitNormal);
+
+        Face f0 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, cell.U.length);
+
+        // Face 1
+        na = n1;
+        nb = n2;
+        faceGeom = new Line(na.location(), nb.location());
+        area = faceGeom.length() * 1.0;
+        centroid = faceGeom.centroid();
+
+        faceTangent = new Vector(na.location(), nb.location());
+        unitNormal = faceTangent.cross(cellNormal).unit();
+
+        surface = new Surface(area, centroid, unitNormal);
+
+        Face f1 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, cell.U.length);
+
+        // Face 2
+        na = n2;
+        nb = n3;
+        faceGeom = new Line(na.location(), nb.location());
+        area = faceGeom.length() * 1.0;
+        centroid = faceGeom.centroid();
+
+        faceTangent = new Vector(na.location(), nb.location());
+        unitNormal = faceTangent.cross(cellNormal).unit();
+
+        surface = new Surface(area, centroid, unitNormal);
+
+        Face f2 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, cell.U.length);
+
+        // Face 3
+        na = n3;
+        nb = n0;
+        faceGeom = new Line(na.location(), nb.location());
+        area = faceGeom.length() * 1.0;
+        centroid = faceGeom.centroid();
+
+        faceTangent = new Vector(na.location(), nb.location());
+        unitNormal = faceTangent.cross(cellNormal).unit();
+
+        surface = new Surface(area, centroid, unitNormal);
+
+        Face f3 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, cell.U.length);
+
+        return List.of(f0, f1, f2, f3);
     }
 
     @Override
@@ -302,4 +372,32 @@ public class Structured2DMesh implements Mesh {
     public List<Boundary> boundaries() {
         return boundaries;
     }
+
+    @Override
+    public SolutionState solutionState() {
+        return solutionState;
+    }
+
+    @Override
+    public Connectivity connectivity() {
+        return connectivity;
+    }
+
+    @Override
+    public StencilRegistry stencils() {
+        return stencils;
+    }
+
+    @Override
+    public ExecutionContext executionContext() {
+        return executionContext;
+    }
+
+    @Override
+    public void setExecutionContext(ExecutionContext executionContext) {
+        if (executionContext == null) {
+            throw new IllegalArgumentException("Execution context must not be null.");
+        }
+        this.executionContext = executionContext;
+    }
 }
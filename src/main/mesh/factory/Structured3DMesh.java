@@ -9,12 +9,13 @@ import main.geom.factory.Quad;
 import main.io.DataFileReader;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
+import main.util.ExecutionContext;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Structured3DMesh implements Mesh {
     private enum FaceOrientation {
@@ -25,13 +26,63 @@ public class Structured3DMesh implements Mesh {
     private final List<Face> internalFaces;
     private final List<Node> nodes;
     private final List<Boundary> boundaries;
+    private final SolutionState solutionState;
+    private final Connectivity connectivity;
+    private final StencilRegistry stencils;
+    private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
     public Structured3DMesh(File meshFile, int numVars,
                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
                             BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) throws FileNotFoundException {
-        int num_xi, num_eta, num_zeta;
-        Node[][][] nodeArray;
+        this(meshFile, numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, bc_zetaMin, bc_zetaMax,
+                CellOrdering.FILE_ORDER);
+    }
+
+    public Structured3DMesh(File meshFile, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax,
+                            CellOrdering cellOrdering) throws FileNotFoundException {
+        this(readNodes(meshFile, numVars), numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax,
+                bc_zetaMin, bc_zetaMax, cellOrdering);
+    }
+
+    /**
+     * Creates the mesh in memory, without a mesh file. The nodes are created in parallel.
+     *
+     * @param num_xi       Number of nodes in the xi direction.
+     * @param num_eta      Number of nodes in the eta direction.
+     * @param num_zeta     Number of nodes in the zeta direction.
+     * @param nodeFunction Location of the node (i, j, k), for 0 <= i < num_xi, 0 <= j < num_eta and
+     *                     0 <= k < num_zeta.
+     */
+    public Structured3DMesh(int num_xi, int num_eta, int num_zeta, NodeFunction nodeFunction, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) {
+        this(num_xi, num_eta, num_zeta, nodeFunction, numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax,
+                bc_zetaMin, bc_zetaMax, CellOrdering.FILE_ORDER);
+    }
+
+    public Structured3DMesh(int num_xi, int num_eta, int num_zeta, NodeFunction nodeFunction, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax,
+                            CellOrdering cellOrdering) {
+        this(createNodes(num_xi, num_eta, num_zeta, nodeFunction, numVars), numVars,
+                bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, bc_zetaMin, bc_zetaMax, cellOrdering);
+    }
+
+    /**
+     * Location of the nodes of a structured 3D mesh.
+     */
+    @FunctionalInterface
+    public interface NodeFunction {
+        Point location(int i, int j, int k);
+    }
+
+    private static Node[][][] readNodes(File meshFile, int numVars) throws FileNotFoundException {
         try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
             int dim = meshFileReader.readIntParameter("dimension");
             if (dim != 3) {
@@ -43,43 +94,65 @@ public class Structured3DMesh implements Mesh {
                 throw new IllegalArgumentException("Only ASCII mode is supported.");
             }
 
-            num_xi = meshFileReader.readIntParameter("xi");
-            num_eta = meshFileReader.readIntParameter("eta");
-            num_zeta = meshFileReader.readIntParameter("zeta");
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
+            int num_zeta = meshFileReader.readIntParameter("zeta");
 
-            nodeArray = new Node[num_xi][num_eta][num_zeta];
-            this.nodes = new ArrayList<>();
+            Node[][][] nodeArray = new Node[num_xi][num_eta][num_zeta];
             for (int i = 0; i < num_xi; i++) {
                 for (int j = 0; j < num_eta; j++) {
                     for (int k = 0; k < num_zeta; k++) {
-                        Node node = new Node(meshFileReader.readXYZ(), numVars);
-                        nodeArray[i][j][k] = node;
-                        this.nodes.add(node);
+                        nodeArray[i][j][k] = new Node(meshFileReader.readXYZ(), numVars);
                     }
                 }
             }
+            return nodeArray;
         }
+    }
 
-        this.cells = new ArrayList<>();
-        Cell[][][] cellArray = new Cell[num_xi - 1][num_eta - 1][num_zeta - 1];
-        for (int i = 0; i < num_xi - 1; i++) {
-            for (int j = 0; j < num_eta - 1; j++) {
-                for (int k = 0; k < num_zeta - 1; k++) {
-                    Cell cell = hexCell(nodeArray, i, j, k, numVars);
-                    cellArray[i][j][k] = cell;
-                    this.cells.add(cell);
-                }
+    private static Node[][][] createNodes(int num_xi, int num_eta, int num_zeta, NodeFunction nodeFunction,
+                                          int numVars) {
+        if (num_xi < 2 || num_eta < 2 || num_zeta < 2) {
+            throw new IllegalArgumentException("A 3D mesh needs at least 2 nodes in each direction.");
+        }
+        Node[][][] nodeArray = new Node[num_xi][num_eta][num_zeta];
+        ExecutionContext.COMMON_POOL.forEach(0, num_xi * num_eta * num_zeta, n -> {
+            int i = n / (num_eta * num_zeta), j = n / num_zeta % num_eta, k = n % num_zeta;
+            nodeArray[i][j][k] = new Node(nodeFunction.location(i, j, k), numVars);
+        });
+        return nodeArray;
+    }
+
+    private Structured3DMesh(Node[][][] nodeArray, int numVars,
+                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                             BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax,
+                             CellOrdering cellOrdering) {
+        int num_xi = nodeArray.length;
+        int num_eta = nodeArray[0].length;
+        int num_zeta = nodeArray[0][0].length;
+        this.nodes = new ArrayList<>(num_xi * num_eta * num_zeta);
+        for (Node[][] plane : nodeArray) {
+            for (Node[] line : plane) {
+                this.nodes.addAll(Arrays.asList(line));
             }
         }
-        setAllCellIndices();
+        setAllNodeIndices();
 
-        this.internalFaces = this.cells.stream()
-                .flatMap(cell -> hexCellFaces(cell).stream())
-                .distinct()
-                .collect(Collectors.toList());
+        Cell[][][] cellArray = new Cell[num_xi - 1][num_eta - 1][num_zeta - 1];
+        Cell[] cellsInFileOrder = new Cell[(num_xi - 1) * (num_eta - 1) * (num_zeta - 1)];
+        executionContext.forEach(0, cellsInFileOrder.length, c -> {
+            int i = c / ((num_eta - 1) * (num_zeta - 1)), j = c / (num_zeta - 1) % (num_eta - 1),
+                    k = c % (num_zeta - 1);
+            Cell cell = hexCell(nodeArray, i, j, k, numVars);
+            cellArray[i][j][k] = cell;
+            cellsInFileOrder[c] = cell;
+        });
+        List<Cell> cellList = Arrays.asList(cellsInFileOrder);
+        this.cells = CellRenumbering.reorder(cellList, CellRenumbering.order(cellList, cellOrdering));
+        setAllCellIndices();
 
-        // Remove all boundary faces
-        this.internalFaces.removeIf(face -> face.right == null);
+        this.internalFaces = new FaceBuilder(this.cells, this::hexCellFaces).internalFaces();
 
         int i, j, k;
         List<Face> xiMinFaces = new ArrayList<>();
@@ -303,6 +376,11 @@ public class Structured3DMesh implements Mesh {
                 }
             }
         }
+
+        this.connectivity = new Connectivity(this);
+        this.solutionState = new SolutionState(this.cells.size(),
+                connectivity.numFaces - connectivity.numInternalFaces, connectivity.numFaces, numVars);
+        this.stencils = new StencilRegistry(this);
     }
 
     @Override
@@ -418,4 +496,32 @@ public class Structured3DMesh implements Mesh {
 
         return new Face(new Node[]{n0, n1, n2, n3}, quad.vtkType(), surface, left, null, left.U.length);
     }
-}
\ No newline at end of file
+
+    @Override
+    public SolutionState solutionState() {
+        return solutionState;
+    }
+
+    @Override
+    public Connectivity connectivity() {
+        return connectivity;
+    }
+
+    @Override
+    public StencilRegistry stencils() {
+        return stencils;
+    }
+
+    @Override
+    public ExecutionContext executionContext() {
+        return executionContext;
+    }
+
+    @Override
+    public void setExecutionContext(ExecutionContext executionContext) {
+        if (executionContext == null) {
+            throw new IllegalArgumentException("Execution context must not be null.");
+        }
+        this.executionContext = executionContext;
+    }
+}
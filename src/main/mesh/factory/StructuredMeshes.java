@@ -0,0 +1,65 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.physics.bc.BoundaryCondition;
+
+/**
+ * Uniform structured meshes of a line, rectangle or box, created in memory without a mesh file. Useful for tests
+ * and benchmarks on large meshes.
+ */
+public class StructuredMeshes {
+
+    private StructuredMeshes() {
+    }
+
+    /**
+     * @param numCells Number of cells between xMin and xMax.
+     */
+    public static Structured1DMesh line(double xMin, double xMax, int numCells, int numVars,
+                                        BoundaryCondition bc_xMin, BoundaryCondition bc_xMax) {
+        requirePositive(numCells);
+        double dx = (xMax - xMin) / numCells;
+        return new Structured1DMesh(numCells + 1, i -> new Point(xMin + i * dx, 0, 0), numVars, bc_xMin, bc_xMax);
+    }
+
+    /**
+     * @param min Corner with the smallest coordinates, in the z = min.z plane.
+     * @param max Corner with the largest x and y coordinates.
+     */
+    public static Structured2DMesh rectangle(Point min, Point max, int numCells_x, int numCells_y, int numVars,
+                                             BoundaryCondition bc_xMin, BoundaryCondition bc_xMax,
+                                             BoundaryCondition bc_yMin, BoundaryCondition bc_yMax) {
+        requirePositive(numCells_x, numCells_y);
+        double dx = (max.x - min.x) / numCells_x;
+        double dy = (max.y - min.y) / numCells_y;
+        return new Structured2DMesh(numCells_x + 1, numCells_y + 1,
+                (i, j) -> new Point(min.x + i * dx, min.y + j * dy, min.z), numVars,
+                bc_xMin, bc_xMax, bc_yMin, bc_yMax);
+    }
+
+    /**
+     * @param min Corner with the smallest coordinates.
+     * @param max Corner with the largest coordinates.
+     */
+    public static Structured3DMesh box(Point min, Point max, int numCells_x, int numCells_y, int numCells_z,
+                                       int numVars,
+                                       BoundaryCondition bc_xMin, BoundaryCondition bc_xMax,
+                                       BoundaryCondition bc_yMin, BoundaryCondition bc_yMax,
+                                       BoundaryCondition bc_zMin, BoundaryCondition bc_zMax) {
+        requirePositive(numCells_x, numCells_y, numCells_z);
+        double dx = (max.x - min.x) / numCells_x;
+        double dy = (max.y - min.y) / numCells_y;
+        double dz = (max.z - min.z) / numCells_z;
+        return new Structured3DMesh(numCells_x + 1, numCells_y + 1, numCells_z + 1,
+                (i, j, k) -> new Point(min.x + i * dx, min.y + j * dy, min.z + k * dz), numVars,
+                bc_xMin, bc_xMax, bc_yMin, bc_yMax, bc_zMin, bc_zMax);
+    }
+
+    private static void requirePositive(int... numCells) {
+        for (int n : numCells) {
+            if (n < 1) {
+                throw new IllegalArgumentException("The number of cells must be positive.");
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import main.geom.factory.*;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
 import main.io.DataFileReader;
+import main.util.ExecutionContext;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -21,8 +22,17 @@ public class Unstructured2DMesh implements Mesh {
     private final List<Face> internalFaces;
     private final List<Node> nodes;
     private final List<Boundary> boundaries;
+    private final SolutionState solutionState;
+    private final Connectivity connectivity;
+    private final StencilRegistry stencils;
+    private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
     public Unstructured2DMesh(File meshFile, int numVars, Map<String, BoundaryCondition> bcs) throws FileNotFoundException {
+        this(meshFile, numVars, bcs, CellOrdering.FILE_ORDER);
+    }
+
+    public Unstructured2DMesh(File meshFile, int numVars, Map<String, BoundaryCondition> bcs,
+                              CellOrdering cellOrdering) throws FileNotFoundException {
         DataFileReader meshFileReader = new DataFileReader(meshFile, "%");
         int dim = meshFileReader.readIntParameter("dimension");
         if (dim != 2) {
@@ -37,10 +47,11 @@ public class Unstructured2DMesh implements Mesh {
         this.nodes = List.copyOf(IntStream.range(0, numPoints)
                 .mapToObj(i -> new Node(meshFileReader.readXYZ(), numVars))
                 .collect(toList()));
+        setAllNodeIndices();
 
         int numElements = meshFileReader.readIntParameter("elements");
         List<Cell> cellList = new ArrayList<>();
-        Set<Face> faceSet = new HashSet<>();
+        List<Geometry> cellGeomList = new ArrayList<>();
         for (int i = 0; i < numElements; i++) {
             int[] connectivity = meshFileReader.readIntArray();
             VTKType vtkType = VTKType.get(connectivity[0]);
@@ -73,20 +84,17 @@ public class Unstructured2DMesh implements Mesh {
             Shape cellShape = new Shape(cellGeom.area() * 1.0, cellGeom.centroid());
             Cell cell = new Cell(cellNodes, vtkType, cellShape, numVars);
             cellList.add(cell);
-
-            // Create and add faces of the cell to Set
-            faceSet.addAll(createCellFaces(cell, cellGeom));
+            cellGeomList.add(cellGeom);
         }
-        this.cells = List.copyOf(cellList);
+        int[] cellOrder = CellRenumbering.order(cellList, cellOrdering);
+        this.cells = List.copyOf(CellRenumbering.reorder(cellList, cellOrder));
+        List<Geometry> cellGeoms = CellRenumbering.reorder(cellGeomList, cellOrder);
         setAllCellIndices();
 
-        List<Face> allBoundaryFaces = faceSet.stream()
-                .filter(f -> f.right == null)
-                .collect(toList());
-
-        this.internalFaces = List.copyOf(faceSet.stream()
-                .filter(f -> f.right != null)
-                .collect(toList()));
+        // Create faces of the cells and match the faces shared by two cells
+        FaceBuilder faceBuilder = new FaceBuilder(this.cells,
+                cell -> createCellFaces(cell, cellGeoms.get(cell.index())));
+        this.internalFaces = List.copyOf(faceBuilder.internalFaces());
 
         int numBoundaries = meshFileReader.readIntParameter("boundaries");
         Boundary[] boundaryArray = new Boundary[numBoundaries];
@@ -104,7 +112,7 @@ public class Unstructured2DMesh implements Mesh {
                 for (int ni = 0; ni < faceNodes.length; ni++) {
                     faceNodes[ni] = nodes.get(connectivity[ni + 1]);
                 }
-                Face bndFace = search(faceNodes, allBoundaryFaces)
+                Face bndFace = faceBuilder.boundaryFace(faceNodes)
                         .orElseThrow(() -> new IllegalStateException("Couldn't locate boundary face in mesh."));
                 bndFace.right = Mesh.ghostCell(bndFace.left, bndFace);
                 bndFaces.add(bndFace);
@@ -142,6 +150,11 @@ public class Unstructured2DMesh implements Mesh {
                 face.right.faces.add(face);
             }
         }
+
+        this.connectivity = new Connectivity(this);
+        this.solutionState = new SolutionState(this.cells.size(),
+                connectivity.numFaces - connectivity.numInternalFaces, connectivity.numFaces, numVars);
+        this.stencils = new StencilRegistry(this);
     }
 
     private List<Face> createCellFaces(Cell cell, Geometry cellGeom) {
@@ -169,24 +182,6 @@ public class Unstructured2DMesh implements Mesh {
         return edgeTangent.cross(cellNormal).unit();
     }
 
-    private Optional<Face> search(Node[] faceNodes, List<Face> faces) {
-        for (Face face : faces) {
-            if (sameNodes(faceNodes, face.nodes))
-                return Optional.of(face);
-        }
-
-        return Optional.empty();
-    }
-
-    private boolean sameNodes(Node[] na1, Node[] na2) {
-        if (na1.length != na2.length) return false;
-
-        List<Node> nl1 = List.of(na1);
-        List<Node> nl2 = List.of(na2);
-
-        return nl1.containsAll(nl2);
-    }
-
     @Override
     public List<Cell> cells() {
         return cells;
@@ -206,4 +201,32 @@ public class Unstructured2DMesh implements Mesh {
     public List<Boundary> boundaries() {
         return boundaries;
     }
+
+    @Override
+    public SolutionState solutionState() {
+        return solutionState;
+    }
+
+    @Override
+    public Connectivity connectivity() {
+        return connectivity;
+    }
+
+    @Override
+    public StencilRegistry stencils() {
+        return stencils;
+    }
+
+    @Override
+    public ExecutionContext executionContext() {
+        return executionContext;
+    }
+
+    @Override
+    public void setExecutionContext(ExecutionContext executionContext) {
+        if (executionContext == null) {
+            throw new IllegalArgumentException("Execution context must not be null.");
+        }
+        this.executionContext = executionContext;
+    }
 }
@@ -6,4 +6,15 @@ public interface BoundaryCondition {
     void setGhostCellValues(Face face);
 
     double[] convectiveFlux(Face face);
+
+    /**
+     * Same as convectiveFlux(face), but the flux is written to the given array.
+     *
+     * @param flux Array of length numVars to which the flux is written
+     * @param face Boundary face
+     */
+    default void convectiveFluxInto(double[] flux, Face face) {
+        double[] F = convectiveFlux(face);
+        System.arraycopy(F, 0, flux, 0, F.length);
+    }
 }
@@ -21,7 +21,13 @@ public class ExtrapolatedBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
-        double[] innerVars = face.left.U;
-        return govEqn.convection().flux(innerVars, face.surface.unitNormal());
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
+
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
+        govEqn.convection().fluxInto(flux, face.left.U, face.surface.unitNormal());
     }
 }
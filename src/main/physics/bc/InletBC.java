@@ -9,11 +9,17 @@ import static main.util.DoubleArray.copy;
 public class InletBC implements BoundaryCondition {
 
     private final EulerEquations govEqn;
+    private final ThreadLocal<double[]> primVars;
+    private final ThreadLocal<double[]> insidePrimVars;
+    private final ThreadLocal<double[]> consVars;
     private final InletProperties unsteadyInletProperties;
 
     public InletBC(EulerEquations govEqn, InletProperties unsteadyInletProperties) {
         this.govEqn = govEqn;
         this.unsteadyInletProperties = unsteadyInletProperties;
+        this.primVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
+        this.insidePrimVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
+        this.consVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -37,21 +43,32 @@ public class InletBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
+
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
         InletProperties prop = unsteadyInletProperties;
-        Vector velocity = face.surface.unitNormal()
-                .mult(-prop.normalVelocityMagnitude); // negative since the normal is pointing out
-        double[] primVars = new double[]{
-                prop.density, velocity.x, velocity.y, velocity.z, prop.pressure
-        };
-        double mach = govEqn.mach(primVars, face.surface.unitNormal());
+        Vector n = face.surface.unitNormal();
+        // negative velocity since the normal is pointing out
+        double[] primVars = this.primVars.get();
+        primVars[0] = prop.density;
+        primVars[1] = -prop.normalVelocityMagnitude * n.x;
+        primVars[2] = -prop.normalVelocityMagnitude * n.y;
+        primVars[3] = -prop.normalVelocityMagnitude * n.z;
+        primVars[4] = prop.pressure;
+        double mach = govEqn.mach(primVars, n);
         if (mach > -1 && mach < 1) {
-            double[] insidePrimVars = govEqn.primitiveVars(face.left.U);
-            double insidePressure = insidePrimVars[4];
-            primVars[4] = insidePressure;
+            double[] insidePrimVars = this.insidePrimVars.get();
+            govEqn.primitiveVarsInto(insidePrimVars, face.left.U);
+            primVars[4] = insidePrimVars[4];
         }
-        double[] consVars = govEqn.conservativeVars(primVars);
+        double[] consVars = this.consVars.get();
+        govEqn.conservativeVarsInto(consVars, primVars);
 
-        return govEqn.convection().flux(consVars, face.surface.unitNormal());
+        govEqn.convection().fluxInto(flux, consVars, n);
     }
 
     public static class InletProperties {
@@ -8,9 +8,11 @@ import static main.util.DoubleArray.copy;
 
 public class InviscidWallBC implements BoundaryCondition {
     private final EulerEquations govEqn;
+    private final ThreadLocal<double[]> insidePrimVars;
 
     public InviscidWallBC(EulerEquations govEqn) {
         this.govEqn = govEqn;
+        this.insidePrimVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -41,11 +43,21 @@ public class InviscidWallBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
+
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
         Vector n = face.surface.unitNormal();
-        double[] insidePrimVars = govEqn.primitiveVars(face.left.U);
+        double[] insidePrimVars = this.insidePrimVars.get();
+        govEqn.primitiveVarsInto(insidePrimVars, face.left.U);
         double p = insidePrimVars[4];
-        return new double[]{
-                0, p * n.x, p * n.y, p * n.z, 0
-        };
+        flux[0] = 0;
+        flux[1] = p * n.x;
+        flux[2] = p * n.y;
+        flux[3] = p * n.z;
+        flux[4] = 0;
     }
 }
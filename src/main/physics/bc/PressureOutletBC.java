@@ -6,11 +6,15 @@ import main.util.DoubleArray;
 
 public class PressureOutletBC implements BoundaryCondition {
     private final ArtificialCompressibilityEquations govEqn;
+    private final ThreadLocal<double[]> primitiveVars;
+    private final ThreadLocal<double[]> conservativeVars;
     private final double pressure;
 
     public PressureOutletBC(ArtificialCompressibilityEquations govEqn, double pressure) {
         this.govEqn = govEqn;
         this.pressure = pressure;
+        this.primitiveVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
+        this.conservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -36,17 +40,24 @@ public class PressureOutletBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
+
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
         // velocity is defined by inside cell, pressure is defined
         double[] insideConservativeVars = face.left.U;
-        double ui = insideConservativeVars[1];
-        double vi = insideConservativeVars[2];
-        double wi = insideConservativeVars[3];
-        double[] primitiveVars = {
-                this.pressure, ui, vi, wi
-        };
+        double[] primitiveVars = this.primitiveVars.get();
+        primitiveVars[0] = this.pressure;
+        primitiveVars[1] = insideConservativeVars[1];
+        primitiveVars[2] = insideConservativeVars[2];
+        primitiveVars[3] = insideConservativeVars[3];
 
-        double[] conservativeVars = govEqn.conservativeVars(primitiveVars);
+        double[] conservativeVars = this.conservativeVars.get();
+        govEqn.conservativeVarsInto(conservativeVars, primitiveVars);
 
-        return govEqn.convection().flux(conservativeVars, face.surface.unitNormal());
+        govEqn.convection().fluxInto(flux, conservativeVars, face.surface.unitNormal());
     }
 }
@@ -7,11 +7,13 @@ import main.util.DoubleArray;
 
 public class VelocityInletBC implements BoundaryCondition {
     private final ArtificialCompressibilityEquations govEqn;
+    private final ThreadLocal<double[]> conservativeVars;
     private final Vector velocity;
 
     public VelocityInletBC(ArtificialCompressibilityEquations govEqn, Vector velocity) {
         this.govEqn = govEqn;
         this.velocity = velocity;
+        this.conservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -36,14 +38,20 @@ public class VelocityInletBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
-        // u, v, w defined by the inlet velocity, p defined by the inside cell
-        double p_beta = face.left.U[0];
-        double u = this.velocity.x;
-        double v = this.velocity.y;
-        double w = this.velocity.z;
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
 
-        double[] conservativeVars = {p_beta, u, v, w};
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
+        // u, v, w defined by the inlet velocity, p defined by the inside cell
+        double[] conservativeVars = this.conservativeVars.get();
+        conservativeVars[0] = face.left.U[0];
+        conservativeVars[1] = this.velocity.x;
+        conservativeVars[2] = this.velocity.y;
+        conservativeVars[3] = this.velocity.z;
 
-        return govEqn.convection().flux(conservativeVars, face.surface.unitNormal());
+        govEqn.convection().fluxInto(flux, conservativeVars, face.surface.unitNormal());
     }
 }
@@ -8,11 +8,13 @@ import main.util.DoubleArray;
 public class WallBC implements BoundaryCondition {
 
     private final ArtificialCompressibilityEquations govEqn;
+    private final ThreadLocal<double[]> conservativeVars;
     private final Vector wallVelocity;
 
     public WallBC(ArtificialCompressibilityEquations govEqn, Vector wallVelocity) {
         this.govEqn = govEqn;
         this.wallVelocity = wallVelocity;
+        this.conservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -37,14 +39,20 @@ public class WallBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
-        // u, v, w defined by the velocity of the wall, p defined by the inside cell
-        double p_beta = face.left.U[0];
-        double u = this.wallVelocity.x;
-        double v = this.wallVelocity.y;
-        double w = this.wallVelocity.z;
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
 
-        double[] conservativeVars = {p_beta, u, v, w};
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
+        // u, v, w defined by the velocity of the wall, p defined by the inside cell
+        double[] conservativeVars = this.conservativeVars.get();
+        conservativeVars[0] = face.left.U[0];
+        conservativeVars[1] = this.wallVelocity.x;
+        conservativeVars[2] = this.wallVelocity.y;
+        conservativeVars[3] = this.wallVelocity.z;
 
-        return govEqn.convection().flux(conservativeVars, face.surface.unitNormal());
+        govEqn.convection().fluxInto(flux, conservativeVars, face.surface.unitNormal());
     }
 }
@@ -8,11 +8,13 @@ import main.util.DoubleArray;
 public class WallVOFBC implements BoundaryCondition {
 
     private final ArtificialCompressibilityVOFEquations govEqn;
+    private final ThreadLocal<double[]> conservativeVars;
     private final Vector wallVelocity;
 
     public WallVOFBC(ArtificialCompressibilityVOFEquations govEqn, Vector wallVelocity) {
         this.govEqn = govEqn;
         this.wallVelocity = wallVelocity;
+        this.conservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
@@ -38,17 +40,24 @@ public class WallVOFBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
+        double[] flux = new double[govEqn.numVars()];
+        convectiveFluxInto(flux, face);
+        return flux;
+    }
+
+    @Override
+    public void convectiveFluxInto(double[] flux, Face face) {
         // u, v, w defined by the velocity of the wall, p and C defined by the inside cell
-        double p_rho_beta = face.left.U[0];
-        double u = this.wallVelocity.x;
-        double v = this.wallVelocity.y;
-        double w = this.wallVelocity.z;
         double C = face.left.U[4];
-
         double rho = govEqn.rho(C);
 
-        double[] conservativeVars = {p_rho_beta, rho * u, rho * v, rho * w, C};
+        double[] conservativeVars = this.conservativeVars.get();
+        conservativeVars[0] = face.left.U[0];
+        conservativeVars[1] = rho * this.wallVelocity.x;
+        conservativeVars[2] = rho * this.wallVelocity.y;
+        conservativeVars[3] = rho * this.wallVelocity.z;
+        conservativeVars[4] = C;
 
-        return govEqn.convection().flux(conservativeVars, face.surface.unitNormal());
+        govEqn.convection().fluxInto(flux, conservativeVars, face.surface.unitNormal());
     }
 }
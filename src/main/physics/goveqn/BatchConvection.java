@@ -0,0 +1,29 @@
+package main.physics.goveqn;
+
+/**
+ * Convection which can also calculate the fluxes and eigenvalues of several states at once.
+ * <p>
+ * The states are stored in structure of arrays layout: {@code conservativeVars[var][i]} is the variable
+ * {@code var} of the state {@code i} and {@code (nx[i], ny[i], nz[i])} is the unit normal used for it.
+ * The loops over the states have no dependency between iterations, so they can be vectorized by the JIT
+ * compiler. The results are the same as those of the single state methods.
+ */
+public interface BatchConvection extends Convection {
+    /**
+     * Same as fluxInto(flux, conservativeVars, unitNormal) for states 0 to count - 1.
+     */
+    void fluxBatch(double[][] flux, double[][] conservativeVars,
+                   double[] nx, double[] ny, double[] nz, int count);
+
+    /**
+     * Same as maxAbsEigenvalues(conservativeVars, unitNormal) for states 0 to count - 1.
+     */
+    void maxAbsEigenvaluesBatch(double[] maxAbsEigenvalues, double[][] conservativeVars,
+                                double[] nx, double[] ny, double[] nz, int count);
+
+    /**
+     * First and last of sortedEigenvalues(conservativeVars, unitNormal) for states 0 to count - 1.
+     */
+    void minMaxEigenvaluesBatch(double[] minEigenvalues, double[] maxEigenvalues, double[][] conservativeVars,
+                                double[] nx, double[] ny, double[] nz, int count);
+}
@@ -12,6 +12,18 @@ public interface Convection {
      */
     double[] flux(double[] conservativeVars, Vector unitNormal);
 
+    /**
+     * Same as flux(conservativeVars, unitNormal), but the flux is written to the given array.
+     *
+     * @param flux             Array of length numVars to which the flux is written
+     * @param conservativeVars U
+     * @param unitNormal       n
+     */
+    default void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+        double[] F = flux(conservativeVars, unitNormal);
+        System.arraycopy(F, 0, flux, 0, F.length);
+    }
+
     /**
      * Sorted eigenvalues of Fc nx + Gc ny + Hc nz.
      * These eigenvalues may or may not be equal to ev(Fc) nx + ev(Gc) ny + ev(Hc) nz.
@@ -22,6 +34,18 @@ public interface Convection {
      */
     double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal);
 
+    /**
+     * Same as sortedEigenvalues(conservativeVars, unitNormal), but the eigenvalues are written to the given array.
+     *
+     * @param eigenvalues      Array of length numVars to which the sorted eigenvalues are written
+     * @param conservativeVars U
+     * @param unitNormal       n
+     */
+    default void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+        double[] ev = sortedEigenvalues(conservativeVars, unitNormal);
+        System.arraycopy(ev, 0, eigenvalues, 0, ev.length);
+    }
+
     /**
      * This value is same as max(|sortedEigenvalues|).
      * However, it will be efficient to calculate only one eigenvalue using this method.
@@ -5,5 +5,42 @@ import main.geom.Vector;
 public interface Diffusion {
     double[] flux(double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal);
 
+    /**
+     * Same as flux(conservativeVars, gradConservativeVars, unitNormal), but the flux is written to the given array.
+     *
+     * @param flux Array of length numVars to which the flux is written
+     */
+    default void fluxInto(double[] flux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+        double[] F = flux(conservativeVars, gradConservativeVars, unitNormal);
+        System.arraycopy(F, 0, flux, 0, F.length);
+    }
+
+    /**
+     * Same as fluxInto(flux, conservativeVars, gradConservativeVars, unitNormal), but the gradients are read from
+     * a flat array: component i of the gradient of variable var is gradients[gradientOffset + 3 * var + i].
+     * The default implementation creates the gradient vectors, so the implementations override it.
+     */
+    default void fluxInto(double[] flux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                          Vector unitNormal) {
+        Vector[] gradConservativeVars = new Vector[conservativeVars.length];
+        for (int var = 0, g = gradientOffset; var < gradConservativeVars.length; var++, g += 3) {
+            gradConservativeVars[var] = new Vector(gradients[g], gradients[g + 1], gradients[g + 2]);
+        }
+        fluxInto(flux, conservativeVars, gradConservativeVars, unitNormal);
+    }
+
     double maxAbsDiffusivity(double[] conservativeVars);
+
+    /**
+     * @return Gradients in the flat layout of fluxInto(flux, conservativeVars, gradients, 0, unitNormal).
+     */
+    static double[] flatGradients(Vector[] gradConservativeVars) {
+        double[] gradients = new double[3 * gradConservativeVars.length];
+        for (int var = 0; var < gradConservativeVars.length; var++) {
+            gradients[3 * var] = gradConservativeVars[var].x;
+            gradients[3 * var + 1] = gradConservativeVars[var].y;
+            gradients[3 * var + 2] = gradConservativeVars[var].z;
+        }
+        return gradients;
+    }
 }
@@ -17,12 +17,36 @@ public interface GoverningEquations {
 
     double[] primitiveVars(double[] conservativeVars);
 
+    /**
+     * Same as primitiveVars(conservativeVars), but the primitive variables are written to the given array.
+     */
+    default void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
+        double[] V = primitiveVars(conservativeVars);
+        System.arraycopy(V, 0, primitiveVars, 0, V.length);
+    }
+
     double[] conservativeVars(double[] primitiveVars);
 
+    /**
+     * Same as conservativeVars(primitiveVars), but the conservative variables are written to the given array.
+     */
+    default void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
+        double[] U = conservativeVars(primitiveVars);
+        System.arraycopy(U, 0, conservativeVars, 0, U.length);
+    }
+
     default double[] realVars(double[] conservativeVars) {
         return copyOf(conservativeVars);
     }
 
+    /**
+     * Same as realVars(conservativeVars), but the real variables are written to the given array.
+     */
+    default void realVarsInto(double[] realVars, double[] conservativeVars) {
+        double[] W = realVars(conservativeVars);
+        System.arraycopy(W, 0, realVars, 0, W.length);
+    }
+
     Limits[] physicalLimits();
 
     Convection convection();
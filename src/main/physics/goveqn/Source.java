@@ -4,4 +4,28 @@ import main.geom.Vector;
 
 public interface Source {
     double[] sourceVector(double[] conservativeVars, Vector[] gradConservativeVars);
+
+    /**
+     * Same as sourceVector(conservativeVars, gradConservativeVars), but the source is written to the given array.
+     *
+     * @param sourceVector Array of length numVars to which the source is written
+     */
+    default void sourceVectorInto(double[] sourceVector, double[] conservativeVars, Vector[] gradConservativeVars) {
+        double[] S = sourceVector(conservativeVars, gradConservativeVars);
+        System.arraycopy(S, 0, sourceVector, 0, S.length);
+    }
+
+    /**
+     * Same as sourceVectorInto(sourceVector, conservativeVars, gradConservativeVars), but the gradients are read
+     * from a flat array: component i of the gradient of variable var is gradients[gradientOffset + 3 * var + i].
+     * The default implementation creates the gradient vectors, so the sources which do not use the gradients
+     * override it.
+     */
+    default void sourceVectorInto(double[] sourceVector, double[] conservativeVars, double[] gradients, int gradientOffset) {
+        Vector[] gradConservativeVars = new Vector[conservativeVars.length];
+        for (int var = 0, g = gradientOffset; var < gradConservativeVars.length; var++, g += 3) {
+            gradConservativeVars[var] = new Vector(gradients[g], gradients[g + 1], gradients[g + 2]);
+        }
+        sourceVectorInto(sourceVector, conservativeVars, gradConservativeVars);
+    }
 }
@@ -2,6 +2,8 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroConvection implements Convection {
 
     private final double[] flux;
@@ -17,11 +19,21 @@ public class ZeroConvection implements Convection {
         return flux;
     }
 
+    @Override
+    public void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+        Arrays.fill(flux, 0.0);
+    }
+
     @Override
     public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
         return ev;
     }
 
+    @Override
+    public void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+        Arrays.fill(eigenvalues, 0.0);
+    }
+
     @Override
     public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
         return 0;
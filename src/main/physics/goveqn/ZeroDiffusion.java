@@ -2,6 +2,8 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroDiffusion implements Diffusion {
     private final double[] zeroFlux;
 
@@ -14,6 +16,17 @@ public class ZeroDiffusion implements Diffusion {
         return zeroFlux;
     }
 
+    @Override
+    public void fluxInto(double[] flux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+        Arrays.fill(flux, 0.0);
+    }
+
+    @Override
+    public void fluxInto(double[] flux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                         Vector unitNormal) {
+        Arrays.fill(flux, 0.0);
+    }
+
     @Override
     public double maxAbsDiffusivity(double[] conservativeVars) {
         return 0;
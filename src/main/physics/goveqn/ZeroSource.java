@@ -2,6 +2,8 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroSource implements Source {
     private final double[] zeroVector;
 
@@ -13,4 +15,14 @@ public class ZeroSource implements Source {
     public double[] sourceVector(double[] conservativeVars, Vector[] gradConservativeVars) {
         return zeroVector;
     }
+
+    @Override
+    public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, Vector[] gradConservativeVars) {
+        Arrays.fill(sourceVector, 0.0);
+    }
+
+    @Override
+    public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, double[] gradients, int gradientOffset) {
+        Arrays.fill(sourceVector, 0.0);
+    }
 }
@@ -50,6 +50,13 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
     @Override
     public double[] primitiveVars(double[] conservativeVars) {
+        double[] primitiveVars = new double[4];
+        primitiveVarsInto(primitiveVars, conservativeVars);
+        return primitiveVars;
+    }
+
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
         double p_beta = conservativeVars[0];
         double u = conservativeVars[1];
         double v = conservativeVars[2];
@@ -57,13 +64,21 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
         double p = p_beta * BETA;
 
-        return new double[]{
-                p, u, v, w
-        };
+        primitiveVars[0] = p;
+        primitiveVars[1] = u;
+        primitiveVars[2] = v;
+        primitiveVars[3] = w;
     }
 
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
+        double[] conservativeVars = new double[4];
+        conservativeVarsInto(conservativeVars, primitiveVars);
+        return conservativeVars;
+    }
+
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
         double p = primitiveVars[0];
         double u = primitiveVars[1];
         double v = primitiveVars[2];
@@ -71,20 +86,30 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
         double p_beta = p / BETA;
 
-        return new double[]{
-                p_beta, u, v, w
-        };
+        conservativeVars[0] = p_beta;
+        conservativeVars[1] = u;
+        conservativeVars[2] = v;
+        conservativeVars[3] = w;
     }
 
     @Override
     public double[] realVars(double[] conservativeVars) {
+        double[] realVars = new double[4];
+        realVarsInto(realVars, conservativeVars);
+        return realVars;
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
         // double p_beta = conservativeVars[0];
         double u = conservativeVars[1];
         double v = conservativeVars[2];
         double w = conservativeVars[3];
-        return new double[]{
-                0, u, v, w
-        };
+
+        realVars[0] = 0;
+        realVars[1] = u;
+        realVars[2] = v;
+        realVars[3] = w;
     }
 
     private final Limits[] physicalLimits = new Limits[]{
@@ -99,14 +124,20 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
         return physicalLimits;
     }
 
-    private final Convection convection = new Convection() {
+    private final Convection convection = new BatchConvection() {
         @Override
         public double[] flux(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
+            double[] flux = new double[4];
+            fluxInto(flux, conservativeVars, unitNormal);
+            return flux;
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+            double p = conservativeVars[0] * BETA;
+            double u = conservativeVars[1];
+            double v = conservativeVars[2];
+            double w = conservativeVars[3];
 
             double p_rho = p / RHO;
 
@@ -116,21 +147,24 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
             double Vp = u * nx + v * ny + w * nz;
 
-            return new double[]{
-                    Vp,
-                    u * Vp + p_rho * nx,
-                    v * Vp + p_rho * ny,
-                    w * Vp + p_rho * nz
-            };
+            flux[0] = Vp;
+            flux[1] = u * Vp + p_rho * nx;
+            flux[2] = v * Vp + p_rho * ny;
+            flux[3] = w * Vp + p_rho * nz;
         }
 
         @Override
         public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            //double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
+            double[] eigenvalues = new double[4];
+            sortedEigenvaluesInto(eigenvalues, conservativeVars, unitNormal);
+            return eigenvalues;
+        }
+
+        @Override
+        public void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+            double u = conservativeVars[1];
+            double v = conservativeVars[2];
+            double w = conservativeVars[3];
 
             double beta_rho = BETA / RHO;
 
@@ -142,18 +176,17 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
             double a = Math.sqrt(Vp * Vp + beta_rho);
 
-            return new double[]{
-                    Vp - a, Vp, Vp, Vp + a
-            };
+            eigenvalues[0] = Vp - a;
+            eigenvalues[1] = Vp;
+            eigenvalues[2] = Vp;
+            eigenvalues[3] = Vp + a;
         }
 
         @Override
         public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            //double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
+            double u = conservativeVars[1];
+            double v = conservativeVars[2];
+            double w = conservativeVars[3];
 
             double beta_rho = BETA / RHO;
 
@@ -167,9 +200,63 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
             return Math.abs(Vp) + a;
         }
+
+        @Override
+        public void fluxBatch(double[][] flux, double[][] conservativeVars,
+                              double[] nx, double[] ny, double[] nz, int count) {
+            double[] U0 = conservativeVars[0], U1 = conservativeVars[1], U2 = conservativeVars[2],
+                    U3 = conservativeVars[3];
+            double[] F0 = flux[0], F1 = flux[1], F2 = flux[2], F3 = flux[3];
+            for (int i = 0; i < count; i++) {
+                double p_rho = U0[i] * BETA / RHO;
+                double u = U1[i];
+                double v = U2[i];
+                double w = U3[i];
+
+                double Vp = u * nx[i] + v * ny[i] + w * nz[i];
+
+                F0[i] = Vp;
+                F1[i] = u * Vp + p_rho * nx[i];
+                F2[i] = v * Vp + p_rho * ny[i];
+                F3[i] = w * Vp + p_rho * nz[i];
+            }
+        }
+
+        @Override
+        public void maxAbsEigenvaluesBatch(double[] maxAbsEigenvalues, double[][] conservativeVars,
+                                           double[] nx, double[] ny, double[] nz, int count) {
+            double[] U1 = conservativeVars[1], U2 = conservativeVars[2], U3 = conservativeVars[3];
+            double beta_rho = BETA / RHO;
+            for (int i = 0; i < count; i++) {
+                double Vp = U1[i] * nx[i] + U2[i] * ny[i] + U3[i] * nz[i];
+                double a = Math.sqrt(Vp * Vp + beta_rho);
+
+                maxAbsEigenvalues[i] = Math.abs(Vp) + a;
+            }
+        }
+
+        @Override
+        public void minMaxEigenvaluesBatch(double[] minEigenvalues, double[] maxEigenvalues, double[][] conservativeVars,
+                                           double[] nx, double[] ny, double[] nz, int count) {
+            double[] U1 = conservativeVars[1], U2 = conservativeVars[2], U3 = conservativeVars[3];
+            double beta_rho = BETA / RHO;
+            for (int i = 0; i < count; i++) {
+                double Vp = U1[i] * nx[i] + U2[i] * ny[i] + U3[i] * nz[i];
+                double a = Math.sqrt(Vp * Vp + beta_rho);
+
+                minEigenvalues[i] = Vp - a;
+                maxEigenvalues[i] = Vp + a;
+            }
+        }
     };
 
     public double[] F(double[] conservativeVars) {
+        double[] F = new double[4];
+        FInto(F, conservativeVars);
+        return F;
+    }
+
+    public void FInto(double[] F, double[] conservativeVars) {
         double p_beta = conservativeVars[0];
         double u = conservativeVars[1];
         double v = conservativeVars[2];
@@ -177,15 +264,19 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
         double p = p_beta * BETA;
 
-        return new double[]{
-                u,
-                u * u + p / RHO,
-                u * v,
-                u * w
-        };
+        F[0] = u;
+        F[1] = u * u + p / RHO;
+        F[2] = u * v;
+        F[3] = u * w;
     }
 
     public double[] min_max_eigenvalues(double[] conservativeVars) {
+        double[] eigenvalues = new double[2];
+        min_max_eigenvaluesInto(eigenvalues, conservativeVars);
+        return eigenvalues;
+    }
+
+    public void min_max_eigenvaluesInto(double[] eigenvalues, double[] conservativeVars) {
 //        double p_beta = conservativeVars[0];
         double u = conservativeVars[1];
 //        double v = conservativeVars[2];
@@ -193,9 +284,8 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
         double a = Math.sqrt(u * u + BETA / RHO);
 
-        return new double[]{
-                u - a, u + a
-        };
+        eigenvalues[0] = u - a;
+        eigenvalues[1] = u + a;
     }
 
     @Override
@@ -207,21 +297,34 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
         @Override
         public double[] flux(double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
-            Vector grad_u = gradConservativeVars[1];
-            Vector grad_v = gradConservativeVars[2];
-            Vector grad_w = gradConservativeVars[3];
+            double[] flux = new double[4];
+            fluxInto(flux, conservativeVars, gradConservativeVars, unitNormal);
+            return flux;
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+            fluxInto(flux, conservativeVars, Diffusion.flatGradients(gradConservativeVars), 0, unitNormal);
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                             Vector unitNormal) {
+            int grad_u = gradientOffset + 3;
+            int grad_v = gradientOffset + 6;
+            int grad_w = gradientOffset + 9;
 
-            double du_dx = grad_u.x;
-            double du_dy = grad_u.y;
-            double du_dz = grad_u.z;
+            double du_dx = gradients[grad_u];
+            double du_dy = gradients[grad_u + 1];
+            double du_dz = gradients[grad_u + 2];
 
-            double dv_dx = grad_v.x;
-            double dv_dy = grad_v.y;
-            double dv_dz = grad_v.z;
+            double dv_dx = gradients[grad_v];
+            double dv_dy = gradients[grad_v + 1];
+            double dv_dz = gradients[grad_v + 2];
 
-            double dw_dx = grad_w.x;
-            double dw_dy = grad_w.y;
-            double dw_dz = grad_w.z;
+            double dw_dx = gradients[grad_w];
+            double dw_dy = gradients[grad_w + 1];
+            double dw_dz = gradients[grad_w + 2];
 
             double tau_xx = 2.0 * NU * du_dx;
             double tau_yy = 2.0 * NU * dv_dy;
@@ -240,12 +343,10 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
             double ny = unitNormal.y;
             double nz = unitNormal.z;
 
-            return new double[]{
-                    0.0,
-                    tau_xx * nx + tau_yx * ny + tau_zx * nz,
-                    tau_xy * nx + tau_yy * ny + tau_zy * nz,
-                    tau_xz * nx + tau_yz * ny + tau_zz * nz
-            };
+            flux[0] = 0.0;
+            flux[1] = tau_xx * nx + tau_yx * ny + tau_zx * nz;
+            flux[2] = tau_xy * nx + tau_yy * ny + tau_zy * nz;
+            flux[3] = tau_xz * nx + tau_yz * ny + tau_zz * nz;
         }
 
         @Override
@@ -262,12 +363,23 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
     private final Source source = new Source() {
         @Override
         public double[] sourceVector(double[] conservativeVars, Vector[] gradConservativeVars) {
-            return new double[]{
-                    0,
-                    GRAVITY.x,
-                    GRAVITY.y,
-                    GRAVITY.z
-            };
+            double[] sourceVector = new double[4];
+            sourceVectorInto(sourceVector, conservativeVars, gradConservativeVars);
+            return sourceVector;
+        }
+
+        @Override
+        public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, Vector[] gradConservativeVars) {
+            sourceVector[0] = 0;
+            sourceVector[1] = GRAVITY.x;
+            sourceVector[2] = GRAVITY.y;
+            sourceVector[3] = GRAVITY.z;
+        }
+
+        @Override
+        public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, double[] gradients, int gradientOffset) {
+            // The source does not depend on the gradients
+            sourceVectorInto(sourceVector, conservativeVars, (Vector[]) null);
         }
     };
 
@@ -82,6 +82,13 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
 
     @Override
     public double[] primitiveVars(double[] conservativeVars) {
+        double[] primitiveVars = new double[5];
+        primitiveVarsInto(primitiveVars, conservativeVars);
+        return primitiveVars;
+    }
+
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
         double p_rho_beta = conservativeVars[0];
         double rhou = conservativeVars[1];
         double rhov = conservativeVars[2];
@@ -95,13 +102,22 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
         double v = rhov / rho;
         double w = rhow / rho;
 
-        return new double[]{
-                p, u, v, w, C
-        };
+        primitiveVars[0] = p;
+        primitiveVars[1] = u;
+        primitiveVars[2] = v;
+        primitiveVars[3] = w;
+        primitiveVars[4] = C;
     }
 
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
+        double[] conservativeVars = new double[5];
+        conservativeVarsInto(conservativeVars, primitiveVars);
+        return conservativeVars;
+    }
+
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
         double p = primitiveVars[0];
         double u = primitiveVars[1];
         double v = primitiveVars[2];
@@ -115,21 +131,33 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
         double rhov = rho * v;
         double rhow = rho * w;
 
-        return new double[]{
-                p_rho_beta, rhou, rhov, rhow, C
-        };
+        conservativeVars[0] = p_rho_beta;
+        conservativeVars[1] = rhou;
+        conservativeVars[2] = rhov;
+        conservativeVars[3] = rhow;
+        conservativeVars[4] = C;
     }
 
     @Override
     public double[] realVars(double[] conservativeVars) {
+        double[] realVars = new double[5];
+        realVarsInto(realVars, conservativeVars);
+        return realVars;
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
         // double p_beta_rho = conservativeVars[0];
         double rhou = conservativeVars[1];
         double rhov = conservativeVars[2];
         double rhow = conservativeVars[3];
         double C = conservativeVars[4];
-        return new double[]{
-                0, rhou, rhov, rhow, C
-        };
+
+        realVars[0] = 0;
+        realVars[1] = rhou;
+        realVars[2] = rhov;
+        realVars[3] = rhow;
+        realVars[4] = C;
     }
 
     private final Limits[] physicalLimits = new Limits[]{
@@ -148,38 +176,48 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
     private final Convection convection = new Convection() {
         @Override
         public double[] flux(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
-            double C = primitiveVars[4];
+            double[] flux = new double[5];
+            fluxInto(flux, conservativeVars, unitNormal);
+            return flux;
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+            double C = conservativeVars[4];
+            double rho = rho(C);
+
+            double p = conservativeVars[0] * BETA * rho;
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
 
             double nx = unitNormal.x;
             double ny = unitNormal.y;
             double nz = unitNormal.z;
 
-            double rho = rho(C);
-
             double Vp = u * nx + v * ny + w * nz;
             double rhoVp = rho * Vp;
 
-            return new double[]{
-                    Vp,
-                    u * rhoVp + p * nx,
-                    v * rhoVp + p * ny,
-                    w * rhoVp + p * nz,
-                    C * Vp
-            };
+            flux[0] = Vp;
+            flux[1] = u * rhoVp + p * nx;
+            flux[2] = v * rhoVp + p * ny;
+            flux[3] = w * rhoVp + p * nz;
+            flux[4] = C * Vp;
         }
 
         @Override
         public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            //double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
+            double[] eigenvalues = new double[5];
+            sortedEigenvaluesInto(eigenvalues, conservativeVars, unitNormal);
+            return eigenvalues;
+        }
+
+        @Override
+        public void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+            double rho = rho(conservativeVars[4]);
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
 
             double nx = unitNormal.x;
             double ny = unitNormal.y;
@@ -189,18 +227,19 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
 
             double a = Math.sqrt(Vp * Vp + BETA);
 
-            return new double[]{
-                    Vp - a, Vp, Vp, Vp, Vp + a
-            };
+            eigenvalues[0] = Vp - a;
+            eigenvalues[1] = Vp;
+            eigenvalues[2] = Vp;
+            eigenvalues[3] = Vp;
+            eigenvalues[4] = Vp + a;
         }
 
         @Override
         public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            //double p = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
+            double rho = rho(conservativeVars[4]);
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
 
             double nx = unitNormal.x;
             double ny = unitNormal.y;
@@ -215,18 +254,26 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
     };
 
     public double[] F(double[] conservativeVars) {
-        double[] primitiveVars = primitiveVars(conservativeVars);
-        double p = primitiveVars[0];
-        double u = primitiveVars[1];
-        double v = primitiveVars[2];
-        double w = primitiveVars[3];
-        double C = primitiveVars[4];
+        double[] F = new double[5];
+        FInto(F, conservativeVars);
+        return F;
+    }
 
+    public void FInto(double[] F, double[] conservativeVars) {
         double rhou = conservativeVars[1];
+        double C = conservativeVars[4];
+        double rho = rho(C);
 
-        return new double[]{
-                u, rhou * u + p, rhou * v, rhou * w, u * C
-        };
+        double p = conservativeVars[0] * BETA * rho;
+        double u = rhou / rho;
+        double v = conservativeVars[2] / rho;
+        double w = conservativeVars[3] / rho;
+
+        F[0] = u;
+        F[1] = rhou * u + p;
+        F[2] = rhou * v;
+        F[3] = rhou * w;
+        F[4] = u * C;
     }
 
     @Override
@@ -238,6 +285,19 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
 
         @Override
         public double[] flux(double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+            double[] flux = new double[5];
+            fluxInto(flux, conservativeVars, gradConservativeVars, unitNormal);
+            return flux;
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+            fluxInto(flux, conservativeVars, Diffusion.flatGradients(gradConservativeVars), 0, unitNormal);
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                             Vector unitNormal) {
             double C = conservativeVars[4];
             double rho = rho(C);
             double mu = mu(C);
@@ -249,26 +309,27 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
             double one_by_rho = 1.0 / rho;
             double rho2_minus_rho1_by_rho = -RHO1_MINUS_RHO2 / rho;
 
-            Vector dU4_times_rho_ratio = gradConservativeVars[4].mult(rho2_minus_rho1_by_rho);
+            int grad_U1 = gradientOffset + 3;
+            int grad_U2 = gradientOffset + 6;
+            int grad_U3 = gradientOffset + 9;
+            int grad_U4 = gradientOffset + 12;
 
-            Vector grad_u = gradConservativeVars[1].mult(one_by_rho)
-                    .add(dU4_times_rho_ratio.mult(u));
-            Vector grad_v = gradConservativeVars[2].mult(one_by_rho)
-                    .add(dU4_times_rho_ratio.mult(v));
-            Vector grad_w = gradConservativeVars[3].mult(one_by_rho)
-                    .add(dU4_times_rho_ratio.mult(w));
+            // grad(U4) * (rho2 - rho1) / rho
+            double dU4_dx_times_rho_ratio = gradients[grad_U4] * rho2_minus_rho1_by_rho;
+            double dU4_dy_times_rho_ratio = gradients[grad_U4 + 1] * rho2_minus_rho1_by_rho;
+            double dU4_dz_times_rho_ratio = gradients[grad_U4 + 2] * rho2_minus_rho1_by_rho;
 
-            double du_dx = grad_u.x;
-            double du_dy = grad_u.y;
-            double du_dz = grad_u.z;
+            double du_dx = gradients[grad_U1] * one_by_rho + dU4_dx_times_rho_ratio * u;
+            double du_dy = gradients[grad_U1 + 1] * one_by_rho + dU4_dy_times_rho_ratio * u;
+            double du_dz = gradients[grad_U1 + 2] * one_by_rho + dU4_dz_times_rho_ratio * u;
 
-            double dv_dx = grad_v.x;
-            double dv_dy = grad_v.y;
-            double dv_dz = grad_v.z;
+            double dv_dx = gradients[grad_U2] * one_by_rho + dU4_dx_times_rho_ratio * v;
+            double dv_dy = gradients[grad_U2 + 1] * one_by_rho + dU4_dy_times_rho_ratio * v;
+            double dv_dz = gradients[grad_U2 + 2] * one_by_rho + dU4_dz_times_rho_ratio * v;
 
-            double dw_dx = grad_w.x;
-            double dw_dy = grad_w.y;
-            double dw_dz = grad_w.z;
+            double dw_dx = gradients[grad_U3] * one_by_rho + dU4_dx_times_rho_ratio * w;
+            double dw_dy = gradients[grad_U3 + 1] * one_by_rho + dU4_dy_times_rho_ratio * w;
+            double dw_dz = gradients[grad_U3 + 2] * one_by_rho + dU4_dz_times_rho_ratio * w;
 
             double tau_xx = 2.0 * mu * du_dx;
             double tau_yy = 2.0 * mu * dv_dy;
@@ -287,13 +348,11 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
             double ny = unitNormal.y;
             double nz = unitNormal.z;
 
-            return new double[]{
-                    0.0,
-                    tau_xx * nx + tau_yx * ny + tau_zx * nz,
-                    tau_xy * nx + tau_yy * ny + tau_zy * nz,
-                    tau_xz * nx + tau_yz * ny + tau_zz * nz,
-                    0.0
-            };
+            flux[0] = 0.0;
+            flux[1] = tau_xx * nx + tau_yx * ny + tau_zx * nz;
+            flux[2] = tau_xy * nx + tau_yy * ny + tau_zy * nz;
+            flux[3] = tau_xz * nx + tau_yz * ny + tau_zz * nz;
+            flux[4] = 0.0;
         }
 
         @Override
@@ -313,15 +372,27 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
     private final Source source = new Source() {
         @Override
         public double[] sourceVector(double[] conservativeVars, Vector[] gradConservativeVars) {
+            double[] sourceVector = new double[5];
+            sourceVectorInto(sourceVector, conservativeVars, gradConservativeVars);
+            return sourceVector;
+        }
+
+        @Override
+        public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, Vector[] gradConservativeVars) {
             double C = conservativeVars[4];
             double rho = rho(C);
-            return new double[]{
-                    0,
-                    rho * GRAVITY.x,
-                    rho * GRAVITY.y,
-                    rho * GRAVITY.z,
-                    0
-            };
+
+            sourceVector[0] = 0;
+            sourceVector[1] = rho * GRAVITY.x;
+            sourceVector[2] = rho * GRAVITY.y;
+            sourceVector[3] = rho * GRAVITY.z;
+            sourceVector[4] = 0;
+        }
+
+        @Override
+        public void sourceVectorInto(double[] sourceVector, double[] conservativeVars, double[] gradients, int gradientOffset) {
+            // The source does not depend on the gradients
+            sourceVectorInto(sourceVector, conservativeVars, (Vector[]) null);
         }
     };
 
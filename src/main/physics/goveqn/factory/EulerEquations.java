@@ -60,6 +60,13 @@ public class EulerEquations implements GoverningEquations {
 
     @Override
     public double[] primitiveVars(double[] conservativeVars) {
+        double[] primitiveVars = new double[5];
+        primitiveVarsInto(primitiveVars, conservativeVars);
+        return primitiveVars;
+    }
+
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
         double rho = conservativeVars[0];
         double rhou = conservativeVars[1];
         double rhov = conservativeVars[2];
@@ -77,13 +84,22 @@ public class EulerEquations implements GoverningEquations {
         double T = internalE / CV;
         double p = eos_p(rho, T);
 
-        return new double[]{
-                rho, u, v, w, p
-        };
+        primitiveVars[0] = rho;
+        primitiveVars[1] = u;
+        primitiveVars[2] = v;
+        primitiveVars[3] = w;
+        primitiveVars[4] = p;
     }
 
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
+        double[] conservativeVars = new double[5];
+        conservativeVarsInto(conservativeVars, primitiveVars);
+        return conservativeVars;
+    }
+
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
         double rho = primitiveVars[0];
         double u = primitiveVars[1];
         double v = primitiveVars[2];
@@ -101,9 +117,16 @@ public class EulerEquations implements GoverningEquations {
 
         double rhoE = rho * E;
 
-        return new double[]{
-                rho, rhou, rhov, rhow, rhoE
-        };
+        conservativeVars[0] = rho;
+        conservativeVars[1] = rhou;
+        conservativeVars[2] = rhov;
+        conservativeVars[3] = rhow;
+        conservativeVars[4] = rhoE;
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
+        System.arraycopy(conservativeVars, 0, realVars, 0, 5);
     }
 
     private final Limits[] physicalLimits = new Limits[]{
@@ -119,17 +142,37 @@ public class EulerEquations implements GoverningEquations {
         return physicalLimits;
     }
 
-    private final Convection convection = new Convection() {
+    /**
+     * Pressure computed in the same way as in primitiveVars(conservativeVars), without allocating the
+     * primitive variables array.
+     */
+    private double pressure(double rho, double u, double v, double w, double rhoE) {
+        double E = rhoE / rho;
+
+        double kineticE = 0.5 * (u * u + v * v + w * w);
+        double internalE = E - kineticE;
+
+        double T = internalE / CV;
+        return eos_p(rho, T);
+    }
+
+    private final Convection convection = new BatchConvection() {
         @Override
         public double[] flux(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            double rho = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
-            double p = primitiveVars[4];
+            double[] flux = new double[5];
+            fluxInto(flux, conservativeVars, unitNormal);
+            return flux;
+        }
 
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+            double rho = conservativeVars[0];
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
             double rhoE = conservativeVars[4];
+            double p = pressure(rho, u, v, w, rhoE);
+
             double rhoE_plus_p = rhoE + p;
 
             double nx = unitNormal.x;
@@ -139,23 +182,27 @@ public class EulerEquations implements GoverningEquations {
             double Vp = u * nx + v * ny + w * nz;
             double rhoVp = rho * Vp;
 
-            return new double[]{
-                    rhoVp,
-                    rhoVp * u + p * nx,
-                    rhoVp * v + p * ny,
-                    rhoVp * w + p * nz,
-                    rhoE_plus_p * Vp
-            };
+            flux[0] = rhoVp;
+            flux[1] = rhoVp * u + p * nx;
+            flux[2] = rhoVp * v + p * ny;
+            flux[3] = rhoVp * w + p * nz;
+            flux[4] = rhoE_plus_p * Vp;
         }
 
         @Override
         public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            double rho = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
-            double p = primitiveVars[4];
+            double[] eigenvalues = new double[5];
+            sortedEigenvaluesInto(eigenvalues, conservativeVars, unitNormal);
+            return eigenvalues;
+        }
+
+        @Override
+        public void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+            double rho = conservativeVars[0];
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
+            double p = pressure(rho, u, v, w, conservativeVars[4]);
 
             double nx = unitNormal.x;
             double ny = unitNormal.y;
@@ -164,19 +211,20 @@ public class EulerEquations implements GoverningEquations {
 
             double a = Math.sqrt(GAMMA * p / rho);
 
-            return new double[]{
-                    vn - a, vn, vn, vn, vn + a
-            };
+            eigenvalues[0] = vn - a;
+            eigenvalues[1] = vn;
+            eigenvalues[2] = vn;
+            eigenvalues[3] = vn;
+            eigenvalues[4] = vn + a;
         }
 
         @Override
         public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
-            double rho = primitiveVars[0];
-            double u = primitiveVars[1];
-            double v = primitiveVars[2];
-            double w = primitiveVars[3];
-            double p = primitiveVars[4];
+            double rho = conservativeVars[0];
+            double u = conservativeVars[1] / rho;
+            double v = conservativeVars[2] / rho;
+            double w = conservativeVars[3] / rho;
+            double p = pressure(rho, u, v, w, conservativeVars[4]);
 
             double nx = unitNormal.x;
             double ny = unitNormal.y;
@@ -187,6 +235,70 @@ public class EulerEquations implements GoverningEquations {
 
             return Math.abs(vn) + a;
         }
+
+        @Override
+        public void fluxBatch(double[][] flux, double[][] conservativeVars,
+                              double[] nx, double[] ny, double[] nz, int count) {
+            double[] U0 = conservativeVars[0], U1 = conservativeVars[1], U2 = conservativeVars[2],
+                    U3 = conservativeVars[3], U4 = conservativeVars[4];
+            double[] F0 = flux[0], F1 = flux[1], F2 = flux[2], F3 = flux[3], F4 = flux[4];
+            for (int i = 0; i < count; i++) {
+                double rho = U0[i];
+                double u = U1[i] / rho;
+                double v = U2[i] / rho;
+                double w = U3[i] / rho;
+                double rhoE = U4[i];
+                double p = pressure(rho, u, v, w, rhoE);
+
+                double Vp = u * nx[i] + v * ny[i] + w * nz[i];
+                double rhoVp = rho * Vp;
+
+                F0[i] = rhoVp;
+                F1[i] = rhoVp * u + p * nx[i];
+                F2[i] = rhoVp * v + p * ny[i];
+                F3[i] = rhoVp * w + p * nz[i];
+                F4[i] = (rhoE + p) * Vp;
+            }
+        }
+
+        @Override
+        public void maxAbsEigenvaluesBatch(double[] maxAbsEigenvalues, double[][] conservativeVars,
+                                           double[] nx, double[] ny, double[] nz, int count) {
+            double[] U0 = conservativeVars[0], U1 = conservativeVars[1], U2 = conservativeVars[2],
+                    U3 = conservativeVars[3], U4 = conservativeVars[4];
+            for (int i = 0; i < count; i++) {
+                double rho = U0[i];
+                double u = U1[i] / rho;
+                double v = U2[i] / rho;
+                double w = U3[i] / rho;
+                double p = pressure(rho, u, v, w, U4[i]);
+
+                double vn = u * nx[i] + v * ny[i] + w * nz[i];
+                double a = Math.sqrt(GAMMA * p / rho);
+
+                maxAbsEigenvalues[i] = Math.abs(vn) + a;
+            }
+        }
+
+        @Override
+        public void minMaxEigenvaluesBatch(double[] minEigenvalues, double[] maxEigenvalues, double[][] conservativeVars,
+                                           double[] nx, double[] ny, double[] nz, int count) {
+            double[] U0 = conservativeVars[0], U1 = conservativeVars[1], U2 = conservativeVars[2],
+                    U3 = conservativeVars[3], U4 = conservativeVars[4];
+            for (int i = 0; i < count; i++) {
+                double rho = U0[i];
+                double u = U1[i] / rho;
+                double v = U2[i] / rho;
+                double w = U3[i] / rho;
+                double p = pressure(rho, u, v, w, U4[i]);
+
+                double vn = u * nx[i] + v * ny[i] + w * nz[i];
+                double a = Math.sqrt(GAMMA * p / rho);
+
+                minEigenvalues[i] = vn - a;
+                maxEigenvalues[i] = vn + a;
+            }
+        }
     };
 
     @Override
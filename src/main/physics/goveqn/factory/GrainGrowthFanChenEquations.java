@@ -63,11 +63,26 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
         return copyOf(conservativeVars);
     }
 
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
+        System.arraycopy(conservativeVars, 0, primitiveVars, 0, NUM_ORIENTATIONS);
+    }
+
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
         return copyOf(primitiveVars);
     }
 
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
+        System.arraycopy(primitiveVars, 0, conservativeVars, 0, NUM_ORIENTATIONS);
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
+        System.arraycopy(conservativeVars, 0, realVars, 0, NUM_ORIENTATIONS);
+    }
+
     @Override
     public Limits[] physicalLimits() {
         return physicalLimits;
@@ -87,11 +102,26 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
         @Override
         public double[] flux(double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
             double[] diffusionFlux = new double[numVars()];
-            for (int i = 0; i < diffusionFlux.length; i++) {
+            fluxInto(diffusionFlux, conservativeVars, gradConservativeVars, unitNormal);
+            return diffusionFlux;
+        }
+
+        @Override
+        public void fluxInto(double[] diffusionFlux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+            for (int i = 0; i < NUM_ORIENTATIONS; i++) {
                 diffusionFlux[i] = L[i] * kappa[i] * gradConservativeVars[i].dot(unitNormal);
             }
+        }
 
-            return diffusionFlux;
+        @Override
+        public void fluxInto(double[] diffusionFlux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                             Vector unitNormal) {
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+            for (int i = 0, g = gradientOffset; i < NUM_ORIENTATIONS; i++, g += 3) {
+                diffusionFlux[i] = L[i] * kappa[i] * (gradients[g] * nx + gradients[g + 1] * ny + gradients[g + 2] * nz);
+            }
         }
 
         private double maxAbsDiffusivity = 0.0;
@@ -117,7 +147,12 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
         @Override
         public double[] sourceVector(double[] conservativeVars, Vector[] gradConservativeVars) {
             double[] sourceFlux = new double[numVars()];
+            sourceVectorInto(sourceFlux, conservativeVars, gradConservativeVars);
+            return sourceFlux;
+        }
 
+        @Override
+        public void sourceVectorInto(double[] sourceFlux, double[] conservativeVars, Vector[] gradConservativeVars) {
             double sum_eta_i_sqr = 0.0;
             for (double eta : conservativeVars) {
                 sum_eta_i_sqr += eta * eta;
@@ -133,8 +168,12 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
                         + 2.0 * gamma * eta_i * sum_eta_j_sqr;
                 sourceFlux[i] *= -L[i];
             }
+        }
 
-            return sourceFlux;
+        @Override
+        public void sourceVectorInto(double[] sourceFlux, double[] conservativeVars, double[] gradients, int gradientOffset) {
+            // The source does not depend on the gradients
+            sourceVectorInto(sourceFlux, conservativeVars, (Vector[]) null);
         }
     };
 
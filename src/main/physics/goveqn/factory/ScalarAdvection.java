@@ -43,6 +43,11 @@ public class ScalarAdvection implements GoverningEquations {
         };
     }
 
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
+        primitiveVars[0] = conservativeVars[0];
+    }
+
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
         return new double[]{
@@ -50,6 +55,16 @@ public class ScalarAdvection implements GoverningEquations {
         };
     }
 
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
+        conservativeVars[0] = primitiveVars[0];
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
+        realVars[0] = conservativeVars[0];
+    }
+
     private final Limits[] physicalLimits = new Limits[]{
             Limits.INFINITE
     };
@@ -72,6 +87,16 @@ public class ScalarAdvection implements GoverningEquations {
             };
         }
 
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector unitNormal) {
+            double phi = conservativeVars[0];
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            flux[0] = ax * phi * nx + ay * phi * ny + az * phi * nz;
+        }
+
         @Override
         public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
             double nx = unitNormal.x;
@@ -83,6 +108,15 @@ public class ScalarAdvection implements GoverningEquations {
             };
         }
 
+        @Override
+        public void sortedEigenvaluesInto(double[] eigenvalues, double[] conservativeVars, Vector unitNormal) {
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            eigenvalues[0] = ax * nx + ay * ny + az * nz;
+        }
+
         @Override
         public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
             double nx = unitNormal.x;
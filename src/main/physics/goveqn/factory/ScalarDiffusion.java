@@ -42,6 +42,11 @@ public class ScalarDiffusion implements GoverningEquations {
         };
     }
 
+    @Override
+    public void primitiveVarsInto(double[] primitiveVars, double[] conservativeVars) {
+        primitiveVars[0] = conservativeVars[0];
+    }
+
     @Override
     public double[] conservativeVars(double[] primitiveVars) {
         return new double[]{
@@ -49,6 +54,16 @@ public class ScalarDiffusion implements GoverningEquations {
         };
     }
 
+    @Override
+    public void conservativeVarsInto(double[] conservativeVars, double[] primitiveVars) {
+        conservativeVars[0] = primitiveVars[0];
+    }
+
+    @Override
+    public void realVarsInto(double[] realVars, double[] conservativeVars) {
+        realVars[0] = conservativeVars[0];
+    }
+
     private final Limits[] physicalLimits = new Limits[]{
             Limits.INFINITE
     };
@@ -81,6 +96,33 @@ public class ScalarDiffusion implements GoverningEquations {
             };
         }
 
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal) {
+            double dphi_dx = gradConservativeVars[0].x;
+            double dphi_dy = gradConservativeVars[0].y;
+            double dphi_dz = gradConservativeVars[0].z;
+
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            flux[0] = diffusivity * (dphi_dx * nx + dphi_dy * ny + dphi_dz * nz);
+        }
+
+        @Override
+        public void fluxInto(double[] flux, double[] conservativeVars, double[] gradients, int gradientOffset,
+                             Vector unitNormal) {
+            double dphi_dx = gradients[gradientOffset];
+            double dphi_dy = gradients[gradientOffset + 1];
+            double dphi_dz = gradients[gradientOffset + 2];
+
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            flux[0] = diffusivity * (dphi_dx * nx + dphi_dy * ny + dphi_dz * nz);
+        }
+
         @Override
         public double maxAbsDiffusivity(double[] conservativeVars) {
             return diffusivity;
@@ -1,9 +1,19 @@
 package main.solver;
 
 import main.mesh.Cell;
+import main.mesh.Stencil;
+import main.mesh.StencilRegistry;
 
 import java.util.List;
 
 public interface CellNeighborCalculator {
     List<Cell> calculateFor(Cell cell);
+
+    /**
+     * @return Stencil of each cell with the neighbors calculated by this object. The default implementation
+     * builds a new stencil, the standard neighbor calculators return the stencils shared through the registry.
+     */
+    default Stencil stencil(StencilRegistry stencils) {
+        return stencils.cellStencil(this::calculateFor);
+    }
 }
@@ -1,6 +1,8 @@
 package main.solver;
 
 import main.mesh.Cell;
+import main.mesh.Stencil;
+import main.mesh.StencilRegistry;
 
 import java.util.List;
 import java.util.stream.Stream;
@@ -16,4 +18,9 @@ public class FaceBasedCellNeighbors implements CellNeighborCalculator {
                 .distinct()
                 .collect(toList());
     }
+
+    @Override
+    public Stencil stencil(StencilRegistry stencils) {
+        return stencils.faceBased();
+    }
 }
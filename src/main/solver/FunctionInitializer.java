@@ -7,6 +7,7 @@ import main.geom.factory.Hexahedron;
 import main.geom.factory.Quad;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.goveqn.GoverningEquations;
 import main.util.DoubleArray;
 
@@ -24,13 +25,15 @@ public class FunctionInitializer implements SolutionInitializer {
 
     @Override
     public void initialize(Mesh mesh, GoverningEquations govEqn) {
-        mesh.cellStream().forEach(cell -> initialize(cell, govEqn));
+        SolutionState state = mesh.solutionState();
+        mesh.executionContext().forEach(mesh.cells(), cell -> initialize(cell, govEqn, state));
     }
 
-    private void initialize(Cell cell, GoverningEquations govEqn) {
+    private void initialize(Cell cell, GoverningEquations govEqn, SolutionState state) {
         double[] conservativeVars = calculateCentroidValues(cell);
         DoubleArray.copy(conservativeVars, cell.U);
-        DoubleArray.copy(govEqn.realVars(conservativeVars), cell.Wn);
+        state.set(state.U, cell, conservativeVars);
+        state.set(state.Wn, cell, govEqn.realVars(conservativeVars));
     }
 
     private double[] calculateCentroidValues(Cell cell) {
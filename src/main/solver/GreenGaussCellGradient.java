@@ -4,6 +4,7 @@ import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Face;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 
 public class GreenGaussCellGradient implements CellGradientCalculator {
     private final Mesh mesh;
@@ -14,12 +15,13 @@ public class GreenGaussCellGradient implements CellGradientCalculator {
 
     @Override
     public void setupAllCells() {
-        mesh.cellStream().forEach(this::setCell);
+        mesh.executionContext().forEach("cell gradients", mesh.cells(), this::setCell);
     }
 
     private void setCell(Cell cell) {
         // Assuming that face average U is calculated (face.U)
-        int numVars = cell.U.length;
+        SolutionState state = mesh.solutionState();
+        int numVars = state.numVars;
 
         Vector[] gradients = new Vector[numVars];
         for (int var = 0; var < numVars; var++) {
@@ -38,7 +40,7 @@ public class GreenGaussCellGradient implements CellGradientCalculator {
         double volume = cell.shape.volume;
         for (int var = 0; var < numVars; var++) {
             gradients[var] = gradients[var].mult(1.0 / volume);
-            cell.gradientU[var] = gradients[var];
+            state.setGradient(cell, var, gradients[var]);
         }
     }
 }
@@ -3,22 +3,20 @@ package main.solver;
 import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Mesh;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.DiagonalMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.linear.SingularValueDecomposition;
-
-import java.util.Arrays;
-import java.util.List;
-
-import static main.util.DoubleArray.divide;
-import static main.util.DoubleArray.sum;
-import static main.util.DoubleMatrix.multiply;
+import main.mesh.SolutionState;
+import main.mesh.Stencil;
+import main.mesh.StencilRegistry;
+import main.util.PseudoInverse;
 
 public class LeastSquareCellGradient implements CellGradientCalculator {
 
-    private final Cell[][] neighbors;
-    private final double[][][] inverseMatrix;
+    /**
+     * Neighbors of the cells (shared with the other users of the stencil). The gradient weights of the
+     * neighbor at position k of the stencil are weights[3 * k] to weights[3 * k + 2].
+     */
+    private final StencilRegistry stencils;
+    private final Stencil stencil;
+    private final double[] weights;
     private final Mesh mesh;
 
     /**
@@ -31,74 +29,71 @@ public class LeastSquareCellGradient implements CellGradientCalculator {
      * @param neighCalc (cell) -> List<Cell>
      */
     public LeastSquareCellGradient(Mesh mesh, CellNeighborCalculator neighCalc) {
-        int numCells = mesh.cells().size();
-        this.neighbors = new Cell[numCells][];
-        this.inverseMatrix = new double[numCells][][];
         this.mesh = mesh;
+        this.stencils = mesh.stencils();
+        this.stencil = neighCalc.stencil(stencils);
+        this.weights = new double[3 * stencil.numEntries()];
 
-        mesh.cellStream().forEach(cell -> setup(cell, neighCalc));
+        mesh.executionContext().forEach(mesh.cells(), this::setup);
     }
 
-    private void setup(Cell cell, CellNeighborCalculator neighCalc) {
-        List<Cell> neighs = neighCalc.calculateFor(cell);
-        this.neighbors[cell.index()] = neighs.toArray(new Cell[0]);
-        this.inverseMatrix[cell.index()] = leastSquareMatrix(cell, neighs);
-    }
-
-    private double[][] leastSquareMatrix(Cell cell, List<Cell> neighs) {
-        Vector[] distances = neighs.stream()
-                .map(neigh -> new Vector(cell.shape.centroid, neigh.shape.centroid))
-                .toArray(Vector[]::new);
-
-        double[] weights = normalize(Arrays.stream(distances)
-                .mapToDouble(this::weight)
-                .toArray());
-
-        RealMatrix A = new Array2DRowRealMatrix(neighs.size(), 3);
-        for (int i = 0; i < neighs.size(); i++) {
-            Vector rw = distances[i].mult(weights[i]);
-            A.setRow(i, new double[]{rw.x, rw.y, rw.z});
+    private void setup(Cell cell) {
+        int start = stencil.start(cell.index());
+        int numNeighs = stencil.end(cell.index()) - start;
+        double[] neighWeights = new double[numNeighs];
+        double sumWeights = 0.0;
+        for (int i = 0; i < numNeighs; i++) {
+            Cell neigh = stencils.cell(stencil.cell(start + i));
+            neighWeights[i] = weight(new Vector(cell.shape.centroid, neigh.shape.centroid));
+            sumWeights += neighWeights[i];
         }
 
-        return invert(A).multiply(new DiagonalMatrix(weights))
-                .getData();
-    }
+        double[] A = new double[3 * numNeighs];
+        for (int i = 0; i < numNeighs; i++) {
+            Cell neigh = stencils.cell(stencil.cell(start + i));
+            neighWeights[i] /= sumWeights;
+            Vector rw = new Vector(cell.shape.centroid, neigh.shape.centroid).mult(neighWeights[i]);
+            A[3 * i] = rw.x;
+            A[3 * i + 1] = rw.y;
+            A[3 * i + 2] = rw.z;
+        }
 
-    private RealMatrix invert(RealMatrix matrix) {
-        SingularValueDecomposition svd = new SingularValueDecomposition(matrix);
-        return svd.getSolver().getInverse();
+        PseudoInverse.transposeInto(A, numNeighs, 3, weights, 3 * start);
+        for (int i = 0; i < numNeighs; i++) {
+            for (int c = 0; c < 3; c++) {
+                weights[3 * (start + i) + c] *= neighWeights[i];
+            }
+        }
     }
 
     private double weight(Vector dr) {
         return 1.0 / dr.mag();
     }
 
-    private double[] normalize(double[] positiveWeights) {
-        return divide(positiveWeights, sum(positiveWeights));
-    }
-
     @Override
     public void setupAllCells() {
-        mesh.cellStream().forEach(this::setCell);
+        mesh.executionContext().forEach("cell gradients", mesh.cells(), this::setCell);
     }
 
     private void setCell(Cell cell) {
-        int numVars = cell.U.length;
-        for (int var = 0; var < numVars; var++) {
-            cell.gradientU[var] = forVar(cell, var);
-        }
-    }
-
-    private Vector forVar(Cell cell, int var) {
+        SolutionState state = mesh.solutionState();
+        double[] U = state.U;
+        int numVars = state.numVars;
         int cellIndex = cell.index();
-        Cell[] neighCells = neighbors[cellIndex];
-        double[] dU = new double[neighCells.length];
-
-        for (int neigh = 0; neigh < dU.length; neigh++) {
-            dU[neigh] = neighCells[neigh].U[var] - cell.U[var];
+        int offset = state.offset(cell);
+        int g = state.gradientOffset(cell);
+
+        for (int var = 0; var < numVars; var++, g += 3) {
+            double gx = 0.0, gy = 0.0, gz = 0.0;
+            for (int k = stencil.start(cellIndex); k < stencil.end(cellIndex); k++) {
+                double dU = U[state.offset(stencil.cell(k)) + var] - U[offset + var];
+                gx += weights[3 * k] * dU;
+                gy += weights[3 * k + 1] * dU;
+                gz += weights[3 * k + 2] * dU;
+            }
+            state.gradientU[g] = gx;
+            state.gradientU[g + 1] = gy;
+            state.gradientU[g + 2] = gz;
         }
-        double[] solution = multiply(inverseMatrix[cellIndex], dU);
-
-        return new Vector(solution[0], solution[1], solution[2]);
     }
 }
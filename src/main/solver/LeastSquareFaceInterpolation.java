@@ -3,40 +3,55 @@ package main.solver;
 import main.geom.Point;
 import main.geom.Vector;
 import main.mesh.*;
-import main.util.DoubleMatrix;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.DiagonalMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.linear.SingularValueDecomposition;
+import main.util.PseudoInverse;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static main.util.DoubleArray.divide;
-import static main.util.DoubleArray.sum;
 
 public class LeastSquareFaceInterpolation {
-    private final Cell[][] neighbours;
-    private final double[][][] inverseMatrix;
+    /**
+     * Neighbours of each face (extended cell indices of the registry). The weights of the neighbour at position
+     * k of the stencil are weights[4 * k] (value) and weights[4 * k + 1] to weights[4 * k + 3] (gradient).
+     */
+    private final StencilRegistry stencils;
+    private final Stencil stencil;
+    private final double[] weights;
+    /**
+     * Gradient of variable var at face f, component i (x, y, z) is at gradients[(f * numVars + var) * 3 + i]
+     * (SolutionState.faceGradientU).
+     */
+    private final int numVars;
+    private final double[] gradients;
     private final Mesh mesh;
+    private final SolutionState state;
+    private final Face[] faces;
+    private final IntConsumer faceSetup = this::setFace;
+    private final Connectivity connectivity;
     private final Set<Node> boundaryIntersectionNodes;
 
     public LeastSquareFaceInterpolation(Mesh mesh) {
         this.mesh = mesh;
+        this.state = mesh.solutionState();
+        this.stencils = mesh.stencils();
+        this.connectivity = stencils.connectivity();
         this.boundaryIntersectionNodes = calculateCornerNodes(mesh);
-        int totalNumFaces = mesh.internalFaces().size();
-        totalNumFaces += mesh.boundaryStream()
-                .mapToInt(b -> b.faces.size())
-                .sum();
-
-        this.neighbours = new Cell[totalNumFaces][];
-        this.inverseMatrix = new double[totalNumFaces][][];
-        mesh.internalFaceStream()
-                .forEach(this::setup);
-        mesh.boundaryStream()
-                .flatMap(b -> b.faces.stream())
-                .forEach(this::setup);
+        int totalNumFaces = connectivity.numFaces;
+
+        List<Face> faces = mesh.allFaces();
+        int[][] neighbours = new int[totalNumFaces][];
+        mesh.executionContext().forEach(faces, face -> neighbours[face.index()] = neighbourIndices(face));
+        this.stencil = new Stencil(neighbours, mesh.executionContext());
+        this.weights = new double[4 * stencil.numEntries()];
+
+        mesh.executionContext().forEach(faces, this::setup);
+
+        this.numVars = state.numVars;
+        this.gradients = state.faceGradientU;
+        this.faces = new Face[totalNumFaces];
+        for (Face face : faces) {
+            this.faces[face.index()] = face;
+        }
     }
 
     private Set<Node> calculateCornerNodes(Mesh mesh) {
@@ -75,81 +90,104 @@ public class LeastSquareFaceInterpolation {
     }
 
     private void setup(Face face) {
-        int index = face.index();
+        int start = stencil.start(face.index());
         Cell[] neighs = getNeighbours(face);
-        this.neighbours[index] = neighs;
-
-        this.inverseMatrix[index] = leastSquareMatrix(neighs, face.surface.centroid);
-    }
 
-    private double[][] leastSquareMatrix(Cell[] neighs, Point faceCentroid) {
-        Vector[] distances = Arrays.stream(neighs)
-                .map(neigh -> new Vector(faceCentroid, neigh.shape.centroid))
-                .toArray(Vector[]::new);
-
-        double[] weights = normalize(Arrays.stream(distances)
-                .mapToDouble(this::weight)
-                .toArray());
-
-        RealMatrix A = new Array2DRowRealMatrix(neighs.length, 4);
-        for (int i = 0; i < neighs.length; i++) {
-            Vector rw = distances[i].mult(weights[i]);
-            A.setRow(i, new double[]{weights[i], rw.x, rw.y, rw.z});
+        Point faceCentroid = face.surface.centroid;
+        int numNeighs = neighs.length;
+        double[] neighWeights = new double[numNeighs];
+        double sumWeights = 0.0;
+        for (int i = 0; i < numNeighs; i++) {
+            neighWeights[i] = weight(new Vector(faceCentroid, neighs[i].shape.centroid));
+            sumWeights += neighWeights[i];
         }
 
-        return invert(A).multiply(new DiagonalMatrix(weights))
-                .getData();
-    }
+        double[] A = new double[4 * numNeighs];
+        for (int i = 0; i < numNeighs; i++) {
+            neighWeights[i] /= sumWeights;
+            Vector rw = new Vector(faceCentroid, neighs[i].shape.centroid).mult(neighWeights[i]);
+            A[4 * i] = neighWeights[i];
+            A[4 * i + 1] = rw.x;
+            A[4 * i + 2] = rw.y;
+            A[4 * i + 3] = rw.z;
+        }
 
-    private RealMatrix invert(RealMatrix matrix) {
-        SingularValueDecomposition svd = new SingularValueDecomposition(matrix);
-        return svd.getSolver().getInverse();
+        PseudoInverse.transposeInto(A, numNeighs, 4, weights, 4 * start);
+        for (int i = 0; i < numNeighs; i++) {
+            for (int c = 0; c < 4; c++) {
+                weights[4 * (start + i) + c] *= neighWeights[i];
+            }
+        }
     }
 
-
     private double weight(Vector dr) {
         return 1.0 / dr.mag();
     }
 
-    private double[] normalize(double[] positiveWeights) {
-        return divide(positiveWeights, sum(positiveWeights));
-    }
+    private int[] neighbourIndices(Face face) {
+        int f = face.index();
+        int maxCount = 2;
+        for (Node node : face.nodes) {
+            maxCount += connectivity.nodeCellsEnd(node.index()) - connectivity.nodeCellsStart(node.index());
+        }
 
-    Cell[] getNeighbours(Face face) {
         // In case of a boundary having only one face (highly unlikely), at least left and right cell will be added.
-        return Stream.concat(Stream.of(face.left, face.right),
-                Arrays.stream(face.nodes)
-                        .filter(n -> !boundaryIntersectionNodes.contains(n))
-                        .flatMap(n -> n.neighbors.stream()))
-                .distinct()
-                .toArray(Cell[]::new);
-    }
+        int[] neighbours = new int[maxCount];
+        int count = addDistinct(neighbours, 0, connectivity.left(f));
+        count = addDistinct(neighbours, count, connectivity.right(f));
+        for (Node node : face.nodes) {
+            if (boundaryIntersectionNodes.contains(node)) continue;
+            for (int k = connectivity.nodeCellsStart(node.index()); k < connectivity.nodeCellsEnd(node.index()); k++) {
+                count = addDistinct(neighbours, count, connectivity.nodeCell(k));
+            }
+        }
 
-    void setupAllFaces() {
-        mesh.internalFaceStream().forEach(this::setFace);
-        mesh.boundaryStream().flatMap(b -> b.faces.stream()).forEach(this::setFace);
+        return Arrays.copyOf(neighbours, count);
     }
 
-    private void setFace(Face face) {
-        int numVars = face.U.length;
-        for (int var = 0; var < numVars; var++) {
-            setVar(face, var);
+    private static int addDistinct(int[] neighbours, int count, int neighbour) {
+        for (int i = 0; i < count; i++) {
+            if (neighbours[i] == neighbour) return count;
         }
+        neighbours[count] = neighbour;
+        return count + 1;
     }
 
-    private void setVar(Face face, int var) {
+    Cell[] getNeighbours(Face face) {
         int index = face.index();
-        Cell[] neighs = neighbours[index];
-        int numNeighs = neighs.length;
-        double[] U = new double[numNeighs];
-
-        for (int j = 0; j < numNeighs; j++) {
-            U[j] = neighs[j].U[var];
+        Cell[] neighbours = new Cell[stencil.end(index) - stencil.start(index)];
+        for (int k = stencil.start(index); k < stencil.end(index); k++) {
+            neighbours[k - stencil.start(index)] = stencils.cell(stencil.cell(k));
         }
+        return neighbours;
+    }
 
-        double[] solution = DoubleMatrix.multiply(inverseMatrix[index], U);
+    void setupAllFaces() {
+        // The internal faces are followed by the boundary faces, so all of them are set in a single loop
+        mesh.executionContext().forEach("face interpolation", 0, faces.length, faceSetup);
+    }
 
-        face.U[var] = solution[0];
-        face.gradientU[var] = new Vector(solution[1], solution[2], solution[3]);
+    private void setFace(int index) {
+        double[] faceU = faces[index].U;
+        int gradientOffset = 3 * numVars * index;
+        Arrays.fill(faceU, 0.0);
+        Arrays.fill(gradients, gradientOffset, gradientOffset + 3 * numVars, 0.0);
+
+        // All variables of a neighbour are gathered together, so each weight and each neighbour is read once
+        for (int k = stencil.start(index); k < stencil.end(index); k++) {
+            double[] U = state.U;
+            int offset = state.offset(stencil.cell(k));
+            double w = weights[4 * k];
+            double wx = weights[4 * k + 1];
+            double wy = weights[4 * k + 2];
+            double wz = weights[4 * k + 3];
+            for (int var = 0, g = gradientOffset; var < numVars; var++, g += 3) {
+                double u = U[offset + var];
+                faceU[var] += w * u;
+                gradients[g] += wx * u;
+                gradients[g + 1] += wy * u;
+                gradients[g + 2] += wz * u;
+            }
+        }
     }
 }
@@ -1,6 +1,8 @@
 package main.solver;
 
 import main.mesh.Cell;
+import main.mesh.Stencil;
+import main.mesh.StencilRegistry;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,4 +18,9 @@ public class NodeBasedCellNeighbors implements CellNeighborCalculator {
                 .distinct()
                 .collect(toList());
     }
+
+    @Override
+    public Stencil stencil(StencilRegistry stencils) {
+        return stencils.nodeBased();
+    }
 }
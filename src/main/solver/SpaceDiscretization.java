@@ -1,8 +1,13 @@
 package main.solver;
 
 import main.mesh.Boundary;
+import main.mesh.Connectivity;
+import main.mesh.Face;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.bc.BoundaryCondition;
+import main.solver.metrics.SolverEvents;
+import main.util.PhaseTimers;
 
 import java.util.Arrays;
 import java.util.List;
@@ -14,29 +19,97 @@ public class SpaceDiscretization {
     private final LeastSquareFaceInterpolation faceInterpolation;
     private final CellGradientCalculator cellGradientCalculator;
 
+    private final PhaseTimers timers;
+    private final PhaseTimers.Timer ghostCellTimer;
+    private final PhaseTimers.Timer faceInterpolationTimer;
+    private final PhaseTimers.Timer cellGradientTimer;
+    private final PhaseTimers.Timer[] residualTimers;
+    private final int numCells;
+    private final int numFaces;
+    private final int numBoundaryFaces;
+
     public SpaceDiscretization(Mesh mesh, CellGradientCalculator cellGradientCalculator, List<ResidualCalculator> residuals) {
         this.mesh = mesh;
         this.cellGradientCalculator = cellGradientCalculator;
         this.residuals = residuals;
+        this.timers = new PhaseTimers(() -> mesh.executionContext().scheduler());
         this.faceInterpolation = new LeastSquareFaceInterpolation(mesh);
+
+        this.numCells = mesh.cells().size();
+        this.numBoundaryFaces = mesh.boundaries().stream().mapToInt(b -> b.faces.size()).sum();
+        this.numFaces = mesh.internalFaces().size() + numBoundaryFaces;
+        this.ghostCellTimer = timers.timer("ghost cells", "faces");
+        this.faceInterpolationTimer = timers.timer("face interpolation", "faces");
+        this.cellGradientTimer = timers.timer("cell gradients", "cells");
+        this.residualTimers = new PhaseTimers.Timer[residuals.size()];
+        for (int i = 0; i < residuals.size(); i++) {
+            residualTimers[i] = timers.timer(residualName(i), "cells");
+        }
+    }
+
+    /**
+     * @return Timers of the phases of setResiduals(), shared with the time integrator using this object.
+     */
+    public PhaseTimers phaseTimers() {
+        return timers;
     }
 
     public void setResiduals() {
+        ghostCellTimer.start();
         setGhostCellValues();
+        ghostCellTimer.stop(numBoundaryFaces);
+
+        faceInterpolationTimer.start();
         faceInterpolation.setupAllFaces();
+        faceInterpolationTimer.stop(numFaces);
+
+        cellGradientTimer.start();
         cellGradientCalculator.setupAllCells();
+        cellGradientTimer.stop(numCells);
+
+        Arrays.fill(mesh.solutionState().residual, 0.0);
+        for (int i = 0; i < residuals.size(); i++) {
+            residualTimers[i].start();
+            SolverEvents.Scope event = SolverEvents.residual(residualTimers[i].name, numCells);
+            try {
+                residuals.get(i).updateCellResiduals();
+            } finally {
+                event.close();
+            }
+            residualTimers[i].stop(numCells);
+        }
+    }
 
-        mesh.cellStream().forEach(cell -> Arrays.fill(cell.residual, 0.0));
-        residuals.forEach(ResidualCalculator::updateCellResiduals);
+    /**
+     * @return Simple class name of the residual calculator, numbered if the name is not unique.
+     */
+    private String residualName(int i) {
+        String name = residuals.get(i).getClass().getSimpleName();
+        if (name.isEmpty()) {
+            name = "residual";
+        }
+        for (int j = 0; j < residuals.size(); j++) {
+            if (j != i && residuals.get(j).getClass() == residuals.get(i).getClass()) {
+                return name + " " + i;
+            }
+        }
+        return name;
     }
 
     private void setGhostCellValues() {
-        mesh.boundaryStream().forEach(this::setGhostCellValues);
+        mesh.executionContext().forEach("ghost cells", mesh.boundaries(), this::setGhostCellValues);
     }
 
     private void setGhostCellValues(Boundary boundary) {
         BoundaryCondition bc = boundary.bc().orElseThrow(
                 () -> new IllegalArgumentException("Boundary condition is not defined."));
-        boundary.faces.forEach(bc::setGhostCellValues);
+        SolutionState state = mesh.solutionState();
+        Connectivity connectivity = mesh.connectivity();
+        // The boundary conditions work on the Cell objects of the boundary and the ghost cells
+        for (Face face : boundary.faces) {
+            state.copyToBoundaryCell(face);
+            bc.setGhostCellValues(face);
+            state.copyFromGhostCell(face, connectivity.right(face.index()));
+        }
     }
 }
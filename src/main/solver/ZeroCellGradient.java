@@ -1,9 +1,9 @@
 package main.solver;
 
-import main.geom.Vector;
-import main.mesh.Cell;
 import main.mesh.Mesh;
 
+import java.util.Arrays;
+
 public class ZeroCellGradient implements CellGradientCalculator {
     private final Mesh mesh;
 
@@ -13,13 +13,6 @@ public class ZeroCellGradient implements CellGradientCalculator {
 
     @Override
     public void setupAllCells() {
-        mesh.cellStream().forEach(this::setupCell);
-    }
-
-    private void setupCell(Cell cell) {
-        int numVars = cell.gradientU.length;
-        for (int var = 0; var < numVars; var++) {
-            cell.gradientU[var] = new Vector(0, 0, 0);
-        }
+        Arrays.fill(mesh.solutionState().gradientU, 0.0);
     }
 }
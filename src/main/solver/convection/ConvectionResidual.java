@@ -1,72 +1,159 @@
 package main.solver.convection;
 
 import main.mesh.Boundary;
-import main.mesh.Cell;
+import main.mesh.Connectivity;
 import main.mesh.Face;
+import main.mesh.FaceColoring;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.bc.BoundaryCondition;
 import main.solver.ResidualCalculator;
+import main.solver.convection.riemann.FaceBatch;
 import main.solver.convection.riemann.RiemannSolver;
 import main.solver.convection.reconstructor.SolutionReconstructor;
+import main.util.ExecutionContext;
 
-import static main.util.DoubleArray.*;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 public class ConvectionResidual implements ResidualCalculator {
     private final SolutionReconstructor reconstructor;
     private final RiemannSolver riemannSolver;
     private final Mesh mesh;
+    private final SolutionState state;
+    private final Connectivity connectivity;
+    private final FaceColoring faceColoring;
+    private final int numVars;
+
+    /**
+     * Faces in the order of their indices and the position in mesh.boundaries() of the boundary of
+     * each boundary face (indexed by face.index() - connectivity.numInternalFaces).
+     */
+    private final Face[] faces;
+    private final int[] faceBoundaries;
+
+    /**
+     * End of the internal faces of each color. The faces of a color are sorted by index, so the internal
+     * faces of the color c are in [colorStart(c), colorInternalEnd[c]) and its boundary faces follow them.
+     */
+    private final int[] colorInternalEnd;
+
+    /**
+     * Reconstructed variables on both sides of the internal faces.
+     */
+    private final FaceStates faceStates;
+
+    /**
+     * Batch of internal faces being processed by the current thread.
+     */
+    private final ThreadLocal<FaceBatch> faceBatch;
+    private final ThreadLocal<double[]> boundaryFlux;
+
+    /**
+     * Boundary condition of each boundary, refreshed on each update, and the loop bodies of each color,
+     * so that an update does not allocate.
+     */
+    private final BoundaryCondition[] bcs;
+    private final IntConsumer[] internalBatchUpdates;
+    private final IntConsumer boundaryFaceUpdate;
 
     public ConvectionResidual(SolutionReconstructor reconstructor, RiemannSolver riemannSolver, Mesh mesh) {
         this.reconstructor = reconstructor;
         this.riemannSolver = riemannSolver;
         this.mesh = mesh;
+        this.state = mesh.solutionState();
+        this.connectivity = mesh.connectivity();
+        this.faceColoring = connectivity.faceColoring();
+        this.numVars = state.numVars;
+        this.faceBatch = ThreadLocal.withInitial(() -> new FaceBatch(numVars));
+        this.boundaryFlux = ThreadLocal.withInitial(() -> new double[numVars]);
+        this.faceStates = new FaceStates(mesh, numVars);
+        this.faces = mesh.allFaces().toArray(new Face[0]);
+        this.faceBoundaries = new int[connectivity.numFaces - connectivity.numInternalFaces];
+        List<Boundary> boundaries = mesh.boundaries();
+        for (int b = 0; b < boundaries.size(); b++) {
+            for (Face face : boundaries.get(b).faces) {
+                faceBoundaries[face.index() - connectivity.numInternalFaces] = b;
+            }
+        }
+        this.colorInternalEnd = new int[faceColoring.numColors()];
+        for (int color = 0; color < faceColoring.numColors(); color++) {
+            int k = faceColoring.colorStart(color);
+            while (k < faceColoring.colorEnd(color) && faceColoring.face(k) < connectivity.numInternalFaces) {
+                k++;
+            }
+            colorInternalEnd[color] = k;
+        }
+        this.bcs = new BoundaryCondition[boundaries.size()];
+        this.internalBatchUpdates = new IntConsumer[faceColoring.numColors()];
+        for (int color = 0; color < faceColoring.numColors(); color++) {
+            int start = faceColoring.colorStart(color);
+            int internalEnd = colorInternalEnd[color];
+            internalBatchUpdates[color] = batch -> updateInternalResiduals(
+                    start + batch * FaceBatch.DEFAULT_CAPACITY,
+                    Math.min(start + (batch + 1) * FaceBatch.DEFAULT_CAPACITY, internalEnd));
+        }
+        this.boundaryFaceUpdate = k -> updateBoundaryResidual(faceColoring.face(k));
     }
 
     @Override
     public void updateCellResiduals() {
-        // solution reconstruction for all cells
+        // solution reconstruction for all cells and on both sides of the internal faces
         reconstructor.reconstruct();
+        faceStates.update(reconstructor);
 
-        // Calculate the flux at the internal faces and save
-        mesh.internalFaceStream().forEach(this::setFlux);
-
-        // Calculate the flux at the boundary faces and save
-        mesh.boundaryStream().forEach(this::setFlux);
+        List<Boundary> boundaries = mesh.boundaries();
+        for (int b = 0; b < bcs.length; b++) {
+            bcs[b] = boundaries.get(b).bc().orElseThrow(
+                    () -> new IllegalArgumentException("Boundary condition is not defined."));
+        }
 
-        // add / subtract (flux * face.area) to the cells residual
-        mesh.cellStream().forEach(this::updateResidual);
+        // Calculate the flux at the faces and add / subtract (flux * face.area) to the cells residual.
+        // The faces of one color do not share a cell, so their residual updates do not conflict.
+        // The internal faces are processed in batches, so that the Riemann solver can use batched kernels.
+        ExecutionContext context = mesh.executionContext();
+        for (int color = 0; color < faceColoring.numColors(); color++) {
+            int start = faceColoring.colorStart(color);
+            int internalEnd = colorInternalEnd[color];
+            int numBatches = (internalEnd - start + FaceBatch.DEFAULT_CAPACITY - 1) / FaceBatch.DEFAULT_CAPACITY;
+            context.forEach("convection", 0, numBatches, internalBatchUpdates[color]);
+            context.forEach("convection boundary", internalEnd, faceColoring.colorEnd(color), boundaryFaceUpdate);
+        }
     }
 
-    private void updateResidual(Cell cell) {
-        int numVars = cell.residual.length;
-        double[] totalResidual = new double[numVars];
-        for (Face face : cell.faces) {
-            double[] flux = multiply(face.flux, face.surface.area);
-            if (face.left == cell) {
-                increment(totalResidual, flux);
-            } else {
-                decrement(totalResidual, flux);
-            }
+    private void updateInternalResiduals(int from, int to) {
+        FaceBatch batch = faceBatch.get();
+        batch.clear();
+        for (int k = from; k < to; k++) {
+            int f = faceColoring.face(k);
+            batch.add(faces[f], faceStates.left, faceStates.right, f * numVars);
         }
 
-        increment(cell.residual, totalResidual);
-    }
+        riemannSolver.fluxBatch(batch);
 
-    private void setFlux(Boundary boundary) {
-        BoundaryCondition bc = boundary.bc().orElseThrow(
-                () -> new IllegalArgumentException("Boundary condition is not defined."));
-        boundary.faces.forEach(bFace -> setFlux(bFace, bc));
+        for (int k = from; k < to; k++) {
+            int f = faceColoring.face(k);
+            int b = k - from;
+            double area = faces[f].surface.area;
+            int left = connectivity.left(f) * numVars;
+            int right = connectivity.right(f) * numVars;
+            for (int var = 0; var < numVars; var++) {
+                double flux_times_area = batch.flux(var, b) * area;
+                state.residual[left + var] += flux_times_area;
+                state.residual[right + var] -= flux_times_area;
+            }
+        }
     }
 
-    private void setFlux(Face face, BoundaryCondition bc) {
-        double[] flux = bc.convectiveFlux(face);
-        copy(flux, face.flux);
-    }
+    private void updateBoundaryResidual(int f) {
+        Face face = faces[f];
+        double[] flux = boundaryFlux.get();
+        bcs[faceBoundaries[f - connectivity.numInternalFaces]].convectiveFluxInto(flux, face);
+        double area = face.surface.area;
 
-    private void setFlux(Face face) {
-        double[] UL = reconstructor.conservativeVars(face.left, face.surface.centroid);
-        double[] UR = reconstructor.conservativeVars(face.right, face.surface.centroid);
-        double[] flux = riemannSolver.flux(UL, UR, face);
-        copy(flux, face.flux);
+        int left = connectivity.left(f) * numVars;
+        for (int var = 0; var < numVars; var++) {
+            state.residual[left + var] += flux[var] * area;
+        }
     }
 }
@@ -0,0 +1,68 @@
+package main.solver.convection;
+
+import main.geom.Vector;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.solver.convection.reconstructor.SolutionReconstructor;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Reconstructed conservative variables on the left and right sides of the internal faces of a mesh.
+ * <p>
+ * The variables of the face with index f are stored in left[f * numVars + var] and right[f * numVars + var].
+ * The vectors from the centroids of the left and right cells to the face centroid do not change, so they
+ * are calculated once.
+ */
+public class FaceStates {
+    public final int numFaces;
+    public final int numVars;
+    public final double[] left;
+    public final double[] right;
+
+    private final Mesh mesh;
+    private final Face[] faces;
+    private final Vector[] leftOffsets;
+    private final Vector[] rightOffsets;
+    private final IntConsumer faceUpdate = this::updateFace;
+    private SolutionReconstructor reconstructor;
+
+    public FaceStates(Mesh mesh, int numVars) {
+        this.mesh = mesh;
+        List<Face> internalFaces = mesh.internalFaces();
+        this.numFaces = internalFaces.size();
+        this.numVars = numVars;
+        this.left = new double[numFaces * numVars];
+        this.right = new double[numFaces * numVars];
+
+        this.faces = new Face[numFaces];
+        this.leftOffsets = new Vector[numFaces];
+        this.rightOffsets = new Vector[numFaces];
+        for (Face face : internalFaces) {
+            int f = face.index();
+            if (f < 0 || f >= numFaces) {
+                throw new IllegalStateException("Face index " + f + " is not in range [0, " + numFaces + ").");
+            }
+            faces[f] = face;
+            leftOffsets[f] = new Vector(face.left.shape.centroid, face.surface.centroid);
+            rightOffsets[f] = new Vector(face.right.shape.centroid, face.surface.centroid);
+        }
+    }
+
+    /**
+     * Reconstructs the variables on both sides of all the faces. The reconstructor must be updated before
+     * calling this method.
+     */
+    public void update(SolutionReconstructor reconstructor) {
+        this.reconstructor = reconstructor;
+        mesh.executionContext().forEach("face states", 0, numFaces, faceUpdate);
+    }
+
+    private void updateFace(int f) {
+        Face face = faces[f];
+        int offset = f * numVars;
+        reconstructor.conservativeVarsInto(left, offset, face.left, face.surface.centroid, leftOffsets[f]);
+        reconstructor.conservativeVarsInto(right, offset, face.right, face.surface.centroid, rightOffsets[f]);
+    }
+}
@@ -0,0 +1,73 @@
+package main.solver.convection.reconstructor;
+
+/**
+ * Policy for freezing the limiter of a reconstructor during the pseudo time iterations.
+ * <p>
+ * The limiter is frozen once the residual drops below freezeResidual or after freezeIterations iterations,
+ * whichever is first. While frozen, the reconstructor reuses the limiter factors of each cell calculated at
+ * the last reconstruction before freezing instead of recalculating them. The limiter is unfrozen if the
+ * residual becomes larger than unfreezeFactor times the residual at the time of freezing (for example at
+ * the start of a new real time step). The iterations are counted again from zero after unfreezing.
+ * <p>
+ * The residual of an iteration is the maximum of the components of the total residual, so this policy
+ * should be updated with the residuals calculated by TimeIntegrator.currentTotalResidual(norm) (see
+ * TimeIntegrator.addResidualListener(listener)).
+ */
+public class LimiterFreezing {
+    private final double freezeResidual;
+    private final int freezeIterations;
+    private final double unfreezeFactor;
+
+    private int iterations = 0;
+    private double residualAtFreezing = Double.NaN;
+    private volatile boolean frozen = false;
+
+    /**
+     * @param freezeResidual   Residual below which the limiter is frozen.
+     * @param freezeIterations Number of iterations after which the limiter is frozen.
+     * @param unfreezeFactor   The limiter is unfrozen if the residual grows by more than this factor.
+     */
+    public LimiterFreezing(double freezeResidual, int freezeIterations, double unfreezeFactor) {
+        if (freezeResidual < 0 || freezeIterations < 1 || unfreezeFactor < 1) {
+            throw new IllegalArgumentException("Freeze residual must be non-negative, freeze iterations must be " +
+                    "positive and unfreeze factor must be at least 1.");
+        }
+        this.freezeResidual = freezeResidual;
+        this.freezeIterations = freezeIterations;
+        this.unfreezeFactor = unfreezeFactor;
+    }
+
+    /**
+     * Freezing based only on the residual.
+     */
+    public LimiterFreezing(double freezeResidual, double unfreezeFactor) {
+        this(freezeResidual, Integer.MAX_VALUE, unfreezeFactor);
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Updates the state of the limiter with the total residual of an iteration.
+     */
+    public void update(double[] totalResidual) {
+        double residual = 0.0;
+        for (double r : totalResidual) {
+            residual = Math.max(residual, r);
+        }
+
+        if (frozen) {
+            if (residual > unfreezeFactor * residualAtFreezing) {
+                frozen = false;
+                iterations = 0;
+            }
+        } else {
+            iterations++;
+            if (residual < freezeResidual || iterations >= freezeIterations) {
+                frozen = true;
+                residualAtFreezing = residual;
+            }
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package main.solver.convection.reconstructor;
 
 import main.geom.Point;
+import main.geom.Vector;
 import main.mesh.Cell;
-import main.util.DoubleArray;
+import main.mesh.Mesh;
+import main.mesh.SolutionState;
 
 public class PiecewiseConstantReconstructor implements SolutionReconstructor {
+    private final SolutionState state;
+
+    public PiecewiseConstantReconstructor(Mesh mesh) {
+        this.state = mesh.solutionState();
+    }
+
     @Override
     public void reconstruct() {
         // nothing needs to be done for piecewise constant reconstructor
@@ -12,6 +20,11 @@ public class PiecewiseConstantReconstructor implements SolutionReconstructor {
 
     @Override
     public double[] conservativeVars(Cell cell, Point atPoint) {
-        return DoubleArray.copyOf(cell.U);
+        return state.getInto(state.U, cell, new double[state.numVars]);
+    }
+
+    @Override
+    public void conservativeVarsInto(double[] U, int offset, Cell cell, Point atPoint, Vector r) {
+        System.arraycopy(state.U, state.offset(cell), U, offset, state.numVars);
     }
 }
@@ -1,10 +1,27 @@
 package main.solver.convection.reconstructor;
 
 import main.geom.Point;
+import main.geom.Vector;
 import main.mesh.Cell;
 
 public interface SolutionReconstructor {
     void reconstruct();
 
     double[] conservativeVars(Cell cell, Point atPoint);
+
+    /**
+     * Same as conservativeVars(cell, atPoint), but the variables are written to U starting at the position
+     * offset. The implementations use the precomputed vector r from the centroid of the cell to atPoint, so
+     * that nothing is allocated.
+     *
+     * @param U       Array to which the variables are written
+     * @param offset  Position in U of the first variable
+     * @param cell    Cell
+     * @param atPoint Point at which the variables are reconstructed
+     * @param r       Vector from the centroid of the cell to atPoint
+     */
+    default void conservativeVarsInto(double[] U, int offset, Cell cell, Point atPoint, Vector r) {
+        double[] reconstructed = conservativeVars(cell, atPoint);
+        System.arraycopy(reconstructed, 0, U, offset, reconstructed.length);
+    }
 }
@@ -5,6 +5,9 @@ import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Mesh;
 import main.mesh.Node;
+import main.mesh.SolutionState;
+import main.mesh.Stencil;
+import main.mesh.StencilRegistry;
 import main.physics.goveqn.GoverningEquations;
 import main.physics.goveqn.Limits;
 import main.solver.CellNeighborCalculator;
@@ -14,75 +17,150 @@ import static main.util.DoubleArray.add;
 
 public class VKLimiterReconstructor implements SolutionReconstructor {
     private final Mesh mesh;
-    private final CellNeighborCalculator neighCalc;
-    private final Cell[][] neighbors;
+    private final SolutionState state;
+    private final StencilRegistry stencils;
+    private final Stencil neighbors;
     private final GoverningEquations govEqn;
+    private final int numVars;
+
+    /**
+     * Vectors from the centroid of each cell to its nodes, in CSR form: the vector to node n of cell i is
+     * (nodeOffsets[3 * k], nodeOffsets[3 * k + 1], nodeOffsets[3 * k + 2]) with k = nodeOffsetsStart[i] + n.
+     */
+    private final int[] nodeOffsetsStart;
+    private final double[] nodeOffsets;
+
+    /**
+     * Limiter data of the cell being processed by the current thread.
+     */
+    private final ThreadLocal<LimiterWorkspace> workspace;
+
+    /**
+     * Freezing policy (null if the limiter is never frozen) and the limiter factor of each variable of each
+     * cell (at cell.index() * numVars + var) from the last reconstruction with an unfrozen limiter.
+     */
+    private final LimiterFreezing freezing;
+    private final double[] limiterFactors;
 
     public VKLimiterReconstructor(Mesh mesh, GoverningEquations govEqn, CellNeighborCalculator neighCalc) {
+        this(mesh, govEqn, neighCalc, null);
+    }
+
+    public VKLimiterReconstructor(Mesh mesh, GoverningEquations govEqn, CellNeighborCalculator neighCalc,
+                                  LimiterFreezing freezing) {
         this.govEqn = govEqn;
+        this.numVars = govEqn.numVars();
         int numCells = mesh.cells().size();
         this.mesh = mesh;
-        this.neighCalc = neighCalc;
-        this.neighbors = new Cell[numCells][];
+        this.state = mesh.solutionState();
+        this.stencils = mesh.stencils();
+        this.neighbors = neighCalc.stencil(stencils);
+
+        this.nodeOffsetsStart = new int[numCells + 1];
+        for (Cell cell : mesh.cells()) {
+            nodeOffsetsStart[cell.index() + 1] = cell.nodes.length;
+        }
+        for (int i = 0; i < numCells; i++) {
+            nodeOffsetsStart[i + 1] += nodeOffsetsStart[i];
+        }
+        this.nodeOffsets = new double[3 * nodeOffsetsStart[numCells]];
+        this.workspace = ThreadLocal.withInitial(() -> new LimiterWorkspace(numVars));
+        this.freezing = freezing;
+        this.limiterFactors = freezing == null ? null : new double[numCells * numVars];
 
-        mesh.cellStream().forEach(this::setup);
+        mesh.executionContext().forEach(mesh.cells(), this::setup);
     }
 
     private void setup(Cell cell) {
-        neighbors[cell.index()] = neighCalc.calculateFor(cell).toArray(new Cell[0]);
-
-        for (int var = 0; var < cell.U.length; var++) {
+        for (int var = 0; var < numVars; var++) {
             cell.reconstructCoeffs[var] = new double[3];
         }
+
+        int k = nodeOffsetsStart[cell.index()];
+        for (Node node : cell.nodes) {
+            Vector distanceVector = new Vector(cell.shape.centroid, node.location());
+            nodeOffsets[3 * k] = distanceVector.x;
+            nodeOffsets[3 * k + 1] = distanceVector.y;
+            nodeOffsets[3 * k + 2] = distanceVector.z;
+            k++;
+        }
     }
 
     @Override
     public void reconstruct() {
-        mesh.cellStream().forEach(this::reconstructCell);
+        if (freezing != null && freezing.isFrozen()) {
+            mesh.executionContext().forEach("limiter", mesh.cells(), this::reconstructCellWithFrozenLimiter);
+        } else {
+            mesh.executionContext().forEach("limiter", mesh.cells(), this::reconstructCell);
+        }
     }
 
-    private void reconstructCell(Cell cell) {
-        Vector[] gradients = cell.gradientU;
-        for (int var = 0; var < cell.U.length; var++) {
-            reconstructVar(cell, gradients, var);
+    private void reconstructCellWithFrozenLimiter(Cell cell) {
+        double[] gradients = state.gradientU;
+        int offset = cell.index() * numVars;
+        int g = state.gradientOffset(cell);
+        for (int var = 0; var < numVars; var++, g += 3) {
+            setLimitedCoeffs(cell, var, gradients, g, limiterFactors[offset + var]);
         }
     }
 
-    private void reconstructVar(Cell cell, Vector[] gradients, int var) {
-        Limits physicalLimits = govEqn.physicalLimits()[var];
-
-        Cell[] cellNeighbors = neighbors[cell.index()];
-        double ui = cell.U[var];
-        double uMax = ui;
-        double uMin = ui;
-        for (Cell neighbor : cellNeighbors) {
-            double value = neighbor.U[var];
-            if (value > uMax) uMax = value;
-            if (value < uMin) uMin = value;
+    private void reconstructCell(Cell cell) {
+        LimiterWorkspace ws = workspace.get();
+        Limits[] physicalLimits = govEqn.physicalLimits();
+        double[] U = state.U;
+        int offset = state.offset(cell);
+        double[] gradients = state.gradientU;
+        int gradientOffset = state.gradientOffset(cell);
+        double[] duMin = ws.duMin;
+        double[] duMax = ws.duMax;
+        double[] phi = ws.phi;
+
+        // Minimum and maximum of the cell and its neighbors
+        for (int var = 0; var < numVars; var++) {
+            duMin[var] = U[offset + var];
+            duMax[var] = U[offset + var];
+        }
+        for (int k = neighbors.start(cell.index()); k < neighbors.end(cell.index()); k++) {
+            int neighborOffset = state.offset(neighbors.cell(k));
+            for (int var = 0; var < numVars; var++) {
+                double value = U[neighborOffset + var];
+                if (value > duMax[var]) duMax[var] = value;
+                if (value < duMin[var]) duMin[var] = value;
+            }
+        }
+        for (int var = 0; var < numVars; var++) {
+            Limits limits = physicalLimits[var];
+            duMax[var] = Util.clip(duMax[var], limits.min, limits.max) - U[offset + var];
+            duMin[var] = Util.clip(duMin[var], limits.min, limits.max) - U[offset + var];
+            phi[var] = Double.POSITIVE_INFINITY;
         }
-        uMax = Util.clip(uMax, physicalLimits.min, physicalLimits.max);
-        double duMax = uMax - ui;
-
-        uMin = Util.clip(uMin, physicalLimits.min, physicalLimits.max);
-        double duMin = uMin - ui;
 
-        Vector gradient_unlimited = gradients[var];
-        double phi_i = Double.POSITIVE_INFINITY;
-        for (Node node : cell.nodes) {
-            double nodeValue = reconstructValueAt(cell, var, gradient_unlimited, node.location());
-            double nodePhi = Phi(duMin, duMax, ui, nodeValue);
-            if (nodePhi < phi_i) phi_i = nodePhi;
+        // Limiter of each variable is the minimum over the nodes of the cell
+        for (int k = nodeOffsetsStart[cell.index()]; k < nodeOffsetsStart[cell.index() + 1]; k++) {
+            double rx = nodeOffsets[3 * k];
+            double ry = nodeOffsets[3 * k + 1];
+            double rz = nodeOffsets[3 * k + 2];
+            for (int var = 0, g = gradientOffset; var < numVars; var++, g += 3) {
+                double ui = U[offset + var];
+                double nodeValue = ui + (gradients[g] * rx + gradients[g + 1] * ry + gradients[g + 2] * rz);
+                double nodePhi = Phi(duMin[var], duMax[var], ui, nodeValue);
+                if (nodePhi < phi[var]) phi[var] = nodePhi;
+            }
         }
 
-        Vector gradient_limited = gradient_unlimited.mult(phi_i);
-        cell.reconstructCoeffs[var][0] = gradient_limited.x;
-        cell.reconstructCoeffs[var][1] = gradient_limited.y;
-        cell.reconstructCoeffs[var][2] = gradient_limited.z;
+        for (int var = 0, g = gradientOffset; var < numVars; var++, g += 3) {
+            setLimitedCoeffs(cell, var, gradients, g, phi[var]);
+        }
+        if (limiterFactors != null) {
+            System.arraycopy(phi, 0, limiterFactors, cell.index() * numVars, numVars);
+        }
     }
 
-    private double reconstructValueAt(Cell cell, int var, Vector gradient, Point at) {
-        Vector distanceVector = new Vector(cell.shape.centroid, at);
-        return cell.U[var] + gradient.dot(distanceVector);
+    private void setLimitedCoeffs(Cell cell, int var, double[] gradients, int g, double phi) {
+        double[] coeffs = cell.reconstructCoeffs[var];
+        coeffs[0] = gradients[g] * phi;
+        coeffs[1] = gradients[g + 1] * phi;
+        coeffs[2] = gradients[g + 2] * phi;
     }
 
     private double Phi(double duMin, double duMax, double ui, double uj) {
@@ -103,7 +181,6 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
 
     @Override
     public double[] conservativeVars(Cell cell, Point atPoint) {
-        int numVars = cell.U.length;
         Vector r = new Vector(cell.shape.centroid, atPoint);
         double[] dU = new double[numVars];
         for (int var = 0; var < numVars; var++) {
@@ -115,6 +192,28 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
             dU[var] = gradient.dot(r);
         }
 
-        return add(cell.U, dU);
+        return add(state.getInto(state.U, cell, new double[numVars]), dU);
+    }
+
+    @Override
+    public void conservativeVarsInto(double[] U, int offset, Cell cell, Point atPoint, Vector r) {
+        int cellOffset = state.offset(cell);
+        for (int var = 0; var < numVars; var++) {
+            double[] coeffs = cell.reconstructCoeffs[var];
+            double dU = coeffs[0] * r.x + coeffs[1] * r.y + coeffs[2] * r.z;
+            U[offset + var] = state.U[cellOffset + var] + dU;
+        }
+    }
+
+    private static class LimiterWorkspace {
+        final double[] duMin;
+        final double[] duMax;
+        final double[] phi;
+
+        LimiterWorkspace(int numVars) {
+            this.duMin = new double[numVars];
+            this.duMax = new double[numVars];
+            this.phi = new double[numVars];
+        }
     }
 }
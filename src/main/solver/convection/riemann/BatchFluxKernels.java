@@ -0,0 +1,38 @@
+package main.solver.convection.riemann;
+
+/**
+ * Lane by lane arithmetic of the batched Riemann solvers, applied to the structure of arrays of a FaceBatch.
+ * <p>
+ * The kernels of the JDK Vector API (VectorBatchFluxKernels) are compiled from the optional src-vector directory
+ * when the build runs on JDK 16 or newer, and are used only if the jdk.incubator.vector module is resolved at run
+ * time (--add-modules jdk.incubator.vector). Otherwise the scalar kernels are used. Both give the same results.
+ */
+interface BatchFluxKernels {
+
+    BatchFluxKernels INSTANCE = select();
+
+    /**
+     * Rusanov flux 0.5 * (FL + FR - max(evL, evR) * (UR - UL)) of the lanes 0 to size - 1.
+     * evL is overwritten with max(evL, evR).
+     */
+    void rusanov(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+                 double[] evL, double[] evR, int numVars, int size);
+
+    /**
+     * HLL flux of the lanes 0 to size - 1 with the wave speeds SL and SR, which must be valid.
+     */
+    void hll(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+             double[] SL, double[] SR, int numVars, int size);
+
+    static BatchFluxKernels select() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (BatchFluxKernels) Class.forName("main.solver.convection.riemann.VectorBatchFluxKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled into this build, use the scalar kernels
+            }
+        }
+        return new ScalarBatchFluxKernels();
+    }
+}
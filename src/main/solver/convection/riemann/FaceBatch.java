@@ -0,0 +1,123 @@
+package main.solver.convection.riemann;
+
+import main.geom.Vector;
+import main.mesh.Face;
+
+/**
+ * Left and right states, unit normals and fluxes of a group of faces in structure of arrays layout
+ * ({@code UL[var][k]} is the variable {@code var} of the left state of the face {@code k} of the batch).
+ * The fluxes of all the faces of a batch are calculated by RiemannSolver.fluxBatch(batch).
+ * <p>
+ * A batch also holds the scratch arrays used while calculating the fluxes, so it must be used by only one
+ * thread at a time.
+ */
+public class FaceBatch {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    public final int numVars;
+    public final int capacity;
+    private int size;
+
+    public final Face[] faces;
+    public final double[] nx;
+    public final double[] ny;
+    public final double[] nz;
+    public final double[][] UL;
+    public final double[][] UR;
+    public final double[][] flux;
+
+    // Scratch arrays of the batched Riemann solvers
+    public final double[][] FL;
+    public final double[][] FR;
+    public final double[] eigenvaluesL;
+    public final double[] eigenvaluesR;
+    public final double[] maxEigenvaluesL;
+    public final double[] maxEigenvaluesR;
+
+    // Scratch arrays of the face by face fallback
+    final double[] faceUL;
+    final double[] faceUR;
+    final double[] faceFlux;
+
+    public FaceBatch(int numVars) {
+        this(numVars, DEFAULT_CAPACITY);
+    }
+
+    public FaceBatch(int numVars, int capacity) {
+        if (numVars < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Number of variables and capacity of a face batch must be positive.");
+        }
+        this.numVars = numVars;
+        this.capacity = capacity;
+
+        this.faces = new Face[capacity];
+        this.nx = new double[capacity];
+        this.ny = new double[capacity];
+        this.nz = new double[capacity];
+        this.UL = new double[numVars][capacity];
+        this.UR = new double[numVars][capacity];
+        this.flux = new double[numVars][capacity];
+
+        this.FL = new double[numVars][capacity];
+        this.FR = new double[numVars][capacity];
+        this.eigenvaluesL = new double[capacity];
+        this.eigenvaluesR = new double[capacity];
+        this.maxEigenvaluesL = new double[capacity];
+        this.maxEigenvaluesR = new double[capacity];
+
+        this.faceUL = new double[numVars];
+        this.faceUR = new double[numVars];
+        this.faceFlux = new double[numVars];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a face with the given left and right states to the batch.
+     *
+     * @return position of the face in the batch
+     */
+    public int add(Face face, double[] UL, double[] UR) {
+        return add(face, UL, UR, 0);
+    }
+
+    /**
+     * Adds a face to the batch, with the left and right states stored in UL and UR starting at the
+     * position offset.
+     *
+     * @return position of the face in the batch
+     */
+    public int add(Face face, double[] UL, double[] UR, int offset) {
+        if (size == capacity) {
+            throw new IllegalStateException("The face batch is full.");
+        }
+        int k = size++;
+        faces[k] = face;
+        Vector unitNormal = face.surface.unitNormal();
+        nx[k] = unitNormal.x;
+        ny[k] = unitNormal.y;
+        nz[k] = unitNormal.z;
+        for (int var = 0; var < numVars; var++) {
+            this.UL[var][k] = UL[offset + var];
+            this.UR[var][k] = UR[offset + var];
+        }
+        return k;
+    }
+
+    /**
+     * @return flux of the variable var at the face k of the batch.
+     */
+    public double flux(int var, int k) {
+        return flux[var][k];
+    }
+}
@@ -11,27 +11,43 @@ public class HLLC_AC_RiemannSolver implements RiemannSolver {
 
     private final ArtificialCompressibilityEquations govEqn;
     private final int numVars;
+    private final ThreadLocal<RiemannWorkspace> workspace;
 
     public HLLC_AC_RiemannSolver(ArtificialCompressibilityEquations govEqn) {
         this.govEqn = govEqn;
         this.numVars = govEqn.numVars();
+        this.workspace = ThreadLocal.withInitial(() -> new RiemannWorkspace(numVars));
     }
 
     @Override
     public double[] flux(double[] UL, double[] UR, Face face) {
+        double[] flux = new double[numVars];
+        fluxInto(flux, UL, UR, face);
+        return flux;
+    }
+
+    @Override
+    public void fluxInto(double[] flux, double[] UL_cartesian, double[] UR_cartesian, Face face) {
+        RiemannWorkspace ws = workspace.get();
         Surface surface = face.surface;
         Vector n = surface.unitNormal();
         Vector t1 = surface.unitTangent1();
         Vector t2 = surface.unitTangent2();
 
-        UL = rotateU(UL, n, t1, t2);
-        UR = rotateU(UR, n, t1, t2);
+        double[] UL = ws.UL;
+        double[] UR = ws.UR;
+        rotateU(UL, UL_cartesian, n, t1, t2);
+        rotateU(UR, UR_cartesian, n, t1, t2);
 
-        double[] FL = govEqn.F(UL);
-        double[] FR = govEqn.F(UR);
+        double[] FL = ws.FL;
+        double[] FR = ws.FR;
+        govEqn.FInto(FL, UL);
+        govEqn.FInto(FR, UR);
 
-        double[] eigenvaluesL = govEqn.min_max_eigenvalues(UL);
-        double[] eigenvaluesR = govEqn.min_max_eigenvalues(UR);
+        double[] eigenvaluesL = ws.eigenvaluesL;
+        double[] eigenvaluesR = ws.eigenvaluesR;
+        govEqn.min_max_eigenvaluesInto(eigenvaluesL, UL);
+        govEqn.min_max_eigenvaluesInto(eigenvaluesR, UR);
 
         double SL = Math.min(eigenvaluesL[0], eigenvaluesR[0]);
         double SR = Math.max(eigenvaluesL[1], eigenvaluesR[1]);
@@ -40,30 +56,31 @@ public class HLLC_AC_RiemannSolver implements RiemannSolver {
 
         double SStar = (FR[1] - FL[1] - SR * UR[1] + SL * UL[1]) / SL_minus_SR;
 
-        double[] flux;
+        double[] UStar = ws.UStar;
+        double[] rotatedFlux = ws.flux;
         if (SStar >= 0) {
             double p_betaStar = (UR[1] - UL[1] - SR * UR[0] + SL * UL[0]) / SL_minus_SR;
             double SL_minus_SStar = SL - SStar;
             double vStarL = (SL * UL[2] - FL[2]) / SL_minus_SStar;
             double wStarL = (SL * UL[3] - FL[3]) / SL_minus_SStar;
-            double[] UStarL = {
-                    p_betaStar, SStar, vStarL, wStarL
-            };
-            flux = new double[numVars];
+            UStar[0] = p_betaStar;
+            UStar[1] = SStar;
+            UStar[2] = vStarL;
+            UStar[3] = wStarL;
             for (int var = 0; var < numVars; var++) {
-                flux[var] = FL[var] + SL * (UStarL[var] - UL[var]);
+                rotatedFlux[var] = FL[var] + SL * (UStar[var] - UL[var]);
             }
         } else if (SStar <= 0) {
             double p_betaStar = (UR[1] - UL[1] - SR * UR[0] + SL * UL[0]) / SL_minus_SR;
             double SR_minus_SStar = SR - SStar;
             double vStarR = (SR * UR[2] - FR[2]) / SR_minus_SStar;
             double wStarR = (SR * UR[3] - FR[3]) / SR_minus_SStar;
-            double[] UStarR = {
-                    p_betaStar, SStar, vStarR, wStarR
-            };
-            flux = new double[numVars];
+            UStar[0] = p_betaStar;
+            UStar[1] = SStar;
+            UStar[2] = vStarR;
+            UStar[3] = wStarR;
             for (int var = 0; var < numVars; var++) {
-                flux[var] = FR[var] + SR * (UStarR[var] - UR[var]);
+                rotatedFlux[var] = FR[var] + SR * (UStar[var] - UR[var]);
             }
         } else {
             throw new IllegalStateException("The wave speeds are not valid." +
@@ -71,24 +88,20 @@ public class HLLC_AC_RiemannSolver implements RiemannSolver {
                     "\nRotated UR = " + Arrays.toString(UR));
         }
 
-        return cartesianF(flux, n, t1, t2);
+        cartesianF(flux, rotatedFlux, n, t1, t2);
     }
 
-    private double[] rotateU(double[] U, Vector n, Vector t1, Vector t2) {
-        return new double[]{
-                U[0],
-                U[1] * n.x + U[2] * n.y + U[3] * n.z,
-                U[1] * t1.x + U[2] * t1.y + U[3] * t1.z,
-                U[1] * t2.x + U[2] * t2.y + U[3] * t2.z
-        };
+    private void rotateU(double[] rotatedU, double[] U, Vector n, Vector t1, Vector t2) {
+        rotatedU[0] = U[0];
+        rotatedU[1] = U[1] * n.x + U[2] * n.y + U[3] * n.z;
+        rotatedU[2] = U[1] * t1.x + U[2] * t1.y + U[3] * t1.z;
+        rotatedU[3] = U[1] * t2.x + U[2] * t2.y + U[3] * t2.z;
     }
 
-    private double[] cartesianF(double[] F, Vector n, Vector t1, Vector t2) {
-        return new double[]{
-                F[0],
-                F[1] * n.x + F[2] * t1.x + F[3] * t2.x,
-                F[1] * n.y + F[2] * t1.y + F[3] * t2.y,
-                F[1] * n.z + F[2] * t1.z + F[3] * t2.z
-        };
+    private void cartesianF(double[] cartesianF, double[] F, Vector n, Vector t1, Vector t2) {
+        cartesianF[0] = F[0];
+        cartesianF[1] = F[1] * n.x + F[2] * t1.x + F[3] * t2.x;
+        cartesianF[2] = F[1] * n.y + F[2] * t1.y + F[3] * t2.y;
+        cartesianF[3] = F[1] * n.z + F[2] * t1.z + F[3] * t2.z;
     }
 }
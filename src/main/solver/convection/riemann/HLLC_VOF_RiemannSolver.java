@@ -9,18 +9,30 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
 
     private final ArtificialCompressibilityVOFEquations govEqn;
     private final int numVars;
+    private final ThreadLocal<RiemannWorkspace> workspace;
 
     public HLLC_VOF_RiemannSolver(ArtificialCompressibilityVOFEquations govEqn) {
         this.govEqn = govEqn;
         this.numVars = govEqn.numVars();
+        this.workspace = ThreadLocal.withInitial(() -> new RiemannWorkspace(numVars));
     }
 
     @Override
     public double[] flux(double[] UL, double[] UR, Face face) {
+        double[] flux = new double[numVars];
+        fluxInto(flux, UL, UR, face);
+        return flux;
+    }
+
+    @Override
+    public void fluxInto(double[] flux, double[] UL_cartesian, double[] UR_cartesian, Face face) {
+        RiemannWorkspace ws = workspace.get();
         Surface surface = face.surface;
         Vector unitNormal = surface.unitNormal();
-        double[] eigenvaluesL = govEqn.convection().sortedEigenvalues(UL, unitNormal);
-        double[] eigenvaluesR = govEqn.convection().sortedEigenvalues(UR, unitNormal);
+        double[] eigenvaluesL = ws.eigenvaluesL;
+        double[] eigenvaluesR = ws.eigenvaluesR;
+        govEqn.convection().sortedEigenvaluesInto(eigenvaluesL, UL_cartesian, unitNormal);
+        govEqn.convection().sortedEigenvaluesInto(eigenvaluesR, UR_cartesian, unitNormal);
 
         double rho1_minus_rho2 = govEqn.rho1_minus_rho2();
 
@@ -30,11 +42,15 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
         Vector unitTangent1 = surface.unitTangent1();
         Vector unitTangent2 = surface.unitTangent2();
 
-        UL = rotateU(UL, unitNormal, unitTangent1, unitTangent2);
-        UR = rotateU(UR, unitNormal, unitTangent1, unitTangent2);
+        double[] UL = ws.UL;
+        double[] UR = ws.UR;
+        rotateU(UL, UL_cartesian, unitNormal, unitTangent1, unitTangent2);
+        rotateU(UR, UR_cartesian, unitNormal, unitTangent1, unitTangent2);
 
-        double[] FL = govEqn.F(UL);
-        double[] FR = govEqn.F(UR);
+        double[] FL = ws.FL;
+        double[] FR = ws.FR;
+        govEqn.FInto(FL, UL);
+        govEqn.FInto(FR, UR);
 
         double CL = UL[4];
         double CR = UR[4];
@@ -54,43 +70,48 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
         double pStar_beta = (FR[0] - FL[0] + SL * UL[0] - SR * UR[0]) /
                 ((SL - SStar) / rhoStarL - (SR - SStar) / rhoStarR);
 
-        double[] flux;
+        double[] UStar = ws.UStar;
+        double[] rotatedFlux;
         if (SL >= 0.0) {
-            flux = FL;
+            rotatedFlux = FL;
         } else if (SR <= 0.0) {
-            flux = FR;
+            rotatedFlux = FR;
         } else if (SL <= 0 && SStar >= 0) {
 
             double rho_v_StarL = (UL[2] * SL - FL[2]) / (SL - SStar);
             double rho_w_StarL = (UL[3] * SL - FL[3]) / (SL - SStar);
-            double[] UStarL = {
-                    pStar_beta / rhoStarL, rhoStarL * SStar, rho_v_StarL, rho_w_StarL, CStarL
-            };
+            UStar[0] = pStar_beta / rhoStarL;
+            UStar[1] = rhoStarL * SStar;
+            UStar[2] = rho_v_StarL;
+            UStar[3] = rho_w_StarL;
+            UStar[4] = CStarL;
 
-            flux = new double[numVars];
+            rotatedFlux = ws.flux;
             for (int var = 0; var < numVars; var++) {
-                flux[var] = FL[var] + SL * (UStarL[var] - UL[var]);
+                rotatedFlux[var] = FL[var] + SL * (UStar[var] - UL[var]);
             }
         } else if (SStar <= 0 && SR >= 0) {
 
             double rho_v_StarR = (UR[2] * SR - FR[2]) / (SR - SStar);
             double rho_w_StarR = (UR[3] * SR - FR[3]) / (SR - SStar);
-            double[] UStarR = {
-                    pStar_beta / rhoStarR, rhoStarR * SStar, rho_v_StarR, rho_w_StarR, CStarR
-            };
+            UStar[0] = pStar_beta / rhoStarR;
+            UStar[1] = rhoStarR * SStar;
+            UStar[2] = rho_v_StarR;
+            UStar[3] = rho_w_StarR;
+            UStar[4] = CStarR;
 
-            flux = new double[numVars];
+            rotatedFlux = ws.flux;
             for (int var = 0; var < numVars; var++) {
-                flux[var] = FR[var] + SR * (UStarR[var] - UR[var]);
+                rotatedFlux[var] = FR[var] + SR * (UStar[var] - UR[var]);
             }
         } else {
             throw new IllegalStateException("The wave speeds are not valid.");
         }
 
-        return rotateBackF(flux, unitNormal, unitTangent1, unitTangent2);
+        rotateBackF(flux, rotatedFlux, unitNormal, unitTangent1, unitTangent2);
     }
 
-    private double[] rotateU(double[] U, Vector unitNormal, Vector unitTangent1, Vector unitTangent2) {
+    private void rotateU(double[] rotatedU, double[] U, Vector unitNormal, Vector unitTangent1, Vector unitTangent2) {
         double nx = unitNormal.x;
         double ny = unitNormal.y;
         double nz = unitNormal.z;
@@ -103,16 +124,14 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
         double t2y = unitTangent2.y;
         double t2z = unitTangent2.z;
 
-        return new double[]{
-                U[0],
-                U[1] * nx + U[2] * ny + U[3] * nz,
-                U[1] * t1x + U[2] * t1y + U[3] * t1z,
-                U[1] * t2x + U[2] * t2y + U[3] * t2z,
-                U[4]
-        };
+        rotatedU[0] = U[0];
+        rotatedU[1] = U[1] * nx + U[2] * ny + U[3] * nz;
+        rotatedU[2] = U[1] * t1x + U[2] * t1y + U[3] * t1z;
+        rotatedU[3] = U[1] * t2x + U[2] * t2y + U[3] * t2z;
+        rotatedU[4] = U[4];
     }
 
-    private double[] rotateBackF(double[] F, Vector unitNormal, Vector unitTangent1, Vector unitTangent2) {
+    private void rotateBackF(double[] cartesianF, double[] F, Vector unitNormal, Vector unitTangent1, Vector unitTangent2) {
         double nx = unitNormal.x;
         double ny = unitNormal.y;
         double nz = unitNormal.z;
@@ -125,12 +144,10 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
         double t2y = unitTangent2.y;
         double t2z = unitTangent2.z;
 
-        return new double[]{
-                F[0],
-                F[1] * nx + F[2] * t1x + F[3] * t2x,
-                F[1] * ny + F[2] * t1y + F[3] * t2y,
-                F[1] * nz + F[2] * t1z + F[3] * t2z,
-                F[4]
-        };
+        cartesianF[0] = F[0];
+        cartesianF[1] = F[1] * nx + F[2] * t1x + F[3] * t2x;
+        cartesianF[2] = F[1] * ny + F[2] * t1y + F[3] * t2y;
+        cartesianF[3] = F[1] * nz + F[2] * t1z + F[3] * t2z;
+        cartesianF[4] = F[4];
     }
 }
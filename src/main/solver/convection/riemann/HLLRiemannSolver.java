@@ -3,6 +3,7 @@ package main.solver.convection.riemann;
 import main.geom.Vector;
 import main.mesh.Face;
 import main.mesh.Surface;
+import main.physics.goveqn.BatchConvection;
 import main.physics.goveqn.Convection;
 import main.physics.goveqn.GoverningEquations;
 
@@ -12,42 +13,97 @@ public class HLLRiemannSolver implements RiemannSolver {
     private final int numVars;
     private final int numVars_m1;
     private final Convection convection;
+    private final ThreadLocal<RiemannWorkspace> workspace;
 
     public HLLRiemannSolver(GoverningEquations govEqn) {
         this.convection = govEqn.convection();
         this.numVars = govEqn.numVars();
         this.numVars_m1 = numVars - 1;
+        this.workspace = ThreadLocal.withInitial(() -> new RiemannWorkspace(numVars));
     }
 
     @Override
     public double[] flux(double[] UL, double[] UR, Face face) {
+        double[] flux = new double[numVars];
+        fluxInto(flux, UL, UR, face);
+        return flux;
+    }
+
+    @Override
+    public void fluxInto(double[] flux, double[] UL, double[] UR, Face face) {
+        RiemannWorkspace ws = workspace.get();
         Surface surface = face.surface;
         Vector unitNormal = surface.unitNormal();
-        double[] leftSideEigenvalues = convection.sortedEigenvalues(UL, unitNormal);
-        double[] rightSideEigenvalues = convection.sortedEigenvalues(UR, unitNormal);
+        double[] leftSideEigenvalues = ws.eigenvaluesL;
+        double[] rightSideEigenvalues = ws.eigenvaluesR;
+        convection.sortedEigenvaluesInto(leftSideEigenvalues, UL, unitNormal);
+        convection.sortedEigenvaluesInto(rightSideEigenvalues, UR, unitNormal);
 
         double SL = Math.min(leftSideEigenvalues[0], rightSideEigenvalues[0]);
         double SR = Math.max(leftSideEigenvalues[numVars_m1], rightSideEigenvalues[numVars_m1]);
 
-        double[] FL = convection.flux(UL, unitNormal);
-        double[] FR = convection.flux(UR, unitNormal);
-
         if (SL >= 0.0) {
-            return FL;
+            convection.fluxInto(flux, UL, unitNormal);
         } else if (SR <= 0.0) {
-            return FR;
+            convection.fluxInto(flux, UR, unitNormal);
         } else if (SL < 0 && SR > 0) {
-            double[] flux = new double[numVars];
+            double[] FL = ws.FL;
+            double[] FR = ws.FR;
+            convection.fluxInto(FL, UL, unitNormal);
+            convection.fluxInto(FR, UR, unitNormal);
+
             double SL_times_SR = SL * SR;
             double SR_minus_SL = SR - SL;
             for (int var = 0; var < numVars; var++) {
                 flux[var] = (SR * FL[var] - SL * FR[var] + SL_times_SR * (UR[var] - UL[var])) / SR_minus_SL;
             }
-            return flux;
         } else {
             throw new IllegalStateException("The wave speeds are not valid: \n" +
                     "UL = " + Arrays.toString(UL) + ",\n" +
                     "UR = " + Arrays.toString(UR));
         }
     }
+
+    @Override
+    public void fluxBatch(FaceBatch batch) {
+        if (!(convection instanceof BatchConvection)) {
+            RiemannSolver.super.fluxBatch(batch);
+            return;
+        }
+        BatchConvection batchConvection = (BatchConvection) convection;
+
+        int size = batch.size();
+        double[] nx = batch.nx;
+        double[] ny = batch.ny;
+        double[] nz = batch.nz;
+        double[] SL = batch.eigenvaluesL;
+        double[] SR = batch.maxEigenvaluesL;
+        double[] minEigenvaluesR = batch.eigenvaluesR;
+        double[] maxEigenvaluesR = batch.maxEigenvaluesR;
+        batchConvection.minMaxEigenvaluesBatch(SL, SR, batch.UL, nx, ny, nz, size);
+        batchConvection.minMaxEigenvaluesBatch(minEigenvaluesR, maxEigenvaluesR, batch.UR, nx, ny, nz, size);
+        for (int k = 0; k < size; k++) {
+            SL[k] = Math.min(SL[k], minEigenvaluesR[k]);
+            SR[k] = Math.max(SR[k], maxEigenvaluesR[k]);
+        }
+        for (int k = 0; k < size; k++) {
+            // Same as the else branch of fluxInto(flux, UL, UR, face), only NaN wave speeds reach it
+            if (!(SL[k] >= 0.0 || SR[k] <= 0.0 || (SL[k] < 0 && SR[k] > 0))) {
+                double[] UL = new double[numVars];
+                double[] UR = new double[numVars];
+                for (int var = 0; var < numVars; var++) {
+                    UL[var] = batch.UL[var][k];
+                    UR[var] = batch.UR[var][k];
+                }
+                throw new IllegalStateException("The wave speeds are not valid: \n" +
+                        "UL = " + Arrays.toString(UL) + ",\n" +
+                        "UR = " + Arrays.toString(UR));
+            }
+        }
+
+        batchConvection.fluxBatch(batch.FL, batch.UL, nx, ny, nz, size);
+        batchConvection.fluxBatch(batch.FR, batch.UR, nx, ny, nz, size);
+
+        BatchFluxKernels.INSTANCE.hll(batch.flux, batch.FL, batch.FR, batch.UL, batch.UR, SL, SR, numVars, size);
+    }
 }
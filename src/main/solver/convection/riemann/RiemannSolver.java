@@ -4,4 +4,42 @@ import main.mesh.Face;
 
 public interface RiemannSolver {
     double[] flux(double[] UL, double[] UR, Face face);
+
+    /**
+     * Same as flux(UL, UR, face), but the flux is written to the given array. The implementations use per
+     * thread workspaces, so that no arrays are allocated for each face.
+     *
+     * @param flux Array of length numVars to which the flux is written
+     * @param UL   Conservative variables on the left side of the face
+     * @param UR   Conservative variables on the right side of the face
+     * @param face Face
+     */
+    default void fluxInto(double[] flux, double[] UL, double[] UR, Face face) {
+        double[] F = flux(UL, UR, face);
+        System.arraycopy(F, 0, flux, 0, F.length);
+    }
+
+    /**
+     * Calculates the fluxes of all the faces of the batch and writes them to batch.flux. The default
+     * implementation calculates the fluxes face by face using fluxInto(flux, UL, UR, face). Implementations
+     * override it with batched kernels if the governing equations provide a BatchConvection.
+     *
+     * @param batch Faces with their left and right states
+     */
+    default void fluxBatch(FaceBatch batch) {
+        int numVars = batch.numVars;
+        double[] UL = batch.faceUL;
+        double[] UR = batch.faceUR;
+        double[] flux = batch.faceFlux;
+        for (int k = 0; k < batch.size(); k++) {
+            for (int var = 0; var < numVars; var++) {
+                UL[var] = batch.UL[var][k];
+                UR[var] = batch.UR[var][k];
+            }
+            fluxInto(flux, UL, UR, batch.faces[k]);
+            for (int var = 0; var < numVars; var++) {
+                batch.flux[var][k] = flux[var];
+            }
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package main.solver.convection.riemann;
+
+/**
+ * Scratch arrays used by a Riemann solver while calculating the flux of one face. Each thread uses its own
+ * workspace, so that the fluxes of many faces can be calculated in parallel without allocating any arrays.
+ */
+public class RiemannWorkspace {
+    public final double[] UL;
+    public final double[] UR;
+    public final double[] FL;
+    public final double[] FR;
+    public final double[] eigenvaluesL;
+    public final double[] eigenvaluesR;
+    public final double[] UStar;
+    public final double[] flux;
+
+    public RiemannWorkspace(int numVars) {
+        this.UL = new double[numVars];
+        this.UR = new double[numVars];
+        this.FL = new double[numVars];
+        this.FR = new double[numVars];
+        this.eigenvaluesL = new double[numVars];
+        this.eigenvaluesR = new double[numVars];
+        this.UStar = new double[numVars];
+        this.flux = new double[numVars];
+    }
+}
@@ -3,34 +3,66 @@ package main.solver.convection.riemann;
 import main.geom.Vector;
 import main.mesh.Face;
 import main.mesh.Surface;
+import main.physics.goveqn.BatchConvection;
 import main.physics.goveqn.Convection;
 import main.physics.goveqn.GoverningEquations;
 
 public class RusanovRiemannSolver implements RiemannSolver {
     private final GoverningEquations govEqn;
+    private final ThreadLocal<RiemannWorkspace> workspace;
 
     public RusanovRiemannSolver(GoverningEquations govEqn) {
         this.govEqn = govEqn;
+        this.workspace = ThreadLocal.withInitial(() -> new RiemannWorkspace(govEqn.numVars()));
     }
 
     @Override
     public double[] flux(double[] UL, double[] UR, Face face) {
+        double[] flux = new double[govEqn.numVars()];
+        fluxInto(flux, UL, UR, face);
+        return flux;
+    }
+
+    @Override
+    public void fluxInto(double[] flux, double[] UL, double[] UR, Face face) {
+        RiemannWorkspace ws = workspace.get();
         Surface surface = face.surface;
         Vector unitNormal = surface.unitNormal();
         Convection convection = govEqn.convection();
-        double[] FL = convection.flux(UL, unitNormal);
-        double[] FR = convection.flux(UR, unitNormal);
+        double[] FL = ws.FL;
+        double[] FR = ws.FR;
+        convection.fluxInto(FL, UL, unitNormal);
+        convection.fluxInto(FR, UR, unitNormal);
 
         double maxAbsEigenvalueL = convection.maxAbsEigenvalues(UL, unitNormal);
         double maxAbsEigenvalueR = convection.maxAbsEigenvalues(UR, unitNormal);
         double ev = Math.max(maxAbsEigenvalueL, maxAbsEigenvalueR);
 
         int numVars = govEqn.numVars();
-        double[] flux = new double[numVars];
         for (int i = 0; i < numVars; i++) {
             flux[i] = 0.5 * (FL[i] + FR[i] - ev * (UR[i] - UL[i]));
         }
+    }
 
-        return flux;
+    @Override
+    public void fluxBatch(FaceBatch batch) {
+        Convection convection = govEqn.convection();
+        if (!(convection instanceof BatchConvection)) {
+            RiemannSolver.super.fluxBatch(batch);
+            return;
+        }
+        BatchConvection batchConvection = (BatchConvection) convection;
+
+        int size = batch.size();
+        double[] nx = batch.nx;
+        double[] ny = batch.ny;
+        double[] nz = batch.nz;
+        batchConvection.fluxBatch(batch.FL, batch.UL, nx, ny, nz, size);
+        batchConvection.fluxBatch(batch.FR, batch.UR, nx, ny, nz, size);
+        batchConvection.maxAbsEigenvaluesBatch(batch.eigenvaluesL, batch.UL, nx, ny, nz, size);
+        batchConvection.maxAbsEigenvaluesBatch(batch.eigenvaluesR, batch.UR, nx, ny, nz, size);
+
+        BatchFluxKernels.INSTANCE.rusanov(batch.flux, batch.FL, batch.FR, batch.UL, batch.UR,
+                batch.eigenvaluesL, batch.eigenvaluesR, batch.numVars, size);
     }
 }
@@ -0,0 +1,44 @@
+package main.solver.convection.riemann;
+
+/**
+ * Plain loops over the lanes, which HotSpot's superword pass can auto-vectorize.
+ */
+class ScalarBatchFluxKernels implements BatchFluxKernels {
+
+    @Override
+    public void rusanov(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+                        double[] evL, double[] evR, int numVars, int size) {
+        for (int k = 0; k < size; k++) {
+            evL[k] = Math.max(evL[k], evR[k]);
+        }
+
+        for (int var = 0; var < numVars; var++) {
+            double[] FLv = FL[var];
+            double[] FRv = FR[var];
+            double[] ULv = UL[var];
+            double[] URv = UR[var];
+            double[] fluxv = flux[var];
+            for (int k = 0; k < size; k++) {
+                fluxv[k] = 0.5 * (FLv[k] + FRv[k] - evL[k] * (URv[k] - ULv[k]));
+            }
+        }
+    }
+
+    @Override
+    public void hll(double[][] flux, double[][] FL, double[][] FR, double[][] UL, double[][] UR,
+                    double[] SL, double[] SR, int numVars, int size) {
+        for (int var = 0; var < numVars; var++) {
+            double[] FLv = FL[var];
+            double[] FRv = FR[var];
+            double[] ULv = UL[var];
+            double[] URv = UR[var];
+            double[] fluxv = flux[var];
+            for (int k = 0; k < size; k++) {
+                double SLk = SL[k];
+                double SRk = SR[k];
+                double hllFlux = (SRk * FLv[k] - SLk * FRv[k] + SLk * SRk * (URv[k] - ULv[k])) / (SRk - SLk);
+                fluxv[k] = SLk >= 0.0 ? FLv[k] : (SRk <= 0.0 ? FRv[k] : hllFlux);
+            }
+        }
+    }
+}
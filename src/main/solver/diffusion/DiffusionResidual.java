@@ -1,55 +1,72 @@
 package main.solver.diffusion;
 
-import main.mesh.Cell;
+import main.mesh.Connectivity;
 import main.mesh.Face;
+import main.mesh.FaceColoring;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.goveqn.GoverningEquations;
 import main.solver.ResidualCalculator;
 
-import static main.util.DoubleArray.*;
+import java.util.function.IntConsumer;
+
 
 public class DiffusionResidual implements ResidualCalculator {
     private final Mesh mesh;
     private final GoverningEquations govEqn;
+    private final SolutionState state;
+    private final Connectivity connectivity;
+    private final FaceColoring faceColoring;
+    private final int numVars;
+    private final Face[] faces;
+
+    /**
+     * Flux of the face being processed by the current thread.
+     */
+    private final ThreadLocal<double[]> faceFlux;
+    private final IntConsumer faceUpdate;
 
     public DiffusionResidual(Mesh mesh, GoverningEquations govEqn) {
         this.mesh = mesh;
         this.govEqn = govEqn;
+        this.state = mesh.solutionState();
+        this.connectivity = mesh.connectivity();
+        this.faceColoring = connectivity.faceColoring();
+        this.numVars = state.numVars;
+        this.faces = mesh.allFaces().toArray(new Face[0]);
+        this.faceFlux = ThreadLocal.withInitial(() -> new double[numVars]);
+        this.faceUpdate = k -> updateResidual(faceColoring.face(k));
     }
 
     @Override
     public void updateCellResiduals() {
         // Assuming that the conservative variable gradients at the faces are already calculated
 
-        // For all the internal faces set flux
-        mesh.internalFaceStream()
-                .forEach(this::setFlux);
-
-        // For all the boundary faces set flux
-        mesh.boundaryStream()
-                .flatMap(b -> b.faces.stream())
-                .forEach(this::setFlux);
-
-        // For all cells add / subtract face flux
-        mesh.cellStream().forEach(this::updateResidual);
+        // For all the faces calculate flux and add / subtract it to the neighbor cells.
+        // The faces of one color do not share a cell, so their residual updates do not conflict.
+        for (int color = 0; color < faceColoring.numColors(); color++) {
+            mesh.executionContext().forEach("diffusion", faceColoring.colorStart(color), faceColoring.colorEnd(color),
+                    faceUpdate);
+        }
     }
 
-    private void setFlux(Face face) {
-        double[] flux = govEqn.diffusion().flux(face.U, face.gradientU, face.surface.unitNormal());
-        copy(flux, face.flux);
-    }
+    private void updateResidual(int f) {
+        Face face = faces[f];
+        double[] flux = faceFlux.get();
+        govEqn.diffusion().fluxInto(flux, face.U, state.faceGradientU, f * numVars * 3, face.surface.unitNormal());
+        double area = face.surface.area;
 
-    private void updateResidual(Cell cell) {
-        double[] totalResidual = new double[cell.residual.length];
-        for (Face face : cell.faces) {
-            double[] flux = multiply(face.flux, face.surface.area);
-            if (face.left == cell) {
-                decrement(totalResidual, flux);
-            } else {
-                increment(totalResidual, flux);
-            }
+        int left = connectivity.left(f) * numVars;
+        for (int var = 0; var < numVars; var++) {
+            state.residual[left + var] -= flux[var] * area;
         }
 
-        increment(cell.residual, totalResidual);
+        int right = connectivity.right(f);
+        if (!connectivity.isGhost(right)) {
+            right *= numVars;
+            for (int var = 0; var < numVars; var++) {
+                state.residual[right + var] += flux[var] * area;
+            }
+        }
     }
 }
@@ -0,0 +1,53 @@
+package main.solver.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes one line of comma separated values per iteration. The header is written with the first iteration,
+ * when the number of residual components is known. Each line is flushed, so the file can be followed while
+ * the solver runs.
+ */
+public class CsvSink implements IterationListener, AutoCloseable {
+    private final Writer writer;
+    private boolean headerWritten = false;
+
+    public CsvSink(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    }
+
+    @Override
+    public void iterationCompleted(IterationMetrics metrics) {
+        try {
+            if (!headerWritten) {
+                writer.write("iteration");
+                for (int var = 0; var < metrics.residual.length; var++) {
+                    writer.write(",residual" + var);
+                }
+                writer.write(",min_dt,max_dt,mean_dt,courant_num,wall_time,cell_updates_per_second," +
+                        "caller_thread_allocation_rate,gc_time\n");
+                headerWritten = true;
+            }
+            StringBuilder line = new StringBuilder();
+            line.append(metrics.iteration);
+            for (double residual : metrics.residual) {
+                line.append(',').append(residual);
+            }
+            line.append(String.format(Locale.ROOT, ",%s,%s,%s,%s,%.9f,%.1f,%.1f,%.3f%n",
+                    metrics.minTimeStep, metrics.maxTimeStep, metrics.meanTimeStep, metrics.courantNum,
+                    metrics.wallTime, metrics.cellUpdatesPerSecond, metrics.callerThreadAllocationRate, metrics.gcTime));
+            writer.write(line.toString());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the iteration metrics.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
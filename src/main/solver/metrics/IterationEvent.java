@@ -0,0 +1,57 @@
+package main.solver.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event with the metrics of one pseudo-time iteration. Only loaded by JfrSink.
+ */
+@Name("cfdsolver.IterationMetrics")
+@Label("Iteration Metrics")
+@Category({"CFD Solver", "Metrics"})
+@Description("Metrics of one pseudo-time iteration")
+@StackTrace(false)
+class IterationEvent extends jdk.jfr.Event {
+    @Label("Iteration")
+    long iteration;
+
+    @Label("Max Residual")
+    @Description("Largest component of the total residual")
+    double maxResidual;
+
+    @Label("Residual")
+    String residual;
+
+    @Label("Min Time Step")
+    double minTimeStep;
+
+    @Label("Max Time Step")
+    double maxTimeStep;
+
+    @Label("Mean Time Step")
+    double meanTimeStep;
+
+    @Label("Courant Number")
+    double courantNum;
+
+    @Label("Wall Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wallTime;
+
+    @Label("Cell Updates Per Second")
+    double cellUpdatesPerSecond;
+
+    @Label("Caller Thread Allocation Rate")
+    @DataAmount
+    @Description("Bytes allocated per second by the solver thread, without the worker threads")
+    double callerThreadAllocationRate;
+
+    @Label("GC Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long gcTime;
+}
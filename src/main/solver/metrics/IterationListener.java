@@ -0,0 +1,8 @@
+package main.solver.metrics;
+
+/**
+ * Receiver of the metrics of each pseudo-time iteration, called by the thread running the solver.
+ */
+public interface IterationListener {
+    void iterationCompleted(IterationMetrics metrics);
+}
@@ -0,0 +1,60 @@
+package main.solver.metrics;
+
+/**
+ * Metrics of one pseudo-time iteration of the solver, published to the IterationListeners of the time integrator.
+ */
+public class IterationMetrics {
+    /**
+     * Number of the iteration, starting from 1.
+     */
+    public final long iteration;
+
+    /**
+     * Total residual of each variable, as returned by currentTotalResidual(norm).
+     */
+    public final double[] residual;
+
+    public final double minTimeStep;
+    public final double maxTimeStep;
+    public final double meanTimeStep;
+
+    /**
+     * Largest Courant number of the cells with the time steps actually used, which is smaller than the requested
+     * Courant number if the time steps are limited. NaN if the time step calculation does not provide it.
+     */
+    public final double courantNum;
+
+    /**
+     * Wall time from the start of updateCellAverages() to the end of currentTotalResidual(norm).
+     */
+    public final double wallTime;
+
+    public final double cellUpdatesPerSecond;
+
+    /**
+     * Bytes allocated per second by the caller thread, which runs the solver, or -1 if not measured. The bytes
+     * allocated by the worker threads of a parallel execution context are not included, so this under-reports the
+     * allocations of parallel runs.
+     */
+    public final double callerThreadAllocationRate;
+
+    /**
+     * Time spent in garbage collection during the iteration, in seconds.
+     */
+    public final double gcTime;
+
+    public IterationMetrics(long iteration, double[] residual, double minTimeStep, double maxTimeStep,
+                            double meanTimeStep, double courantNum, double wallTime, double cellUpdatesPerSecond,
+                            double callerThreadAllocationRate, double gcTime) {
+        this.iteration = iteration;
+        this.residual = residual;
+        this.minTimeStep = minTimeStep;
+        this.maxTimeStep = maxTimeStep;
+        this.meanTimeStep = meanTimeStep;
+        this.courantNum = courantNum;
+        this.wallTime = wallTime;
+        this.cellUpdatesPerSecond = cellUpdatesPerSecond;
+        this.callerThreadAllocationRate = callerThreadAllocationRate;
+        this.gcTime = gcTime;
+    }
+}
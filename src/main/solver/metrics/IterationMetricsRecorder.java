@@ -0,0 +1,133 @@
+package main.solver.metrics;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.solver.time.TimeStep;
+import main.util.AllocationCounter;
+import main.util.DeterministicReduction;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the metrics of the pseudo-time iterations of a time integrator and publishes them to its listeners.
+ * <p>
+ * The time integrator calls startIteration() at the start of updateCellAverages() and endIteration(residual) at
+ * the end of currentTotalResidual(norm). Without listeners only the iterations are counted, so the recorder does
+ * not slow down the solver unless somebody listens.
+ */
+public class IterationMetricsRecorder {
+    private final Mesh mesh;
+    private final TimeStep timeStep;
+    private final int numCells;
+    private final List<IterationListener> listeners = new ArrayList<>();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private final DeterministicReduction timeStepReduction;
+    private final DeterministicReduction.Operation timeStepOperation;
+
+    private long iteration;
+    private double lastResidual = Double.NaN;
+    private boolean measuring;
+    private long startNanos;
+    private long startBytes;
+    private long startGcMillis;
+
+    public IterationMetricsRecorder(Mesh mesh, TimeStep timeStep) {
+        this.mesh = mesh;
+        this.timeStep = timeStep;
+        List<Cell> cells = mesh.cells();
+        this.numCells = cells.size();
+        // min, max and sum of the time steps
+        this.timeStepReduction = new DeterministicReduction(numCells, 3);
+        this.timeStepOperation = new DeterministicReduction.Operation() {
+            @Override
+            public void identity(double[] partials, int offset) {
+                partials[offset] = Double.POSITIVE_INFINITY;
+                partials[offset + 1] = Double.NEGATIVE_INFINITY;
+                partials[offset + 2] = 0.0;
+            }
+
+            @Override
+            public void accumulate(int from, int to, double[] partials, int offset) {
+                for (int i = from; i < to; i++) {
+                    double dt = cells.get(i).dt;
+                    partials[offset] = Math.min(partials[offset], dt);
+                    partials[offset + 1] = Math.max(partials[offset + 1], dt);
+                    partials[offset + 2] += dt;
+                }
+            }
+
+            @Override
+            public void combine(double[] partials, int into, int from) {
+                partials[into] = Math.min(partials[into], partials[from]);
+                partials[into + 1] = Math.max(partials[into + 1], partials[from + 1]);
+                partials[into + 2] += partials[from + 2];
+            }
+        };
+    }
+
+    public void addListener(IterationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return Number of started iterations.
+     */
+    public long iteration() {
+        return iteration;
+    }
+
+    /**
+     * @return Largest component of the total residual of the last ended iteration, NaN before the first one.
+     */
+    public double lastResidual() {
+        return lastResidual;
+    }
+
+    public void startIteration() {
+        iteration++;
+        measuring = !listeners.isEmpty();
+        if (measuring) {
+            startGcMillis = gcMillis();
+            startBytes = AllocationCounter.currentThread();
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Publishes the metrics of the current iteration, if it has not been published yet.
+     */
+    public void endIteration(double[] residual) {
+        lastResidual = Arrays.stream(residual).max().orElse(Double.NaN);
+        if (!measuring) {
+            return;
+        }
+        measuring = false;
+        double wallTime = (System.nanoTime() - startNanos) * 1e-9;
+        long callerThreadAllocatedBytes = AllocationCounter.currentThread() - startBytes;
+        double gcTime = (gcMillis() - startGcMillis) * 1e-3;
+
+        double[] dt = timeStepReduction.reduce(mesh.executionContext(), timeStepOperation);
+        IterationMetrics metrics = new IterationMetrics(iteration, residual.clone(),
+                dt[0], dt[1], numCells == 0 ? 0.0 : dt[2] / numCells,
+                timeStep.effectiveCourantNum(),
+                wallTime,
+                wallTime > 0 ? numCells / wallTime : 0.0,
+                !AllocationCounter.isSupported() ? -1 : wallTime > 0 ? callerThreadAllocatedBytes / wallTime : 0.0,
+                gcTime);
+        for (IterationListener listener : listeners) {
+            listener.iterationCompleted(metrics);
+        }
+    }
+
+    private long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+}
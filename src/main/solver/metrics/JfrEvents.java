@@ -0,0 +1,51 @@
+package main.solver.metrics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Creates the flight recorder events of SolverEvents. Only loaded if the jdk.jfr module is available.
+ */
+class JfrEvents {
+    private static final EventType UPDATE_CELL_AVERAGES = EventType.getEventType(UpdateCellAveragesEvent.class);
+    private static final EventType RESIDUAL = EventType.getEventType(ResidualEvent.class);
+    private static final EventType REAL_TIME_STEP = EventType.getEventType(RealTimeStepEvent.class);
+    private static final EventType OUTPUT = EventType.getEventType(OutputEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static SolverEvents.Scope updateCellAverages(long iteration, double residual, int numCells) {
+        if (!UPDATE_CELL_AVERAGES.isEnabled()) {
+            return SolverEvents.noEvent();
+        }
+        return new UpdateCellAveragesEvent().start(iteration, residual, numCells);
+    }
+
+    static SolverEvents.Scope residual(String calculator, long iteration, double residual, int numCells) {
+        if (!RESIDUAL.isEnabled()) {
+            return SolverEvents.noEvent();
+        }
+        ResidualEvent event = new ResidualEvent();
+        event.calculator = calculator;
+        return event.start(iteration, residual, numCells);
+    }
+
+    static SolverEvents.Scope realTimeStep(long step, double dt, long iteration, double residual, int numCells) {
+        if (!REAL_TIME_STEP.isEnabled()) {
+            return SolverEvents.noEvent();
+        }
+        RealTimeStepEvent event = new RealTimeStepEvent();
+        event.step = step;
+        event.dt = dt;
+        return event.start(iteration, residual, numCells);
+    }
+
+    static SolverEvents.Scope output(String file, long iteration, double residual, int numCells) {
+        if (!OUTPUT.isEnabled()) {
+            return SolverEvents.noEvent();
+        }
+        OutputEvent event = new OutputEvent();
+        event.file = file;
+        return event.start(iteration, residual, numCells);
+    }
+}
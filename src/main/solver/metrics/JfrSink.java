@@ -0,0 +1,50 @@
+package main.solver.metrics;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Emits a flight recorder event (cfdsolver.IterationMetrics) per iteration. The event costs almost nothing when
+ * it is not enabled in the recording.
+ * <p>
+ * The jdk.jfr module is not part of every JVM which runs the solver, so the sink is created with create(), which
+ * returns an empty Optional if the module is missing.
+ */
+public class JfrSink implements IterationListener {
+
+    private JfrSink() {
+    }
+
+    public static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static Optional<IterationListener> create() {
+        return isAvailable() ? Optional.of(new JfrSink()) : Optional.empty();
+    }
+
+    @Override
+    public void iterationCompleted(IterationMetrics metrics) {
+        IterationEvent event = new IterationEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.iteration = metrics.iteration;
+        event.maxResidual = Arrays.stream(metrics.residual).max().orElse(0.0);
+        event.residual = Arrays.toString(metrics.residual);
+        event.minTimeStep = metrics.minTimeStep;
+        event.maxTimeStep = metrics.maxTimeStep;
+        event.meanTimeStep = metrics.meanTimeStep;
+        event.courantNum = metrics.courantNum;
+        event.wallTime = (long) (metrics.wallTime * 1e9);
+        event.cellUpdatesPerSecond = metrics.cellUpdatesPerSecond;
+        event.callerThreadAllocationRate = metrics.callerThreadAllocationRate;
+        event.gcTime = (long) (metrics.gcTime * 1e9);
+        event.commit();
+    }
+}
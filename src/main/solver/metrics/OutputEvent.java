@@ -0,0 +1,13 @@
+package main.solver.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("cfdsolver.Output")
+@Label("Output")
+@Description("Writing of the solution to a file")
+class OutputEvent extends SolverEvent {
+    @Label("File")
+    String file;
+}
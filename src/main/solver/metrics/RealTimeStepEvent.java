@@ -0,0 +1,16 @@
+package main.solver.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("cfdsolver.RealTimeStep")
+@Label("Real Time Step")
+@Description("Shift of the solution at the end of a real-time step")
+class RealTimeStepEvent extends SolverEvent {
+    @Label("Step")
+    long step;
+
+    @Label("Real Time Step")
+    double dt;
+}
@@ -0,0 +1,13 @@
+package main.solver.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("cfdsolver.Residual")
+@Label("Residual Calculation")
+@Description("Update of the cell residuals by one residual calculator")
+class ResidualEvent extends SolverEvent {
+    @Label("Calculator")
+    String calculator;
+}
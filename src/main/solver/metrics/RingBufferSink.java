@@ -0,0 +1,49 @@
+package main.solver.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the metrics of the last {@code capacity} iterations in memory.
+ */
+public class RingBufferSink implements IterationListener {
+    private final IterationMetrics[] buffer;
+    private long count;
+
+    public RingBufferSink(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.buffer = new IterationMetrics[capacity];
+    }
+
+    @Override
+    public synchronized void iterationCompleted(IterationMetrics metrics) {
+        buffer[(int) (count % buffer.length)] = metrics;
+        count++;
+    }
+
+    /**
+     * @return Metrics of the last iterations, oldest first.
+     */
+    public synchronized List<IterationMetrics> snapshot() {
+        int size = (int) Math.min(count, buffer.length);
+        List<IterationMetrics> metrics = new ArrayList<>(size);
+        for (long i = count - size; i < count; i++) {
+            metrics.add(buffer[(int) (i % buffer.length)]);
+        }
+        return metrics;
+    }
+
+    public synchronized Optional<IterationMetrics> latest() {
+        return count == 0 ? Optional.empty() : Optional.of(buffer[(int) ((count - 1) % buffer.length)]);
+    }
+
+    /**
+     * @return Number of iterations received, including the ones which are not kept anymore.
+     */
+    public synchronized long count() {
+        return count;
+    }
+}
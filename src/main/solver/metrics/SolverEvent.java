@@ -0,0 +1,40 @@
+package main.solver.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event around a phase of the solver, with the fields common to all the phases. The events are
+ * disabled unless a recording enables them, for example with cfdsolver.jfc. Only loaded by JfrEvents.
+ */
+@Category({"CFD Solver", "Phases"})
+@Enabled(false)
+@StackTrace(false)
+abstract class SolverEvent extends jdk.jfr.Event implements SolverEvents.Scope {
+    @Label("Iteration")
+    @Description("Pseudo-time iteration")
+    long iteration;
+
+    @Label("Residual")
+    @Description("Largest component of the total residual of the previous iteration")
+    double residual;
+
+    @Label("Cells")
+    int numCells;
+
+    SolverEvent start(long iteration, double residual, int numCells) {
+        this.iteration = iteration;
+        this.residual = residual;
+        this.numCells = numCells;
+        begin();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
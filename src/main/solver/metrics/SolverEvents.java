@@ -0,0 +1,108 @@
+package main.solver.metrics;
+
+/**
+ * Flight recorder events around the phases of the solver, so that the samples of a recording can be tied back to
+ * the pseudo-time iterations, residual calculators, real-time steps and output files:
+ * <ul>
+ * <li>cfdsolver.UpdateCellAverages around each TimeIntegrator.updateCellAverages()</li>
+ * <li>cfdsolver.Residual around each ResidualCalculator.updateCellResiduals()</li>
+ * <li>cfdsolver.RealTimeStep around each TimeDiscretization.shiftSolution()</li>
+ * <li>cfdsolver.Output around each VTK output</li>
+ * </ul>
+ * Each event carries the number of the pseudo-time iteration, the largest component of the total residual of the
+ * previous iteration and the number of cells. The events started by a thread inside updateCellAverages() take the
+ * iteration of the enclosing event; the others take the last iteration of the thread.
+ * <p>
+ * The events are disabled unless enabled in a recording, for example with the profile cfdsolver.jfc next to this
+ * class: {@code -XX:StartFlightRecording=settings=src/main/solver/metrics/cfdsolver.jfc,filename=solver.jfr}.
+ * A disabled event only costs a check and does not allocate, and nothing is done if the JVM has no jdk.jfr
+ * module.
+ * <pre>
+ * SolverEvents.Scope event = SolverEvents.residual(name, numCells);
+ * try {
+ *     calculator.updateCellResiduals();
+ * } finally {
+ *     event.close();
+ * }
+ * </pre>
+ */
+public class SolverEvents {
+    private static final boolean AVAILABLE = JfrSink.isAvailable();
+    private static final Scope NO_EVENT = () -> {
+    };
+    private static final ThreadLocal<Progress> PROGRESS = ThreadLocal.withInitial(Progress::new);
+
+    /**
+     * Running event, committed when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static class Progress {
+        long iteration;
+        double residual = Double.NaN;
+    }
+
+    private SolverEvents() {
+    }
+
+    /**
+     * Starts the event of a pseudo-time iteration and makes it the current iteration of the calling thread.
+     *
+     * @param iteration Number of the iteration, starting at 1.
+     * @param residual  Largest component of the total residual of the previous iteration, NaN if unknown.
+     * @param numCells  Number of cells updated by the iteration.
+     */
+    public static Scope updateCellAverages(long iteration, double residual, int numCells) {
+        if (!AVAILABLE) {
+            return NO_EVENT;
+        }
+        Progress progress = PROGRESS.get();
+        progress.iteration = iteration;
+        progress.residual = residual;
+        return JfrEvents.updateCellAverages(iteration, residual, numCells);
+    }
+
+    /**
+     * @param calculator Name of the residual calculator.
+     * @param numCells   Number of cells.
+     */
+    public static Scope residual(String calculator, int numCells) {
+        if (!AVAILABLE) {
+            return NO_EVENT;
+        }
+        Progress progress = PROGRESS.get();
+        return JfrEvents.residual(calculator, progress.iteration, progress.residual, numCells);
+    }
+
+    /**
+     * @param step     Number of the real-time step which is completed, starting at 1.
+     * @param dt       Real time step.
+     * @param numCells Number of cells.
+     */
+    public static Scope realTimeStep(long step, double dt, int numCells) {
+        if (!AVAILABLE) {
+            return NO_EVENT;
+        }
+        Progress progress = PROGRESS.get();
+        return JfrEvents.realTimeStep(step, dt, progress.iteration, progress.residual, numCells);
+    }
+
+    /**
+     * @param file     Path of the written file.
+     * @param numCells Number of written cells.
+     */
+    public static Scope output(String file, int numCells) {
+        if (!AVAILABLE) {
+            return NO_EVENT;
+        }
+        Progress progress = PROGRESS.get();
+        return JfrEvents.output(file, progress.iteration, progress.residual, numCells);
+    }
+
+    static Scope noEvent() {
+        return NO_EVENT;
+    }
+}
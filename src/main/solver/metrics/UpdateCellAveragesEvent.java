@@ -0,0 +1,11 @@
+package main.solver.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("cfdsolver.UpdateCellAverages")
+@Label("Update Cell Averages")
+@Description("One pseudo-time iteration of the time integrator")
+class UpdateCellAveragesEvent extends SolverEvent {
+}
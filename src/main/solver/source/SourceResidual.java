@@ -2,29 +2,43 @@ package main.solver.source;
 
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.goveqn.GoverningEquations;
 import main.solver.ResidualCalculator;
 
-import static main.util.DoubleArray.decrement;
-import static main.util.DoubleArray.multiply;
-
 public class SourceResidual implements ResidualCalculator {
 
     private final Mesh mesh;
     private final GoverningEquations govEqn;
+    private final SolutionState state;
+
+    /**
+     * Source vector and conservative variables of the cell being processed by the current thread.
+     */
+    private final ThreadLocal<double[]> cellSource;
+    private final ThreadLocal<double[]> cellConservativeVars;
 
     public SourceResidual(Mesh mesh, GoverningEquations govEqn) {
         this.mesh = mesh;
         this.govEqn = govEqn;
+        this.state = mesh.solutionState();
+        this.cellSource = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
+        this.cellConservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
     public void updateCellResiduals() {
-        mesh.cellStream().forEach(this::updateResidual);
+        mesh.executionContext().forEach("source", mesh.cells(), this::updateResidual);
     }
 
     private void updateResidual(Cell cell) {
-        double[] residual = multiply(govEqn.source().sourceVector(cell.U, cell.gradientU), cell.shape.volume);
-        decrement(cell.residual, residual);
+        double[] source = cellSource.get();
+        double[] U = state.getInto(state.U, cell, cellConservativeVars.get());
+        govEqn.source().sourceVectorInto(source, U, state.gradientU, state.gradientOffset(cell));
+        double volume = cell.shape.volume;
+        int offset = state.offset(cell);
+        for (int var = 0; var < source.length; var++) {
+            state.residual[offset + var] -= source[var] * volume;
+        }
     }
 }
@@ -2,31 +2,54 @@ package main.solver.time;
 
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.solver.Norm;
 import main.solver.SpaceDiscretization;
-import main.util.DoubleArray;
+import main.solver.metrics.IterationListener;
+import main.solver.metrics.IterationMetricsRecorder;
+import main.solver.metrics.SolverEvents;
+import main.util.PhaseTimers;
 
-import java.util.stream.Stream;
-
-import static main.util.DoubleArray.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
 
     private final Mesh mesh;
     private final SpaceDiscretization spaceDiscretization;
     private final int numVars;
-    private final double[][] U;
+    private final SolutionState state;
     private final TimeStep timeStep;
     private double courantNum = 1.0; // default
     private TimeDiscretization realTimeDiscretization = null; // default
+    private final List<Consumer<double[]>> residualListeners = new ArrayList<>();
+    private final ResidualNorms residualNorms;
+    private boolean fusedResidualNorms = false; // default
+    private boolean residualNormsUpToDate = false;
+    private final PhaseTimers timers;
+    private final PhaseTimers.Timer timeStepTimer;
+    private final PhaseTimers.Timer stageUpdateTimer;
+    private final PhaseTimers.Timer totalResidualTimer;
+    private final IterationMetricsRecorder metricsRecorder;
 
     public ExplicitSSPRK3TimeIntegrator(Mesh mesh, SpaceDiscretization spaceDiscretization, TimeStep timeStep, int numVars) {
         this.mesh = mesh;
         this.spaceDiscretization = spaceDiscretization;
         this.timeStep = timeStep;
         this.numVars = numVars;
-        int numCells = mesh.cells().size();
-        this.U = new double[numCells][numVars];
+        this.state = mesh.solutionState();
+        this.residualNorms = new ResidualNorms(mesh, numVars);
+        this.timers = spaceDiscretization.phaseTimers();
+        this.timeStepTimer = timers.timer("time step", "cells");
+        this.stageUpdateTimer = timers.timer("stage update", "cells");
+        this.totalResidualTimer = timers.timer("total residual", "cells");
+        this.metricsRecorder = new IterationMetricsRecorder(mesh, timeStep);
+    }
+
+    @Override
+    public PhaseTimers phaseTimers() {
+        return timers;
     }
 
     @Override
@@ -35,78 +58,74 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
     }
 
     @Override
-    public void setTimeDiscretization(TimeDiscretization timeDiscretization) {
-        this.realTimeDiscretization = timeDiscretization;
+    public void setFusedResidualNorms(boolean fused) {
+        this.fusedResidualNorms = fused;
     }
 
     @Override
-    public void updateCellAverages() {
-        saveCurrentAverages();
+    public void addResidualListener(Consumer<double[]> listener) {
+        residualListeners.add(listener);
+    }
 
-        // Zeroth stage
-        setResidualForAllCells();
-        setTimeStepForAllCells();
-        calculateNewAveragesStage0();
+    @Override
+    public void addIterationListener(IterationListener listener) {
+        metricsRecorder.addListener(listener);
+    }
 
-        // First stage
-        setResidualForAllCells();
-        calculateNewAveragesStage1();
+    @Override
+    public void setTimeDiscretization(TimeDiscretization timeDiscretization) {
+        this.realTimeDiscretization = timeDiscretization;
+    }
 
-        // Second stage
-        setResidualForAllCells();
-        calculateNewAveragesStage2();
+    @Override
+    public void updateCellAverages() {
+        metricsRecorder.startIteration();
+        SolverEvents.Scope event = SolverEvents.updateCellAverages(
+                metricsRecorder.iteration(), metricsRecorder.lastResidual(), state.numCells);
+        try {
+            residualNormsUpToDate = false;
+            saveCurrentAverages();
+
+            // Zeroth stage
+            setResidualForAllCells();
+            setTimeStepForAllCells();
+            calculateNewAveragesStage0();
+
+            // First stage
+            setResidualForAllCells();
+            calculateNewAveragesStage1();
+
+            // Second stage
+            setResidualForAllCells();
+            calculateNewAveragesStage2();
+            state.copyToCells(mesh);
+        } finally {
+            event.close();
+        }
     }
 
     @Override
     public double[] currentTotalResidual(Norm norm) {
-        double[] zeros = new double[numVars];
-
-        Stream<double[]> absResidualStream = mesh.cellStream()
-                .map(cell -> apply(cell.U, U[cell.index()], (e1, e2) -> (e1 - e2) / cell.dt))
-                .map(DoubleArray::abs);
-
-        int numCells = mesh.cells().size();
-        double[] totalResidue;
-        switch (norm) {
-            case ONE_NORM:
-                totalResidue = absResidualStream
-                        .reduce(zeros, DoubleArray::add);
-                totalResidue = multiply(totalResidue, 1.0 / numCells);
-                break;
-
-            case TWO_NORM:
-                totalResidue = absResidualStream
-                        .map(DoubleArray::sqr)
-                        .reduce(zeros, DoubleArray::add);
-                totalResidue = multiply(totalResidue, 1.0 / numCells);
-                totalResidue = apply(totalResidue, Math::sqrt);
-                break;
-
-            case INFINITY_NORM:
-                totalResidue = absResidualStream
-                        .reduce(zeros, (d1, d2) -> apply(d1, d2, Math::max));
-                break;
-
-            default:
-                throw new IllegalArgumentException("Norm " + norm + " is not implemented.");
+        totalResidualTimer.start();
+        if (!(fusedResidualNorms && residualNormsUpToDate)) {
+            residualNorms.calculate();
         }
+        double[] totalResidue = new double[numVars];
+        residualNorms.totalResidualInto(totalResidue, norm, true);
+        totalResidualTimer.stop(state.numCells);
 
-        // normalize
-        double[] varMagnitude = mesh.cellStream()
-                .map(cell -> cell.U)
-                .map(DoubleArray::abs)
-                .reduce(zeros, DoubleArray::add);
-        varMagnitude = multiply(varMagnitude, 1.0 / numCells);
-        varMagnitude = apply(varMagnitude, e -> (e < 1e-12 ? 1.0 : e)); // avoid div by zero
-        for (int i = 0; i < numVars; i++) {
-            totalResidue[i] /= varMagnitude[i];
+        for (Consumer<double[]> listener : residualListeners) {
+            listener.accept(totalResidue);
         }
+        metricsRecorder.endIteration(totalResidue);
 
         return totalResidue;
     }
 
     private void saveCurrentAverages() {
-        mesh.cellStream().forEach(cell -> copy(cell.U, U[cell.index()]));
+        // Cell.U may have been changed since the last iteration, e.g. by an initializer
+        state.copyFromCells(mesh);
+        System.arraycopy(state.U, 0, state.U0, 0, state.U0.length);
     }
 
     private void setResidualForAllCells() {
@@ -119,26 +138,40 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
         double real_dt = realTimeDiscretization != null
                 ? realTimeDiscretization.dt()
                 : Double.POSITIVE_INFINITY;
+        timeStepTimer.start();
         timeStep.updateCellTimeSteps(courantNum, real_dt * 0.66);
+        timeStepTimer.stop(state.numCells);
     }
 
     private void calculateNewAveragesStage0() {
-        mesh.cellStream().forEach(this::calculateNewAveragesStage0);
+        stageUpdateTimer.start();
+        mesh.executionContext().forEach("stage update", mesh.cells(), this::calculateNewAveragesStage0);
+        stageUpdateTimer.stop(state.numCells);
     }
 
     private void calculateNewAveragesStage1() {
-        mesh.cellStream().forEach(this::calculateNewAveragesStage1);
+        stageUpdateTimer.start();
+        mesh.executionContext().forEach("stage update", mesh.cells(), this::calculateNewAveragesStage1);
+        stageUpdateTimer.stop(state.numCells);
     }
 
     private void calculateNewAveragesStage2() {
-        mesh.cellStream().forEach(this::calculateNewAveragesStage2);
+        stageUpdateTimer.start();
+        if (fusedResidualNorms) {
+            residualNorms.calculate(this::calculateNewAveragesStage2);
+            residualNormsUpToDate = true;
+        } else {
+            mesh.executionContext().forEach("stage update", mesh.cells(), this::calculateNewAveragesStage2);
+        }
+        stageUpdateTimer.stop(state.numCells);
     }
 
     private void calculateNewAveragesStage0(Cell cell) {
         double dt_vol = cell.dt / cell.shape.volume;
-        int numVars = cell.U.length;
+        int offset = state.offset(cell);
+        double[] U = state.U;
         for (int var = 0; var < numVars; var++) {
-            cell.U[var] = cell.U[var] - cell.residual[var] * dt_vol;
+            U[offset + var] = U[offset + var] - state.residual[offset + var] * dt_vol;
         }
     }
 
@@ -147,10 +180,11 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
 
     private void calculateNewAveragesStage1(Cell cell) {
         double dt_vol = cell.dt / cell.shape.volume;
-        int numVars = cell.U.length;
+        int offset = state.offset(cell);
+        double[] U = state.U;
         for (int var = 0; var < numVars; var++) {
-            cell.U[var] = THREE_FOURTH * this.U[cell.index()][var]
-                    + ONE_FOURTH * (cell.U[var] - dt_vol * cell.residual[var]);
+            U[offset + var] = THREE_FOURTH * state.U0[offset + var]
+                    + ONE_FOURTH * (U[offset + var] - dt_vol * state.residual[offset + var]);
         }
     }
 
@@ -159,11 +193,12 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
 
     private void calculateNewAveragesStage2(Cell cell) {
         double dt_vol = cell.dt / cell.shape.volume;
-        int numVars = cell.U.length;
+        int offset = state.offset(cell);
+        double[] U = state.U;
 
         for (int var = 0; var < numVars; var++) {
-            cell.U[var] = ONE_THIRD * this.U[cell.index()][var]
-                    + TWO_THIRD * (cell.U[var] - dt_vol * cell.residual[var]);
+            U[offset + var] = ONE_THIRD * state.U0[offset + var]
+                    + TWO_THIRD * (U[offset + var] - dt_vol * state.residual[offset + var]);
         }
     }
 }
@@ -1,16 +1,42 @@
 package main.solver.time;
 
+import main.mesh.Cell;
 import main.mesh.Mesh;
 import main.physics.goveqn.GoverningEquations;
+import main.util.DeterministicReduction;
+
+import java.util.List;
 
 public class GlobalTimeStep implements TimeStep {
 
     private final LocalTimeStep localTimeStep;
     private final Mesh mesh;
+    private final DeterministicReduction minReduction;
+    private final DeterministicReduction.Operation minTimeStepOperation;
 
     public GlobalTimeStep(Mesh mesh, GoverningEquations govEqn) {
         localTimeStep = new LocalTimeStep(mesh, govEqn);
         this.mesh = mesh;
+        List<Cell> cells = mesh.cells();
+        this.minReduction = new DeterministicReduction(cells.size(), 1);
+        this.minTimeStepOperation = new DeterministicReduction.Operation() {
+            @Override
+            public void identity(double[] partials, int offset) {
+                partials[offset] = Double.POSITIVE_INFINITY;
+            }
+
+            @Override
+            public void accumulate(int from, int to, double[] partials, int offset) {
+                for (int i = from; i < to; i++) {
+                    partials[offset] = Math.min(partials[offset], cells.get(i).dt);
+                }
+            }
+
+            @Override
+            public void combine(double[] partials, int into, int from) {
+                partials[into] = Math.min(partials[into], partials[from]);
+            }
+        };
     }
 
     @Override
@@ -19,12 +45,18 @@ public class GlobalTimeStep implements TimeStep {
         localTimeStep.updateCellTimeSteps(courantNum, timeStepLimit);
 
         // Calculate minimum time step in the entire domain
-        double minTimeStep = mesh.cellStream()
-                .mapToDouble(cell -> cell.dt)
-                .min().orElseThrow(() -> new ArithmeticException("Unable to calculate global time step."));
+        if (mesh.cells().isEmpty()) {
+            throw new ArithmeticException("Unable to calculate global time step.");
+        }
+        double minTimeStep = minReduction.reduce(mesh.executionContext(), "global time step min",
+                minTimeStepOperation)[0];
 
         // Set the same time step in the entire domain
-        mesh.cellStream()
-                .forEach(cell -> cell.dt = minTimeStep);
+        mesh.executionContext().forEach("global time step set", mesh.cells(), cell -> cell.dt = minTimeStep);
+    }
+
+    @Override
+    public double effectiveCourantNum() {
+        return localTimeStep.effectiveCourantNum();
     }
 }
@@ -1,65 +1,133 @@
 package main.solver.time;
 
 import main.mesh.Cell;
+import main.mesh.Connectivity;
 import main.mesh.Face;
+import main.mesh.FaceColoring;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.goveqn.GoverningEquations;
+import main.util.DeterministicReduction;
+import main.util.ExecutionContext;
+
+import java.util.Arrays;
+import java.util.List;
 
 public class LocalTimeStep implements TimeStep {
 
     private final Mesh mesh;
     private final GoverningEquations govEqn;
+    private final Connectivity connectivity;
+    private final FaceColoring faceColoring;
+    private final Face[] faces;
+    private final SolutionState state;
+
+    /**
+     * Conservative variables of the cell being processed by the current thread.
+     */
+    private final ThreadLocal<double[]> cellConservativeVars;
+
+    /**
+     * Spectral radius due to convection and diffusion (before division by volume) of each cell
+     */
+    private final double[] spectralRadiusConvection;
+    private final double[] spectralRadiusDiffusion;
+
+    private final DeterministicReduction courantNumReduction;
+    private final DeterministicReduction.Operation maxCourantNumOperation;
 
     public LocalTimeStep(Mesh mesh, GoverningEquations govEqn) {
         this.mesh = mesh;
         this.govEqn = govEqn;
+        this.connectivity = mesh.connectivity();
+        this.faceColoring = connectivity.faceColoring();
+        this.faces = mesh.allFaces().toArray(new Face[0]);
+        this.state = mesh.solutionState();
+        this.cellConservativeVars = ThreadLocal.withInitial(() -> new double[state.numVars]);
+        this.spectralRadiusConvection = new double[connectivity.numCells];
+        this.spectralRadiusDiffusion = new double[connectivity.numCells];
+        this.courantNumReduction = new DeterministicReduction(connectivity.numCells, 1);
+        this.maxCourantNumOperation = new DeterministicReduction.Operation() {
+            @Override
+            public void identity(double[] partials, int offset) {
+                partials[offset] = 0.0;
+            }
+
+            @Override
+            public void accumulate(int from, int to, double[] partials, int offset) {
+                List<Cell> cells = mesh.cells();
+                for (int i = from; i < to; i++) {
+                    Cell cell = cells.get(i);
+                    partials[offset] = Math.max(partials[offset], cell.dt / stableTimeStep(i, cell, 1.0));
+                }
+            }
+
+            @Override
+            public void combine(double[] partials, int into, int from) {
+                partials[into] = Math.max(partials[into], partials[from]);
+            }
+        };
     }
 
     @Override
     public void updateCellTimeSteps(double courantNum, double timeStepLimit) {
-        // Go through all the internal faces and save maxAbsEigenvalue
-        mesh.internalFaceStream()
-                .forEach(this::updateEigenvalue);
-
-        // Go through all the boundary faces and save maxAbsEigenvalue
-        mesh.boundaryStream().flatMap(b -> b.faces.stream())
-                .forEach(this::updateEigenvalue);
-
-        // Go through all the cells, calculate spectral radius due to convection and diffusion
-        // and save the time step scaled by Courant number
-        mesh.cellStream()
-                .forEach(cell -> updateTimeStep(cell, courantNum, timeStepLimit));
+        // Go through all the faces and add their contributions to the spectral radius of the neighbor cells.
+        // The faces of one color do not share a cell, so their updates do not conflict.
+        Arrays.fill(spectralRadiusConvection, 0.0);
+        Arrays.fill(spectralRadiusDiffusion, 0.0);
+        ExecutionContext context = mesh.executionContext();
+        for (int color = 0; color < faceColoring.numColors(); color++) {
+            context.forEach("spectral radius", faceColoring.colorStart(color), faceColoring.colorEnd(color),
+                    k -> updateSpectralRadius(faceColoring.face(k)));
+        }
+
+        // Go through all the cells and save the time step scaled by Courant number
+        List<Cell> cells = mesh.cells();
+        context.forEach("local time step", 0, connectivity.numCells,
+                i -> updateTimeStep(i, cells.get(i), courantNum, timeStepLimit));
     }
 
-    private void updateTimeStep(Cell cell, double courantNum, double timeStepLimit) {
-        // Convection spectral radius
-        double spectralRadiusConvection = 0.0;
-        for (Face face : cell.faces) {
-            spectralRadiusConvection += face.maxAbsEigenvalue * face.surface.area;
-        }
+    @Override
+    public double effectiveCourantNum() {
+        return courantNumReduction.reduce(mesh.executionContext(), maxCourantNumOperation)[0];
+    }
 
-        // Diffusion spectral radius
-        double spectralRadiusDiffusion = 0.0;
-        for (Face face : cell.faces) {
-            // Assuming that face U is calculated before time step calculation
-            double diffusivity = govEqn.diffusion().maxAbsDiffusivity(face.U);
-            double area = face.surface.area;
+    private void updateTimeStep(int i, Cell cell, double courantNum, double timeStepLimit) {
+        cell.dt = Math.min(stableTimeStep(i, cell, courantNum), timeStepLimit);
+    }
 
-            spectralRadiusDiffusion += diffusivity * area * area;
-        }
+    private double stableTimeStep(int i, Cell cell, double courantNum) {
         double volume = cell.shape.volume;
-        spectralRadiusDiffusion /= volume;
+        double spectralRadiusConvection = this.spectralRadiusConvection[i];
+        double spectralRadiusDiffusion = this.spectralRadiusDiffusion[i] / volume;
 
         double C = 4.0; // Constant multiplying diffusion spectral radius, 4 for central discretization
-        double dt = courantNum * (volume / (spectralRadiusConvection + C * spectralRadiusDiffusion));
-
-        cell.dt = Math.min(dt, timeStepLimit);
+        return courantNum * (volume / (spectralRadiusConvection + C * spectralRadiusDiffusion));
     }
 
-    private void updateEigenvalue(Face face) {
-        face.maxAbsEigenvalue = Math.max(
-                govEqn.convection().maxAbsEigenvalues(face.left.U, face.surface.unitNormal()),
-                govEqn.convection().maxAbsEigenvalues(face.right.U, face.surface.unitNormal())
-        );
+    private void updateSpectralRadius(int f) {
+        Face face = faces[f];
+        int left = connectivity.left(f);
+        int right = connectivity.right(f);
+        double[] U = cellConservativeVars.get();
+        System.arraycopy(state.U, state.offset(left), U, 0, state.numVars);
+        double leftEigenvalue = govEqn.convection().maxAbsEigenvalues(U, face.surface.unitNormal());
+        System.arraycopy(state.U, state.offset(right), U, 0, state.numVars);
+        double rightEigenvalue = govEqn.convection().maxAbsEigenvalues(U, face.surface.unitNormal());
+        double maxAbsEigenvalue = Math.max(leftEigenvalue, rightEigenvalue);
+        // Assuming that face U is calculated before time step calculation
+        double diffusivity = govEqn.diffusion().maxAbsDiffusivity(face.U);
+        double area = face.surface.area;
+
+        double convectionTerm = maxAbsEigenvalue * area;
+        double diffusionTerm = diffusivity * area * area;
+
+        spectralRadiusConvection[left] += convectionTerm;
+        spectralRadiusDiffusion[left] += diffusionTerm;
+
+        if (!connectivity.isGhost(right)) {
+            spectralRadiusConvection[right] += convectionTerm;
+            spectralRadiusDiffusion[right] += diffusionTerm;
+        }
     }
 }
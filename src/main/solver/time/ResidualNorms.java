@@ -0,0 +1,210 @@
+package main.solver.time;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.SolutionState;
+import main.solver.Norm;
+import main.util.DeterministicReduction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Norms of the pseudo time residual (U - U0) / dt of the cells and the average magnitude of the conservative
+ * variables, calculated in a single pass over the cells without allocations.
+ * <p>
+ * By default the pass is a DeterministicReduction over fixed chunks of cells, so the norms (and the number of
+ * pseudo iterations to converge) do not depend on the number of threads. Otherwise each thread adds the
+ * contributions of its cells into its own accumulator and the accumulators are combined at the end of the pass,
+ * which is slightly faster but the last bits of the sums depend on the scheduling of the cells.
+ * <p>
+ * calculate(update) fuses the pass into the last stage of a time integrator: the update is applied to each cell
+ * just before its residual is added.
+ */
+public class ResidualNorms {
+    private final Mesh mesh;
+    private final List<Cell> cells;
+    private final SolutionState state;
+    private final int numVars;
+    private final int numCells;
+
+    private boolean deterministic = true; // default
+    private final DeterministicReduction reduction;
+    private final DeterministicReduction.Operation operation;
+    private Consumer<Cell> update;
+
+    private final List<double[]> accumulators = new ArrayList<>();
+    private final ThreadLocal<double[]> accumulator;
+
+    // sum of |r|, sum of r^2, max of |r| and sum of |U| of each variable
+    private final double[] absSum;
+    private final double[] sqrSum;
+    private final double[] absMax;
+    private final double[] magnitudeSum;
+
+    public ResidualNorms(Mesh mesh, int numVars) {
+        this.mesh = mesh;
+        this.cells = mesh.cells();
+        this.state = mesh.solutionState();
+        this.numVars = numVars;
+        this.numCells = cells.size();
+        this.reduction = new DeterministicReduction(numCells, Math.max(1, 4 * numVars));
+        this.operation = new CellOperation();
+        this.accumulator = ThreadLocal.withInitial(this::newAccumulator);
+        this.absSum = new double[numVars];
+        this.sqrSum = new double[numVars];
+        this.absMax = new double[numVars];
+        this.magnitudeSum = new double[numVars];
+    }
+
+    /**
+     * @param deterministic If false, the per thread accumulators are used instead of the deterministic reduction.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    private double[] newAccumulator() {
+        double[] values = new double[4 * numVars];
+        synchronized (accumulators) {
+            accumulators.add(values);
+        }
+        return values;
+    }
+
+    /**
+     * Calculates the norms of the current solution of all the cells.
+     */
+    public void calculate() {
+        calculate(null);
+    }
+
+    /**
+     * Applies the update to each cell and calculates the norms of the updated solution.
+     *
+     * @param update Update of the solution of a cell, or null.
+     */
+    public void calculate(Consumer<Cell> update) {
+        if (deterministic) {
+            this.update = update;
+            double[] result = reduction.reduce(mesh.executionContext(), "residual norms reduce", operation);
+            this.update = null;
+            System.arraycopy(result, 0, absSum, 0, numVars);
+            System.arraycopy(result, numVars, sqrSum, 0, numVars);
+            System.arraycopy(result, 2 * numVars, absMax, 0, numVars);
+            System.arraycopy(result, 3 * numVars, magnitudeSum, 0, numVars);
+        } else {
+            synchronized (accumulators) {
+                for (double[] values : accumulators) {
+                    Arrays.fill(values, 0.0);
+                }
+            }
+            mesh.executionContext().forEach("residual norms update", mesh.cells(), cell -> {
+                if (update != null) update.accept(cell);
+                accumulate(cell, accumulator.get(), 0);
+            });
+            combineAccumulators();
+        }
+    }
+
+    private class CellOperation implements DeterministicReduction.Operation {
+        @Override
+        public void identity(double[] partials, int offset) {
+            Arrays.fill(partials, offset, offset + 4 * numVars, 0.0);
+        }
+
+        @Override
+        public void accumulate(int from, int to, double[] partials, int offset) {
+            for (int i = from; i < to; i++) {
+                Cell cell = cells.get(i);
+                if (update != null) update.accept(cell);
+                ResidualNorms.this.accumulate(cell, partials, offset);
+            }
+        }
+
+        @Override
+        public void combine(double[] partials, int into, int from) {
+            for (int var = 0; var < numVars; var++) {
+                partials[into + var] += partials[from + var];
+                partials[into + numVars + var] += partials[from + numVars + var];
+                partials[into + 2 * numVars + var] = Math.max(partials[into + 2 * numVars + var],
+                        partials[from + 2 * numVars + var]);
+                partials[into + 3 * numVars + var] += partials[from + 3 * numVars + var];
+            }
+        }
+    }
+
+    /**
+     * Adds the residual and the magnitude of the cell into the values starting at offset.
+     */
+    private void accumulate(Cell cell, double[] values, int offset) {
+        double[] U = state.U;
+        double[] U0 = state.U0;
+        int stateOffset = state.offset(cell);
+        double dt = cell.dt;
+        for (int var = 0; var < numVars; var++) {
+            double u = U[stateOffset + var];
+            double r = Math.abs((u - U0[stateOffset + var]) / dt);
+            values[offset + var] += r;
+            values[offset + numVars + var] += r * r;
+            if (r > values[offset + 2 * numVars + var]) values[offset + 2 * numVars + var] = r;
+            values[offset + 3 * numVars + var] += Math.abs(u);
+        }
+    }
+
+    private void combineAccumulators() {
+        Arrays.fill(absSum, 0.0);
+        Arrays.fill(sqrSum, 0.0);
+        Arrays.fill(absMax, 0.0);
+        Arrays.fill(magnitudeSum, 0.0);
+        synchronized (accumulators) {
+            for (double[] values : accumulators) {
+                for (int var = 0; var < numVars; var++) {
+                    absSum[var] += values[var];
+                    sqrSum[var] += values[numVars + var];
+                    absMax[var] = Math.max(absMax[var], values[2 * numVars + var]);
+                    magnitudeSum[var] += values[3 * numVars + var];
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the residual norm of each variable, divided by the average magnitude of the variable.
+     *
+     * @param totalResidual Array of length numVars for the result.
+     * @param norm          Required norm.
+     * @param rootOfMean    If true the two norm is sqrt(sum of r^2 / numCells), otherwise
+     *                      sqrt(sum of r^2) / numCells.
+     */
+    public void totalResidualInto(double[] totalResidual, Norm norm, boolean rootOfMean) {
+        double inverseNumCells = 1.0 / numCells;
+        for (int var = 0; var < numVars; var++) {
+            double residual;
+            switch (norm) {
+                case ONE_NORM:
+                    residual = absSum[var] * inverseNumCells;
+                    break;
+
+                case TWO_NORM:
+                    residual = rootOfMean
+                            ? Math.sqrt(sqrSum[var] * inverseNumCells)
+                            : Math.sqrt(sqrSum[var]) * inverseNumCells;
+                    break;
+
+                case INFINITY_NORM:
+                    residual = absMax[var];
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Norm " + norm + " is not implemented.");
+            }
+
+            double magnitude = magnitudeSum[var] * inverseNumCells;
+            magnitude = magnitude < 1e-12 ? 1.0 : magnitude; // avoid div by zero
+            totalResidual[var] = residual / magnitude;
+        }
+    }
+}
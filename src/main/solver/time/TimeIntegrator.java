@@ -1,6 +1,10 @@
 package main.solver.time;
 
 import main.solver.Norm;
+import main.solver.metrics.IterationListener;
+import main.util.PhaseTimers;
+
+import java.util.function.Consumer;
 
 public interface TimeIntegrator {
     void updateCellAverages();
@@ -10,4 +14,29 @@ public interface TimeIntegrator {
     void setTimeDiscretization(TimeDiscretization timeDiscretization);
 
     double[] currentTotalResidual(Norm norm);
+
+    /**
+     * If fused is true, the residual norms are accumulated in the update loop of the last stage of
+     * updateCellAverages() and currentTotalResidual(norm) uses them instead of another pass over the cells.
+     * The solution must not be changed between the two calls.
+     */
+    void setFusedResidualNorms(boolean fused);
+
+    /**
+     * Adds a listener which is called with the total residual each time it is calculated by
+     * currentTotalResidual(norm), for example LimiterFreezing::update.
+     */
+    void addResidualListener(Consumer<double[]> listener);
+
+    /**
+     * Adds a listener which is called with the metrics of each iteration (from the start of updateCellAverages()
+     * to the first following call of currentTotalResidual(norm)), for example a RingBufferSink or a CsvSink.
+     */
+    void addIterationListener(IterationListener listener);
+
+    /**
+     * @return Timers of the phases of updateCellAverages() and currentTotalResidual(norm), including the phases
+     * of the space discretization.
+     */
+    PhaseTimers phaseTimers();
 }
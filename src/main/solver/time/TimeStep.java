@@ -2,4 +2,11 @@ package main.solver.time;
 
 public interface TimeStep {
     void updateCellTimeSteps(double courantNum, double timeStepLimit);
+
+    /**
+     * @return Largest Courant number of the cells with their current time steps, or NaN if not available.
+     */
+    default double effectiveCourantNum() {
+        return Double.NaN;
+    }
 }
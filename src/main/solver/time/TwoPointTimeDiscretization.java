@@ -2,23 +2,35 @@ package main.solver.time;
 
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.physics.goveqn.GoverningEquations;
-import main.util.DoubleArray;
+import main.solver.metrics.SolverEvents;
 
 public class TwoPointTimeDiscretization implements TimeDiscretization {
     private final Mesh mesh;
     private final GoverningEquations govEqn;
+    private final SolutionState state;
     private final double real_dt;
+    private long step;
+
+    /**
+     * Real and conservative variables of the cell being processed by the current thread.
+     */
+    private final ThreadLocal<double[]> cellRealVars;
+    private final ThreadLocal<double[]> cellConservativeVars;
 
     public TwoPointTimeDiscretization(Mesh mesh, GoverningEquations govEqn, double real_dt) {
         this.mesh = mesh;
         this.govEqn = govEqn;
+        this.state = mesh.solutionState();
         this.real_dt = real_dt;
+        this.cellRealVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
+        this.cellConservativeVars = ThreadLocal.withInitial(() -> new double[govEqn.numVars()]);
     }
 
     @Override
     public void updateCellResiduals() {
-        mesh.cellStream().forEach(this::updateResidual);
+        mesh.executionContext().forEach("time discretization", mesh.cells(), this::updateResidual);
     }
 
     @Override
@@ -28,24 +40,32 @@ public class TwoPointTimeDiscretization implements TimeDiscretization {
 
     @Override
     public void shiftSolution() {
-        mesh.cellStream().forEach(this::shiftSolution);
+        step++;
+        SolverEvents.Scope event = SolverEvents.realTimeStep(step, real_dt, state.numCells);
+        try {
+            mesh.executionContext().forEach("shift solution", mesh.cells(), this::shiftSolution);
+        } finally {
+            event.close();
+        }
     }
 
     private void shiftSolution(Cell cell) {
-        DoubleArray.copy(cell.Wn, cell.Wnm1);
-        DoubleArray.copy(govEqn.realVars(cell.U), cell.Wn);
+        int offset = state.offset(cell);
+        double[] W = cellRealVars.get();
+        govEqn.realVarsInto(W, state.getInto(state.U, cell, cellConservativeVars.get()));
+        System.arraycopy(state.Wn, offset, state.Wnm1, offset, state.numVars);
+        System.arraycopy(W, 0, state.Wn, offset, state.numVars);
     }
 
     private void updateResidual(Cell cell) {
-        double[] Wnp1 = govEqn.realVars(cell.U);
+        double[] Wnp1 = cellRealVars.get();
+        govEqn.realVarsInto(Wnp1, state.getInto(state.U, cell, cellConservativeVars.get()));
         double vol_dt = cell.shape.volume / real_dt;
         int numVars = govEqn.numVars();
+        int offset = state.offset(cell);
 
-        double[] residual = new double[numVars];
         for (int var = 0; var < numVars; var++) {
-            residual[var] = vol_dt * (Wnp1[var] - cell.Wn[var]);
+            state.residual[offset + var] += vol_dt * (Wnp1[var] - state.Wn[offset + var]);
         }
-
-        DoubleArray.increment(cell.residual, residual);
     }
 }
@@ -0,0 +1,276 @@
+package main.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Selection of the execution of each named loop (phase) of the solver from its measured cost.
+ * <p>
+ * The first {@code warmupCalls} calls of a phase are run in parallel and are not measured, so that the code is
+ * compiled. The next calls are run sequentially, chunked parallel (one range per thread) or parallel (with the
+ * grain size of the base context), until each mode has been measured {@code trialsPerMode} times on a non-empty
+ * loop. The mode of a call is picked from a hash of the call number rather than in turn, so that a phase called
+ * once per color does not measure each mode on the same colors. Then the mode with the smallest time per index
+ * is used for all the following calls of the phase. Small meshes get sequential loops and large meshes get
+ * parallel loops without any configuration.
+ * <p>
+ * A WorkerTeam always splits a loop into one range per thread, so with a team base the chunked and the parallel
+ * modes are the same and only the sequential and parallel modes are measured.
+ * <p>
+ * The measured costs and the decisions are available as a table (report()), as CSV (csv()) and through the
+ * phase timers of the solver (PhaseTimers.scheduleReport() and the schedule of PhaseTimers.json()).
+ */
+public class AdaptiveScheduler {
+    public static final int DEFAULT_WARMUP_CALLS = 2;
+    public static final int DEFAULT_TRIALS_PER_MODE = 3;
+
+    public enum Mode {
+        SEQUENTIAL, CHUNKED, PARALLEL
+    }
+
+    private static final Mode[] MODES = Mode.values();
+
+    private final ExecutionContext base;
+
+    /**
+     * Modes which are measured and can be selected.
+     */
+    private final Mode[] candidates;
+    private final int warmupCalls;
+    private final int trialsPerMode;
+    private final Map<String, Phase> phases = new ConcurrentHashMap<>();
+    private final Map<String, Phase> phaseOrder = new LinkedHashMap<>();
+
+    public AdaptiveScheduler(ExecutionContext base) {
+        this(base, DEFAULT_WARMUP_CALLS, DEFAULT_TRIALS_PER_MODE);
+    }
+
+    /**
+     * @param base          Context which runs the parallel loops.
+     * @param warmupCalls   Number of calls of a phase which are not measured.
+     * @param trialsPerMode Number of measured calls of a phase in each mode.
+     */
+    public AdaptiveScheduler(ExecutionContext base, int warmupCalls, int trialsPerMode) {
+        if (base == null) {
+            throw new IllegalArgumentException("Base context must not be null.");
+        }
+        if (warmupCalls < 0 || trialsPerMode < 1) {
+            throw new IllegalArgumentException("Warmup calls must be non-negative and trials per mode positive.");
+        }
+        this.base = base;
+        this.candidates = base.hasTeam() ? new Mode[]{Mode.SEQUENTIAL, Mode.PARALLEL} : MODES;
+        this.warmupCalls = warmupCalls;
+        this.trialsPerMode = trialsPerMode;
+    }
+
+    /**
+     * Runs body for all the indices in [from, to) as a call of the named phase.
+     */
+    public void forEach(String phase, int from, int to, IntConsumer body) {
+        Phase p = phase(phase);
+        Mode decision = p.decision;
+        if (decision != null) {
+            p.calls.incrementAndGet();
+            run(decision, from, to, body);
+            return;
+        }
+
+        int call = p.calls.getAndIncrement();
+        Mode mode = call < warmupCalls ? Mode.PARALLEL : trialMode(call - warmupCalls);
+        long start = System.nanoTime();
+        run(mode, from, to, body);
+        long elapsed = System.nanoTime() - start;
+        if (call >= warmupCalls) {
+            p.record(mode, Math.max(0, to - from), elapsed);
+        }
+    }
+
+    /**
+     * @return Selected mode of the phase, or empty while the phase is measured.
+     */
+    public Optional<Mode> decision(String phase) {
+        Phase p = phases.get(phase);
+        return p == null ? Optional.empty() : Optional.ofNullable(p.decision);
+    }
+
+    /**
+     * @return Modes which are measured and can be selected for a phase.
+     */
+    public List<Mode> candidateModes() {
+        return List.of(candidates);
+    }
+
+    /**
+     * @return Measurements and decision of each phase, in the order of their first call.
+     */
+    public List<PhaseReport> phaseReports() {
+        List<PhaseReport> reports = new ArrayList<>();
+        synchronized (phaseOrder) {
+            for (Phase p : phaseOrder.values()) {
+                reports.add(p.report());
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * @return Table of the phases in the order of their first call, with the number of calls, the mean loop size,
+     * the measured time per index of each mode and the selected mode.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-24s %8s %10s %14s %14s %14s  %s%n", "Phase", "Calls", "Mean size",
+                "Seq. ns/index", "Chunk ns/index", "Par. ns/index", "Mode"));
+        for (PhaseReport p : phaseReports()) {
+            report.append(String.format(Locale.ROOT, "%-24s %8d %10.1f %14s %14s %14s  %s%n", p.name, p.calls,
+                    p.meanSize, formatCost(p, Mode.SEQUENTIAL), formatCost(p, Mode.CHUNKED),
+                    formatCost(p, Mode.PARALLEL), p.decision.map(Mode::toString).orElse("measuring")));
+        }
+        return report.toString();
+    }
+
+    /**
+     * @return Same as report(), as CSV. Unmeasured costs are empty and the mode is empty while measuring.
+     */
+    public String csv() {
+        StringBuilder csv = new StringBuilder("phase,calls,mean_size,sequential_ns_per_index,"
+                + "chunked_ns_per_index,parallel_ns_per_index,mode\n");
+        for (PhaseReport p : phaseReports()) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.1f", p.name, p.calls, p.meanSize));
+            for (Mode mode : MODES) {
+                double cost = p.nsPerIndex(mode);
+                csv.append(',').append(Double.isNaN(cost) ? "" : String.format(Locale.ROOT, "%.2f", cost));
+            }
+            csv.append(',').append(p.decision.map(Mode::toString).orElse("")).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String formatCost(PhaseReport p, Mode mode) {
+        double cost = p.nsPerIndex(mode);
+        return Double.isNaN(cost) ? "-" : String.format(Locale.ROOT, "%.2f", cost);
+    }
+
+    private Phase phase(String name) {
+        Phase p = phases.get(name);
+        if (p == null) {
+            synchronized (phaseOrder) {
+                p = phaseOrder.computeIfAbsent(name, Phase::new);
+                phases.putIfAbsent(name, p);
+            }
+        }
+        return p;
+    }
+
+    private Mode trialMode(int trial) {
+        int hash = trial * 0x9E3779B9;
+        return candidates[Integer.remainderUnsigned(hash ^ hash >>> 16, candidates.length)];
+    }
+
+    private void run(Mode mode, int from, int to, IntConsumer body) {
+        switch (mode) {
+            case SEQUENTIAL:
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                break;
+            case CHUNKED:
+                int parallelism = base.parallelism();
+                base.run(from, to, Math.max(1, (to - from + parallelism - 1) / parallelism), body);
+                break;
+            default:
+                base.run(from, to, base.grainSize(), body);
+        }
+    }
+
+    private class Phase {
+        final String name;
+        final long[] nanos = new long[MODES.length];
+        final long[] indices = new long[MODES.length];
+        final int[] trials = new int[MODES.length];
+        final AtomicInteger calls = new AtomicInteger();
+        int measuredCalls;
+        long totalIndices;
+        volatile Mode decision;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(Mode mode, int size, long elapsed) {
+            if (size == 0) {
+                return;
+            }
+            nanos[mode.ordinal()] += elapsed;
+            indices[mode.ordinal()] += size;
+            trials[mode.ordinal()]++;
+            measuredCalls++;
+            totalIndices += size;
+            if (decision == null && Arrays.stream(candidates).allMatch(m -> trials[m.ordinal()] >= trialsPerMode)) {
+                Mode best = Mode.SEQUENTIAL;
+                for (Mode m : candidates) {
+                    if (cost(m) < cost(best)) {
+                        best = m;
+                    }
+                }
+                decision = best;
+            }
+        }
+
+        double cost(Mode mode) {
+            int m = mode.ordinal();
+            return (double) nanos[m] / indices[m];
+        }
+
+        synchronized PhaseReport report() {
+            double[] nsPerIndex = new double[MODES.length];
+            for (Mode m : MODES) {
+                nsPerIndex[m.ordinal()] = indices[m.ordinal()] == 0 ? Double.NaN : cost(m);
+            }
+            return new PhaseReport(name, calls.get(), measuredCalls == 0 ? 0.0 : (double) totalIndices / measuredCalls,
+                    nsPerIndex, decision);
+        }
+    }
+
+    /**
+     * Measurements and decision of one phase at the time of the report.
+     */
+    public static class PhaseReport {
+        public final String name;
+        public final int calls;
+
+        /**
+         * Mean number of indices of the measured calls.
+         */
+        public final double meanSize;
+        private final double[] nsPerIndex;
+
+        /**
+         * Selected mode, or empty while the phase is measured.
+         */
+        public final Optional<Mode> decision;
+
+        private PhaseReport(String name, int calls, double meanSize, double[] nsPerIndex, Mode decision) {
+            this.name = name;
+            this.calls = calls;
+            this.meanSize = meanSize;
+            this.nsPerIndex = nsPerIndex;
+            this.decision = Optional.ofNullable(decision);
+        }
+
+        /**
+         * @return Measured time per index of the mode, or NaN if the mode has not been measured.
+         */
+        public double nsPerIndex(Mode mode) {
+            return nsPerIndex[mode.ordinal()];
+        }
+    }
+}
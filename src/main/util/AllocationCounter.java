@@ -0,0 +1,36 @@
+package main.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Number of bytes allocated by the current thread, if the JVM supports measuring it.
+ */
+public class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * @return Total number of bytes allocated by the current thread, or 0 if it is not supported.
+     */
+    public static long currentThread() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+                if (threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                    return threadBean;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // Allocated bytes are not measured
+        }
+        return null;
+    }
+}
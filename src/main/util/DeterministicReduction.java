@@ -0,0 +1,104 @@
+package main.util;
+
+/**
+ * Parallel reduction over the indices [0, size) which gives bitwise identical results for any number of threads.
+ * <p>
+ * The indices are split into chunks of fixed size. Each chunk is reduced in index order into its own partial
+ * result (in parallel over the chunks), and the partial results are combined pairwise in a fixed binary tree:
+ * chunk c is combined with chunk c + 1, then c + 2, c + 4 and so on. The split and the order of all the
+ * operations depend only on the size and the chunk size, not on how the chunks are scheduled on the threads.
+ * <p>
+ * A partial result is a block of {@code width} doubles in one preallocated array, so a reduction does not allocate.
+ */
+public class DeterministicReduction {
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Reduction operation on blocks of doubles in the partials array.
+     */
+    public interface Operation {
+        /**
+         * Sets the partial result at offset to the identity of the reduction.
+         */
+        void identity(double[] partials, int offset);
+
+        /**
+         * Adds the indices [from, to) into the partial result at offset, in index order.
+         */
+        void accumulate(int from, int to, double[] partials, int offset);
+
+        /**
+         * Combines the partial result at offset {@code from} into the partial result at offset {@code into}.
+         */
+        void combine(double[] partials, int into, int from);
+    }
+
+    private final int size;
+    private final int chunkSize;
+    private final int numChunks;
+    private final int width;
+    private final double[] partials;
+
+    public DeterministicReduction(int size, int width) {
+        this(size, width, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param size      Number of indices.
+     * @param width     Number of doubles in a partial result.
+     * @param chunkSize Number of indices in a chunk.
+     */
+    public DeterministicReduction(int size, int width, int chunkSize) {
+        if (size < 0 || width < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Size must be non-negative, width and chunk size must be positive.");
+        }
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.numChunks = Math.max(1, (size + chunkSize - 1) / chunkSize);
+        this.width = width;
+        this.partials = new double[numChunks * width];
+    }
+
+    public int numChunks() {
+        return numChunks;
+    }
+
+    /**
+     * Reduces all the indices.
+     *
+     * @return Array with the result in the first {@code width} elements. The array is reused by the next reduction.
+     */
+    public double[] reduce(Operation operation) {
+        return reduce(ExecutionContext.COMMON_POOL, operation);
+    }
+
+    /**
+     * Reduces all the indices, running the chunks in the given context. The result does not depend on the context.
+     *
+     * @return Array with the result in the first {@code width} elements. The array is reused by the next reduction.
+     */
+    public double[] reduce(ExecutionContext context, Operation operation) {
+        return reduce(context, null, operation);
+    }
+
+    /**
+     * Reduces all the indices, running the chunks in the given context as the loop of the named phase.
+     *
+     * @return Array with the result in the first {@code width} elements. The array is reused by the next reduction.
+     */
+    public double[] reduce(ExecutionContext context, String phase, Operation operation) {
+        context.forEach(phase, 0, numChunks, chunk -> {
+            int offset = chunk * width;
+            operation.identity(partials, offset);
+            operation.accumulate(chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize), partials, offset);
+        });
+
+        for (int stride = 1; stride < numChunks; stride *= 2) {
+            for (int chunk = 0; chunk + stride < numChunks; chunk += 2 * stride) {
+                operation.combine(partials, chunk * width, (chunk + stride) * width);
+            }
+        }
+
+        return partials;
+    }
+}
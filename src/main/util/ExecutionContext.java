@@ -0,0 +1,249 @@
+package main.util;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Executor of the parallel loops of the solver.
+ * <p>
+ * A loop over the indices [from, to) is split recursively into ranges of at most {@code grainSize} indices,
+ * which are run in the pool of the context. The default context uses the common fork join pool, like the
+ * parallel streams. A dedicated pool keeps the solver off the common pool, so that it can be sized
+ * independently of the other users of the common pool. The sequential context runs the loops in the
+ * calling thread.
+ * <p>
+ * The team context runs the loops with a WorkerTeam instead of a pool: a fixed team of long-lived threads with
+ * static ranges and a barrier at the end of each loop, which avoids creating and stealing tasks in every phase.
+ * <p>
+ * A grain size of zero selects the grain size automatically: a loop is split into about four ranges per thread.
+ * With a team, loops of at most {@code grainSize} indices are run in the calling thread.
+ * <p>
+ * The loops of the solver phases are named. The adaptive context selects the execution of each named loop
+ * with an AdaptiveScheduler, the other contexts ignore the names.
+ */
+public class ExecutionContext {
+    public static final ExecutionContext COMMON_POOL = new ExecutionContext(null, null, false, 0, false, null);
+    public static final ExecutionContext SEQUENTIAL = new ExecutionContext(null, null, true, 0, false, null);
+
+    private static final int RANGES_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final WorkerTeam team;
+    private final boolean sequential;
+    private final int grainSize;
+    private final boolean ownsThreads;
+    private final AdaptiveScheduler scheduler;
+
+    private ExecutionContext(ForkJoinPool pool, WorkerTeam team, boolean sequential, int grainSize,
+                             boolean ownsThreads, AdaptiveScheduler scheduler) {
+        if (grainSize < 0) {
+            throw new IllegalArgumentException("Grain size must be non-negative.");
+        }
+        this.pool = pool;
+        this.team = team;
+        this.sequential = sequential;
+        this.grainSize = grainSize;
+        this.ownsThreads = ownsThreads;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return Context which runs the loops in the given pool. The pool is not shut down by this context.
+     */
+    public static ExecutionContext pool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        return new ExecutionContext(pool, null, false, 0, false, null);
+    }
+
+    /**
+     * @return Context which runs the loops in a new pool with the given number of threads, or in the calling
+     * thread if the number of threads is 1.
+     */
+    public static ExecutionContext fixedThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        if (numThreads == 1) {
+            return SEQUENTIAL;
+        }
+        return new ExecutionContext(new ForkJoinPool(numThreads), null, false, 0, true, null);
+    }
+
+    /**
+     * @return Context which runs the loops with a new WorkerTeam of the given number of threads, including the
+     * calling thread, or in the calling thread if the number of threads is 1.
+     */
+    public static ExecutionContext team(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        if (numThreads == 1) {
+            return SEQUENTIAL;
+        }
+        return new ExecutionContext(null, new WorkerTeam(numThreads), false, 0, true, null);
+    }
+
+    /**
+     * @param base Context which runs the parallel loops.
+     * @return Context which selects sequential, chunked parallel or parallel execution for each named loop
+     * by measuring its first calls. The threads of the base context are not shut down by this context.
+     */
+    public static ExecutionContext adaptive(ExecutionContext base) {
+        return new ExecutionContext(base.pool, base.team, base.sequential, base.grainSize, false,
+                new AdaptiveScheduler(base));
+    }
+
+    /**
+     * @param grainSize Maximum number of indices run as one task, zero for automatic.
+     * @return Context with the same threads and the given grain size.
+     */
+    public ExecutionContext withGrainSize(int grainSize) {
+        return new ExecutionContext(pool, team, sequential, grainSize, false, scheduler);
+    }
+
+    public boolean isSequential() {
+        return sequential;
+    }
+
+    public int grainSize() {
+        return grainSize;
+    }
+
+    /**
+     * @return Whether the loops are run by a WorkerTeam, which always splits a loop into one range per thread.
+     */
+    boolean hasTeam() {
+        return team != null;
+    }
+
+    /**
+     * @return Scheduler of the adaptive context.
+     */
+    public Optional<AdaptiveScheduler> scheduler() {
+        return Optional.ofNullable(scheduler);
+    }
+
+    /**
+     * @return Number of threads which run the loops.
+     */
+    public int parallelism() {
+        if (sequential) {
+            return 1;
+        }
+        if (team != null) {
+            return team.numThreads();
+        }
+        return pool().getParallelism();
+    }
+
+    /**
+     * Runs body for all the indices in [from, to). The indices of one range are run in increasing order,
+     * the ranges are run in any order.
+     */
+    public void forEach(int from, int to, IntConsumer body) {
+        run(from, to, grainSize, body);
+    }
+
+    /**
+     * Runs body for all the indices in [from, to) as the loop of the named phase.
+     */
+    public void forEach(String phase, int from, int to, IntConsumer body) {
+        if (scheduler != null && phase != null) {
+            scheduler.forEach(phase, from, to, body);
+        } else {
+            run(from, to, grainSize, body);
+        }
+    }
+
+    /**
+     * Runs body for all the elements of the list.
+     */
+    public <T> void forEach(List<T> items, Consumer<? super T> body) {
+        forEach(0, items.size(), i -> body.accept(items.get(i)));
+    }
+
+    /**
+     * Runs body for all the elements of the list as the loop of the named phase.
+     */
+    public <T> void forEach(String phase, List<T> items, Consumer<? super T> body) {
+        forEach(phase, 0, items.size(), i -> body.accept(items.get(i)));
+    }
+
+    void run(int from, int to, int grainSize, IntConsumer body) {
+        int size = to - from;
+        if (size <= 0) {
+            return;
+        }
+        if (team != null && size > grainSize) {
+            team.forEach(from, to, body);
+            return;
+        }
+        int grain = grainSize > 0 ? grainSize : Math.max(1, size / (RANGES_PER_THREAD * parallelism()));
+        if (sequential || size <= grain) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        ForkJoinPool pool = pool();
+        RangeTask task = new RangeTask(from, to, grain, body);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Shuts down the pool or the team if it was created by this context.
+     */
+    public void shutdown() {
+        if (!ownsThreads) {
+            return;
+        }
+        if (team != null) {
+            team.shutdown();
+        } else {
+            pool.shutdown();
+        }
+    }
+
+    private ForkJoinPool pool() {
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer body;
+
+        RangeTask(int from, int to, int grain, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package main.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Accumulated wall time, number of processed cells or faces and allocated bytes of the phases of the solver.
+ * <p>
+ * A timer is started and stopped around each call of its phase. Starting and stopping reads System.nanoTime()
+ * and the number of bytes allocated by the calling thread, and does not allocate, so the timers are cheap enough
+ * to be always on. The allocated bytes are only those of the caller thread, which runs the phase and calls the
+ * solver. The bytes allocated by the worker threads of a parallel phase are not included, so the
+ * caller_thread_allocated_bytes column of csv() and json() under-reports the allocations of parallel phases. They
+ * are -1 if the JVM does not support measuring them.
+ * <p>
+ * The timers are started and stopped by the thread running the solver and are not thread safe.
+ * <p>
+ * If the loops of the solver run in an adaptive execution context, the measurements and the decisions of its
+ * AdaptiveScheduler are reported with the timers: scheduleReport(), scheduleCsv() and the schedule of json().
+ */
+public class PhaseTimers {
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private boolean enabled = true;
+    private boolean allocationTracking = AllocationCounter.isSupported();
+    private final Supplier<Optional<AdaptiveScheduler>> scheduler;
+
+    public PhaseTimers() {
+        this(Optional::empty);
+    }
+
+    /**
+     * @param scheduler Scheduler of the current execution context of the solver, if it is adaptive.
+     */
+    public PhaseTimers(Supplier<Optional<AdaptiveScheduler>> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public class Timer {
+        public final String name;
+        public final String unit;
+        private long calls;
+        private long nanos;
+        private long items;
+        private long callerThreadAllocatedBytes;
+        private long startNanos;
+        private long startBytes;
+
+        private Timer(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        public void start() {
+            if (!enabled) return;
+            startBytes = threadAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * @param numItems Number of cells or faces processed by the call.
+         */
+        public void stop(int numItems) {
+            if (!enabled) return;
+            nanos += System.nanoTime() - startNanos;
+            callerThreadAllocatedBytes += threadAllocatedBytes() - startBytes;
+            items += numItems;
+            calls++;
+        }
+
+        public long calls() {
+            return calls;
+        }
+
+        public double seconds() {
+            return nanos * 1e-9;
+        }
+
+        /**
+         * @return Processed cells or faces per second of wall time.
+         */
+        public double itemsPerSecond() {
+            return nanos == 0 ? 0.0 : items / seconds();
+        }
+
+        /**
+         * @return Bytes allocated by the caller thread during the phase, without those of the worker threads,
+         * or -1 if not measured.
+         */
+        public long callerThreadAllocatedBytes() {
+            return allocationTracking ? callerThreadAllocatedBytes : -1;
+        }
+
+        private void reset() {
+            calls = 0;
+            nanos = 0;
+            items = 0;
+            callerThreadAllocatedBytes = 0;
+        }
+    }
+
+    /**
+     * @param name Name of the phase.
+     * @param unit Name of the processed items, for example "cells" or "faces".
+     * @return Timer of the phase, created on the first call.
+     */
+    public synchronized Timer timer(String name, String unit) {
+        return timers.computeIfAbsent(name, n -> new Timer(n, unit));
+    }
+
+    /**
+     * @return Timers in the order of their creation.
+     */
+    public synchronized List<Timer> timers() {
+        return new ArrayList<>(timers.values());
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Measuring the allocated bytes can be switched off if the JVM makes it expensive.
+     */
+    public void setAllocationTracking(boolean allocationTracking) {
+        this.allocationTracking = allocationTracking && AllocationCounter.isSupported();
+    }
+
+    public synchronized void reset() {
+        timers.values().forEach(Timer::reset);
+    }
+
+    public String csv() {
+        StringBuilder csv = new StringBuilder("phase,unit,calls,seconds,items_per_second,caller_thread_allocated_bytes\n");
+        for (Timer timer : timers()) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.6f,%.1f,%d%n", timer.name, timer.unit, timer.calls,
+                    timer.seconds(), timer.itemsPerSecond(), timer.callerThreadAllocatedBytes()));
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return Table of the scheduled loops and their selected mode (see AdaptiveScheduler.report()), or an empty
+     * string if the execution context is not adaptive.
+     */
+    public String scheduleReport() {
+        return scheduler.get().map(AdaptiveScheduler::report).orElse("");
+    }
+
+    /**
+     * @return Same as scheduleReport(), as CSV.
+     */
+    public String scheduleCsv() {
+        return scheduler.get().map(AdaptiveScheduler::csv).orElse("");
+    }
+
+    public String json() {
+        StringBuilder json = new StringBuilder("{\"phases\": [");
+        List<Timer> timers = timers();
+        for (int i = 0; i < timers.size(); i++) {
+            Timer timer = timers.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append(String.format(Locale.ROOT, "  {\"name\": \"%s\", \"unit\": \"%s\", \"calls\": %d, "
+                            + "\"seconds\": %.6f, \"itemsPerSecond\": %.1f, \"callerThreadAllocatedBytes\": %d}",
+                    timer.name, timer.unit, timer.calls, timer.seconds(), timer.itemsPerSecond(),
+                    timer.callerThreadAllocatedBytes()));
+        }
+        json.append("\n]");
+        Optional<AdaptiveScheduler> adaptive = scheduler.get();
+        if (adaptive.isPresent()) {
+            json.append(",\n\"schedule\": [");
+            List<AdaptiveScheduler.PhaseReport> reports = adaptive.get().phaseReports();
+            for (int i = 0; i < reports.size(); i++) {
+                AdaptiveScheduler.PhaseReport report = reports.get(i);
+                json.append(i == 0 ? "\n" : ",\n");
+                json.append(String.format(Locale.ROOT, "  {\"name\": \"%s\", \"calls\": %d, \"meanSize\": %.1f, "
+                                + "\"sequentialNsPerIndex\": %s, \"chunkedNsPerIndex\": %s, "
+                                + "\"parallelNsPerIndex\": %s, \"mode\": %s}",
+                        report.name, report.calls, report.meanSize,
+                        jsonCost(report, AdaptiveScheduler.Mode.SEQUENTIAL),
+                        jsonCost(report, AdaptiveScheduler.Mode.CHUNKED),
+                        jsonCost(report, AdaptiveScheduler.Mode.PARALLEL),
+                        report.decision.map(mode -> "\"" + mode + "\"").orElse("null")));
+            }
+            json.append("\n]");
+        }
+        json.append("}\n");
+        return json.toString();
+    }
+
+    public void writeCsv(File file) throws IOException {
+        Files.write(file.toPath(), csv().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeJson(File file) throws IOException {
+        Files.write(file.toPath(), json().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String jsonCost(AdaptiveScheduler.PhaseReport report, AdaptiveScheduler.Mode mode) {
+        double cost = report.nsPerIndex(mode);
+        return Double.isNaN(cost) ? "null" : String.format(Locale.ROOT, "%.2f", cost);
+    }
+
+    private long threadAllocatedBytes() {
+        return allocationTracking ? AllocationCounter.currentThread() : 0;
+    }
+}
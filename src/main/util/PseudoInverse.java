@@ -0,0 +1,174 @@
+package main.util;
+
+import java.util.Arrays;
+
+/**
+ * Pseudo inverse of small tall matrices (at most MAX_COLUMNS columns) through the normal equations.
+ * <p>
+ * The columns are scaled to unit length and the normal matrix is diagonalized with Jacobi rotations.
+ * Eigenvalues smaller than a relative tolerance are treated as zero, so rank deficient matrices (for example
+ * the least square stencils of 1D and 2D meshes, which have no variation in some directions) get the solution
+ * with zero components in the missing directions, same as with the SVD.
+ */
+public class PseudoInverse {
+    public static final int MAX_COLUMNS = 4;
+
+    private static final double TOLERANCE = 1e-14;
+    private static final int MAX_SWEEPS = 50;
+
+    /**
+     * Calculates the transpose of the pseudo inverse of a matrix.
+     *
+     * @param A       numRows x numCols matrix in row major order.
+     * @param numRows Number of rows of A.
+     * @param numCols Number of columns of A, at most MAX_COLUMNS.
+     * @param result  Array in which the numRows x numCols transpose of the pseudo inverse is stored in row
+     *                major order, starting at offset.
+     * @param offset  Position of the first element in the result array.
+     */
+    public static void transposeInto(double[] A, int numRows, int numCols, double[] result, int offset) {
+        if (numCols < 1 || numCols > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Number of columns must be between 1 and " + MAX_COLUMNS + ".");
+        }
+        if (A.length < numRows * numCols) {
+            throw new IllegalArgumentException("Matrix must have numRows x numCols elements.");
+        }
+
+        // Column scaling improves the conditioning of the normal matrix, but changes the solution if the
+        // columns are linearly dependent (other than zero columns), then the solution is recalculated without it
+        double[] scale = new double[numCols];
+        int numZeroColumns = 0;
+        for (int i = 0; i < numRows; i++) {
+            for (int c = 0; c < numCols; c++) {
+                scale[c] += A[i * numCols + c] * A[i * numCols + c];
+            }
+        }
+        for (int c = 0; c < numCols; c++) {
+            if (scale[c] > 0) {
+                scale[c] = Math.sqrt(scale[c]);
+            } else {
+                scale[c] = 1.0;
+                numZeroColumns++;
+            }
+        }
+
+        int rank = transposeInto(A, numRows, numCols, scale, result, offset);
+        if (rank < numCols - numZeroColumns) {
+            Arrays.fill(scale, 1.0);
+            transposeInto(A, numRows, numCols, scale, result, offset);
+        }
+    }
+
+    /**
+     * @return Rank of the matrix.
+     */
+    private static int transposeInto(double[] A, int numRows, int numCols, double[] scale,
+                                     double[] result, int offset) {
+        // Normal matrix of the scaled matrix
+        double[][] M = new double[numCols][numCols];
+        for (int i = 0; i < numRows; i++) {
+            for (int p = 0; p < numCols; p++) {
+                double ap = A[i * numCols + p] / scale[p];
+                for (int q = p; q < numCols; q++) {
+                    M[p][q] += ap * A[i * numCols + q] / scale[q];
+                }
+            }
+        }
+        for (int p = 0; p < numCols; p++) {
+            for (int q = 0; q < p; q++) {
+                M[p][q] = M[q][p];
+            }
+        }
+
+        double[][] V = new double[numCols][numCols];
+        for (int p = 0; p < numCols; p++) {
+            V[p][p] = 1.0;
+        }
+        diagonalize(M, V, numCols);
+
+        double maxEigenvalue = 0.0;
+        for (int k = 0; k < numCols; k++) {
+            maxEigenvalue = Math.max(maxEigenvalue, M[k][k]);
+        }
+        double[] inverseEigenvalues = new double[numCols];
+        int rank = 0;
+        for (int k = 0; k < numCols; k++) {
+            double eigenvalue = M[k][k];
+            if (eigenvalue > TOLERANCE * maxEigenvalue) {
+                inverseEigenvalues[k] = 1.0 / eigenvalue;
+                rank++;
+            }
+        }
+
+        // Pseudo inverse of the normal matrix, including the column scaling
+        double[][] inverseM = new double[numCols][numCols];
+        for (int p = 0; p < numCols; p++) {
+            for (int q = 0; q < numCols; q++) {
+                double sum = 0.0;
+                for (int k = 0; k < numCols; k++) {
+                    sum += V[p][k] * V[q][k] * inverseEigenvalues[k];
+                }
+                inverseM[p][q] = sum / (scale[p] * scale[q]);
+            }
+        }
+
+        for (int i = 0; i < numRows; i++) {
+            for (int c = 0; c < numCols; c++) {
+                double sum = 0.0;
+                for (int d = 0; d < numCols; d++) {
+                    sum += inverseM[c][d] * A[i * numCols + d];
+                }
+                result[offset + i * numCols + c] = sum;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Cyclic Jacobi method. On return the diagonal of M contains the eigenvalues and the columns of V the
+     * corresponding eigenvectors.
+     */
+    private static void diagonalize(double[][] M, double[][] V, int n) {
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double offDiagonal = 0.0, diagonal = 0.0;
+            for (int p = 0; p < n; p++) {
+                diagonal += M[p][p] * M[p][p];
+                for (int q = p + 1; q < n; q++) {
+                    offDiagonal += M[p][q] * M[p][q];
+                }
+            }
+            if (offDiagonal <= 1e-32 * diagonal) return;
+
+            for (int p = 0; p < n - 1; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = M[p][q];
+                    if (apq == 0.0) continue;
+
+                    double theta = (M[q][q] - M[p][p]) / (2.0 * apq);
+                    double t = (theta >= 0 ? 1.0 : -1.0) / (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+                    double c = 1.0 / Math.sqrt(t * t + 1.0);
+                    double s = t * c;
+
+                    for (int k = 0; k < n; k++) {
+                        double mkp = M[k][p], mkq = M[k][q];
+                        M[k][p] = c * mkp - s * mkq;
+                        M[k][q] = s * mkp + c * mkq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double mpk = M[p][k], mqk = M[q][k];
+                        M[p][k] = c * mpk - s * mqk;
+                        M[q][k] = s * mpk + c * mqk;
+                    }
+                    M[p][q] = 0.0;
+                    M[q][p] = 0.0;
+                    for (int k = 0; k < n; k++) {
+                        double vkp = V[k][p], vkq = V[k][q];
+                        V[k][p] = c * vkp - s * vkq;
+                        V[k][q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package main.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * Fixed team of long-lived threads which run the loops of the solver in SPMD style.
+ * <p>
+ * The calling thread is member 0 of the team and the other members are daemon threads started by the constructor.
+ * A loop over [from, to) is split statically into one contiguous range per member: member t runs the indices
+ * [from + t * size / n, from + (t + 1) * size / n). The same loop gives the same ranges to the same threads in
+ * every iteration, so each thread keeps working on the same cells and faces. The loop returns after all the
+ * members have finished their ranges, which is the barrier between two phases of the solver.
+ * <p>
+ * The members wait for the next loop and for the barrier by spinning for a short time and then parking, so a
+ * loop does not create any tasks. A loop started by a member while running a range (a nested loop) is run by
+ * that member alone.
+ */
+public class WorkerTeam {
+    private static final int SPIN_LIMIT = 1 << 12;
+
+    private final int numThreads;
+    private final Thread[] workers;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Written by the caller before the generation is incremented, read by the workers after they see it
+    private IntConsumer body;
+    private int from;
+    private int to;
+    private volatile Thread caller;
+    private volatile int generation;
+    private volatile boolean shutdown;
+
+    /**
+     * @param numThreads Number of members, including the calling thread.
+     */
+    public WorkerTeam(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        this.numThreads = numThreads;
+        this.workers = new Thread[numThreads - 1];
+        for (int t = 1; t < numThreads; t++) {
+            int member = t;
+            Thread worker = new Thread(() -> work(member), "worker-team-" + t);
+            worker.setDaemon(true);
+            workers[t - 1] = worker;
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    public int numThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Runs body for all the indices in [from, to), each member running its static range in increasing order.
+     * Loops started by different threads are run one after another.
+     */
+    public void forEach(int from, int to, IntConsumer body) {
+        if (to <= from) {
+            return;
+        }
+        if (numThreads == 1 || isMember()) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (shutdown) {
+                throw new IllegalStateException("The worker team is shut down.");
+            }
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.caller = Thread.currentThread();
+            failure.set(null);
+            remaining.set(numThreads - 1);
+            generation++;
+            for (Thread worker : workers) {
+                LockSupport.unpark(worker);
+            }
+
+            try {
+                run(0);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+
+            int spins = 0;
+            while (remaining.get() != 0) {
+                if (spins++ < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            this.caller = null;
+            this.body = null;
+
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads. Loops started after this throw IllegalStateException.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean isMember() {
+        Thread thread = Thread.currentThread();
+        if (thread == caller) {
+            return true;
+        }
+        for (Thread worker : workers) {
+            if (thread == worker) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run(int member) {
+        long size = to - from;
+        int start = (int) (from + member * size / numThreads);
+        int end = (int) (from + (member + 1) * size / numThreads);
+        for (int i = start; i < end; i++) {
+            body.accept(i);
+        }
+    }
+
+    private void work(int member) {
+        int seen = 0;
+        while (true) {
+            int spins = 0;
+            while (generation == seen) {
+                if (spins++ < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            seen = generation;
+            if (shutdown) {
+                return;
+            }
+
+            try {
+                run(member);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+            Thread caller = this.caller;
+            if (remaining.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+}
@@ -86,7 +86,7 @@ public class Solver1DScalarAdvectionTest {
             private TimeIntegrator createTimeIntegrator() {
                 ArrayList<ResidualCalculator> residuals = new ArrayList<>();
 
-                SolutionReconstructor reconstructor = new PiecewiseConstantReconstructor();
+                SolutionReconstructor reconstructor = new PiecewiseConstantReconstructor(mesh);
                 RiemannSolver riemannSolver = new RusanovRiemannSolver(govEqn);
                 residuals.add(new ConvectionResidual(reconstructor, riemannSolver, mesh));
                 GlobalTimeStep timeStep = new GlobalTimeStep(mesh, govEqn);
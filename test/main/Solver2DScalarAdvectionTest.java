@@ -98,7 +98,7 @@ public class Solver2DScalarAdvectionTest {
             private TimeIntegrator createTimeIntegrator() {
                 List<ResidualCalculator> residuals = new ArrayList<>();
 
-                SolutionReconstructor reconstructor = new PiecewiseConstantReconstructor();
+                SolutionReconstructor reconstructor = new PiecewiseConstantReconstructor(mesh);
                 RiemannSolver rusanovSolver = new RusanovRiemannSolver(govEqn);
                 residuals.add(new ConvectionResidual(reconstructor, rusanovSolver, mesh));
                 TimeStep timeStep = new GlobalTimeStep(mesh, govEqn);
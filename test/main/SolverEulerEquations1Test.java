@@ -51,7 +51,7 @@ public class SolverEulerEquations1Test {
             private final double pr = 101325.0;
             private final SolutionInitializer solutionInitializer = new FunctionInitializer(
                     p -> govEqn.conservativeVars(new double[]{rho, u, v, w, pr}));
-            ResidualCalculator convectiveCalculator = new ConvectionResidual(new PiecewiseConstantReconstructor(),
+            ResidualCalculator convectiveCalculator = new ConvectionResidual(new PiecewiseConstantReconstructor(mesh),
                     new RusanovRiemannSolver(govEqn), mesh);
             CellGradientCalculator cellGradientCalculator = new ZeroCellGradient(mesh);
             private final TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh,
@@ -5,6 +5,7 @@ import main.geom.Vector;
 import main.io.VTKWriter;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.mesh.factory.Structured2DMesh;
 import main.physics.bc.BoundaryCondition;
 import main.physics.bc.ExtrapolatedBC;
@@ -239,13 +240,16 @@ public class SolverTransient2DVolumeFractionAdvectionTest {
     }
 
     private void setupInterfaceNormal(Mesh mesh) {
-        mesh.cellStream().forEach(this::setupInterfaceNormal);
+        SolutionState state = mesh.solutionState();
+        mesh.cellStream().forEach(cell -> setupInterfaceNormal(cell, state));
+        // The residual norms are calculated from the solution state
+        state.copyFromCells(mesh);
     }
 
     private final Vector zeroVector = new Vector(0, 0, 0);
 
-    private void setupInterfaceNormal(Cell cell) {
-        Vector gradC = cell.gradientU[0];
+    private void setupInterfaceNormal(Cell cell, SolutionState state) {
+        Vector gradC = state.gradient(cell, 0);
         double magGradC = gradC.mag();
 
         Vector interfaceNormal = magGradC > 1e-6 ? gradC.mult(1.0 / magGradC) : zeroVector;
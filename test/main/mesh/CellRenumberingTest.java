@@ -0,0 +1,139 @@
+package main.mesh;
+
+import main.geom.Point;
+import main.mesh.factory.Unstructured2DMesh;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class CellRenumberingTest {
+
+    @Test
+    public void file_order_does_not_change_the_order() {
+        List<Cell> cells = gridCells(3, 4);
+
+        assertArrayEquals(IntStream.range(0, 12).toArray(), CellRenumbering.order(cells, CellOrdering.FILE_ORDER));
+    }
+
+    @Test
+    public void orders_are_permutations() {
+        List<Cell> cells = gridCells(7, 5);
+        Collections.shuffle(cells, new Random(42));
+
+        for (CellOrdering ordering : CellOrdering.values()) {
+            int[] order = CellRenumbering.order(cells, ordering);
+            assertArrayEquals(IntStream.range(0, cells.size()).toArray(), Arrays.stream(order).sorted().toArray());
+        }
+    }
+
+    @Test
+    public void reverse_cuthill_mckee_reduces_bandwidth_of_shuffled_grid() {
+        int nx = 20, ny = 10;
+        List<Cell> cells = gridCells(nx, ny);
+        Collections.shuffle(cells, new Random(7));
+
+        int[] order = CellRenumbering.order(cells, CellOrdering.REVERSE_CUTHILL_MCKEE);
+        List<Cell> reordered = CellRenumbering.reorder(cells, order);
+
+        assertTrue(bandwidth(cells) > 3 * ny);
+        assertTrue(bandwidth(reordered) <= 2 * (ny + 1));
+    }
+
+    @Test
+    public void morton_order_visits_quadrants_one_after_another() {
+        List<Cell> cells = gridCells(4, 4);
+        Collections.shuffle(cells, new Random(3));
+
+        List<Cell> reordered = CellRenumbering.reorder(cells, CellRenumbering.order(cells, CellOrdering.MORTON));
+
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            Set<Integer> quadrantIds = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                Point p = reordered.get(quadrant * 4 + i).shape.centroid;
+                quadrantIds.add((p.x < 2 ? 0 : 1) + (p.y < 2 ? 0 : 2));
+            }
+            assertEquals(1, quadrantIds.size());
+        }
+    }
+
+    @Test
+    public void reorder_with_wrong_length_throws_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class,
+                () -> CellRenumbering.reorder(List.of(1, 2, 3), new int[]{0, 1}));
+    }
+
+    @Test
+    public void renumbered_mesh_has_consistent_indices_and_sorted_internal_faces() throws FileNotFoundException {
+        File file = new File("test/test_data/mesh_square_0.1x0.1.cfdu");
+        Mesh fileOrderMesh = new Unstructured2DMesh(file, 1, Map.of());
+        Mesh mesh = new Unstructured2DMesh(file, 1, Map.of(), CellOrdering.REVERSE_CUTHILL_MCKEE);
+
+        assertEquals(fileOrderMesh.cells().size(), mesh.cells().size());
+        assertEquals(fileOrderMesh.internalFaces().size(), mesh.internalFaces().size());
+        for (int i = 0; i < mesh.cells().size(); i++) {
+            assertEquals(i, mesh.cells().get(i).index());
+        }
+
+        int previousLeft = -1;
+        for (Face face : mesh.internalFaces()) {
+            assertTrue(face.left.index() >= previousLeft);
+            assertTrue(face.left.index() < face.right.index());
+            previousLeft = face.left.index();
+        }
+
+        assertTrue(faceBandwidth(mesh) <= faceBandwidth(fileOrderMesh));
+    }
+
+    private static int faceBandwidth(Mesh mesh) {
+        return mesh.internalFaces().stream()
+                .mapToInt(f -> Math.abs(f.left.index() - f.right.index()))
+                .max().orElse(0);
+    }
+
+    private static int bandwidth(List<Cell> cells) {
+        Map<Cell, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            position.put(cells.get(i), i);
+        }
+        int bandwidth = 0;
+        for (Cell c1 : cells) {
+            for (Cell c2 : cells) {
+                if (sharesNode(c1, c2)) {
+                    bandwidth = Math.max(bandwidth, Math.abs(position.get(c1) - position.get(c2)));
+                }
+            }
+        }
+        return bandwidth;
+    }
+
+    private static boolean sharesNode(Cell c1, Cell c2) {
+        return Arrays.stream(c1.nodes).anyMatch(n -> Arrays.asList(c2.nodes).contains(n));
+    }
+
+    private static List<Cell> gridCells(int nx, int ny) {
+        Node[][] nodes = new Node[nx + 1][ny + 1];
+        int index = 0;
+        for (int i = 0; i <= nx; i++) {
+            for (int j = 0; j <= ny; j++) {
+                nodes[i][j] = new Node(i, j, 0, 1);
+                nodes[i][j].setIndex(index++);
+            }
+        }
+
+        List<Cell> cells = new ArrayList<>();
+        for (int i = 0; i < nx; i++) {
+            for (int j = 0; j < ny; j++) {
+                Node[] cellNodes = {nodes[i][j], nodes[i + 1][j], nodes[i + 1][j + 1], nodes[i][j + 1]};
+                Shape shape = new Shape(1.0, new Point(i + 0.5, j + 0.5, 0));
+                cells.add(new Cell(cellNodes, null, shape, 1));
+            }
+        }
+        return cells;
+    }
+}
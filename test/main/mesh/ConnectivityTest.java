@@ -0,0 +1,108 @@
+package main.mesh;
+
+import main.mesh.factory.Structured2DMesh;
+import main.mesh.factory.Structured3DMesh;
+import main.mesh.factory.Unstructured2DMesh;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ConnectivityTest {
+
+    @Test
+    public void structured_2d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"), 3,
+                null, null, null, null);
+        assertConnectivityMatchesMesh(mesh, mesh.connectivity());
+    }
+
+    @Test
+    public void structured_3d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Structured3DMesh(new File("test/test_data/mesh_structured_3d.cfds"), 2,
+                null, null, null, null, null, null);
+        assertConnectivityMatchesMesh(mesh, mesh.connectivity());
+    }
+
+    @Test
+    public void unstructured_2d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 4, Map.of());
+        assertConnectivityMatchesMesh(mesh, mesh.connectivity());
+    }
+
+    @Test
+    public void internal_faces_appear_twice_with_opposite_signs_and_boundary_faces_once() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+        Connectivity connectivity = mesh.connectivity();
+
+        int[] signSum = new int[connectivity.numFaces];
+        int[] count = new int[connectivity.numFaces];
+        for (int cell = 0; cell < connectivity.numCells; cell++) {
+            for (int k = connectivity.cellFacesStart(cell); k < connectivity.cellFacesEnd(cell); k++) {
+                signSum[connectivity.cellFace(k)] += connectivity.cellFaceSign(k);
+                count[connectivity.cellFace(k)]++;
+            }
+        }
+
+        for (int face = 0; face < connectivity.numFaces; face++) {
+            if (face < connectivity.numInternalFaces) {
+                assertEquals(2, count[face]);
+                assertEquals(0, signSum[face]);
+            } else {
+                assertEquals(1, count[face]);
+                assertEquals(1, signSum[face]);
+                assertTrue(connectivity.isGhost(connectivity.right(face)));
+            }
+        }
+    }
+
+    private static void assertConnectivityMatchesMesh(Mesh mesh, Connectivity connectivity) {
+        List<Face> allFaces = new ArrayList<>(mesh.internalFaces());
+        mesh.boundaries().forEach(b -> allFaces.addAll(b.faces));
+
+        assertEquals(mesh.cells().size(), connectivity.numCells);
+        assertEquals(mesh.internalFaces().size(), connectivity.numInternalFaces);
+        assertEquals(allFaces.size(), connectivity.numFaces);
+        assertEquals(mesh.nodes().size(), connectivity.numNodes);
+
+        Cell[] extendedCells = new Cell[connectivity.numFaces - connectivity.numInternalFaces + connectivity.numCells];
+        for (Cell cell : mesh.cells()) {
+            extendedCells[cell.index()] = cell;
+        }
+        for (Face face : allFaces) {
+            int f = face.index();
+            assertSame(face.left, extendedCells[connectivity.left(f)]);
+            if (f < connectivity.numInternalFaces) {
+                assertSame(face.right, extendedCells[connectivity.right(f)]);
+            } else {
+                assertEquals(connectivity.numCells + f - connectivity.numInternalFaces, connectivity.right(f));
+                extendedCells[connectivity.right(f)] = face.right;
+            }
+        }
+
+        for (Cell cell : mesh.cells()) {
+            int i = cell.index();
+            int start = connectivity.cellFacesStart(i);
+            assertEquals(cell.faces.size(), connectivity.cellFacesEnd(i) - start);
+            for (int j = 0; j < cell.faces.size(); j++) {
+                Face face = cell.faces.get(j);
+                assertEquals(face.index(), connectivity.cellFace(start + j));
+                assertEquals(face.left == cell ? 1 : -1, connectivity.cellFaceSign(start + j));
+            }
+        }
+
+        for (int n = 0; n < connectivity.numNodes; n++) {
+            Node node = mesh.nodes().get(n);
+            int start = connectivity.nodeCellsStart(n);
+            assertEquals(node.neighbors.size(), connectivity.nodeCellsEnd(n) - start);
+            for (int j = 0; j < node.neighbors.size(); j++) {
+                assertSame(node.neighbors.get(j), extendedCells[connectivity.nodeCell(start + j)]);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package main.mesh;
+
+import main.mesh.factory.Structured2DMesh;
+import main.mesh.factory.Structured3DMesh;
+import main.mesh.factory.Unstructured2DMesh;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class FaceColoringTest {
+
+    @Test
+    public void structured_2d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"), 1,
+                null, null, null, null);
+        assertValidColoring(mesh.connectivity());
+    }
+
+    @Test
+    public void structured_3d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Structured3DMesh(new File("test/test_data/mesh_structured_3d.cfds"), 1,
+                null, null, null, null, null, null);
+        assertValidColoring(mesh.connectivity());
+    }
+
+    @Test
+    public void unstructured_2d_mesh() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+        assertValidColoring(mesh.connectivity());
+    }
+
+    @Test
+    public void coloring_is_built_once() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+        assertSame(mesh.connectivity().faceColoring(), mesh.connectivity().faceColoring());
+    }
+
+    private static void assertValidColoring(Connectivity connectivity) {
+        FaceColoring coloring = connectivity.faceColoring();
+        int[] count = new int[connectivity.numFaces];
+
+        for (int color = 0; color < coloring.numColors(); color++) {
+            assertTrue(coloring.colorStart(color) < coloring.colorEnd(color));
+            Set<Integer> cells = new HashSet<>();
+            int previousFace = -1;
+            for (int k = coloring.colorStart(color); k < coloring.colorEnd(color); k++) {
+                int face = coloring.face(k);
+                assertTrue(face > previousFace);
+                previousFace = face;
+                count[face]++;
+
+                assertTrue(cells.add(connectivity.left(face)));
+                int right = connectivity.right(face);
+                if (!connectivity.isGhost(right)) {
+                    assertTrue(cells.add(right));
+                }
+            }
+        }
+
+        for (int face = 0; face < connectivity.numFaces; face++) {
+            assertEquals(1, count[face]);
+        }
+    }
+}
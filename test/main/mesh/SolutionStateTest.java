@@ -0,0 +1,99 @@
+package main.mesh;
+
+import main.geom.Vector;
+import main.mesh.factory.StructuredMeshes;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SolutionStateTest {
+    @Test
+    public void fields_have_one_entry_per_cell_and_variable() {
+        SolutionState state = new SolutionState(7, 3);
+
+        assertEquals(7, state.numCells);
+        assertEquals(3, state.numVars);
+        assertEquals(21, state.U0.length);
+        assertEquals(21, state.residual.length);
+        assertEquals(21, state.Wn.length);
+        assertEquals(21, state.Wnm1.length);
+        assertEquals(21, state.Wnm2.length);
+    }
+
+    @Test
+    public void values_of_a_cell_are_stored_contiguously_at_its_offset() {
+        SolutionState state = new SolutionState(4, 3);
+        Cell cell = new Cell(null, null, null, 3);
+        cell.setIndex(2);
+
+        state.set(state.residual, cell, new double[]{1.5, -2.0, 8.0});
+
+        assertEquals(6, state.offset(cell));
+        assertArrayEquals(new double[]{0, 0, 0, 0, 0, 0, 1.5, -2.0, 8.0, 0, 0, 0}, state.residual, 0.0);
+        double[] values = new double[3];
+        assertSame(values, state.getInto(state.residual, cell, values));
+        assertArrayEquals(new double[]{1.5, -2.0, 8.0}, values, 0.0);
+    }
+
+    @Test
+    public void ghost_cells_follow_the_cells() {
+        Mesh mesh = StructuredMeshes.line(0, 1, 4, 2, null, null);
+        SolutionState state = mesh.solutionState();
+
+        assertEquals(4, state.numCells);
+        assertEquals(2, state.numGhostCells);
+        assertEquals(12, state.U.length);
+        assertEquals(24, state.gradientU.length);
+        assertEquals(5, state.numFaces);
+        assertEquals(30, state.faceGradientU.length);
+        assertEquals(8, state.U0.length);
+        assertEquals(4, mesh.connectivity().right(mesh.boundaries().get(0).faces.get(0).index()));
+        assertEquals(10, state.offset(5));
+    }
+
+    @Test
+    public void copies_between_cells_and_state_include_the_ghost_cells() {
+        Mesh mesh = StructuredMeshes.line(0, 1, 3, 2, null, null);
+        SolutionState state = mesh.solutionState();
+        for (Cell cell : mesh.cells()) {
+            cell.U[0] = cell.index();
+            cell.U[1] = -cell.index();
+        }
+        Face xMin = mesh.boundaries().get(0).faces.get(0);
+        Face xMax = mesh.boundaries().get(1).faces.get(0);
+        xMin.right.U[0] = 10;
+        xMax.right.U[1] = 20;
+
+        state.copyFromCells(mesh);
+
+        assertArrayEquals(new double[]{0, 0, 1, -1, 2, -2, 10, 0, 0, 20}, state.U, 0.0);
+
+        state.U[2] = 5;
+        state.U[7] = 30;
+        state.copyToCells(mesh);
+
+        assertArrayEquals(new double[]{5, -1}, mesh.cells().get(1).U, 0.0);
+        assertArrayEquals(new double[]{10, 30}, xMin.right.U, 0.0);
+    }
+
+    @Test
+    public void gradients_of_a_cell_are_stored_contiguously() {
+        SolutionState state = new SolutionState(3, 2);
+        Cell cell = new Cell(null, null, null, 2);
+        cell.setIndex(1);
+
+        state.setGradient(cell, 1, new Vector(1, 2, 3));
+
+        assertEquals(6, state.gradientOffset(cell));
+        assertArrayEquals(new double[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 0, 0, 0, 0, 0, 0}, state.gradientU, 0.0);
+        TestHelper.assertVectorEquals(new Vector(1, 2, 3), state.gradient(cell, 1), 0.0);
+    }
+
+    @Test
+    public void invalid_size_throws_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new SolutionState(5, -2));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new SolutionState(-1, 2));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new SolutionState(3, -1, 5, 2));
+    }
+}
@@ -0,0 +1,70 @@
+package main.mesh;
+
+import main.mesh.factory.Structured3DMesh;
+import main.mesh.factory.Unstructured2DMesh;
+import main.solver.CellNeighborCalculator;
+import main.solver.FaceBasedCellNeighbors;
+import main.solver.NodeBasedCellNeighbors;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StencilRegistryTest {
+
+    @Test
+    public void stencils_have_same_cells_in_same_order_as_neighbor_calculators() throws FileNotFoundException {
+        Mesh mesh2d = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+        Mesh mesh3d = new Structured3DMesh(new File("test/test_data/mesh_structured_3d.cfds"), 1,
+                null, null, null, null, null, null);
+
+        for (Mesh mesh : List.of(mesh2d, mesh3d)) {
+            StencilRegistry stencils = mesh.stencils();
+            assertStencilMatches(mesh, stencils, stencils.faceBased(), new FaceBasedCellNeighbors());
+            assertStencilMatches(mesh, stencils, stencils.nodeBased(), new NodeBasedCellNeighbors());
+
+            CellNeighborCalculator custom = cell -> List.of(cell.faces.get(0).right);
+            assertStencilMatches(mesh, stencils, custom.stencil(stencils), custom);
+        }
+    }
+
+    @Test
+    public void stencils_are_built_once_and_shared() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+
+        assertSame(mesh.stencils(), mesh.stencils());
+        assertSame(mesh.stencils().faceBased(), new FaceBasedCellNeighbors().stencil(mesh.stencils()));
+        assertSame(mesh.stencils().nodeBased(), new NodeBasedCellNeighbors().stencil(mesh.stencils()));
+    }
+
+    @Test
+    public void cell_which_is_not_part_of_mesh_throws_exception() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), 1, Map.of());
+        Cell cell = new Cell(mesh.cells().get(0).nodes, null, null, 1);
+
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> mesh.stencils().index(cell));
+    }
+
+    private static void assertStencilMatches(Mesh mesh, StencilRegistry stencils, Stencil stencil,
+                                             CellNeighborCalculator neighCalc) {
+        assertEquals(mesh.cells().size(), stencil.size());
+        int numEntries = 0;
+        for (Cell cell : mesh.cells()) {
+            List<Cell> expected = neighCalc.calculateFor(cell);
+            int i = cell.index();
+            assertEquals(expected.size(), stencil.end(i) - stencil.start(i));
+            for (int k = stencil.start(i); k < stencil.end(i); k++) {
+                Cell actual = stencils.cell(stencil.cell(k));
+                assertSame(expected.get(k - stencil.start(i)), actual);
+                assertEquals(stencil.cell(k), stencils.index(actual));
+            }
+            numEntries += expected.size();
+        }
+        assertEquals(numEntries, stencil.numEntries());
+    }
+}
@@ -0,0 +1,123 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.*;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FaceBuilderTest {
+
+    @Test
+    public void shared_face_is_matched_and_others_are_boundary_faces() {
+        Node[] nodes = nodes(4);
+        Cell c0 = cell(0, nodes[0], nodes[1], nodes[2]);
+        Cell c1 = cell(1, nodes[1], nodes[3], nodes[2]);
+
+        FaceBuilder faceBuilder = new FaceBuilder(List.of(c0, c1), FaceBuilderTest::edges);
+
+        List<Face> internalFaces = faceBuilder.internalFaces();
+        assertEquals(1, internalFaces.size());
+        Face face = internalFaces.get(0);
+        assertSame(c0, face.left);
+        assertSame(c1, face.right);
+        assertSame(nodes[1], face.nodes[0]);
+        assertSame(nodes[2], face.nodes[1]);
+
+        List<Face> boundaryFaces = faceBuilder.boundaryFaces();
+        assertEquals(4, boundaryFaces.size());
+        assertTrue(boundaryFaces.stream().allMatch(f -> f.right == null));
+    }
+
+    @Test
+    public void normal_of_matched_face_is_average_pointing_from_left_to_right() {
+        Node[] nodes = nodes(4);
+        Cell c0 = cell(0, nodes[0], nodes[1], nodes[2]);
+        Cell c1 = cell(1, nodes[1], nodes[3], nodes[2]);
+        Vector n0 = new Vector(1, 0.1, 0).unit();
+        Vector n1 = new Vector(-1, 0.1, 0).unit();
+
+        FaceBuilder faceBuilder = new FaceBuilder(List.of(c0, c1), cell -> {
+            List<Face> faces = edges(cell);
+            Face shared = faces.stream()
+                    .filter(f -> List.of(f.nodes).contains(nodes[1]) && List.of(f.nodes).contains(nodes[2]))
+                    .findFirst().orElseThrow();
+            shared.surface.setUnitNormal(cell == c0 ? n0 : n1);
+            return faces;
+        });
+
+        Vector expected = n0.sub(n1).unit();
+        Vector actual = faceBuilder.internalFaces().get(0).surface.unitNormal();
+        assertEquals(expected.x, actual.x, 1e-15);
+        assertEquals(expected.y, actual.y, 1e-15);
+        assertEquals(expected.z, actual.z, 1e-15);
+    }
+
+    @Test
+    public void boundaryFace_finds_face_with_nodes_in_any_order() {
+        Node[] nodes = nodes(4);
+        Cell c0 = cell(0, nodes[0], nodes[1], nodes[2]);
+        Cell c1 = cell(1, nodes[1], nodes[3], nodes[2]);
+
+        FaceBuilder faceBuilder = new FaceBuilder(List.of(c0, c1), FaceBuilderTest::edges);
+
+        Face face = faceBuilder.boundaryFace(new Node[]{nodes[3], nodes[1]}).orElseThrow();
+        assertSame(c1, face.left);
+        assertTrue(faceBuilder.boundaryFace(new Node[]{nodes[2], nodes[1]}).isEmpty());
+        assertTrue(faceBuilder.boundaryFace(new Node[]{nodes[0], nodes[3]}).isEmpty());
+    }
+
+    @Test
+    public void face_shared_by_three_cells_throws_exception() {
+        Node[] nodes = nodes(5);
+        Cell c0 = cell(0, nodes[0], nodes[1], nodes[2]);
+        Cell c1 = cell(1, nodes[1], nodes[3], nodes[2]);
+        Cell c2 = cell(2, nodes[1], nodes[2], nodes[4]);
+
+        TestHelper.assertThrows(IllegalStateException.class,
+                () -> new FaceBuilder(List.of(c0, c1, c2), FaceBuilderTest::edges));
+    }
+
+    @Test
+    public void nodes_without_index_throw_exception() {
+        Node n0 = new Node(0, 0, 0, 1);
+        Node n1 = new Node(1, 0, 0, 1);
+        Node n2 = new Node(0, 1, 0, 1);
+        Cell c0 = cell(0, n0, n1, n2);
+
+        TestHelper.assertThrows(IllegalStateException.class,
+                () -> new FaceBuilder(List.of(c0), FaceBuilderTest::edges));
+    }
+
+    private static Node[] nodes(int numNodes) {
+        Node[] nodes = new Node[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = new Node(i % 2, i / 2, 0, 1);
+            nodes[i].setIndex(i);
+        }
+        return nodes;
+    }
+
+    private static Cell cell(int index, Node... nodes) {
+        Cell cell = new Cell(nodes, null, null, 1);
+        cell.setIndex(index);
+        return cell;
+    }
+
+    private static List<Face> edges(Cell cell) {
+        List<Face> faces = new ArrayList<>();
+        for (int i = 0; i < cell.nodes.length; i++) {
+            Node na = cell.nodes[i];
+            Node nb = cell.nodes[(i + 1) % cell.nodes.length];
+            Vector normal = new Vector(na.location(), nb.location()).cross(new Vector(0, 0, 1)).unit();
+            Surface surface = new Surface(1.0, new Point(0, 0, 0), normal);
+            faces.add(new Face(new Node[]{na, nb}, null, surface, cell, null, 1));
+        }
+        return faces;
+    }
+}
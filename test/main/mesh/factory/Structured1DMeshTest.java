@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -176,9 +177,6 @@ public class Structured1DMeshTest {
         // Have same left and right cells
         assertShapeEquals(expected.left.shape, actual.left.shape);
         assertShapeEquals(expected.right.shape, actual.right.shape);
-
-        // Have same number of variables
-        assertEquals(numVars, actual.flux.length);
     }
 
     private static void assertCellEquals(Cell expected, Cell actual) {
@@ -205,7 +203,9 @@ public class Structured1DMeshTest {
 
         // Have same number of variables
         assertEquals(numVars, actual.U.length);
-        assertEquals(numVars, actual.residual.length);
+        SolutionState state = actualMesh.solutionState();
+        assertEquals(numVars, state.numVars);
+        assertArrayEquals(new double[numVars], state.getInto(state.residual, actual, new double[numVars]), 0.0);
     }
 
     private static void assertBoundaryEquals(Boundary expected, Boundary actual) {
@@ -269,6 +269,16 @@ public class Structured1DMeshTest {
                 .allMatch(i -> allFaceList.get(i).index() == i));
     }
 
+    @Test
+    public void solutionState() {
+        SolutionState state = actualMesh.solutionState();
+        int numCells = actualMesh.cells().size();
+        assertEquals(numCells, state.numCells);
+        assertEquals(numVars, state.numVars);
+        assertEquals(numCells * numVars, state.residual.length);
+        assertEquals(numCells * numVars, state.Wn.length);
+    }
+
     @Test
     public void exceptionTest() {
         File doesNotExist = new File("test/test_data/doesNotExist.cfds");
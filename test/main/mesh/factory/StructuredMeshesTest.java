@@ -0,0 +1,146 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.factory.EulerEquations;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static main.util.TestHelper.assertThrows;
+import static org.junit.Assert.assertEquals;
+
+public class StructuredMeshesTest {
+    private static final int numVars = 5;
+    private static final BoundaryCondition bc = new ExtrapolatedBC(new EulerEquations(1.4, 287));
+
+    @Test
+    public void node_function_1d_mesh_is_same_as_file_mesh() throws FileNotFoundException {
+        Mesh fileMesh = new Structured1DMesh(new File("test/test_data/mesh_structured_1d.cfds"), numVars, bc, bc);
+        Mesh mesh = new Structured1DMesh(5, i -> fileMesh.nodes().get(i).location(), numVars, bc, bc);
+
+        assertSameMesh(fileMesh, mesh);
+    }
+
+    @Test
+    public void node_function_2d_mesh_is_same_as_file_mesh() throws FileNotFoundException {
+        Mesh fileMesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"), numVars,
+                bc, bc, bc, bc);
+        Mesh mesh = new Structured2DMesh(5, 4, (i, j) -> fileMesh.nodes().get(i * 4 + j).location(), numVars,
+                bc, bc, bc, bc);
+
+        assertSameMesh(fileMesh, mesh);
+    }
+
+    @Test
+    public void node_function_3d_mesh_is_same_as_file_mesh() throws FileNotFoundException {
+        Mesh fileMesh = new Structured3DMesh(new File("test/test_data/mesh_structured_3d.cfds"), numVars,
+                bc, bc, bc, bc, bc, bc);
+        Mesh mesh = new Structured3DMesh(5, 4, 3, (i, j, k) -> fileMesh.nodes().get((i * 4 + j) * 3 + k).location(),
+                numVars, bc, bc, bc, bc, bc, bc);
+
+        assertSameMesh(fileMesh, mesh);
+    }
+
+    @Test
+    public void line() {
+        Mesh mesh = StructuredMeshes.line(-1, 2, 6, numVars, bc, bc);
+
+        assertEquals(7, mesh.nodes().size());
+        assertEquals(6, mesh.cells().size());
+        assertEquals(5, mesh.internalFaces().size());
+        for (Cell cell : mesh.cells()) {
+            assertEquals(0.5, cell.shape.volume, 1e-12);
+        }
+        assertEquals(2.0, mesh.boundaries().get(1).faces.get(0).surface.centroid.x, 1e-12);
+    }
+
+    @Test
+    public void rectangle() {
+        Mesh mesh = StructuredMeshes.rectangle(new Point(0, 1, 0), new Point(2, 4, 0), 4, 3, numVars,
+                bc, bc, bc, bc);
+
+        assertEquals(5 * 4, mesh.nodes().size());
+        assertEquals(4 * 3, mesh.cells().size());
+        assertEquals(3 * 3 + 4 * 2, mesh.internalFaces().size());
+        assertEquals(List.of(3, 3, 4, 4), boundarySizes(mesh));
+        double volume = mesh.cells().stream().mapToDouble(c -> c.shape.volume).sum();
+        assertEquals(6.0, volume, 1e-12);
+        Point last = mesh.nodes().get(mesh.nodes().size() - 1).location();
+        assertEquals(2.0, last.x, 1e-12);
+        assertEquals(4.0, last.y, 1e-12);
+    }
+
+    @Test
+    public void box() {
+        Mesh mesh = StructuredMeshes.box(new Point(0, 0, 0), new Point(1, 2, 3), 2, 3, 4, numVars,
+                bc, bc, bc, bc, bc, bc);
+
+        assertEquals(3 * 4 * 5, mesh.nodes().size());
+        assertEquals(2 * 3 * 4, mesh.cells().size());
+        assertEquals(1 * 3 * 4 + 2 * 2 * 4 + 2 * 3 * 3, mesh.internalFaces().size());
+        assertEquals(List.of(12, 12, 8, 8, 6, 6), boundarySizes(mesh));
+        for (Cell cell : mesh.cells()) {
+            assertEquals(0.25, cell.shape.volume, 1e-12);
+        }
+    }
+
+    @Test
+    public void invalid_sizes() {
+        assertThrows(IllegalArgumentException.class, () -> StructuredMeshes.line(0, 1, 0, numVars, bc, bc));
+        assertThrows(IllegalArgumentException.class, () -> StructuredMeshes.rectangle(
+                new Point(0, 0, 0), new Point(1, 1, 0), 2, 0, numVars, bc, bc, bc, bc));
+        assertThrows(IllegalArgumentException.class, () -> new Structured3DMesh(2, 2, 1,
+                (i, j, k) -> new Point(i, j, k), numVars, bc, bc, bc, bc, bc, bc));
+    }
+
+    private static List<Integer> boundarySizes(Mesh mesh) {
+        return mesh.boundaries().stream().map(b -> b.faces.size()).collect(Collectors.toList());
+    }
+
+    private static void assertSameMesh(Mesh expected, Mesh actual) {
+        assertEquals(expected.nodes().size(), actual.nodes().size());
+        for (int i = 0; i < expected.nodes().size(); i++) {
+            assertEquals(i, actual.nodes().get(i).index());
+            assertSamePoint(expected.nodes().get(i).location(), actual.nodes().get(i).location());
+        }
+
+        assertEquals(expected.cells().size(), actual.cells().size());
+        for (int i = 0; i < expected.cells().size(); i++) {
+            Cell expectedCell = expected.cells().get(i);
+            Cell actualCell = actual.cells().get(i);
+            assertEquals(i, actualCell.index());
+            assertEquals(expectedCell.shape.volume, actualCell.shape.volume, 1e-12);
+            assertSamePoint(expectedCell.shape.centroid, actualCell.shape.centroid);
+        }
+
+        assertSameFaces(expected.internalFaces(), actual.internalFaces());
+        assertEquals(expected.boundaries().size(), actual.boundaries().size());
+        for (int i = 0; i < expected.boundaries().size(); i++) {
+            assertEquals(expected.boundaries().get(i).name, actual.boundaries().get(i).name);
+            assertSameFaces(expected.boundaries().get(i).faces, actual.boundaries().get(i).faces);
+        }
+    }
+
+    private static void assertSameFaces(List<Face> expected, List<Face> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Face expectedFace = expected.get(i);
+            Face actualFace = actual.get(i);
+            assertEquals(expectedFace.surface.area, actualFace.surface.area, 1e-12);
+            assertSamePoint(expectedFace.surface.centroid, actualFace.surface.centroid);
+            assertEquals(expectedFace.left.index(), actualFace.left.index());
+        }
+    }
+
+    private static void assertSamePoint(Point expected, Point actual) {
+        assertEquals(expected.x, actual.x, 1e-12);
+        assertEquals(expected.y, actual.y, 1e-12);
+        assertEquals(expected.z, actual.z, 1e-12);
+    }
+}
@@ -418,7 +418,7 @@ public class Unstructured2DMeshTest {
         assertPointEquals(expectedShape.centroid, actualShape.centroid);
     }
 
-    private static void assertCellEquals(Cell expectedCell, Cell actualCell) {
+    private static void assertCellEquals(Cell expectedCell, Cell actualCell, SolutionState actualState) {
         // index equal
         assertEquals(expectedCell.index(), actualCell.index());
 
@@ -442,7 +442,10 @@ public class Unstructured2DMeshTest {
         assertEquals(expectedCell.U.length, actualCell.U.length);
 
         // residual length equal
-        assertEquals(expectedCell.residual.length, actualCell.residual.length);
+        assertEquals(expectedCell.U.length, actualState.numVars);
+        double[] residual = new double[actualState.numVars];
+        assertArrayEquals(new double[expectedCell.U.length],
+                actualState.getInto(actualState.residual, actualCell, residual), 0.0);
     }
 
     private Boundary searchBoundary(Boundary query, List<Boundary> BoundaryList) {
@@ -474,7 +477,7 @@ public class Unstructured2DMeshTest {
             List<Cell> actualCells = mesh.cells();
             assertEquals(expectedCells.size(), actualCells.size());
             for (int i = 0; i < expectedCells.size(); i++) {
-                assertCellEquals(expectedCells.get(i), actualCells.get(i));
+                assertCellEquals(expectedCells.get(i), actualCells.get(i), mesh.solutionState());
             }
         } catch (FileNotFoundException e) {
             e.printStackTrace();
@@ -1,8 +1,14 @@
 package main.physics.goveqn;
 
-import main.physics.goveqn.factory.EulerEquations;
+import main.geom.Vector;
+import main.physics.goveqn.factory.*;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Random;
+
+import static main.util.DoubleArray.random;
+
 import static org.junit.Assert.*;
 
 public class GoverningEquationsTest {
@@ -19,4 +25,69 @@ public class GoverningEquationsTest {
         double[] conservativeVars = {1, 2, 3, 4, 5};
         assertArrayEquals(conservativeVars, govEqn.realVars(conservativeVars), 1e-15);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_default_behavior_of_into_variants() {
+        GoverningEquations govEqn = new VolumeFractionAdvectionEquations();
+        double[] conservativeVars = {0.5, 2, 3, 4, 0.6, 0.8, 0};
+        Vector unitNormal = new Vector(1, 2, 3).unit();
+
+        double[] actual = new double[7];
+        govEqn.primitiveVarsInto(actual, conservativeVars);
+        assertArrayEquals(govEqn.primitiveVars(conservativeVars), actual, 0.0);
+        govEqn.convection().fluxInto(actual, conservativeVars, unitNormal);
+        assertArrayEquals(govEqn.convection().flux(conservativeVars, unitNormal), actual, 0.0);
+        govEqn.convection().sortedEigenvaluesInto(actual, conservativeVars, unitNormal);
+        assertArrayEquals(govEqn.convection().sortedEigenvalues(conservativeVars, unitNormal), actual, 0.0);
+    }
+
+    @Test
+    public void into_variants_are_same_as_allocating_variants() {
+        Vector gravity = new Vector(2, -9.81, 0.5);
+        List<GoverningEquations> allGovEqn = List.of(
+                new EulerEquations(1.4, 287),
+                new ArtificialCompressibilityEquations(998, 1e-3, gravity),
+                new ArtificialCompressibilityVOFEquations(1000, 8.9e-4, 1.125, 1.983e-5, gravity, 500),
+                new GrainGrowthFanChenEquations(3, 1, 1, 1, new double[]{1, 2, 3}, new double[]{4, 5, 6}),
+                new ScalarAdvection(1, -2, 3),
+                new ScalarDiffusion(0.4));
+
+        Random rnd = new Random(23);
+        for (GoverningEquations govEqn : allGovEqn) {
+            int numVars = govEqn.numVars();
+            double[] U = random(numVars, rnd, 0.1, 1.0);
+            Vector[] gradU = new Vector[numVars];
+            for (int var = 0; var < numVars; var++) {
+                gradU[var] = new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5);
+            }
+            // Flat gradients as in SolutionState.gradientU, after the gradients of another cell
+            double[] flatGradU = new double[3 * numVars + 3 * numVars];
+            for (int var = 0, g = 3 * numVars; var < numVars; var++, g += 3) {
+                flatGradU[g] = gradU[var].x;
+                flatGradU[g + 1] = gradU[var].y;
+                flatGradU[g + 2] = gradU[var].z;
+            }
+            Vector unitNormal = new Vector(rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble()).unit();
+
+            double[] actual = new double[numVars];
+            govEqn.primitiveVarsInto(actual, U);
+            assertArrayEquals(govEqn.primitiveVars(U), actual, 0.0);
+            govEqn.conservativeVarsInto(actual, U);
+            assertArrayEquals(govEqn.conservativeVars(U), actual, 0.0);
+            govEqn.realVarsInto(actual, U);
+            assertArrayEquals(govEqn.realVars(U), actual, 0.0);
+            govEqn.convection().fluxInto(actual, U, unitNormal);
+            assertArrayEquals(govEqn.convection().flux(U, unitNormal), actual, 0.0);
+            govEqn.convection().sortedEigenvaluesInto(actual, U, unitNormal);
+            assertArrayEquals(govEqn.convection().sortedEigenvalues(U, unitNormal), actual, 0.0);
+            govEqn.diffusion().fluxInto(actual, U, gradU, unitNormal);
+            assertArrayEquals(govEqn.diffusion().flux(U, gradU, unitNormal), actual, 0.0);
+            govEqn.diffusion().fluxInto(actual, U, flatGradU, 3 * numVars, unitNormal);
+            assertArrayEquals(govEqn.diffusion().flux(U, gradU, unitNormal), actual, 0.0);
+            govEqn.source().sourceVectorInto(actual, U, gradU);
+            assertArrayEquals(govEqn.source().sourceVector(U, gradU), actual, 0.0);
+            govEqn.source().sourceVectorInto(actual, U, flatGradU, 3 * numVars);
+            assertArrayEquals(govEqn.source().sourceVector(U, gradU), actual, 0.0);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import main.physics.goveqn.GoverningEquations;
 import main.physics.goveqn.factory.EulerEquations;
 import main.physics.goveqn.factory.ScalarDiffusion;
 import main.util.DoubleArray;
+import main.util.ExecutionContext;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -163,7 +164,8 @@ public class FunctionInitializerTest {
                 .reduce(DoubleArray.zeros(1), DoubleArray::add), 1.0 / evalPoints.length);
 
         assertArrayEquals(expectedValue, mesh.cells().get(0).U, 1e-15);
-        assertArrayEquals(expectedValue, mesh.cells().get(0).Wn, 1e-15);
+        SolutionState state = mesh.solutionState();
+        assertArrayEquals(expectedValue, state.getInto(state.Wn, mesh.cells().get(0), new double[1]), 1e-15);
     }
 
     @Test
@@ -193,6 +195,12 @@ public class FunctionInitializerTest {
     private Mesh createMesh(Cell... cellArray) {
         return new Mesh() {
             private List<Cell> cells = List.of(cellArray);
+            private SolutionState solutionState = new SolutionState(cellArray.length, cellArray[0].U.length);
+            private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
+
+            {
+                setAllCellIndices();
+            }
 
             @Override
             public List<Cell> cells() {
@@ -213,6 +221,31 @@ public class FunctionInitializerTest {
             public List<Boundary> boundaries() {
                 return null;
             }
+
+            @Override
+            public SolutionState solutionState() {
+                return solutionState;
+            }
+
+            @Override
+            public Connectivity connectivity() {
+                return null;
+            }
+
+            @Override
+            public StencilRegistry stencils() {
+                return null;
+            }
+
+            @Override
+            public ExecutionContext executionContext() {
+                return executionContext;
+            }
+
+            @Override
+            public void setExecutionContext(ExecutionContext executionContext) {
+                this.executionContext = executionContext;
+            }
         };
     }
 
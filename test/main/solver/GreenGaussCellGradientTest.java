@@ -9,6 +9,7 @@ import main.mesh.factory.Structured1DMesh;
 import main.mesh.factory.Structured2DMesh;
 import main.mesh.factory.Structured3DMesh;
 import main.util.DoubleArray;
+import main.util.ExecutionContext;
 import org.junit.Test;
 
 import java.io.File;
@@ -59,7 +60,7 @@ public class GreenGaussCellGradientTest {
         CellGradientCalculator gradientCalculator = new GreenGaussCellGradient(mesh);
         gradientCalculator.setupAllCells();
 
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -109,7 +110,7 @@ public class GreenGaussCellGradientTest {
         };
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -160,7 +161,7 @@ public class GreenGaussCellGradientTest {
         };
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -211,7 +212,7 @@ public class GreenGaussCellGradientTest {
         };
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -277,7 +278,7 @@ public class GreenGaussCellGradientTest {
         };
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -331,8 +332,9 @@ public class GreenGaussCellGradientTest {
                 new Vector((4.0 - 4.0) / dx, (6 + 6) / dy, 0)
         };
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -389,8 +391,9 @@ public class GreenGaussCellGradientTest {
             DoubleArray.copy(faceU, face.U);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -453,7 +456,7 @@ public class GreenGaussCellGradientTest {
         }
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -510,8 +513,9 @@ public class GreenGaussCellGradientTest {
             DoubleArray.copy(faceU, face.U);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -568,8 +572,9 @@ public class GreenGaussCellGradientTest {
             DoubleArray.copy(faceU, face.U);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -632,8 +637,9 @@ public class GreenGaussCellGradientTest {
             expectedGradients[var] = expectedGradients[var].sub(normalGradientComponents[var]);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -713,8 +719,9 @@ public class GreenGaussCellGradientTest {
             DoubleArray.copy(faceU, face.U);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -778,8 +785,9 @@ public class GreenGaussCellGradientTest {
             DoubleArray.copy(faceU, face.U);
         }
 
-        new GreenGaussCellGradient(createMesh(cell)).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Mesh mesh = createMesh(cell);
+        new GreenGaussCellGradient(mesh).setupAllCells();
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         assertVectorEquals(expectedGradients[0], actualGradients[0], 1e-12);
@@ -888,7 +896,7 @@ public class GreenGaussCellGradientTest {
         }
 
         new GreenGaussCellGradient(mesh).setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         for (int i = 0; i < numVars; i++) {
@@ -899,6 +907,8 @@ public class GreenGaussCellGradientTest {
     private Mesh createMesh(Cell... cellArray) {
         return new Mesh() {
             private List<Cell> cells = List.of(cellArray);
+            private SolutionState solutionState = new SolutionState(cellArray.length, cellArray[0].U.length);
+            private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
             @Override
             public List<Cell> cells() {
@@ -919,6 +929,40 @@ public class GreenGaussCellGradientTest {
             public List<Boundary> boundaries() {
                 return null;
             }
+
+            @Override
+            public SolutionState solutionState() {
+                return solutionState;
+            }
+
+            @Override
+            public Connectivity connectivity() {
+                return null;
+            }
+
+            @Override
+            public StencilRegistry stencils() {
+                return null;
+            }
+
+            @Override
+            public ExecutionContext executionContext() {
+                return executionContext;
+            }
+
+            @Override
+            public void setExecutionContext(ExecutionContext executionContext) {
+                this.executionContext = executionContext;
+            }
         };
     }
+
+    private static Vector[] gradients(Mesh mesh, Cell cell) {
+        SolutionState state = mesh.solutionState();
+        Vector[] gradients = new Vector[state.numVars];
+        for (int var = 0; var < state.numVars; var++) {
+            gradients[var] = state.gradient(cell, var);
+        }
+        return gradients;
+    }
 }
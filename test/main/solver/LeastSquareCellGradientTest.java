@@ -4,6 +4,7 @@ import main.geom.Point;
 import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.mesh.factory.Structured1DMesh;
 import main.mesh.factory.Structured3DMesh;
 import main.mesh.factory.Unstructured2DMesh;
@@ -36,9 +37,10 @@ public class LeastSquareCellGradientTest {
                 .forEach(cell -> copy(new double[]{45, 78, 25, 134, -24}, cell.U));
 
         CellGradientCalculator gradientCalc = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         gradientCalc.setupAllCells();
         Cell cell = mesh.cells().get(1);
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Vector[] expectedGradients = new Vector[]{
                 new Vector(0, 0, 0), new Vector(0, 0, 0), new Vector(0, 0, 0),
@@ -72,8 +74,9 @@ public class LeastSquareCellGradientTest {
         });
 
         CellGradientCalculator gradientCalc = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         gradientCalc.setupAllCells();
-        Vector[] actualGradients = c0.gradientU;
+        Vector[] actualGradients = gradients(mesh, c0);
 
         assertEquals(expectedGradients.length, actualGradients.length);
         for (int i = 0; i < expectedGradients.length; i++) {
@@ -103,8 +106,9 @@ public class LeastSquareCellGradientTest {
         });
 
         CellGradientCalculator gradientCalc = new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         gradientCalc.setupAllCells();
-        Vector[] actualGradients = c0.gradientU;
+        Vector[] actualGradients = gradients(mesh, c0);
 
         assertEquals(expectedGradients.length, actualGradients.length);
         for (int i = 0; i < expectedGradients.length; i++) {
@@ -129,8 +133,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{18.0, 45.0, 33.0, -19.0, 49.0}, n3.U);
 
         CellGradientCalculator gradientCalc = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         gradientCalc.setupAllCells();
-        Vector[] actualGradients = c0.gradientU;
+        Vector[] actualGradients = gradients(mesh, c0);
 
         // Calculated using Maxima
         Vector[] expectedGradients = {
@@ -175,8 +180,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{2, 3, -2}, neigh2.U);
 
         LeastSquareCellGradient cellGradient = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         cellGradient.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Point p1 = neigh1.shape.centroid;
         Point p2 = cell.shape.centroid;
@@ -222,8 +228,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{2, 3, -2}, neigh2.U);
 
         LeastSquareCellGradient cellGradient = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         cellGradient.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Point p1 = neigh1.shape.centroid;
         Point p2 = cell.shape.centroid;
@@ -269,8 +276,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{2, 3, -2}, neigh2.U);
 
         LeastSquareCellGradient cellGradient = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         cellGradient.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Point p1 = neigh1.shape.centroid;
         Point p2 = cell.shape.centroid;
@@ -316,8 +324,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{2, 3, -2}, neigh2.U);
 
         LeastSquareCellGradient cellGradient = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         cellGradient.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Point p1 = neigh1.shape.centroid;
         Point p2 = cell.shape.centroid;
@@ -363,8 +372,9 @@ public class LeastSquareCellGradientTest {
         copy(new double[]{2, 3, -2}, neigh2.U);
 
         LeastSquareCellGradient cellGradient = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        mesh.solutionState().copyFromCells(mesh);
         cellGradient.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         Point p1 = neigh1.shape.centroid;
         Point p2 = cell.shape.centroid;
@@ -484,8 +494,9 @@ public class LeastSquareCellGradientTest {
         }
 
         CellGradientCalculator gradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalc);
+        mesh.solutionState().copyFromCells(mesh);
         gradientCalculator.setupAllCells();
-        Vector[] actualGradients = cell.gradientU;
+        Vector[] actualGradients = gradients(mesh, cell);
 
         assertEquals(numVars, actualGradients.length);
         for (int i = 0; i < numVars; i++) {
@@ -506,4 +517,13 @@ public class LeastSquareCellGradientTest {
 
         return n.mult(du_dr);
     }
+
+    private static Vector[] gradients(Mesh mesh, Cell cell) {
+        SolutionState state = mesh.solutionState();
+        Vector[] gradients = new Vector[state.numVars];
+        for (int var = 0; var < state.numVars; var++) {
+            gradients[var] = state.gradient(cell, var);
+        }
+        return gradients;
+    }
 }
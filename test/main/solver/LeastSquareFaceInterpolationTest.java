@@ -6,15 +6,22 @@ import main.geom.factory.Polygon;
 import main.mesh.*;
 import main.mesh.factory.Structured2DMesh;
 import main.mesh.factory.Structured3DMesh;
+import main.mesh.factory.StructuredMeshes;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.solver.diffusion.DiffusionResidual;
+import main.util.ExecutionContext;
 import org.junit.Test;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static main.util.DoubleArray.copy;
 import static main.util.TestHelper.assertVectorEquals;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 public class LeastSquareFaceInterpolationTest {
 
@@ -149,13 +156,14 @@ public class LeastSquareFaceInterpolationTest {
 
         double[] constU = new double[]{1, -3};
         mesh.cellStream().forEach(cell -> copy(constU, cell.U));
+        mesh.solutionState().copyFromCells(mesh);
 
         ls.setupAllFaces();
 
         for (Face face : centralCellFaces) {
             assertArrayEquals(constU, face.U, 1e-12);
             for (int var = 0; var < numVars; var++) {
-                assertVectorEquals(new Vector(0, 0, 0), face.gradientU[var], 1e-12);
+                assertVectorEquals(new Vector(0, 0, 0), mesh.solutionState().faceGradient(face, var), 1e-12);
             }
         }
     }
@@ -178,6 +186,7 @@ public class LeastSquareFaceInterpolationTest {
                 new Vector(2, 7, -6)
         };
         mesh.cellStream().forEach(cell -> copy(calculateValue(p0, U0, gradients, cell.shape.centroid), cell.U));
+        mesh.solutionState().copyFromCells(mesh);
 
         ls.setupAllFaces();
 
@@ -185,7 +194,7 @@ public class LeastSquareFaceInterpolationTest {
             assertArrayEquals(calculateValue(p0, U0, gradients, face.surface.centroid), face.U, 1e-12);
             for (int var = 0; var < numVars; var++) {
                 Vector expectedPlanarGradient = removeVectorComponent(gradients[var], planarNormal);
-                assertVectorEquals(expectedPlanarGradient, face.gradientU[var], 1e-12);
+                assertVectorEquals(expectedPlanarGradient, mesh.solutionState().faceGradient(face, var), 1e-12);
             }
         }
     }
@@ -207,17 +216,54 @@ public class LeastSquareFaceInterpolationTest {
                 new Vector(2, 7, -6)
         };
         mesh.cellStream().forEach(cell -> copy(calculateValue(p0, U0, gradients, cell.shape.centroid), cell.U));
+        mesh.solutionState().copyFromCells(mesh);
 
         ls.setupAllFaces();
 
         for (Face face : centralCellFaces) {
             assertArrayEquals(calculateValue(p0, U0, gradients, face.surface.centroid), face.U, 1e-12);
             for (int var = 0; var < numVars; var++) {
-                assertVectorEquals(gradients[var], face.gradientU[var], 1e-12);
+                assertVectorEquals(gradients[var], mesh.solutionState().faceGradient(face, var), 1e-12);
             }
         }
     }
 
+    @Test
+    public void face_interpolation_and_diffusion_residual_do_not_allocate() {
+        com.sun.management.ThreadMXBean threadMXBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        ArtificialCompressibilityEquations govEqn = new ArtificialCompressibilityEquations(2.0, 0.1, new Vector(0, -9.81, 0));
+        Mesh mesh = StructuredMeshes.rectangle(new Point(0, 0, 0), new Point(1, 1, 0), 6, 5, govEqn.numVars(),
+                null, null, null, null);
+        mesh.setExecutionContext(ExecutionContext.SEQUENTIAL);
+        Random rnd = new Random(29);
+        double[] U = mesh.solutionState().U;
+        for (int i = 0; i < U.length; i++) {
+            U[i] = rnd.nextDouble();
+        }
+        LeastSquareFaceInterpolation ls = new LeastSquareFaceInterpolation(mesh);
+        DiffusionResidual diffusion = new DiffusionResidual(mesh, govEqn);
+
+        for (int i = 0; i < 2_000; i++) {
+            ls.setupAllFaces();
+            diffusion.updateCellResiduals();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000; i++) {
+            ls.setupAllFaces();
+            diffusion.updateCellResiduals();
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single gradient vector per face would allocate a few megabytes
+        assertTrue("Allocated " + allocated + " bytes.", allocated < 10_000);
+    }
+
     @Test
     public void face_of_a_boundary_cannot_have_neighbors_as_ghost_cells_belonging_to_different_boundary() {
         int numVars = 2;
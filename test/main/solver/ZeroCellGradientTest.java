@@ -2,9 +2,11 @@ package main.solver;
 
 import main.geom.Vector;
 import main.mesh.*;
+import main.util.ExecutionContext;
 import main.util.TestHelper;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class ZeroCellGradientTest {
@@ -14,13 +16,16 @@ public class ZeroCellGradientTest {
         int numVars = 5;
         Cell cell1 = new Cell(null, null, null, numVars);
         Cell cell2 = new Cell(null, null, null, numVars);
+        cell1.setIndex(0);
+        cell2.setIndex(1);
         Mesh mesh = createMesh(cell1, cell2);
+        Arrays.fill(mesh.solutionState().gradientU, 1.5);
         CellGradientCalculator cellGradientCalculator = new ZeroCellGradient(mesh);
         cellGradientCalculator.setupAllCells();
 
         for (Cell cell : mesh.cells()) {
             for (int var = 0; var < numVars; var++) {
-                TestHelper.assertVectorEquals(new Vector(0, 0, 0), cell.gradientU[var], 1e-15);
+                TestHelper.assertVectorEquals(new Vector(0, 0, 0), mesh.solutionState().gradient(cell, var), 1e-15);
             }
         }
     }
@@ -28,6 +33,8 @@ public class ZeroCellGradientTest {
     private Mesh createMesh(Cell... cellArray) {
         return new Mesh() {
             private List<Cell> cells = List.of(cellArray);
+            private SolutionState solutionState = new SolutionState(cellArray.length, cellArray[0].U.length);
+            private ExecutionContext executionContext = ExecutionContext.COMMON_POOL;
 
             @Override
             public List<Cell> cells() {
@@ -48,6 +55,31 @@ public class ZeroCellGradientTest {
             public List<Boundary> boundaries() {
                 return null;
             }
+
+            @Override
+            public SolutionState solutionState() {
+                return solutionState;
+            }
+
+            @Override
+            public Connectivity connectivity() {
+                return null;
+            }
+
+            @Override
+            public StencilRegistry stencils() {
+                return null;
+            }
+
+            @Override
+            public ExecutionContext executionContext() {
+                return executionContext;
+            }
+
+            @Override
+            public void setExecutionContext(ExecutionContext executionContext) {
+                this.executionContext = executionContext;
+            }
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package main.solver.convection;
+
+import main.geom.Point;
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.StructuredMeshes;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.bc.InviscidWallBC;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.util.ExecutionContext;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class ConvectionResidualAllocationTest {
+
+    private static final int NUM_VARS = 5;
+    // The Vector API kernels allocate their vectors until C2 has compiled them
+    private static final int NUM_WARMUP_UPDATES = 20_000;
+    private static final int NUM_UPDATES = 1_000;
+
+    @Test
+    public void update_cell_residuals_does_not_allocate() {
+        com.sun.management.ThreadMXBean threadMXBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        EulerEquations govEqn = new EulerEquations(1.4, 287);
+        BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+        BoundaryCondition wall = new InviscidWallBC(govEqn);
+        Mesh mesh = StructuredMeshes.rectangle(new Point(0, 0, 0), new Point(1, 1, 0), 6, 5, NUM_VARS,
+                extrapolated, extrapolated, wall, wall);
+        mesh.setExecutionContext(ExecutionContext.SEQUENTIAL);
+        Random rnd = new Random(23);
+        for (Cell cell : mesh.cells()) {
+            double[] primVars = {1.0 + 0.1 * rnd.nextDouble(), 0.3 * rnd.nextDouble(), 0.2 * rnd.nextDouble(), 0,
+                    1.0 + 0.1 * rnd.nextDouble()};
+            System.arraycopy(govEqn.conservativeVars(primVars), 0, cell.U, 0, NUM_VARS);
+        }
+        ConvectionResidual residual = new ConvectionResidual(new PiecewiseConstantReconstructor(mesh),
+                new RusanovRiemannSolver(govEqn), mesh);
+        double[] residualArray = mesh.solutionState().residual;
+
+        for (int i = 0; i < NUM_WARMUP_UPDATES; i++) {
+            Arrays.fill(residualArray, 0.0);
+            residual.updateCellResiduals();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < NUM_UPDATES; i++) {
+            Arrays.fill(residualArray, 0.0);
+            residual.updateCellResiduals();
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single flux array per boundary face would allocate about a megabyte
+        assertTrue("Allocated " + allocated + " bytes.", allocated < 10_000);
+    }
+}
@@ -0,0 +1,69 @@
+package main.solver.convection;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.SolutionState;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.NodeBasedCellNeighbors;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.reconstructor.SolutionReconstructor;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class FaceStatesTest {
+
+    private static final int NUM_VARS = 5;
+
+    @Test
+    public void piecewise_constant_face_states() throws FileNotFoundException {
+        Mesh mesh = mesh();
+        assertSameAsReconstructor(mesh, new PiecewiseConstantReconstructor(mesh));
+    }
+
+    @Test
+    public void vk_limiter_face_states() throws FileNotFoundException {
+        Mesh mesh = mesh();
+        VKLimiterReconstructor reconstructor = new VKLimiterReconstructor(mesh,
+                new EulerEquations(1.4, 287), new NodeBasedCellNeighbors());
+        reconstructor.reconstruct();
+        assertSameAsReconstructor(mesh, reconstructor);
+    }
+
+    private static void assertSameAsReconstructor(Mesh mesh, SolutionReconstructor reconstructor) {
+        FaceStates faceStates = new FaceStates(mesh, NUM_VARS);
+        faceStates.update(reconstructor);
+
+        assertEquals(mesh.internalFaces().size(), faceStates.numFaces);
+        for (Face face : mesh.internalFaces()) {
+            double[] UL = reconstructor.conservativeVars(face.left, face.surface.centroid);
+            double[] UR = reconstructor.conservativeVars(face.right, face.surface.centroid);
+            for (int var = 0; var < NUM_VARS; var++) {
+                assertEquals(UL[var], faceStates.left[face.index() * NUM_VARS + var], 0.0);
+                assertEquals(UR[var], faceStates.right[face.index() * NUM_VARS + var], 0.0);
+            }
+        }
+    }
+
+    private static Mesh mesh() throws FileNotFoundException {
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), NUM_VARS, Map.of());
+        Random rnd = new Random(17);
+        SolutionState state = mesh.solutionState();
+        for (Cell cell : mesh.cells()) {
+            for (int var = 0; var < NUM_VARS; var++) {
+                state.U[state.offset(cell) + var] = 1.0 + rnd.nextDouble();
+                state.setGradient(cell, var, new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, 0));
+            }
+        }
+        return mesh;
+    }
+}
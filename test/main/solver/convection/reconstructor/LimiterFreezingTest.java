@@ -0,0 +1,117 @@
+package main.solver.convection.reconstructor;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.CellGradientCalculator;
+import main.solver.CellNeighborCalculator;
+import main.solver.FaceBasedCellNeighbors;
+import main.solver.LeastSquareCellGradient;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LimiterFreezingTest {
+
+    @Test
+    public void freezes_when_residual_drops_below_threshold_and_unfreezes_when_it_grows() {
+        LimiterFreezing freezing = new LimiterFreezing(1e-3, 10.0);
+        assertFalse(freezing.isFrozen());
+
+        freezing.update(new double[]{1e-2, 1e-4});
+        assertFalse(freezing.isFrozen());
+
+        freezing.update(new double[]{5e-4, 1e-4});
+        assertTrue(freezing.isFrozen());
+
+        freezing.update(new double[]{4e-3, 1e-4});
+        assertTrue(freezing.isFrozen());
+
+        freezing.update(new double[]{6e-3, 1e-4});
+        assertFalse(freezing.isFrozen());
+    }
+
+    @Test
+    public void freezes_after_number_of_iterations_counted_from_last_unfreezing() {
+        LimiterFreezing freezing = new LimiterFreezing(0.0, 3, 2.0);
+        double[] residual = {1.0};
+
+        freezing.update(residual);
+        freezing.update(residual);
+        assertFalse(freezing.isFrozen());
+        freezing.update(residual);
+        assertTrue(freezing.isFrozen());
+
+        freezing.update(new double[]{3.0});
+        assertFalse(freezing.isFrozen());
+        freezing.update(residual);
+        freezing.update(residual);
+        assertFalse(freezing.isFrozen());
+        freezing.update(residual);
+        assertTrue(freezing.isFrozen());
+    }
+
+    @Test
+    public void invalid_parameters_throw_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new LimiterFreezing(-1.0, 10.0));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new LimiterFreezing(1e-3, 0, 10.0));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new LimiterFreezing(1e-3, 0.5));
+    }
+
+    @Test
+    public void frozen_limiter_reuses_limiter_factors() throws FileNotFoundException {
+        EulerEquations govEqn = new EulerEquations(1.4, 287);
+        Mesh mesh = new Unstructured2DMesh(
+                new File("test/test_data/mesh_unstructured_2d.cfdu"), govEqn.numVars(), Map.of());
+        int numVars = govEqn.numVars();
+        Random random = new Random(11);
+        mesh.cellStream().forEach(cell -> {
+            for (int var = 0; var < numVars; var++) {
+                cell.U[var] = 1.0 + random.nextDouble();
+            }
+        });
+
+        CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
+        CellGradientCalculator cellGradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalculator);
+        LimiterFreezing freezing = new LimiterFreezing(1e-3, 10.0);
+        SolutionReconstructor reconstructor = new VKLimiterReconstructor(mesh, govEqn, neighborsCalculator, freezing);
+        cellGradientCalculator.setupAllCells();
+        reconstructor.reconstruct();
+        double[][][] coeffs = mesh.cellStream()
+                .map(cell -> copyOf(cell.reconstructCoeffs))
+                .toArray(double[][][]::new);
+
+        // Scaling the solution scales the gradients, the limited gradients scale the same way only if the
+        // limiter factors are reused
+        freezing.update(new double[]{1e-4});
+        mesh.cellStream().forEach(cell -> {
+            for (int var = 0; var < numVars; var++) {
+                cell.U[var] *= 2.0;
+            }
+        });
+        cellGradientCalculator.setupAllCells();
+        reconstructor.reconstruct();
+        for (Cell cell : mesh.cells()) {
+            for (int var = 0; var < numVars; var++) {
+                for (int i = 0; i < 3; i++) {
+                    assertEquals(2.0 * coeffs[cell.index()][var][i], cell.reconstructCoeffs[var][i], 1e-12);
+                }
+            }
+        }
+    }
+
+    private static double[][] copyOf(double[][] array) {
+        double[][] copy = new double[array.length][];
+        for (int i = 0; i < array.length; i++) {
+            copy[i] = array[i].clone();
+        }
+        return copy;
+    }
+}
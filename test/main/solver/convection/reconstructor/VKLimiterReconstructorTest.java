@@ -5,13 +5,17 @@ import main.geom.Vector;
 import main.geom.factory.Line;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.Node;
+import main.mesh.SolutionState;
 import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.Limits;
 import main.physics.goveqn.factory.EulerEquations;
 import main.solver.CellGradientCalculator;
 import main.solver.CellNeighborCalculator;
 import main.solver.FaceBasedCellNeighbors;
 import main.solver.LeastSquareCellGradient;
 import main.util.DoubleArray;
+import main.util.Util;
 import org.junit.Test;
 
 import java.io.File;
@@ -23,6 +27,7 @@ import java.util.stream.IntStream;
 
 import static main.util.DoubleArray.*;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
 
 public class VKLimiterReconstructorTest {
 
@@ -35,6 +40,7 @@ public class VKLimiterReconstructorTest {
         double[] U = {1.2, 45, 75, 18, 6546135};
         mesh.cellStream().forEach(cell -> copy(U, cell.U));
 
+        mesh.solutionState().copyFromCells(mesh);
         CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
         CellGradientCalculator cellGradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalculator);
         cellGradientCalculator.setupAllCells();
@@ -58,6 +64,41 @@ public class VKLimiterReconstructorTest {
         assertArrayEquals(U, consVars3, 1e-12);
     }
 
+    @Test
+    public void reconstruct_is_same_as_direct_evaluation_of_the_limiter() throws FileNotFoundException {
+        EulerEquations govEqn = new EulerEquations(1.4, 287);
+        int numVars = govEqn.numVars();
+        Mesh mesh = new Unstructured2DMesh(
+                new File("test/test_data/mesh_unstructured_2d.cfdu"), numVars, Map.of());
+        Random rnd = new Random(51);
+        SolutionState state = mesh.solutionState();
+        for (Cell cell : mesh.cells()) {
+            for (int var = 0; var < numVars; var++) {
+                cell.U[var] = 1.0 + rnd.nextDouble();
+                state.setGradient(cell, var, new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, 0).mult(4.0));
+            }
+        }
+        state.copyFromCells(mesh);
+
+        CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
+        SolutionReconstructor reconstructor = new VKLimiterReconstructor(mesh, govEqn, neighborsCalculator);
+        reconstructor.reconstruct();
+
+        int numLimited = 0;
+        for (Cell cell : mesh.cells()) {
+            Cell[] neighbors = neighborsCalculator.calculateFor(cell).toArray(new Cell[0]);
+            for (int var = 0; var < numVars; var++) {
+                Vector expected = limitedGradient(state.gradient(cell, var), cell, neighbors, var, govEqn.physicalLimits()[var]);
+                assertArrayEquals(new double[]{expected.x, expected.y, expected.z},
+                        cell.reconstructCoeffs[var], 0.0);
+                if (expected.mag() < state.gradient(cell, var).mag()) {
+                    numLimited++;
+                }
+            }
+        }
+        assertTrue(numLimited > 0);
+    }
+
     @Test
     public void reconstruct_evaluation_smooth_xy() throws FileNotFoundException {
         EulerEquations govEqn = new EulerEquations(1.4, 287);
@@ -94,6 +135,7 @@ public class VKLimiterReconstructorTest {
                 .mapToObj(var -> gradientsNotLimited[var].mult(Phi[var]))
                 .toArray(Vector[]::new);
 
+        mesh.solutionState().copyFromCells(mesh);
         CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
         CellGradientCalculator cellGradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalculator);
         cellGradientCalculator.setupAllCells();
@@ -155,6 +197,7 @@ public class VKLimiterReconstructorTest {
                 .mapToObj(var -> gradientsNotLimited[var].mult(Phi[var]))
                 .toArray(Vector[]::new);
 
+        mesh.solutionState().copyFromCells(mesh);
         CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
         CellGradientCalculator cellGradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalculator);
         cellGradientCalculator.setupAllCells();
@@ -216,6 +259,7 @@ public class VKLimiterReconstructorTest {
                 .mapToObj(var -> gradientsNotLimited[var].mult(Phi[var]))
                 .toArray(Vector[]::new);
 
+        mesh.solutionState().copyFromCells(mesh);
         CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
         CellGradientCalculator cellGradientCalculator = new LeastSquareCellGradient(mesh, neighborsCalculator);
         cellGradientCalculator.setupAllCells();
@@ -274,6 +318,33 @@ public class VKLimiterReconstructorTest {
         return recon;
     }
 
+    /**
+     * Venkatakrishnan limited gradient of one variable of the cell, evaluated node by node with Point and Vector
+     * objects as in the original implementation of VKLimiterReconstructor.
+     */
+    private static Vector limitedGradient(Vector gradient, Cell cell, Cell[] neighbors, int var, Limits physicalLimits) {
+        double ui = cell.U[var];
+        double uMax = ui;
+        double uMin = ui;
+        for (Cell neighbor : neighbors) {
+            double value = neighbor.U[var];
+            if (value > uMax) uMax = value;
+            if (value < uMin) uMin = value;
+        }
+        double duMax = Util.clip(uMax, physicalLimits.min, physicalLimits.max) - ui;
+        double duMin = Util.clip(uMin, physicalLimits.min, physicalLimits.max) - ui;
+
+        double phi_i = Double.POSITIVE_INFINITY;
+        for (Node node : cell.nodes) {
+            double nodeValue = ui + gradient.dot(new Vector(cell.shape.centroid, node.location()));
+            double delta = nodeValue - ui;
+            double y = delta > 0 ? duMax / delta : duMin / delta;
+            double nodePhi = delta == 0 ? 1.0 : (y * y + 2.0 * y) / (y * y + y + 2.0);
+            if (nodePhi < phi_i) phi_i = nodePhi;
+        }
+        return gradient.mult(phi_i);
+    }
+
     private static double phi(double uiMinOrMax, double ui, double uj) {
         double y = (uiMinOrMax - ui) / (uj - ui);
         return (y * y + 2.0 * y) / (y * y + y + 2.0);
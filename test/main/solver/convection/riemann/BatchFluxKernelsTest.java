@@ -0,0 +1,80 @@
+package main.solver.convection.riemann;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BatchFluxKernelsTest {
+
+    private static final int NUM_VARS = 5;
+    private static final int CAPACITY = 67;
+
+    private final BatchFluxKernels scalar = new ScalarBatchFluxKernels();
+
+    @Test
+    public void uses_vector_kernels_if_the_vector_module_is_present() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        String expected = vectorModule ? "VectorBatchFluxKernels" : "ScalarBatchFluxKernels";
+        assertEquals(expected, BatchFluxKernels.INSTANCE.getClass().getSimpleName());
+    }
+
+    @Test
+    public void rusanov_is_same_as_scalar_kernel() {
+        Random rnd = new Random(31);
+        // Sizes which are not a multiple of the vector length also use the scalar tail loop
+        for (int size = 0; size <= CAPACITY; size++) {
+            double[][] FL = random(rnd), FR = random(rnd), UL = random(rnd), UR = random(rnd);
+            double[] evL = random(rnd)[0], evR = random(rnd)[0];
+            double[] expectedEv = evL.clone();
+            double[] actualEv = evL.clone();
+            double[][] expected = new double[NUM_VARS][CAPACITY];
+            double[][] actual = new double[NUM_VARS][CAPACITY];
+
+            scalar.rusanov(expected, FL, FR, UL, UR, expectedEv, evR, NUM_VARS, size);
+            BatchFluxKernels.INSTANCE.rusanov(actual, FL, FR, UL, UR, actualEv, evR, NUM_VARS, size);
+
+            assertArrayEquals(expectedEv, actualEv, 0.0);
+            for (int var = 0; var < NUM_VARS; var++) {
+                assertArrayEquals(expected[var], actual[var], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void hll_is_same_as_scalar_kernel() {
+        Random rnd = new Random(37);
+        for (int size = 0; size <= CAPACITY; size++) {
+            double[][] FL = random(rnd), FR = random(rnd), UL = random(rnd), UR = random(rnd);
+            double[] SL = new double[CAPACITY];
+            double[] SR = new double[CAPACITY];
+            for (int k = 0; k < CAPACITY; k++) {
+                // Subsonic, supersonic to the right and supersonic to the left lanes
+                double shift = 2.0 * (k % 3) - 2.0;
+                SL[k] = shift - rnd.nextDouble();
+                SR[k] = shift + rnd.nextDouble();
+            }
+            double[][] expected = new double[NUM_VARS][CAPACITY];
+            double[][] actual = new double[NUM_VARS][CAPACITY];
+
+            scalar.hll(expected, FL, FR, UL, UR, SL, SR, NUM_VARS, size);
+            BatchFluxKernels.INSTANCE.hll(actual, FL, FR, UL, UR, SL, SR, NUM_VARS, size);
+
+            for (int var = 0; var < NUM_VARS; var++) {
+                assertArrayEquals(expected[var], actual[var], 0.0);
+            }
+        }
+    }
+
+    private static double[][] random(Random rnd) {
+        double[][] lanes = new double[NUM_VARS][CAPACITY];
+        for (double[] lane : lanes) {
+            for (int k = 0; k < CAPACITY; k++) {
+                lane[k] = 10 * (rnd.nextDouble() - 0.5);
+            }
+        }
+        return lanes;
+    }
+}
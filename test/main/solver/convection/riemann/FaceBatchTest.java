@@ -0,0 +1,126 @@
+package main.solver.convection.riemann;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Surface;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class FaceBatchTest {
+
+    @Test
+    public void rusanov_euler() {
+        GoverningEquations govEqn = new EulerEquations(1.4, 287);
+        assertSameAsFaceByFace(new RusanovRiemannSolver(govEqn), eulerStates(new Random(1), 150));
+    }
+
+    @Test
+    public void hll_euler_with_subsonic_and_supersonic_faces() {
+        GoverningEquations govEqn = new EulerEquations(1.4, 287);
+        assertSameAsFaceByFace(new HLLRiemannSolver(govEqn), eulerStates(new Random(2), 150));
+    }
+
+    @Test
+    public void rusanov_artificial_compressibility() {
+        GoverningEquations govEqn = new ArtificialCompressibilityEquations(1.2, 0.1, new Vector(0, -9.81, 0));
+        assertSameAsFaceByFace(new RusanovRiemannSolver(govEqn), randomStates(new Random(3), 4, 100));
+    }
+
+    @Test
+    public void hll_artificial_compressibility() {
+        GoverningEquations govEqn = new ArtificialCompressibilityEquations(1.2, 0.1, new Vector(0, -9.81, 0));
+        assertSameAsFaceByFace(new HLLRiemannSolver(govEqn), randomStates(new Random(4), 4, 100));
+    }
+
+    @Test
+    public void falls_back_to_face_by_face_flux_without_batch_convection() {
+        ArtificialCompressibilityVOFEquations govEqn = new ArtificialCompressibilityVOFEquations(
+                1000.0, 8.9e-4, 1.125, 1.983e-5, new Vector(-1, -5, 3.0), 500);
+        List<double[]> states = randomStates(new Random(5), 5, 50);
+        for (double[] U : states) {
+            U[4] = Math.abs(U[4]) / 100.0;
+        }
+        assertSameAsFaceByFace(new HLLRiemannSolver(govEqn), states);
+        assertSameAsFaceByFace(new HLLC_VOF_RiemannSolver(govEqn), states);
+    }
+
+    @Test
+    public void adding_to_full_batch_throws_exception() {
+        FaceBatch batch = new FaceBatch(1, 1);
+        Face face = face(new Vector(1, 0, 0), 1);
+        batch.add(face, new double[]{1}, new double[]{2});
+        TestHelper.assertThrows(IllegalStateException.class,
+                () -> batch.add(face, new double[]{1}, new double[]{2}));
+    }
+
+    private static void assertSameAsFaceByFace(RiemannSolver solver, List<double[]> states) {
+        Random rnd = new Random(11);
+        int numVars = states.get(0).length;
+        FaceBatch batch = new FaceBatch(numVars, 32);
+        int i = 0;
+        while (i + 1 < states.size()) {
+            batch.clear();
+            List<double[]> expected = new ArrayList<>();
+            while (!batch.isFull() && i + 1 < states.size()) {
+                Face face = face(new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5), numVars);
+                double[] UL = states.get(i++);
+                double[] UR = states.get(i++);
+                batch.add(face, UL, UR);
+                expected.add(solver.flux(UL, UR, face));
+            }
+
+            solver.fluxBatch(batch);
+
+            for (int k = 0; k < batch.size(); k++) {
+                for (int var = 0; var < numVars; var++) {
+                    assertEquals(expected.get(k)[var], batch.flux(var, k), 0.0);
+                }
+            }
+        }
+    }
+
+    private static Face face(Vector normal, int numVars) {
+        Surface surface = new Surface(1.0, null, normal.unit());
+        Cell leftCell = new Cell(null, null, null, numVars);
+        return new Face(null, null, surface, leftCell, null, numVars);
+    }
+
+    private static List<double[]> eulerStates(Random rnd, int count) {
+        List<double[]> states = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double rho = 0.5 + rnd.nextDouble();
+            // Some states are supersonic, so that all the branches of HLL are used
+            double speed = i % 3 == 0 ? 1000.0 : 100.0;
+            double u = speed * (rnd.nextDouble() - 0.5);
+            double v = speed * (rnd.nextDouble() - 0.5);
+            double w = speed * (rnd.nextDouble() - 0.5);
+            double p = 1e5 * (0.5 + rnd.nextDouble());
+            double rhoE = p / 0.4 + 0.5 * rho * (u * u + v * v + w * w);
+            states.add(new double[]{rho, rho * u, rho * v, rho * w, rhoE});
+        }
+        return states;
+    }
+
+    private static List<double[]> randomStates(Random rnd, int numVars, int count) {
+        List<double[]> states = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double[] U = new double[numVars];
+            for (int var = 0; var < numVars; var++) {
+                U[var] = 10 * (rnd.nextDouble() - 0.5);
+            }
+            states.add(U);
+        }
+        return states;
+    }
+}
@@ -0,0 +1,80 @@
+package main.solver.convection.riemann;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Surface;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class RiemannSolverAllocationTest {
+
+    private static final int NUM_CALLS = 100_000;
+
+    @Test
+    public void rusanov_euler() {
+        double[] UL = {1.0, 0.5, 0.1, 0.0, 2.5};
+        double[] UR = {0.8, 0.2, 0.0, 0.1, 2.0};
+        assertNoAllocation(new RusanovRiemannSolver(new EulerEquations(1.4, 287)), UL, UR);
+    }
+
+    @Test
+    public void hll_euler() {
+        double[] UL = {1.0, 0.5, 0.1, 0.0, 2.5};
+        double[] UR = {0.8, 0.2, 0.0, 0.1, 2.0};
+        assertNoAllocation(new HLLRiemannSolver(new EulerEquations(1.4, 287)), UL, UR);
+    }
+
+    @Test
+    public void hllc_artificial_compressibility() {
+        double[] UL = {1.5, -0.4, 0.2, 0.5};
+        double[] UR = {1.2, 0.3, -0.7, 0.1};
+        ArtificialCompressibilityEquations govEqn
+                = new ArtificialCompressibilityEquations(1.0, 0.01, new Vector(0, -9.81, 0));
+        assertNoAllocation(new HLLC_AC_RiemannSolver(govEqn), UL, UR);
+    }
+
+    @Test
+    public void hllc_vof() {
+        double[] UL = {120, 198, 10, 0, 0.4};
+        double[] UR = {12, 18, 320, 0, 0.5};
+        ArtificialCompressibilityVOFEquations govEqn
+                = new ArtificialCompressibilityVOFEquations(1000.0, 8.9e-4, 1.125, 1.983e-5,
+                new Vector(-1, -5, 3.0), 500);
+        assertNoAllocation(new HLLC_VOF_RiemannSolver(govEqn), UL, UR);
+    }
+
+    private static void assertNoAllocation(RiemannSolver solver, double[] UL, double[] UR) {
+        com.sun.management.ThreadMXBean threadMXBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Surface surface = new Surface(2.5, null, new Vector(3, 6, -2).unit());
+        Cell leftCell = new Cell(null, null, null, UL.length);
+        Face face = new Face(null, null, surface, leftCell, null, UL.length);
+        double[] flux = new double[UL.length];
+
+        // Same flux as the allocating variant
+        solver.fluxInto(flux, UL, UR, face);
+        assertArrayEquals(solver.flux(UL, UR, face), flux, 0.0);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < NUM_CALLS; i++) {
+            solver.fluxInto(flux, UL, UR, face);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single array per call would allocate several megabytes
+        assertTrue("Allocated " + allocated + " bytes.", allocated < 10_000);
+    }
+}
@@ -0,0 +1,26 @@
+package main.solver.metrics;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvSinkTest {
+
+    @Test
+    public void writes_header_and_one_line_per_iteration() throws Exception {
+        StringWriter writer = new StringWriter();
+        try (CsvSink sink = new CsvSink(writer)) {
+            sink.iterationCompleted(RingBufferSinkTest.metrics(1));
+            sink.iterationCompleted(RingBufferSinkTest.metrics(2));
+        }
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("iteration,residual0,residual1,min_dt,max_dt,mean_dt,courant_num,wall_time," +
+                "cell_updates_per_second,caller_thread_allocation_rate,gc_time", lines[0]);
+        assertEquals("1,1.0,2.0,0.1,0.3,0.2,0.8,0.500000000,2000.0,1024.0,0.000", lines[1]);
+        assertEquals("2,0.5,1.0,0.1,0.3,0.2,0.8,0.500000000,2000.0,1024.0,0.000", lines[2]);
+    }
+}
@@ -0,0 +1,48 @@
+package main.solver.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JfrSinkTest {
+
+    /**
+     * Iteration of the recorded event, which no other test uses. The dump may contain events recorded by other
+     * tests running in the same JVM, so the events are filtered by it.
+     */
+    private static final long ITERATION = 4_271_903;
+
+    @Test
+    public void iteration_event_is_recorded() throws Exception {
+        assertTrue(JfrSink.isAvailable());
+        IterationListener sink = JfrSink.create().orElseThrow();
+        File file = File.createTempFile("iterations", ".jfr");
+        file.deleteOnExit();
+
+        try (Recording recording = new Recording()) {
+            recording.enable("cfdsolver.IterationMetrics");
+            recording.start();
+            sink.iterationCompleted(RingBufferSinkTest.metrics(ITERATION));
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath()).stream()
+                .filter(e -> e.getEventType().getName().equals("cfdsolver.IterationMetrics"))
+                .filter(e -> e.getLong("iteration") == ITERATION)
+                .collect(Collectors.toList());
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(ITERATION, event.getLong("iteration"));
+        assertEquals(2.0 / ITERATION, event.getDouble("maxResidual"), 0.0);
+        assertEquals(0.8, event.getDouble("courantNum"), 0.0);
+    }
+}
@@ -0,0 +1,47 @@
+package main.solver.metrics;
+
+import main.util.TestHelper;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class RingBufferSinkTest {
+
+    @Test
+    public void keeps_last_iterations_oldest_first() {
+        RingBufferSink sink = new RingBufferSink(3);
+        assertFalse(sink.latest().isPresent());
+
+        for (int i = 1; i <= 5; i++) {
+            sink.iterationCompleted(metrics(i));
+        }
+
+        List<Long> iterations = sink.snapshot().stream().map(m -> m.iteration).collect(Collectors.toList());
+        assertEquals(List.of(3L, 4L, 5L), iterations);
+        assertEquals(5, sink.latest().orElseThrow().iteration);
+        assertEquals(5, sink.count());
+    }
+
+    @Test
+    public void snapshot_of_partially_filled_buffer() {
+        RingBufferSink sink = new RingBufferSink(10);
+        sink.iterationCompleted(metrics(1));
+        sink.iterationCompleted(metrics(2));
+
+        assertEquals(2, sink.snapshot().size());
+        assertEquals(1, sink.snapshot().get(0).iteration);
+    }
+
+    @Test
+    public void invalid_capacity_throws_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new RingBufferSink(0));
+    }
+
+    static IterationMetrics metrics(long iteration) {
+        return new IterationMetrics(iteration, new double[]{1.0 / iteration, 2.0 / iteration},
+                0.1, 0.3, 0.2, 0.8, 0.5, 2000.0, 1024.0, 0.0);
+    }
+}
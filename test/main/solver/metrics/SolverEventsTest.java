@@ -0,0 +1,97 @@
+package main.solver.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SolverEventsTest {
+
+    @Test
+    public void events_carry_iteration_residual_and_cells() throws Exception {
+        List<RecordedEvent> events = record(new Recording(profile()), 12);
+
+        assertEquals(List.of("cfdsolver.Residual", "cfdsolver.UpdateCellAverages", "cfdsolver.RealTimeStep",
+                "cfdsolver.Output"), events.stream()
+                .map(e -> e.getEventType().getName())
+                .collect(Collectors.toList()));
+
+        RecordedEvent residual = events.get(0);
+        assertEquals("ConvectionResidual", residual.getString("calculator"));
+        assertEquals(7, residual.getLong("iteration"));
+        assertEquals(0.25, residual.getDouble("residual"), 0.0);
+        assertEquals(12, residual.getInt("numCells"));
+
+        RecordedEvent iteration = events.get(1);
+        assertEquals(7, iteration.getLong("iteration"));
+        assertFalse(iteration.getEndTime().isBefore(residual.getEndTime()));
+
+        RecordedEvent realTimeStep = events.get(2);
+        assertEquals(3, realTimeStep.getLong("step"));
+        assertEquals(0.1, realTimeStep.getDouble("dt"), 0.0);
+        assertEquals(7, realTimeStep.getLong("iteration"));
+
+        RecordedEvent output = events.get(3);
+        assertEquals("solution.vtu", output.getString("file"));
+        assertEquals(0.25, output.getDouble("residual"), 0.0);
+    }
+
+    @Test
+    public void disabled_events_are_not_recorded() throws Exception {
+        Recording recording = new Recording();
+        recording.enable("cfdsolver.Output");
+
+        List<RecordedEvent> events = record(recording, 5);
+
+        assertEquals(1, events.size());
+        assertEquals("cfdsolver.Output", events.get(0).getEventType().getName());
+    }
+
+    /**
+     * Recordings share the chunks of the JVM, so the events are told apart by the number of cells.
+     */
+    @SuppressWarnings("try")
+    private static List<RecordedEvent> record(Recording recording, int numCells) throws Exception {
+        File file = File.createTempFile("solver_events", ".jfr");
+        file.deleteOnExit();
+
+        try (recording) {
+            recording.start();
+            try (SolverEvents.Scope event = SolverEvents.updateCellAverages(7, 0.25, numCells)) {
+                try (SolverEvents.Scope residual = SolverEvents.residual("ConvectionResidual", numCells)) {
+                    Thread.sleep(1);
+                }
+            }
+            try (SolverEvents.Scope event = SolverEvents.realTimeStep(3, 0.1, numCells)) {
+                Thread.sleep(1);
+            }
+            try (SolverEvents.Scope event = SolverEvents.output("solution.vtu", numCells)) {
+                Thread.sleep(1);
+            }
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        return RecordingFile.readAllEvents(file.toPath()).stream()
+                .filter(e -> e.getEventType().getName().startsWith("cfdsolver."))
+                .filter(e -> e.getInt("numCells") == numCells)
+                .collect(Collectors.toList());
+    }
+
+    private static Configuration profile() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                SolverEvents.class.getResourceAsStream("cfdsolver.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import main.geom.Point;
 import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.SolutionState;
 import main.mesh.factory.Structured2DMesh;
 import main.physics.goveqn.*;
 import org.junit.Assert;
@@ -18,15 +19,16 @@ public class SourceResidualTest {
         GoverningEquations govEqn = createGovEqn();
         Mesh mesh = create2DMesh(20, 30, govEqn);
 
-        // set up cell U and gradientU
+        // set up U and gradientU of the cells
+        SolutionState state = mesh.solutionState();
         for (Cell cell : mesh.cells()) {
             for (int var = 0; var < govEqn.numVars(); var++) {
                 Point p = cell.shape.centroid;
                 double avgVal = p.x * 2 + p.y * p.x + p.z * (5.0 + var * 2.1);
                 Vector gradVal = new Vector(4.5 * p.x, 7.5 * p.y, 8.3 * p.x + 7 * p.z + var);
 
-                cell.U[var] = avgVal;
-                cell.gradientU[var] = gradVal;
+                state.U[state.offset(cell) + var] = avgVal;
+                state.setGradient(cell, var, gradVal);
             }
         }
 
@@ -34,12 +36,17 @@ public class SourceResidualTest {
         sourceResidual.updateCellResiduals();
 
         for (Cell cell : mesh.cells()) {
+            double[] U = state.getInto(state.U, cell, new double[govEqn.numVars()]);
+            Vector[] gradientU = new Vector[govEqn.numVars()];
+            for (int var = 0; var < govEqn.numVars(); var++) {
+                gradientU[var] = state.gradient(cell, var);
+            }
             double[] expectedSource = new double[govEqn.numVars()];
             for (int i = 0; i < expectedSource.length; i++) {
-                expectedSource[i] = -test_source(cell.U, cell.gradientU)[i] * cell.shape.volume;
+                expectedSource[i] = -test_source(U, gradientU)[i] * cell.shape.volume;
             }
 
-            Assert.assertArrayEquals(expectedSource, cell.residual, 1e-15);
+            Assert.assertArrayEquals(expectedSource, state.getInto(state.residual, cell, new double[govEqn.numVars()]), 1e-15);
         }
     }
 
@@ -8,18 +8,26 @@ import main.physics.bc.BoundaryCondition;
 import main.physics.bc.ExtrapolatedBC;
 import main.physics.goveqn.*;
 import main.solver.*;
+import main.solver.metrics.IterationMetrics;
+import main.solver.metrics.RingBufferSink;
 import main.solver.source.SourceResidual;
 import main.util.DoubleArray;
+import main.util.ExecutionContext;
+import main.util.PhaseTimers;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static main.util.DoubleArray.*;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ExplicitSSPRK3TimeIntegratorTest {
 
@@ -92,6 +100,153 @@ public class ExplicitSSPRK3TimeIntegratorTest {
         assertArrayEquals(totalResidual, timeIntegrator.currentTotalResidual(Norm.ONE_NORM), 1e-15);
     }
 
+    @Test
+    public void fused_residual_norms_are_same_as_separate_pass() throws Exception {
+        GoverningEquations govEqn = createGovEqn();
+        double[] Un = {0.4, 78.5};
+        double[][] residuals = new double[2][];
+
+        for (int i = 0; i < 2; i++) {
+            Mesh mesh = createMesh(govEqn);
+            SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                    new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                    List.of(new SourceResidual(mesh, govEqn))
+            );
+            TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh,
+                    spaceDiscretization,
+                    new LocalTimeStep(mesh, govEqn),
+                    govEqn.numVars());
+            timeIntegrator.setCourantNum(0.8);
+            timeIntegrator.setFusedResidualNorms(i == 1);
+
+            copy(Un, mesh.cells().get(0).U);
+            timeIntegrator.updateCellAverages();
+            residuals[i] = timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+        }
+
+        assertArrayEquals(residuals[0], residuals[1], 0.0);
+    }
+
+    @Test
+    public void worker_team_gives_same_result_as_common_pool() throws Exception {
+        GoverningEquations govEqn = createGovEqn();
+        double[] Un = {0.4, 78.5};
+        ExecutionContext team = ExecutionContext.team(3);
+        double[][] residuals = new double[2][];
+        double[][] U = new double[2][];
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                Mesh mesh = createMesh(govEqn);
+                mesh.setExecutionContext(i == 0 ? ExecutionContext.COMMON_POOL : team);
+                SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                        new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                        List.of(new SourceResidual(mesh, govEqn))
+                );
+                TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh,
+                        spaceDiscretization,
+                        new LocalTimeStep(mesh, govEqn),
+                        govEqn.numVars());
+                timeIntegrator.setCourantNum(0.8);
+
+                copy(Un, mesh.cells().get(0).U);
+                timeIntegrator.updateCellAverages();
+                residuals[i] = timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+                U[i] = mesh.cells().get(0).U.clone();
+            }
+        } finally {
+            team.shutdown();
+        }
+
+        assertArrayEquals(residuals[0], residuals[1], 0.0);
+        assertArrayEquals(U[0], U[1], 0.0);
+    }
+
+    @Test
+    public void phase_timers_count_calls_of_each_phase() throws Exception {
+        GoverningEquations govEqn = createGovEqn();
+        Mesh mesh = createMesh(govEqn);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                List.of(new SourceResidual(mesh, govEqn))
+        );
+        TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh,
+                spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn),
+                govEqn.numVars());
+
+        timeIntegrator.updateCellAverages();
+        timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+
+        PhaseTimers timers = timeIntegrator.phaseTimers();
+        assertSame(spaceDiscretization.phaseTimers(), timers);
+        Map<String, Long> calls = timers.timers().stream()
+                .collect(Collectors.toMap(timer -> timer.name, PhaseTimers.Timer::calls));
+        assertEquals(Map.of("ghost cells", 3L, "face interpolation", 3L, "cell gradients", 3L,
+                "SourceResidual", 3L, "time step", 1L, "stage update", 3L, "total residual", 1L), calls);
+    }
+
+    @Test
+    public void phase_timers_report_schedule_of_adaptive_context() throws Exception {
+        GoverningEquations govEqn = createGovEqn();
+        Mesh mesh = createMesh(govEqn);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                List.of(new SourceResidual(mesh, govEqn))
+        );
+        TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh,
+                spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn),
+                govEqn.numVars());
+
+        timeIntegrator.updateCellAverages();
+        assertEquals("", timeIntegrator.phaseTimers().scheduleReport());
+
+        mesh.setExecutionContext(ExecutionContext.adaptive(ExecutionContext.SEQUENTIAL));
+        timeIntegrator.updateCellAverages();
+        assertTrue(timeIntegrator.phaseTimers().scheduleReport().contains("stage update"));
+        assertTrue(timeIntegrator.phaseTimers().json().contains("\"schedule\""));
+    }
+
+    @Test
+    public void iteration_listener_receives_metrics_of_each_iteration() throws Exception {
+        GoverningEquations govEqn = createGovEqn();
+        Mesh mesh = createMesh(govEqn);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                List.of(new SourceResidual(mesh, govEqn))
+        );
+        TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh,
+                spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn),
+                govEqn.numVars());
+        timeIntegrator.setCourantNum(0.8);
+        RingBufferSink sink = new RingBufferSink(10);
+        timeIntegrator.addIterationListener(sink);
+
+        copy(new double[]{0.4, 78.5}, mesh.cells().get(0).U);
+        double[][] residuals = new double[2][];
+        for (int i = 0; i < 2; i++) {
+            timeIntegrator.updateCellAverages();
+            residuals[i] = timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+            timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+        }
+
+        List<IterationMetrics> metrics = sink.snapshot();
+        assertEquals(2, metrics.size());
+        double dt = mesh.cells().get(0).dt;
+        for (int i = 0; i < 2; i++) {
+            IterationMetrics m = metrics.get(i);
+            assertEquals(i + 1, m.iteration);
+            assertArrayEquals(residuals[i], m.residual, 0.0);
+            assertTrue(m.wallTime > 0);
+            assertTrue(m.cellUpdatesPerSecond > 0);
+        }
+        assertEquals(dt, metrics.get(1).minTimeStep, 0.0);
+        assertEquals(dt, metrics.get(1).maxTimeStep, 0.0);
+        assertEquals(dt, metrics.get(1).meanTimeStep, 0.0);
+    }
+
     private GoverningEquations createGovEqn() {
         return new GoverningEquations() {
             @Override
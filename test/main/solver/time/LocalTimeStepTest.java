@@ -51,6 +51,18 @@ public class LocalTimeStepTest {
         }
     }
 
+    @Test
+    public void effectiveCourantNumber_is_reduced_by_time_step_limit() throws IOException {
+        Mesh mesh = mesh();
+        TimeStep timeStep = new LocalTimeStep(mesh, convectiveGovEqn);
+        timeStep.updateCellTimeSteps(courantNumber, Double.POSITIVE_INFINITY);
+        assertEquals(courantNumber, timeStep.effectiveCourantNum(), 1e-12);
+
+        double minTimeStep = mesh.cells().stream().mapToDouble(cell -> cell.dt).min().orElseThrow();
+        timeStep.updateCellTimeSteps(courantNumber, minTimeStep / 2);
+        assertEquals(courantNumber / 2, timeStep.effectiveCourantNum(), 1e-12);
+    }
+
     private double expectedTimeStepWithOnlyConvection(double volume, List<Face> faces) {
         double denominator = faces.stream()
                 .mapToDouble(f -> f.surface.area)
@@ -0,0 +1,92 @@
+package main.solver.time;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.SolutionState;
+import main.mesh.factory.Unstructured2DMesh;
+import main.solver.Norm;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class ResidualNormsTest {
+
+    @Test
+    public void norms_are_same_as_separate_calculation_for_each_norm() throws FileNotFoundException {
+        int numVars = 3;
+        Mesh mesh = new Unstructured2DMesh(new File("test/test_data/mesh_unstructured_2d.cfdu"), numVars, Map.of());
+        SolutionState state = mesh.solutionState();
+        Random random = new Random(17);
+        for (Cell cell : mesh.cells()) {
+            for (int var = 0; var < numVars; var++) {
+                cell.U[var] = random.nextDouble() - 0.5;
+                state.U0[state.offset(cell) + var] = random.nextDouble() - 0.5;
+            }
+            cell.dt = 0.1 + random.nextDouble();
+        }
+        // variable with zero magnitude is not normalized
+        for (Cell cell : mesh.cells()) {
+            cell.U[2] = 0.0;
+        }
+        state.copyFromCells(mesh);
+
+        int numCells = mesh.cells().size();
+        double[] oneNorm = new double[numVars];
+        double[] twoNormSum = new double[numVars];
+        double[] infinityNorm = new double[numVars];
+        double[] magnitude = new double[numVars];
+        for (Cell cell : mesh.cells()) {
+            for (int var = 0; var < numVars; var++) {
+                double r = Math.abs((cell.U[var] - state.U0[state.offset(cell) + var]) / cell.dt);
+                oneNorm[var] += r / numCells;
+                twoNormSum[var] += r * r;
+                infinityNorm[var] = Math.max(infinityNorm[var], r);
+                magnitude[var] += Math.abs(cell.U[var]) / numCells;
+            }
+        }
+        magnitude[2] = 1.0;
+        double[] twoNorm = new double[numVars];
+        double[] rootMeanSquare = new double[numVars];
+        for (int var = 0; var < numVars; var++) {
+            twoNorm[var] = Math.sqrt(twoNormSum[var]) / numCells / magnitude[var];
+            rootMeanSquare[var] = Math.sqrt(twoNormSum[var] / numCells) / magnitude[var];
+            oneNorm[var] /= magnitude[var];
+            infinityNorm[var] /= magnitude[var];
+        }
+
+        ResidualNorms norms = new ResidualNorms(mesh, numVars);
+        norms.calculate();
+        double[] actual = new double[numVars];
+
+        norms.totalResidualInto(actual, Norm.ONE_NORM, false);
+        assertArrayEquals(oneNorm, actual, 1e-12);
+
+        norms.totalResidualInto(actual, Norm.TWO_NORM, false);
+        assertArrayEquals(twoNorm, actual, 1e-12);
+
+        norms.totalResidualInto(actual, Norm.TWO_NORM, true);
+        assertArrayEquals(rootMeanSquare, actual, 1e-12);
+
+        norms.totalResidualInto(actual, Norm.INFINITY_NORM, false);
+        assertArrayEquals(infinityNorm, actual, 1e-12);
+
+        // accumulators are reset for the next calculation
+        norms.calculate();
+        norms.totalResidualInto(actual, Norm.ONE_NORM, false);
+        assertArrayEquals(oneNorm, actual, 1e-12);
+
+        // per thread accumulators
+        norms.setDeterministic(false);
+        norms.calculate();
+        norms.totalResidualInto(actual, Norm.TWO_NORM, true);
+        assertArrayEquals(rootMeanSquare, actual, 1e-12);
+        norms.calculate();
+        norms.totalResidualInto(actual, Norm.INFINITY_NORM, false);
+        assertArrayEquals(infinityNorm, actual, 1e-12);
+    }
+}
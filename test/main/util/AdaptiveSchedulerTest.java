@@ -0,0 +1,182 @@
+package main.util;
+
+import main.util.AdaptiveScheduler.Mode;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveSchedulerTest {
+
+    @Test
+    public void all_indices_are_visited_once_while_measuring_and_after_decision() {
+        ExecutionContext context = ExecutionContext.adaptive(ExecutionContext.COMMON_POOL);
+        AdaptiveScheduler scheduler = context.scheduler().orElseThrow();
+
+        for (int call = 0; call < 50; call++) {
+            AtomicIntegerArray visits = new AtomicIntegerArray(500);
+            context.forEach("phase", 0, 500, visits::incrementAndGet);
+            for (int i = 0; i < 500; i++) {
+                assertEquals(1, visits.get(i));
+            }
+        }
+        assertTrue(scheduler.decision("phase").isPresent());
+    }
+
+    @Test
+    public void decision_is_made_after_warmup_and_trials() {
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(ExecutionContext.COMMON_POOL, 2, 1);
+
+        scheduler.forEach("phase", 0, 10, i -> {
+        });
+        scheduler.forEach("phase", 0, 10, i -> {
+        });
+        assertFalse(scheduler.decision("phase").isPresent());
+        assertFalse(scheduler.decision("unknown").isPresent());
+
+        int calls = 0;
+        while (!scheduler.decision("phase").isPresent() && calls < 100) {
+            scheduler.forEach("phase", 0, 10, i -> {
+            });
+            calls++;
+        }
+        assertTrue(scheduler.decision("phase").isPresent());
+    }
+
+    @Test
+    public void slow_worker_threads_select_sequential_mode() {
+        Thread caller = Thread.currentThread();
+        ExecutionContext threads = ExecutionContext.fixedThreads(2);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(threads.withGrainSize(1), 0, 2);
+        try {
+            for (int call = 0; call < 100 && !scheduler.decision("slow").isPresent(); call++) {
+                scheduler.forEach("slow", 0, 4, i -> {
+                    if (Thread.currentThread() != caller) {
+                        sleep();
+                    }
+                });
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        assertEquals(Mode.SEQUENTIAL, scheduler.decision("slow").orElseThrow());
+    }
+
+    @Test
+    public void phases_of_different_sizes_are_decided_independently() {
+        Thread caller = Thread.currentThread();
+        ExecutionContext team = ExecutionContext.team(2);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(team, 0, 2);
+        try {
+            for (int call = 0; call < 100 && !(scheduler.decision("slow workers").isPresent()
+                    && scheduler.decision("slow caller").isPresent()); call++) {
+                scheduler.forEach("slow workers", 0, 4, i -> {
+                    if (Thread.currentThread() != caller) {
+                        sleep();
+                    }
+                });
+                scheduler.forEach("slow caller", 0, 8, i -> {
+                    if (Thread.currentThread() == caller) {
+                        sleep();
+                    }
+                });
+            }
+        } finally {
+            team.shutdown();
+        }
+
+        assertEquals(Mode.SEQUENTIAL, scheduler.decision("slow workers").orElseThrow());
+        assertNotEquals(Mode.SEQUENTIAL, scheduler.decision("slow caller").orElseThrow());
+        String report = scheduler.report();
+        assertTrue(report.matches("(?s).*slow workers +\\d+ +4\\.0 .*"));
+        assertTrue(report.matches("(?s).*slow caller +\\d+ +8\\.0 .*"));
+    }
+
+    @Test
+    public void team_base_does_not_measure_chunked_mode() {
+        ExecutionContext team = ExecutionContext.team(2);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(team, 0, 2);
+        try {
+            for (int call = 0; call < 100 && !scheduler.decision("phase").isPresent(); call++) {
+                scheduler.forEach("phase", 0, 100, i -> {
+                });
+            }
+        } finally {
+            team.shutdown();
+        }
+
+        assertEquals(List.of(Mode.SEQUENTIAL, Mode.PARALLEL), scheduler.candidateModes());
+        assertNotEquals(Mode.CHUNKED, scheduler.decision("phase").orElseThrow());
+        AdaptiveScheduler.PhaseReport report = scheduler.phaseReports().get(0);
+        assertTrue(Double.isNaN(report.nsPerIndex(Mode.CHUNKED)));
+        assertFalse(Double.isNaN(report.nsPerIndex(Mode.PARALLEL)));
+        assertEquals(List.of(Mode.values()),
+                new AdaptiveScheduler(ExecutionContext.COMMON_POOL).candidateModes());
+    }
+
+    @Test
+    public void csv_has_one_line_per_phase() {
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(ExecutionContext.SEQUENTIAL, 0, 1);
+        for (int call = 0; call < 100 && !scheduler.decision("decided").isPresent(); call++) {
+            scheduler.forEach("decided", 0, 10, i -> {
+            });
+        }
+        scheduler.forEach("measuring", 0, 0, i -> {
+        });
+
+        String[] lines = scheduler.csv().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("phase,calls,mean_size,sequential_ns_per_index,chunked_ns_per_index,parallel_ns_per_index,mode",
+                lines[0]);
+        assertTrue(lines[1].startsWith("decided,"));
+        assertTrue(lines[1].endsWith(",SEQUENTIAL") || lines[1].endsWith(",CHUNKED")
+                || lines[1].endsWith(",PARALLEL"));
+        assertEquals("measuring,1,0.0,,,,", lines[2]);
+    }
+
+    @Test
+    public void report_lists_phases_in_order_of_first_call() {
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(ExecutionContext.SEQUENTIAL, 0, 1);
+        scheduler.forEach("first phase", 0, 10, i -> {
+        });
+        scheduler.forEach("second phase", 0, 10, i -> {
+        });
+
+        String report = scheduler.report();
+        assertTrue(report.indexOf("first phase") > 0);
+        assertTrue(report.indexOf("second phase") > report.indexOf("first phase"));
+        assertTrue(report.contains("measuring"));
+    }
+
+    @Test
+    public void unnamed_loops_are_not_scheduled() {
+        ExecutionContext context = ExecutionContext.adaptive(ExecutionContext.SEQUENTIAL);
+        context.forEach(0, 10, i -> {
+        });
+        context.forEach(null, 0, 10, i -> {
+        });
+
+        assertEquals(1, context.scheduler().orElseThrow().report().split("\n").length);
+        assertFalse(ExecutionContext.COMMON_POOL.scheduler().isPresent());
+    }
+
+    @Test
+    public void invalid_arguments_throw_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new AdaptiveScheduler(null));
+        TestHelper.assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveScheduler(ExecutionContext.SEQUENTIAL, -1, 1));
+        TestHelper.assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveScheduler(ExecutionContext.SEQUENTIAL, 0, 0));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
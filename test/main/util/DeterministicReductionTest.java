@@ -0,0 +1,98 @@
+package main.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeterministicReductionTest {
+
+    @Test
+    public void sum_is_bitwise_identical_for_any_number_of_threads() throws Exception {
+        double[] values = randomValues(100_000);
+        DeterministicReduction reduction = new DeterministicReduction(values.length, 1, 1000);
+
+        double sequential = sumOnPool(reduction, values, 1);
+        for (int numThreads : new int[]{2, 3, 8}) {
+            assertEquals(Double.doubleToRawLongBits(sequential),
+                    Double.doubleToRawLongBits(sumOnPool(reduction, values, numThreads)));
+        }
+    }
+
+    @Test
+    public void partial_results_are_combined_in_fixed_tree() {
+        double[] values = randomValues(10_000);
+        int chunkSize = 700;
+        DeterministicReduction reduction = new DeterministicReduction(values.length, 1, chunkSize);
+        assertEquals(15, reduction.numChunks());
+
+        // Same chunks and same tree, sequentially
+        double[] partials = new double[reduction.numChunks()];
+        for (int i = 0; i < values.length; i++) {
+            partials[i / chunkSize] += values[i];
+        }
+        for (int stride = 1; stride < partials.length; stride *= 2) {
+            for (int c = 0; c + stride < partials.length; c += 2 * stride) {
+                partials[c] += partials[c + stride];
+            }
+        }
+
+        assertEquals(partials[0], reduction.reduce(sum(values))[0], 0.0);
+    }
+
+    @Test
+    public void empty_range_gives_identity() {
+        DeterministicReduction reduction = new DeterministicReduction(0, 1);
+
+        assertEquals(0.0, reduction.reduce(sum(new double[0]))[0], 0.0);
+    }
+
+    @Test
+    public void invalid_parameters_throw_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new DeterministicReduction(-1, 1));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new DeterministicReduction(10, 0));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new DeterministicReduction(10, 1, 0));
+    }
+
+    private static double sumOnPool(DeterministicReduction reduction, double[] values, int numThreads)
+            throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            return pool.submit(() -> reduction.reduce(sum(values))[0]).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static DeterministicReduction.Operation sum(double[] values) {
+        return new DeterministicReduction.Operation() {
+            @Override
+            public void identity(double[] partials, int offset) {
+                partials[offset] = 0.0;
+            }
+
+            @Override
+            public void accumulate(int from, int to, double[] partials, int offset) {
+                for (int i = from; i < to; i++) {
+                    partials[offset] += values[i];
+                }
+            }
+
+            @Override
+            public void combine(double[] partials, int into, int from) {
+                partials[into] += partials[from];
+            }
+        };
+    }
+
+    private static double[] randomValues(int n) {
+        Random random = new Random(23);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.exp(20 * random.nextDouble()) * (random.nextBoolean() ? 1 : -1);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,88 @@
+package main.util;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ExecutionContextTest {
+
+    @Test
+    public void all_indices_are_visited_once() {
+        List<ExecutionContext> contexts = List.of(ExecutionContext.COMMON_POOL, ExecutionContext.SEQUENTIAL,
+                ExecutionContext.COMMON_POOL.withGrainSize(1), ExecutionContext.COMMON_POOL.withGrainSize(7));
+        for (ExecutionContext context : contexts) {
+            AtomicIntegerArray visits = new AtomicIntegerArray(1000);
+            context.forEach(10, 1000, visits::incrementAndGet);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i < 10 ? 0 : 1, visits.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void sequential_context_runs_in_calling_thread_in_order() {
+        Thread caller = Thread.currentThread();
+        List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        int[] next = {0};
+
+        ExecutionContext.SEQUENTIAL.forEach(items, i -> {
+            assertSame(caller, Thread.currentThread());
+            assertEquals(next[0]++, (int) i);
+        });
+        assertEquals(100, next[0]);
+    }
+
+    @Test
+    public void dedicated_pool_runs_in_its_own_threads() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ExecutionContext context = ExecutionContext.pool(pool).withGrainSize(1);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            context.forEach(0, 1000, i -> threads.add(Thread.currentThread()));
+
+            assertEquals(3, context.parallelism());
+            for (Thread thread : threads) {
+                assertTrue(thread instanceof ForkJoinWorkerThread);
+                assertSame(pool, ((ForkJoinWorkerThread) thread).getPool());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void nested_loops_run_in_same_pool() {
+        ExecutionContext context = ExecutionContext.fixedThreads(2);
+        try {
+            AtomicIntegerArray visits = new AtomicIntegerArray(100);
+            context.forEach(0, 10, i -> context.forEach(10 * i, 10 * i + 10, visits::incrementAndGet));
+            for (int i = 0; i < 100; i++) {
+                assertEquals(1, visits.get(i));
+            }
+        } finally {
+            context.shutdown();
+        }
+    }
+
+    @Test
+    public void one_thread_is_sequential() {
+        assertTrue(ExecutionContext.fixedThreads(1).isSequential());
+        assertEquals(1, ExecutionContext.SEQUENTIAL.parallelism());
+    }
+
+    @Test
+    public void invalid_arguments_throw_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> ExecutionContext.fixedThreads(0));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> ExecutionContext.pool(null));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> ExecutionContext.SEQUENTIAL.withGrainSize(-1));
+    }
+}
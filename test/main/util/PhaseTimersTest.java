@@ -0,0 +1,107 @@
+package main.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PhaseTimersTest {
+
+    @Test
+    public void timer_accumulates_calls_items_and_time() throws Exception {
+        PhaseTimers timers = new PhaseTimers();
+        PhaseTimers.Timer timer = timers.timer("phase", "cells");
+
+        for (int i = 0; i < 3; i++) {
+            timer.start();
+            Thread.sleep(1);
+            timer.stop(100);
+        }
+
+        assertEquals(3, timer.calls());
+        assertTrue(timer.seconds() >= 3e-3);
+        assertEquals(300 / timer.seconds(), timer.itemsPerSecond(), 1e-6);
+        assertSame(timer, timers.timer("phase", "faces"));
+    }
+
+    @Test
+    public void caller_thread_allocated_bytes_are_measured() {
+        PhaseTimers timers = new PhaseTimers();
+        PhaseTimers.Timer timer = timers.timer("phase", "cells");
+
+        timer.start();
+        double[] array = new double[100_000];
+        timer.stop(array.length);
+
+        if (timer.callerThreadAllocatedBytes() != -1) {
+            assertTrue(timer.callerThreadAllocatedBytes() >= 8 * 100_000);
+        }
+        timers.setAllocationTracking(false);
+        assertEquals(-1, timer.callerThreadAllocatedBytes());
+    }
+
+    @Test
+    public void disabled_timers_and_reset_timers_are_zero() {
+        PhaseTimers timers = new PhaseTimers();
+        PhaseTimers.Timer timer = timers.timer("phase", "cells");
+        timer.start();
+        timer.stop(10);
+
+        timers.reset();
+        timers.setEnabled(false);
+        timer.start();
+        timer.stop(10);
+
+        assertEquals(0, timer.calls());
+        assertEquals(0.0, timer.seconds(), 0.0);
+        assertEquals(0.0, timer.itemsPerSecond(), 0.0);
+    }
+
+    @Test
+    public void csv_and_json_list_timers_in_order_of_creation() throws Exception {
+        PhaseTimers timers = new PhaseTimers();
+        timers.setAllocationTracking(false);
+        timers.timer("ghost cells", "faces");
+        timers.timer("stage update", "cells");
+
+        String[] csvLines = timers.csv().split("\n");
+        assertEquals(3, csvLines.length);
+        assertEquals("phase,unit,calls,seconds,items_per_second,caller_thread_allocated_bytes", csvLines[0]);
+        assertEquals("ghost cells,faces,0,0.000000,0.0,-1", csvLines[1]);
+        assertTrue(csvLines[2].startsWith("stage update,cells,"));
+
+        String json = timers.json();
+        assertTrue(json.startsWith("{\"phases\": ["));
+        assertTrue(json.contains("{\"name\": \"ghost cells\", \"unit\": \"faces\", \"calls\": 0, "
+                + "\"seconds\": 0.000000, \"itemsPerSecond\": 0.0, \"callerThreadAllocatedBytes\": -1}"));
+        assertTrue(json.indexOf("stage update") > json.indexOf("ghost cells"));
+
+        File file = File.createTempFile("timers", ".csv");
+        file.deleteOnExit();
+        timers.writeCsv(file);
+        assertEquals(List.of(csvLines), Files.readAllLines(file.toPath()));
+        assertFalse(json.contains("schedule"));
+        assertEquals("", timers.scheduleReport());
+        assertEquals("", timers.scheduleCsv());
+    }
+
+    @Test
+    public void schedule_of_adaptive_context_is_reported_with_timers() {
+        ExecutionContext context = ExecutionContext.adaptive(ExecutionContext.SEQUENTIAL);
+        PhaseTimers timers = new PhaseTimers(context::scheduler);
+        timers.timer("stage update", "cells");
+        context.forEach("stage update", 0, 10, i -> {
+        });
+
+        assertTrue(timers.scheduleReport().contains("stage update"));
+        assertTrue(timers.scheduleCsv().split("\n")[1].startsWith("stage update,1,"));
+        String json = timers.json();
+        assertTrue(json.contains("\"schedule\": [\n  {\"name\": \"stage update\", \"calls\": 1, "
+                + "\"meanSize\": 0.0, \"sequentialNsPerIndex\": null, \"chunkedNsPerIndex\": null, "
+                + "\"parallelNsPerIndex\": null, \"mode\": null}"));
+        assertTrue(json.endsWith("]}\n"));
+    }
+}
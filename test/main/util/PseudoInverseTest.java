@@ -0,0 +1,103 @@
+package main.util;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PseudoInverseTest {
+
+    @Test
+    public void full_rank_matrices_are_same_as_svd() {
+        Random random = new Random(5);
+        for (int numCols = 1; numCols <= PseudoInverse.MAX_COLUMNS; numCols++) {
+            int numRows = numCols + 3;
+            double[][] A = new double[numRows][numCols];
+            for (int i = 0; i < numRows; i++) {
+                for (int c = 0; c < numCols; c++) {
+                    A[i][c] = random.nextDouble() - 0.5;
+                }
+            }
+
+            assertPseudoInverseEquals(svdPseudoInverse(A), pseudoInverse(A), 1e-12);
+        }
+    }
+
+    @Test
+    public void rank_deficient_matrix_is_same_as_svd() {
+        // 2D stencil with very different scales of the columns
+        double[][] A = {
+                {0.2, 1e-3, 2e-3, 0},
+                {0.3, -2e-3, 1e-3, 0},
+                {0.1, 1e-3, -1e-3, 0},
+                {0.4, -3e-3, -2e-3, 0},
+                {0.25, 2e-3, 0.5e-3, 0}
+        };
+
+        assertPseudoInverseEquals(svdPseudoInverse(A), pseudoInverse(A), 1e-9);
+    }
+
+    @Test
+    public void linearly_dependent_columns_are_same_as_svd() {
+        double[][] A = {
+                {1, 2, 0},
+                {2, 4, 1},
+                {-1, -2, 3},
+                {0.5, 1, 1}
+        };
+
+        assertPseudoInverseEquals(svdPseudoInverse(A), pseudoInverse(A), 1e-12);
+    }
+
+    @Test
+    public void invalid_number_of_columns_throws_exception() {
+        TestHelper.assertThrows(IllegalArgumentException.class,
+                () -> PseudoInverse.transposeInto(new double[10], 2, 5, new double[10], 0));
+        TestHelper.assertThrows(IllegalArgumentException.class,
+                () -> PseudoInverse.transposeInto(new double[5], 2, 3, new double[6], 0));
+    }
+
+    private static double[][] pseudoInverse(double[][] A) {
+        int numRows = A.length, numCols = A[0].length;
+        double[] flat = new double[numRows * numCols];
+        for (int i = 0; i < numRows; i++) {
+            System.arraycopy(A[i], 0, flat, i * numCols, numCols);
+        }
+        int offset = 3;
+        double[] result = new double[offset + numRows * numCols];
+        PseudoInverse.transposeInto(flat, numRows, numCols, result, offset);
+
+        double[][] inverse = new double[numCols][numRows];
+        for (int i = 0; i < numRows; i++) {
+            for (int c = 0; c < numCols; c++) {
+                inverse[c][i] = result[offset + i * numCols + c];
+            }
+        }
+        return inverse;
+    }
+
+    private static double[][] svdPseudoInverse(double[][] A) {
+        RealMatrix matrix = new Array2DRowRealMatrix(A);
+        return new SingularValueDecomposition(matrix).getSolver().getInverse().getData();
+    }
+
+    private static void assertPseudoInverseEquals(double[][] expected, double[][] actual, double relativeTolerance) {
+        double scale = 0.0;
+        for (double[] row : expected) {
+            for (double e : row) {
+                scale = Math.max(scale, Math.abs(e));
+            }
+        }
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].length, actual[i].length);
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j], actual[i][j], relativeTolerance * scale);
+            }
+        }
+    }
+}
@@ -124,7 +124,6 @@ public class TestHelper {
         // has same lengths of arrays
         int numVars = expected.U.length;
         if (numVars != actual.U.length) return false;
-        if (numVars != actual.residual.length) return false;
         return numVars == actual.reconstructCoeffs.length;
     }
 
@@ -171,9 +170,7 @@ public class TestHelper {
         }
 
         // Has same length of arrays
-        int numVars = expected.U.length;
-        if (numVars != actual.U.length) return false;
-        return numVars == actual.flux.length;
+        return expected.U.length == actual.U.length;
     }
 
     private static int compareSurfaces(Surface expected, Surface actual, double tolerance) {
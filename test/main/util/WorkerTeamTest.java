@@ -0,0 +1,98 @@
+package main.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+public class WorkerTeamTest {
+
+    @Test
+    public void all_indices_are_visited_once() {
+        WorkerTeam team = new WorkerTeam(4);
+        try {
+            for (int size : new int[]{1, 3, 4, 5, 1000}) {
+                AtomicIntegerArray visits = new AtomicIntegerArray(size + 5);
+                team.forEach(5, size + 5, visits::incrementAndGet);
+                for (int i = 0; i < size + 5; i++) {
+                    assertEquals(i < 5 ? 0 : 1, visits.get(i));
+                }
+            }
+        } finally {
+            team.shutdown();
+        }
+    }
+
+    @Test
+    public void each_thread_runs_same_contiguous_range_in_every_loop() {
+        WorkerTeam team = new WorkerTeam(3);
+        try {
+            Thread[] first = new Thread[300];
+            team.forEach(0, 300, i -> first[i] = Thread.currentThread());
+            for (int loop = 0; loop < 10; loop++) {
+                Thread[] owners = new Thread[300];
+                team.forEach(0, 300, i -> owners[i] = Thread.currentThread());
+                assertArrayEquals(first, owners);
+            }
+
+            assertSame(Thread.currentThread(), first[0]);
+            for (int i = 0; i < 300; i++) {
+                assertSame(first[100 * (i / 100)], first[i]);
+            }
+            assertNotSame(first[0], first[100]);
+            assertNotSame(first[100], first[200]);
+        } finally {
+            team.shutdown();
+        }
+    }
+
+    @Test
+    public void nested_loop_is_run_by_the_member() {
+        WorkerTeam team = new WorkerTeam(2);
+        try {
+            AtomicIntegerArray visits = new AtomicIntegerArray(100);
+            team.forEach(0, 10, i -> {
+                Thread member = Thread.currentThread();
+                team.forEach(10 * i, 10 * i + 10, j -> {
+                    assertSame(member, Thread.currentThread());
+                    visits.incrementAndGet(j);
+                });
+            });
+            for (int i = 0; i < 100; i++) {
+                assertEquals(1, visits.get(i));
+            }
+        } finally {
+            team.shutdown();
+        }
+    }
+
+    @Test
+    public void exception_of_a_worker_is_thrown_by_the_loop() {
+        WorkerTeam team = new WorkerTeam(2);
+        try {
+            TestHelper.assertThrows(ArithmeticException.class, () -> team.forEach(0, 10, i -> {
+                if (i == 9) throw new ArithmeticException();
+            }));
+
+            // The team can be used after an exception
+            AtomicIntegerArray visits = new AtomicIntegerArray(10);
+            team.forEach(0, 10, visits::incrementAndGet);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(1, visits.get(i));
+            }
+        } finally {
+            team.shutdown();
+        }
+    }
+
+    @Test
+    public void loop_after_shutdown_throws_exception() {
+        WorkerTeam team = new WorkerTeam(2);
+        team.shutdown();
+
+        TestHelper.assertThrows(IllegalStateException.class, () -> team.forEach(0, 10, i -> {
+        }));
+        TestHelper.assertThrows(IllegalArgumentException.class, () -> new WorkerTeam(0));
+    }
+}